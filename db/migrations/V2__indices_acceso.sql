@@ -0,0 +1,93 @@
+-- V2: índices para las rutas de acceso de los repositorios.
+-- Todos los listados filtran por tienda o cuenta y ordenan por fecha, por lo que sin estos
+-- índices terminan en Seq Scan + Sort. script.sql ya los crea en bases nuevas; este archivo
+-- es para las bases existentes, creadas con las claves primarias y UNIQUE únicamente.
+--
+-- CREATE INDEX CONCURRENTLY no puede ejecutarse dentro de una transacción:
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/V2__indices_acceso.sql
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Ventas
+-- VentaRepository.findByTiendaIdOrderByFechaVentaDesc / findByTiendaIdAndEstadoOrderByFechaVentaDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ventas_tienda_fecha
+    ON ventas (tienda_id, fecha_venta DESC);
+-- findByCuentaClienteId*, findByClienteAndFechaRange, findByCuentaClienteUsuarioId*OrderByFechaVentaDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ventas_cuenta_fecha
+    ON ventas (cuenta_cliente_id, fecha_venta DESC);
+-- findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc (ventas con saldo pendiente)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ventas_cuenta_fecha_pendientes
+    ON ventas (cuenta_cliente_id, fecha_venta DESC)
+    WHERE estado IN ('PENDIENTE', 'PARCIAL');
+-- findByClienteOcasionalContainingIgnoreCase (upper(...) LIKE '%...%')
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ventas_cliente_ocasional_trgm
+    ON ventas USING gin (upper(cliente_ocasional) gin_trgm_ops)
+    WHERE cliente_ocasional IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_detalle_ventas_venta
+    ON detalle_ventas (venta_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_detalle_ventas_producto
+    ON detalle_ventas (producto_id);
+
+-- Abonos
+-- AbonoRepository.findByTiendaId / findByTiendaIdOrderByFechaAbonoDesc / findByTiendaIdAndEstado
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_abonos_tienda_fecha
+    ON abonos (tienda_id, fecha_abono DESC);
+-- findByCuentaClienteId*, findByCuentaClienteUsuarioId*OrderByFechaAbonoDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_abonos_cuenta_fecha
+    ON abonos (cuenta_cliente_id, fecha_abono DESC);
+-- Abonos pendientes de aplicar por tienda
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_abonos_tienda_fecha_pendientes
+    ON abonos (tienda_id, fecha_abono DESC)
+    WHERE estado = 'PENDIENTE';
+
+-- Movimientos
+-- MovimientoTiendaRepository.findByTiendaIdAndFechaEventoBetween / findByTiendaIdOrderByFechaEventoDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movimientos_tienda_fecha
+    ON movimientos_tienda (tienda_id, fecha_evento DESC);
+-- findByTiendaIdAndTipoEvento
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movimientos_tienda_tipo_fecha
+    ON movimientos_tienda (tienda_id, tipo_evento, fecha_evento DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movimientos_operador
+    ON movimientos_tienda (usuario_operador_id, fecha_evento DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movimientos_cliente
+    ON movimientos_tienda (cliente_usuario_id, fecha_evento DESC)
+    WHERE cliente_usuario_id IS NOT NULL;
+
+-- Catálogo
+-- ProductoRepository.findByTiendaIdOrderByNombreAsc, findByIdAndTiendaId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_productos_tienda_nombre
+    ON productos (tienda_id, nombre);
+-- findByTiendaIdAndActivoTrueOrderByNombreAsc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_productos_tienda_nombre_activos
+    ON productos (tienda_id, nombre)
+    WHERE activo = true;
+-- find*NombreContainingIgnoreCase* (upper(nombre) LIKE '%...%')
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_productos_nombre_trgm
+    ON productos USING gin (upper(nombre) gin_trgm_ops);
+-- findByCategoriaIdOrderByNombreAsc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_productos_categoria_nombre
+    ON productos (categoria_id, nombre);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categorias_nombre_trgm
+    ON categorias USING gin (upper(nombre) gin_trgm_ops);
+
+-- Cuentas, empleados y tiendas
+-- UNIQUE(usuario_id, tienda_id) ya cubre las búsquedas por usuario; faltan las búsquedas por tienda
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cuentas_cliente_tienda
+    ON cuentas_cliente (tienda_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_empleados_tienda_tienda
+    ON empleados_tienda (tienda_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_usuarios_roles_rol
+    ON usuarios_roles (rol_id);
+-- TiendaRepository.findByMunicipioIdAndActivoTrueOrderByNombre
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tiendas_municipio_nombre_activas
+    ON tiendas (municipio_id, nombre)
+    WHERE activo = true;
+
+-- Notificaciones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notificaciones_usuario_fecha
+    ON notificaciones (usuario_id, fecha_envio DESC);
+
+ANALYZE ventas, detalle_ventas, abonos, movimientos_tienda, productos, categorias,
+    cuentas_cliente, empleados_tienda, usuarios_roles, tiendas, notificaciones;
@@ -0,0 +1,24 @@
+-- V3: bandeja de salida de correos (EmailOutboxService / EmailOutboxDispatcher).
+-- Los correos se insertan en la transacción de negocio y se envían después por lotes.
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/V3__email_outbox.sql
+
+CREATE SEQUENCE IF NOT EXISTS email_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('email_outbox_seq'),
+    destinatario VARCHAR(255) NOT NULL,
+    asunto VARCHAR(255) NOT NULL,
+    plantilla VARCHAR(100) NOT NULL,
+    variables JSONB NOT NULL,
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    intentos INTEGER NOT NULL DEFAULT 0,
+    proximo_intento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ultimo_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    enviado_at TIMESTAMP
+);
+
+-- EmailOutboxRepository.reclamarPendientes: solo los pendientes, en orden de próximo intento
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pendientes
+    ON email_outbox (proximo_intento, id)
+    WHERE estado = 'PENDIENTE';
@@ -0,0 +1,10 @@
+-- V4: idempotencia de los movimientos automáticos (ColaMovimientos / MovimientoTiendaEscritor).
+-- El escritor inserta con ON CONFLICT DO NOTHING: reintentar un lote o reproducir el
+-- respaldo en disco no duplica movimientos ni los acumula dos veces en el resumen diario.
+--
+-- CREATE INDEX CONCURRENTLY no puede ejecutarse dentro de una transacción:
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/V4__movimientos_idempotentes.sql
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_movimientos_referencia
+    ON movimientos_tienda (referencia_tabla, referencia_id, tipo_evento)
+    WHERE referencia_id IS NOT NULL;
@@ -1,3 +1,6 @@
+-- Búsquedas por subcadena (LIKE '%...%') con índices trigrama
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 CREATE TYPE estado_abono AS ENUM ('APLICADO', 'PENDIENTE', 'RECHAZADO');
 CREATE TYPE estado_venta AS ENUM ('PENDIENTE', 'PAGADA', 'PARCIAL', 'CANCELADA');
 CREATE TYPE metodo_pago AS ENUM ('EFECTIVO', 'TRANSFERENCIA', 'TARJETA', 'OTRO');
@@ -6,6 +9,13 @@ CREATE TYPE tipo_referencia AS ENUM ('VENTA', 'ABONO', 'AJUSTE');
 CREATE TYPE tipo_venta AS ENUM ('CREDITO', 'CONTADO');
 CREATE TYPE tipo_evento AS ENUM ('VENTA_REGISTRADA', 'ABONO_REGISTRADO', 'CLIENTE_CREADO', 'CUENTA_CREADA');
 
+-- Secuencias con incremento 50 (optimizador pooled de Hibernate) para las tablas de inserción masiva
+CREATE SEQUENCE productos_seq INCREMENT BY 50;
+CREATE SEQUENCE detalle_ventas_seq INCREMENT BY 50;
+CREATE SEQUENCE abonos_seq INCREMENT BY 50;
+CREATE SEQUENCE movimientos_tienda_seq INCREMENT BY 50;
+CREATE SEQUENCE email_outbox_seq INCREMENT BY 50;
+
 -- Ubicaciones
 CREATE TABLE departamentos (
                                id SERIAL PRIMARY KEY,
@@ -83,7 +93,7 @@ CREATE TABLE categorias (
 );
 
 CREATE TABLE productos (
-                           id BIGSERIAL PRIMARY KEY,
+                           id BIGINT PRIMARY KEY DEFAULT nextval('productos_seq'),
                            tienda_id BIGINT NOT NULL,
                            nombre VARCHAR(255) NOT NULL,
                            descripcion TEXT,
@@ -143,7 +153,7 @@ CREATE TABLE ventas (
 );
 
 CREATE TABLE detalle_ventas (
-                                id BIGSERIAL PRIMARY KEY,
+                                id BIGINT PRIMARY KEY DEFAULT nextval('detalle_ventas_seq'),
                                 venta_id BIGINT NOT NULL,
                                 producto_id BIGINT NOT NULL,
                                 cantidad INTEGER NOT NULL,
@@ -155,7 +165,7 @@ CREATE TABLE detalle_ventas (
 );
 
 CREATE TABLE abonos (
-                        id BIGSERIAL PRIMARY KEY,
+                        id BIGINT PRIMARY KEY DEFAULT nextval('abonos_seq'),
                         tienda_id BIGINT NOT NULL,
                         cuenta_cliente_id BIGINT NOT NULL,
                         monto DECIMAL(10,2) NOT NULL,
@@ -170,7 +180,7 @@ CREATE TABLE abonos (
 
 -- Movimientos
 CREATE TABLE movimientos_tienda (
-                                    id BIGSERIAL PRIMARY KEY,
+                                    id BIGINT PRIMARY KEY DEFAULT nextval('movimientos_tienda_seq'),
                                     tienda_id BIGINT NOT NULL,
                                     usuario_operador_id BIGINT NOT NULL,
                                     cliente_usuario_id BIGINT,
@@ -187,6 +197,10 @@ CREATE TABLE movimientos_tienda (
                                     FOREIGN KEY (cliente_usuario_id) REFERENCES usuarios(id) ON DELETE SET NULL
 );
 
+-- Un movimiento automático por referencia y tipo de evento (escritura idempotente por lotes)
+CREATE UNIQUE INDEX uq_movimientos_referencia ON movimientos_tienda(referencia_tabla, referencia_id, tipo_evento)
+    WHERE referencia_id IS NOT NULL;
+
 -- Notificaciones
 CREATE TABLE notificaciones (
                                 id BIGSERIAL PRIMARY KEY,
@@ -201,3 +215,135 @@ CREATE TABLE notificaciones (
                                 FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
                                 FOREIGN KEY (tienda_id) REFERENCES tiendas(id) ON DELETE CASCADE
 );
+
+-- Resumen diario por tienda (se acumula al registrar cada movimiento)
+CREATE TABLE resumen_diario_tienda (
+                                       tienda_id BIGINT NOT NULL,
+                                       fecha DATE NOT NULL,
+                                       total_ventas DECIMAL(12,2) NOT NULL DEFAULT 0,
+                                       total_ventas_credito DECIMAL(12,2) NOT NULL DEFAULT 0,
+                                       total_abonos DECIMAL(12,2) NOT NULL DEFAULT 0,
+                                       cantidad_ventas BIGINT NOT NULL DEFAULT 0,
+                                       cantidad_abonos BIGINT NOT NULL DEFAULT 0,
+                                       clientes_distintos BIGINT NOT NULL DEFAULT 0,
+                                       updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+                                       PRIMARY KEY (tienda_id, fecha),
+                                       FOREIGN KEY (tienda_id) REFERENCES tiendas(id) ON DELETE CASCADE
+);
+
+CREATE TABLE resumen_diario_cliente (
+                                        tienda_id BIGINT NOT NULL,
+                                        fecha DATE NOT NULL,
+                                        cliente_usuario_id BIGINT NOT NULL,
+
+                                        PRIMARY KEY (tienda_id, fecha, cliente_usuario_id),
+                                        FOREIGN KEY (tienda_id) REFERENCES tiendas(id) ON DELETE CASCADE
+);
+
+CREATE TABLE email_outbox (
+                              id BIGINT PRIMARY KEY DEFAULT nextval('email_outbox_seq'),
+                              destinatario VARCHAR(255) NOT NULL,
+                              asunto VARCHAR(255) NOT NULL,
+                              plantilla VARCHAR(100) NOT NULL,
+                              variables JSONB NOT NULL,
+                              estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+                              intentos INTEGER NOT NULL DEFAULT 0,
+                              proximo_intento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              ultimo_error TEXT,
+                              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              enviado_at TIMESTAMP
+);
+
+-- Solo los pendientes interesan al despachador
+CREATE INDEX idx_email_outbox_pendientes ON email_outbox(proximo_intento, id) WHERE estado = 'PENDIENTE';
+
+-- Índices de acceso (mismos que db/migrations/V2__indices_acceso.sql)
+-- Ventas
+-- VentaRepository.findByTiendaIdOrderByFechaVentaDesc / findByTiendaIdAndEstadoOrderByFechaVentaDesc
+CREATE INDEX idx_ventas_tienda_fecha
+    ON ventas (tienda_id, fecha_venta DESC);
+-- findByCuentaClienteId*, findByClienteAndFechaRange, findByCuentaClienteUsuarioId*OrderByFechaVentaDesc
+CREATE INDEX idx_ventas_cuenta_fecha
+    ON ventas (cuenta_cliente_id, fecha_venta DESC);
+-- findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc (ventas con saldo pendiente)
+CREATE INDEX idx_ventas_cuenta_fecha_pendientes
+    ON ventas (cuenta_cliente_id, fecha_venta DESC)
+    WHERE estado IN ('PENDIENTE', 'PARCIAL');
+-- findByClienteOcasionalContainingIgnoreCase (upper(...) LIKE '%...%')
+CREATE INDEX idx_ventas_cliente_ocasional_trgm
+    ON ventas USING gin (upper(cliente_ocasional) gin_trgm_ops)
+    WHERE cliente_ocasional IS NOT NULL;
+
+CREATE INDEX idx_detalle_ventas_venta
+    ON detalle_ventas (venta_id);
+CREATE INDEX idx_detalle_ventas_producto
+    ON detalle_ventas (producto_id);
+
+-- Abonos
+-- AbonoRepository.findByTiendaId / findByTiendaIdOrderByFechaAbonoDesc / findByTiendaIdAndEstado
+CREATE INDEX idx_abonos_tienda_fecha
+    ON abonos (tienda_id, fecha_abono DESC);
+-- findByCuentaClienteId*, findByCuentaClienteUsuarioId*OrderByFechaAbonoDesc
+CREATE INDEX idx_abonos_cuenta_fecha
+    ON abonos (cuenta_cliente_id, fecha_abono DESC);
+-- Abonos pendientes de aplicar por tienda
+CREATE INDEX idx_abonos_tienda_fecha_pendientes
+    ON abonos (tienda_id, fecha_abono DESC)
+    WHERE estado = 'PENDIENTE';
+
+-- Movimientos
+-- MovimientoTiendaRepository.findByTiendaIdAndFechaEventoBetween / findByTiendaIdOrderByFechaEventoDesc
+CREATE INDEX idx_movimientos_tienda_fecha
+    ON movimientos_tienda (tienda_id, fecha_evento DESC);
+-- findByTiendaIdAndTipoEvento
+CREATE INDEX idx_movimientos_tienda_tipo_fecha
+    ON movimientos_tienda (tienda_id, tipo_evento, fecha_evento DESC);
+CREATE INDEX idx_movimientos_operador
+    ON movimientos_tienda (usuario_operador_id, fecha_evento DESC);
+CREATE INDEX idx_movimientos_cliente
+    ON movimientos_tienda (cliente_usuario_id, fecha_evento DESC)
+    WHERE cliente_usuario_id IS NOT NULL;
+
+-- Catálogo
+-- ProductoRepository.findByTiendaIdOrderByNombreAsc, findByIdAndTiendaId
+CREATE INDEX idx_productos_tienda_nombre
+    ON productos (tienda_id, nombre);
+-- findByTiendaIdAndActivoTrueOrderByNombreAsc
+CREATE INDEX idx_productos_tienda_nombre_activos
+    ON productos (tienda_id, nombre)
+    WHERE activo = true;
+-- find*NombreContainingIgnoreCase* (upper(nombre) LIKE '%...%')
+CREATE INDEX idx_productos_nombre_trgm
+    ON productos USING gin (upper(nombre) gin_trgm_ops);
+-- findByCategoriaIdOrderByNombreAsc
+CREATE INDEX idx_productos_categoria_nombre
+    ON productos (categoria_id, nombre);
+
+CREATE INDEX idx_categorias_nombre_trgm
+    ON categorias USING gin (upper(nombre) gin_trgm_ops);
+
+-- Cuentas, empleados y tiendas
+-- UNIQUE(usuario_id, tienda_id) ya cubre las búsquedas por usuario; faltan las búsquedas por tienda
+CREATE INDEX idx_cuentas_cliente_tienda
+    ON cuentas_cliente (tienda_id);
+CREATE INDEX idx_empleados_tienda_tienda
+    ON empleados_tienda (tienda_id);
+CREATE INDEX idx_usuarios_roles_rol
+    ON usuarios_roles (rol_id);
+-- TiendaRepository.findByMunicipioIdAndActivoTrueOrderByNombre
+CREATE INDEX idx_tiendas_municipio_nombre_activas
+    ON tiendas (municipio_id, nombre)
+    WHERE activo = true;
+
+-- Notificaciones
+CREATE INDEX idx_notificaciones_usuario_fecha
+    ON notificaciones (usuario_id, fecha_envio DESC);
+
+-- Bases existentes: crear los índices de acceso sin bloquear escrituras (CONCURRENTLY, fuera de transacción)
+--   psql -v ON_ERROR_STOP=1 -f db/migrations/V2__indices_acceso.sql
+
+-- Bases existentes: poblar el resumen con POST /api/admin/resumen-diario/reconstruir?desde=...&hasta=...
+
+-- Bases existentes: la aplicación alinea las secuencias *_seq con MAX(id) + 50 al arrancar
+-- (AlineacionSecuencias); solo las adelanta cuando van por detrás de los ids actuales
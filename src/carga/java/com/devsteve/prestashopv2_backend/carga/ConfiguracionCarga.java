@@ -0,0 +1,63 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema (-Dcarga.*).
+ *
+ * @param tasa          llegadas por segundo (modelo abierto: no depende de las respuestas)
+ * @param concurrencia  hilos que atienden las llegadas; si se saturan, las llegadas esperan
+ *                      en cola y esa espera cuenta en la latencia
+ * @param pensar        pausa entre los pasos de un flujo (cajero escaneando productos)
+ */
+record ConfiguracionCarga(int tiendas,
+                          int productosPorTienda,
+                          int cuentasPorTienda,
+                          double tasa,
+                          Duration calentamiento,
+                          Duration duracion,
+                          int concurrencia,
+                          Duration pensar,
+                          Map<Operacion, Integer> mezcla,
+                          Path resultados) {
+
+    static final String MEZCLA_POR_DEFECTO = "venta-contado:35,venta-credito:25,abono:10,estadisticas:10,catalogo:20";
+
+    static ConfiguracionCarga desdePropiedades() {
+        return new ConfiguracionCarga(
+                entero("carga.tiendas", 5),
+                entero("carga.productos-por-tienda", 300),
+                entero("carga.cuentas-por-tienda", 200),
+                Double.parseDouble(System.getProperty("carga.tasa", "50")),
+                Duration.ofSeconds(entero("carga.calentamiento-segundos", 15)),
+                Duration.ofSeconds(entero("carga.duracion-segundos", 60)),
+                entero("carga.concurrencia", 64),
+                Duration.ofMillis(entero("carga.pensar-ms", 800)),
+                mezcla(System.getProperty("carga.mezcla", MEZCLA_POR_DEFECTO)),
+                Path.of(System.getProperty("carga.resultados", "target/carga/resultados.json")));
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static int entero(String propiedad, int porDefecto) {
+        return Integer.parseInt(System.getProperty(propiedad, String.valueOf(porDefecto)));
+    }
+
+    static Map<Operacion, Integer> mezcla(String valor) {
+        Map<Operacion, Integer> mezcla = new EnumMap<>(Operacion.class);
+        for (String parte : valor.split(",")) {
+            String[] claveYPeso = parte.trim().split(":");
+            int peso = Integer.parseInt(claveYPeso[1].trim());
+            if (peso > 0) {
+                mezcla.put(Operacion.desdeClave(claveYPeso[0].trim()), peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("carga.mezcla no tiene ninguna operación con peso positivo");
+        }
+        return mezcla;
+    }
+}
@@ -0,0 +1,19 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datos sembrados para la prueba: por tienda, el empleado que opera la caja,
+ * los productos con su precio y las cuentas de crédito.
+ */
+record EscenarioCarga(List<TiendaCarga> tiendas) {
+
+    record TiendaCarga(Long tiendaId,
+                       String emailEmpleado,
+                       List<Long> productos,
+                       Map<Long, BigDecimal> precios,
+                       List<Long> cuentas) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias (en microsegundos, desde el instante programado de la llegada) y resultados
+ * de un endpoint. Errores: respuestas 4xx/5xx por código, fallos de conexión y timeouts
+ * (sin respuesta a tiempo, o sin atender al terminar la prueba).
+ */
+final class EstadisticasEndpoint {
+
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(10);
+
+    private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3);
+    private final LongAdder exitos = new LongAdder();
+    private final LongAdder fallosConexion = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final Map<Integer, LongAdder> erroresPorEstado = new ConcurrentHashMap<>();
+
+    void registrar(long latenciaNanos, int estado) {
+        latencias.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), LATENCIA_MAXIMA_US));
+        if (estado >= 200 && estado < 400) {
+            exitos.increment();
+        } else {
+            erroresPorEstado.computeIfAbsent(estado, e -> new LongAdder()).increment();
+        }
+    }
+
+    void registrarFalloConexion(long latenciaNanos) {
+        latencias.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), LATENCIA_MAXIMA_US));
+        fallosConexion.increment();
+    }
+
+    void registrarTimeout(long latenciaNanos) {
+        latencias.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), LATENCIA_MAXIMA_US));
+        timeouts.increment();
+    }
+
+    Map<String, Object> resumen(double segundos) {
+        long total = latencias.getTotalCount();
+        long errores = total - exitos.sum();
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("solicitudes", total);
+        resumen.put("rps", total / segundos);
+        resumen.put("tasaError", total == 0 ? 0.0 : (double) errores / total);
+        resumen.put("p50Ms", percentilMs(50));
+        resumen.put("p90Ms", percentilMs(90));
+        resumen.put("p99Ms", percentilMs(99));
+        resumen.put("p999Ms", percentilMs(99.9));
+        resumen.put("maxMs", latencias.getMaxValue() / 1000.0);
+
+        Map<String, Long> detalleErrores = new TreeMap<>();
+        erroresPorEstado.forEach((estado, cantidad) -> detalleErrores.put(String.valueOf(estado), cantidad.sum()));
+        if (fallosConexion.sum() > 0) {
+            detalleErrores.put("conexion", fallosConexion.sum());
+        }
+        if (timeouts.sum() > 0) {
+            detalleErrores.put("timeout", timeouts.sum());
+        }
+        resumen.put("errores", detalleErrores);
+        return resumen;
+    }
+
+    private double percentilMs(double percentil) {
+        return latencias.getValueAtPercentile(percentil) / 1000.0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flujos de caja y de dashboard contra la API real. Cada caja (tienda) opera con el token
+ * de su empleado y conserva el ETag de su catálogo, como el cliente POS.
+ */
+final class FlujosPos {
+
+    private final String baseUrl;
+    private final EscenarioCarga escenario;
+    private final Map<Long, String> tokens;
+    private final GeneradorCarga generador;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, String> etagsCatalogo = new ConcurrentHashMap<>();
+
+    FlujosPos(String baseUrl, EscenarioCarga escenario, Map<Long, String> tokens,
+              GeneradorCarga generador, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.escenario = escenario;
+        this.tokens = tokens;
+        this.generador = generador;
+        this.objectMapper = objectMapper;
+    }
+
+    void ejecutar(Operacion operacion, long programado) {
+        EscenarioCarga.TiendaCarga tienda = escenario.tiendas()
+                .get(ThreadLocalRandom.current().nextInt(escenario.tiendas().size()));
+
+        switch (operacion) {
+            case VENTA_CONTADO -> ventaContado(tienda, programado);
+            case VENTA_CREDITO -> ventaCredito(tienda, programado);
+            case ABONO -> abono(tienda, programado);
+            case ESTADISTICAS -> estadisticas(tienda, programado);
+            case CATALOGO -> catalogo(tienda, programado);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void ventaContado(EscenarioCarga.TiendaCarga tienda, long programado) {
+        HttpRequest.Builder catalogo = get(tienda, "/api/productos/tienda/" + tienda.tiendaId() + "/activos");
+        String etag = etagsCatalogo.get(tienda.tiendaId());
+        if (etag != null) {
+            catalogo.header("If-None-Match", etag);
+        }
+        HttpResponse<String> respuesta = generador.enviar(
+                "GET /api/productos/tienda/{id}/activos (caja)", programado, catalogo.build());
+        if (respuesta != null) {
+            respuesta.headers().firstValue("ETag").ifPresent(nuevo -> etagsCatalogo.put(tienda.tiendaId(), nuevo));
+        }
+
+        List<Map<String, Object>> lineas = lineas(tienda);
+        String venta = "POST /api/ventas (CONTADO)";
+        generador.despuesDePensar(venta, siguiente -> generador.enviar(venta, siguiente,
+                post(tienda, "/api/ventas", Map.of(
+                        "tipoVenta", "CONTADO",
+                        "clienteOcasional", "Cliente de paso",
+                        "detalleVentas", lineas))));
+    }
+
+    private void ventaCredito(EscenarioCarga.TiendaCarga tienda, long programado) {
+        Long cuentaId = tienda.cuentas().get(ThreadLocalRandom.current().nextInt(tienda.cuentas().size()));
+        List<Map<String, Object>> lineas = lineas(tienda);
+        BigDecimal monto = total(tienda, lineas);
+
+        HttpResponse<String> reserva = generador.enviar("POST /api/cuentas-cliente/{id}/reservas", programado,
+                post(tienda, "/api/cuentas-cliente/" + cuentaId + "/reservas?monto=" + monto.toPlainString(), null));
+        String reservaId = reservaId(reserva);
+        if (reservaId == null) {
+            return;
+        }
+
+        String venta = "POST /api/ventas (CREDITO)";
+        generador.despuesDePensar(venta, siguiente -> generador.enviar(venta, siguiente,
+                post(tienda, "/api/ventas", Map.of(
+                        "tipoVenta", "CREDITO",
+                        "cuentaClienteId", cuentaId,
+                        "reservaCreditoId", reservaId,
+                        "detalleVentas", lineas))));
+    }
+
+    private void abono(EscenarioCarga.TiendaCarga tienda, long programado) {
+        Long cuentaId = tienda.cuentas().get(ThreadLocalRandom.current().nextInt(tienda.cuentas().size()));
+        int monto = ThreadLocalRandom.current().nextInt(1, 6);
+
+        generador.enviar("POST /api/abonos", programado, post(tienda, "/api/abonos", Map.of(
+                "cuentaClienteId", cuentaId,
+                "monto", monto,
+                "metodoPago", "EFECTIVO",
+                "estado", "APLICADO")));
+    }
+
+    private void estadisticas(EscenarioCarga.TiendaCarga tienda, long programado) {
+        String base = "/api/movimientos/tienda/" + tienda.tiendaId() + "/estadisticas/";
+        generador.enviar("GET /api/movimientos/tienda/{id}/estadisticas/dia", programado, get(tienda, base + "dia").build());
+        generador.enviar("GET /api/movimientos/tienda/{id}/estadisticas/mes", programado, get(tienda, base + "mes").build());
+    }
+
+    private void catalogo(EscenarioCarga.TiendaCarga tienda, long programado) {
+        generador.enviar("GET /api/productos/tienda/{id}/activos", programado,
+                get(tienda, "/api/productos/tienda/" + tienda.tiendaId() + "/activos").build());
+        generador.enviar("GET /api/categorias/tienda/{id}", programado,
+                get(tienda, "/api/categorias/tienda/" + tienda.tiendaId()).build());
+    }
+
+    // Ventas de 1 a 12 líneas, la mayoría de una unidad
+    private List<Map<String, Object>> lineas(EscenarioCarga.TiendaCarga tienda) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int cantidadLineas = 1 + aleatorio.nextInt(12);
+        List<Map<String, Object>> lineas = new ArrayList<>(cantidadLineas);
+        for (int i = 0; i < cantidadLineas; i++) {
+            Long productoId = tienda.productos().get(aleatorio.nextInt(tienda.productos().size()));
+            lineas.add(Map.of("productoId", productoId, "cantidad", aleatorio.nextInt(10) < 7 ? 1 : 2 + aleatorio.nextInt(4)));
+        }
+        return lineas;
+    }
+
+    private static BigDecimal total(EscenarioCarga.TiendaCarga tienda, List<Map<String, Object>> lineas) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map<String, Object> linea : lineas) {
+            BigDecimal precio = tienda.precios().get((Long) linea.get("productoId"));
+            total = total.add(precio.multiply(BigDecimal.valueOf((Integer) linea.get("cantidad"))));
+        }
+        return total;
+    }
+
+    private String reservaId(HttpResponse<String> respuesta) {
+        if (respuesta == null || respuesta.statusCode() != 201) {
+            return null;
+        }
+        try {
+            JsonNode cuerpo = objectMapper.readTree(respuesta.body());
+            return cuerpo.path("reservaId").asText(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder get(EscenarioCarga.TiendaCarga tienda, String ruta) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + ruta))
+                .header("Authorization", "Bearer " + tokens.get(tienda.tiendaId()))
+                .GET();
+    }
+
+    private HttpRequest post(EscenarioCarga.TiendaCarga tienda, String ruta, Object cuerpo) {
+        try {
+            HttpRequest.BodyPublisher publicador = cuerpo == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(cuerpo));
+            return HttpRequest.newBuilder(URI.create(baseUrl + ruta))
+                    .header("Authorization", "Bearer " + tokens.get(tienda.tiendaId()))
+                    .header("Content-Type", "application/json")
+                    .POST(publicador)
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo serializar la solicitud de carga", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Motor de carga de modelo abierto: las llegadas siguen un proceso de Poisson a carga.tasa
+ * por segundo, se programen o no a tiempo las anteriores. La latencia de cada solicitud se mide
+ * desde su instante programado, no desde que un hilo la toma: si el sistema (o el propio
+ * generador) se atrasa, la espera aparece en los percentiles en lugar de esconderse
+ * (omisión coordinada). Solo se registran las solicitudes programadas dentro de la ventana
+ * de medición; el calentamiento se descarta. Los pasos que no terminan durante el drenado, o
+ * que los ejecutores rechazan, cuentan como timeout con su latencia desde el instante programado.
+ */
+final class GeneradorCarga {
+
+    private static final Duration ESPERA_DRENADO = Duration.ofSeconds(60);
+    // Menor que el drenado: una solicitud colgada termina como timeout antes de cerrar la prueba
+    private static final Duration TIEMPO_ESPERA = Duration.ofSeconds(30);
+
+    private final ConfiguracionCarga configuracion;
+    private final HttpClient http;
+    private final ExecutorService trabajadores;
+    private final ScheduledExecutorService pausas;
+    private final Map<String, EstadisticasEndpoint> estadisticas = new ConcurrentHashMap<>();
+    // Pasos programados que aún no terminan (en pausa, en cola o ejecutándose), por id
+    private final Map<Long, PasoPendiente> pendientes = new ConcurrentHashMap<>();
+    private final AtomicLong secuenciaPasos = new AtomicLong();
+
+    private volatile long inicioMedicion = Long.MAX_VALUE;
+    private volatile long finMedicion = Long.MAX_VALUE;
+    private volatile boolean cerrado;
+
+    private record PasoPendiente(String endpoint, long programado) {
+    }
+
+    GeneradorCarga(ConfiguracionCarga configuracion) {
+        this.configuracion = configuracion;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.trabajadores = Executors.newFixedThreadPool(configuracion.concurrencia());
+        this.pausas = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Genera llegadas durante el calentamiento y la ventana de medición, espera a que terminen
+     * los flujos en curso y devuelve el resumen por endpoint.
+     */
+    Map<String, Object> ejecutar(BiConsumer<Operacion, Long> flujos, long semilla) throws InterruptedException {
+        Random aleatorio = new Random(semilla);
+        Operacion[] operaciones = configuracion.mezcla().keySet().toArray(Operacion[]::new);
+        int[] pesosAcumulados = pesosAcumulados(operaciones);
+        double intervaloMedioNanos = TimeUnit.SECONDS.toNanos(1) / configuracion.tasa();
+
+        long inicio = System.nanoTime();
+        inicioMedicion = inicio + configuracion.calentamiento().toNanos();
+        finMedicion = inicioMedicion + configuracion.duracion().toNanos();
+
+        long siguiente = inicio;
+        while (siguiente < finMedicion) {
+            esperarHasta(siguiente);
+            long programado = siguiente;
+            Operacion operacion = operaciones[elegir(pesosAcumulados, aleatorio)];
+            long paso = registrarPaso(operacion.getClave() + " (sin atender)", programado);
+            ejecutarPaso(paso, () -> flujos.accept(operacion, programado));
+
+            // Intervalo exponencial: llegadas de Poisson
+            siguiente += (long) (-Math.log(1 - aleatorio.nextDouble()) * intervaloMedioNanos);
+        }
+
+        long limite = System.nanoTime() + ESPERA_DRENADO.toNanos();
+        while (!pendientes.isEmpty() && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        // Lo que siga pendiente no terminó a tiempo: timeout, y ya no se registra su respuesta
+        cerrado = true;
+        pendientes.keySet().forEach(this::descartarPaso);
+        pausas.shutdownNow();
+        trabajadores.shutdownNow();
+
+        return resumen();
+    }
+
+    /**
+     * Envía la solicitud y registra su latencia desde el instante programado.
+     * Devuelve null si la conexión falló o no hubo respuesta a tiempo.
+     */
+    HttpResponse<String> enviar(String endpoint, long programado, HttpRequest solicitud) {
+        HttpRequest conLimite = solicitud.timeout().isPresent()
+                ? solicitud
+                : HttpRequest.newBuilder(solicitud, (nombre, valor) -> true).timeout(TIEMPO_ESPERA).build();
+        try {
+            HttpResponse<String> respuesta = http.send(conLimite, HttpResponse.BodyHandlers.ofString());
+            if (medir(programado)) {
+                estadisticasDe(endpoint).registrar(System.nanoTime() - programado, respuesta.statusCode());
+            }
+            return respuesta;
+        } catch (HttpTimeoutException e) {
+            if (medir(programado)) {
+                estadisticasDe(endpoint).registrarTimeout(System.nanoTime() - programado);
+            }
+            return null;
+        } catch (IOException e) {
+            if (medir(programado)) {
+                estadisticasDe(endpoint).registrarFalloConexion(System.nanoTime() - programado);
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Programa el siguiente paso del flujo tras el tiempo de pensar; su instante programado
+     * es el fin de la pausa, de modo que la pausa no cuenta como latencia pero la cola sí.
+     */
+    void despuesDePensar(String endpoint, LongConsumer paso) {
+        long programado = System.nanoTime() + configuracion.pensar().toNanos();
+        long id = registrarPaso(endpoint, programado);
+        try {
+            pausas.schedule(() -> ejecutarPaso(id, () -> paso.accept(programado)),
+                    configuracion.pensar().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            descartarPaso(id);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private long registrarPaso(String endpoint, long programado) {
+        long id = secuenciaPasos.incrementAndGet();
+        pendientes.put(id, new PasoPendiente(endpoint, programado));
+        return id;
+    }
+
+    private void ejecutarPaso(long id, Runnable paso) {
+        try {
+            trabajadores.execute(() -> {
+                try {
+                    paso.run();
+                } finally {
+                    pendientes.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            descartarPaso(id);
+        }
+    }
+
+    // Paso que no llegó a enviar su solicitud: cuenta como timeout desde su instante programado
+    private void descartarPaso(long id) {
+        PasoPendiente paso = pendientes.remove(id);
+        if (paso != null && enVentana(paso.programado())) {
+            estadisticasDe(paso.endpoint()).registrarTimeout(System.nanoTime() - paso.programado());
+        }
+    }
+
+    private boolean medir(long programado) {
+        return !cerrado && enVentana(programado);
+    }
+
+    private boolean enVentana(long programado) {
+        return programado >= inicioMedicion && programado < finMedicion;
+    }
+
+    private EstadisticasEndpoint estadisticasDe(String endpoint) {
+        return estadisticas.computeIfAbsent(endpoint, e -> new EstadisticasEndpoint());
+    }
+
+    private Map<String, Object> resumen() {
+        double segundos = configuracion.duracion().toNanos() / 1e9;
+        Map<String, Object> porEndpoint = new TreeMap<>();
+        estadisticas.forEach((endpoint, datos) -> porEndpoint.put(endpoint, datos.resumen(segundos)));
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("tasaObjetivo", configuracion.tasa());
+        resumen.put("duracionSegundos", segundos);
+        resumen.put("concurrencia", configuracion.concurrencia());
+        resumen.put("pensarMs", configuracion.pensar().toMillis());
+        resumen.put("mezcla", configuracion.mezcla());
+        resumen.put("endpoints", porEndpoint);
+        return resumen;
+    }
+
+    private int[] pesosAcumulados(Operacion[] operaciones) {
+        int[] acumulados = new int[operaciones.length];
+        int total = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            total += configuracion.mezcla().get(operaciones[i]);
+            acumulados[i] = total;
+        }
+        return acumulados;
+    }
+
+    private static int elegir(int[] pesosAcumulados, Random aleatorio) {
+        int sorteo = aleatorio.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteo < pesosAcumulados[i]) {
+                return i;
+            }
+        }
+        return pesosAcumulados.length - 1;
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+}
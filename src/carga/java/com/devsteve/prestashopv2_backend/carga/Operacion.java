@@ -0,0 +1,37 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+/**
+ * Flujos que genera la prueba de carga; la clave es la que se usa en carga.mezcla.
+ */
+enum Operacion {
+
+    // GET catálogo condicional -> pensar -> POST venta al contado
+    VENTA_CONTADO("venta-contado"),
+    // POST reserva de crédito -> pensar -> POST venta a crédito con la reserva
+    VENTA_CREDITO("venta-credito"),
+    // POST abono aplicado a una cuenta con saldo
+    ABONO("abono"),
+    // GET estadísticas del día y del mes (dashboard del encargado)
+    ESTADISTICAS("estadisticas"),
+    // GET productos activos y categorías
+    CATALOGO("catalogo");
+
+    private final String clave;
+
+    Operacion(String clave) {
+        this.clave = clave;
+    }
+
+    String getClave() {
+        return clave;
+    }
+
+    static Operacion desdeClave(String clave) {
+        for (Operacion operacion : values()) {
+            if (operacion.clave.equals(clave)) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación de carga desconocida: " + clave);
+    }
+}
@@ -0,0 +1,145 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import com.devsteve.prestashopv2_backend.repositories.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de extremo a extremo de los flujos de caja: levanta la aplicación contra
+ * un Postgres local, siembra tiendas, productos y cuentas, y genera llegadas de Poisson
+ * (modelo abierto) con la mezcla de carga.mezcla. Reporta percentiles, rendimiento y tasa
+ * de error por endpoint en el log y en carga.resultados.
+ * <p>
+ * mvn -Pcarga test -Dcarga.tasa=100 -Dcarga.duracion-segundos=120
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Tag("carga")
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class PruebaCargaPosTest {
+
+    private static final long SEMILLA = 20240611L;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    @DynamicPropertySource
+    static void configurar(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("jwt.secret-key", () -> "Y2FyZ2EtcG9zLWNsYXZlLWRlLXBydWViYS1zb2xvLXBhcmEtcHJ1ZWJhcy1kZS1jYXJnYQ==");
+        registry.add("admin.email", () -> "admin@carga.test");
+        registry.add("admin.password", () -> SembradorCarga.CONTRASENA);
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> "2525");
+        registry.add("spring.mail.username", () -> "");
+        registry.add("spring.mail.password", () -> "");
+        registry.add("app.mail.from", () -> "no-reply@carga.test");
+        registry.add("app.name", () -> "PrestaShop carga");
+        registry.add("cloudinary.cloud-name", () -> "carga");
+        registry.add("cloudinary.api-key", () -> "carga");
+        registry.add("cloudinary.api-secret", () -> "carga");
+        // La carga mide el POS, no el envío de correos
+        registry.add("app.email-outbox.intervalo-ms", () -> "3600000");
+        registry.add("management.server.port", () -> "0");
+    }
+
+    @LocalServerPort private int puerto;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TiendaRepository tiendaRepository;
+    @Autowired private MunicipioRepository municipioRepository;
+    @Autowired private RolRepository rolRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private EmpleadoTiendaRepository empleadoTiendaRepository;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private CuentaClienteRepository cuentaClienteRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void flujosDeCajaBajoCargaAbierta() throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedades();
+        String baseUrl = "http://localhost:" + puerto;
+
+        EscenarioCarga escenario = new SembradorCarga(tiendaRepository, municipioRepository, rolRepository,
+                usuarioRepository, empleadoTiendaRepository, productoRepository, cuentaClienteRepository,
+                passwordEncoder, new TransactionTemplate(transactionManager)).sembrar(configuracion, SEMILLA);
+        Map<Long, String> tokens = iniciarSesiones(baseUrl, escenario);
+
+        GeneradorCarga generador = new GeneradorCarga(configuracion);
+        FlujosPos flujos = new FlujosPos(baseUrl, escenario, tokens, generador, objectMapper);
+        Map<String, Object> resumen = generador.ejecutar(flujos::ejecutar, SEMILLA);
+
+        reportar(resumen);
+        Files.createDirectories(configuracion.resultados().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(configuracion.resultados().toFile(), resumen);
+        log.info("Resultados de carga escritos en {}", configuracion.resultados().toAbsolutePath());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) resumen.get("endpoints");
+        assertThat(endpoints.values()).anySatisfy(endpoint ->
+                assertThat(((Number) endpoint.get("solicitudes")).longValue()).isPositive());
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private Map<Long, String> iniciarSesiones(String baseUrl, EscenarioCarga escenario) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        Map<Long, String> tokens = new HashMap<>();
+        for (EscenarioCarga.TiendaCarga tienda : escenario.tiendas()) {
+            String cuerpo = objectMapper.writeValueAsString(Map.of(
+                    "email", tienda.emailEmpleado(),
+                    "password", SembradorCarga.CONTRASENA));
+            HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(respuesta.statusCode()).as("login de %s", tienda.emailEmpleado()).isEqualTo(200);
+            tokens.put(tienda.tiendaId(), objectMapper.readTree(respuesta.body()).path("token").asText());
+        }
+        return tokens;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reportar(Map<String, Object> resumen) {
+        StringBuilder tabla = new StringBuilder(String.format("%n%-55s %8s %8s %7s %8s %8s %8s %8s%n",
+                "endpoint", "n", "rps", "error%", "p50ms", "p90ms", "p99ms", "p99.9ms"));
+        ((Map<String, Map<String, Object>>) resumen.get("endpoints")).forEach((endpoint, datos) ->
+                tabla.append(String.format("%-55s %8d %8.1f %7.2f %8.1f %8.1f %8.1f %8.1f%n",
+                        endpoint,
+                        ((Number) datos.get("solicitudes")).longValue(),
+                        ((Number) datos.get("rps")).doubleValue(),
+                        ((Number) datos.get("tasaError")).doubleValue() * 100,
+                        ((Number) datos.get("p50Ms")).doubleValue(),
+                        ((Number) datos.get("p90Ms")).doubleValue(),
+                        ((Number) datos.get("p99Ms")).doubleValue(),
+                        ((Number) datos.get("p999Ms")).doubleValue())));
+        log.info("Resultados de carga (tasa objetivo {}/s, concurrencia {}):{}",
+                resumen.get("tasaObjetivo"), resumen.get("concurrencia"), tabla);
+    }
+}
@@ -0,0 +1,122 @@
+package com.devsteve.prestashopv2_backend.carga;
+
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.repositories.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Siembra tiendas con un empleado, productos y cuentas de crédito, una transacción por tienda.
+ * Los límites de crédito son altos para que los rechazos no se confundan con errores del sistema.
+ */
+@RequiredArgsConstructor
+@Slf4j
+class SembradorCarga {
+
+    static final String CONTRASENA = "Carga#2024";
+
+    private final TiendaRepository tiendaRepository;
+    private final MunicipioRepository municipioRepository;
+    private final RolRepository rolRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final EmpleadoTiendaRepository empleadoTiendaRepository;
+    private final ProductoRepository productoRepository;
+    private final CuentaClienteRepository cuentaClienteRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate tx;
+
+    EscenarioCarga sembrar(ConfiguracionCarga configuracion, long semilla) {
+        Random aleatorio = new Random(semilla);
+        // BCrypt es caro: un solo hash para todos los usuarios sembrados
+        String hash = passwordEncoder.encode(CONTRASENA);
+
+        List<EscenarioCarga.TiendaCarga> tiendas = new ArrayList<>();
+        for (int i = 0; i < configuracion.tiendas(); i++) {
+            int numero = i;
+            tiendas.add(tx.execute(status -> sembrarTienda(numero, configuracion, hash, aleatorio)));
+        }
+
+        log.info("Escenario de carga sembrado: {} tiendas, {} productos y {} cuentas por tienda",
+                configuracion.tiendas(), configuracion.productosPorTienda(), configuracion.cuentasPorTienda());
+        return new EscenarioCarga(tiendas);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private EscenarioCarga.TiendaCarga sembrarTienda(int numero, ConfiguracionCarga configuracion,
+                                                     String hash, Random aleatorio) {
+        List<MunicipioEntity> municipios = municipioRepository.findAll();
+        RolEntity rolEmpleado = rolRepository.findByNombre("EMPLEADO").orElseThrow();
+        RolEntity rolCliente = rolRepository.findByNombre("CLIENTE").orElseThrow();
+
+        TiendaEntity tienda = tiendaRepository.save(TiendaEntity.builder()
+                .nombre("Tienda carga " + numero)
+                .telefono(String.format("2%07d", numero))
+                .municipio(municipios.get(numero % municipios.size()))
+                .direccionExacta("Local " + numero)
+                .build());
+
+        UsuarioEntity empleado = usuario("carga-empleado-" + numero + "@carga.test", "Cajero " + numero, hash, rolEmpleado);
+        usuarioRepository.save(empleado);
+        empleadoTiendaRepository.save(EmpleadoTiendaEntity.builder()
+                .usuario(empleado)
+                .tienda(tienda)
+                .activo(true)
+                .build());
+
+        List<ProductoEntity> productos = new ArrayList<>();
+        for (int p = 0; p < configuracion.productosPorTienda(); p++) {
+            BigDecimal precio = BigDecimal.valueOf(0.25 + aleatorio.nextDouble() * 19.75).setScale(2, RoundingMode.HALF_UP);
+            productos.add(ProductoEntity.builder()
+                    .tienda(tienda)
+                    .nombre("Producto " + p)
+                    .precioUnitario(precio)
+                    .precioVenta(precio)
+                    .build());
+        }
+        productoRepository.saveAll(productos);
+
+        List<UsuarioEntity> clientes = new ArrayList<>();
+        for (int c = 0; c < configuracion.cuentasPorTienda(); c++) {
+            clientes.add(usuario("carga-cliente-" + numero + "-" + c + "@carga.test", "Cliente " + c, hash, rolCliente));
+        }
+        usuarioRepository.saveAll(clientes);
+
+        List<CuentaClienteEntity> cuentas = new ArrayList<>();
+        for (UsuarioEntity cliente : clientes) {
+            cuentas.add(CuentaClienteEntity.builder()
+                    .usuario(cliente)
+                    .tienda(tienda)
+                    .limiteCredito(new BigDecimal("1000000.00"))
+                    .saldoActual(new BigDecimal("500.00"))
+                    .build());
+        }
+        cuentaClienteRepository.saveAll(cuentas);
+
+        Map<Long, BigDecimal> precios = new HashMap<>();
+        productos.forEach(producto -> precios.put(producto.getId(), producto.getPrecioUnitario()));
+
+        return new EscenarioCarga.TiendaCarga(
+                tienda.getId(),
+                empleado.getEmail(),
+                productos.stream().map(ProductoEntity::getId).toList(),
+                precios,
+                cuentas.stream().map(CuentaClienteEntity::getId).toList());
+    }
+
+    private static UsuarioEntity usuario(String email, String nombre, String hash, RolEntity rol) {
+        UsuarioEntity usuario = UsuarioEntity.builder()
+                .nombreCompleto(nombre)
+                .email(email)
+                .password(hash)
+                .build();
+        usuario.getRoles().add(rol);
+        return usuario;
+    }
+}
@@ -0,0 +1,170 @@
+package com.devsteve.prestashopv2_backend.benchmarks;
+
+import com.devsteve.prestashopv2_backend.models.dto.request.DetalleVentaRequest;
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Datos generados para los benchmarks, con semilla fija para que cada ejecución mida lo mismo.
+ * Las proporciones imitan una tienda de barrio: precios de $0.25 a ~$150 concentrados en
+ * productos baratos, ventas de 1 a 20 líneas y clientes con uno o dos roles.
+ */
+public final class DatosBenchmark {
+
+    private static final long SEMILLA = 20240611L;
+
+    private static final String[] NOMBRES = {
+            "María", "José", "Ana", "Carlos", "Rosa", "Luis", "Carmen", "Jorge", "Marta", "Francisco"
+    };
+    private static final String[] APELLIDOS = {
+            "Hernández", "López", "Martínez", "Rivera", "Flores", "Ramírez", "Cruz", "Mejía"
+    };
+    private static final String[] PRODUCTOS = {
+            "Arroz", "Frijol rojo", "Azúcar", "Aceite", "Café", "Leche en polvo", "Pan dulce",
+            "Jabón", "Detergente", "Huevos", "Tortillas", "Queso duro", "Gaseosa", "Sal", "Consomé"
+    };
+
+    private DatosBenchmark() {
+    }
+
+    public static Random aleatorio() {
+        return new Random(SEMILLA);
+    }
+
+    public static TiendaEntity tienda(long id) {
+        return TiendaEntity.builder()
+                .id(id)
+                .nombre("Tienda " + id)
+                .telefono("2" + String.format("%07d", id))
+                .direccionExacta("Barrio El Centro, casa #" + id)
+                .build();
+    }
+
+    public static List<ProductoEntity> productos(TiendaEntity tienda, int cantidad, Random aleatorio) {
+        List<ProductoEntity> productos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            BigDecimal precio = precio(aleatorio);
+            productos.add(ProductoEntity.builder()
+                    .id((long) i + 1)
+                    .tienda(tienda)
+                    .nombre(PRODUCTOS[i % PRODUCTOS.length] + " " + (i / PRODUCTOS.length + 1))
+                    .descripcion("Presentación " + (aleatorio.nextInt(4) + 1) + " unidades")
+                    .precioUnitario(precio)
+                    .precioVenta(precio)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(i))
+                    .build());
+        }
+        return productos;
+    }
+
+    public static Map<Long, ProductoEntity> catalogo(List<ProductoEntity> productos) {
+        Map<Long, ProductoEntity> catalogo = new HashMap<>();
+        for (ProductoEntity producto : productos) {
+            catalogo.put(producto.getId(), producto);
+        }
+        return catalogo;
+    }
+
+    public static List<DetalleVentaRequest> lineasVenta(List<ProductoEntity> productos, int lineas, Random aleatorio) {
+        List<DetalleVentaRequest> detalles = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            ProductoEntity producto = productos.get(aleatorio.nextInt(productos.size()));
+            detalles.add(new DetalleVentaRequest(producto.getId(), cantidad(aleatorio)));
+        }
+        return detalles;
+    }
+
+    public static UsuarioEntity usuario(long id, String... roles) {
+        UsuarioEntity usuario = UsuarioEntity.builder()
+                .id(id)
+                .nombreCompleto(NOMBRES[(int) (id % NOMBRES.length)] + " " + APELLIDOS[(int) (id % APELLIDOS.length)])
+                .email("usuario" + id + "@correo.test")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3vfT1QGJ5eCzFQy3uF0bVNa")
+                .telefono("7" + String.format("%07d", id))
+                .build();
+        for (int i = 0; i < roles.length; i++) {
+            usuario.getRoles().add(RolEntity.builder().id((long) i + 1).nombre(roles[i]).build());
+        }
+        return usuario;
+    }
+
+    public static List<CuentaClienteEntity> cuentas(TiendaEntity tienda, int cantidad, Random aleatorio) {
+        List<CuentaClienteEntity> cuentas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            BigDecimal limite = BigDecimal.valueOf(50L * (aleatorio.nextInt(10) + 1));
+            cuentas.add(CuentaClienteEntity.builder()
+                    .id((long) i + 1)
+                    .usuario(usuario(i + 1000L, "CLIENTE"))
+                    .tienda(tienda)
+                    .limiteCredito(limite)
+                    .saldoActual(limite.multiply(BigDecimal.valueOf(aleatorio.nextInt(101)))
+                            .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP))
+                    .fechaApertura(LocalDate.of(2024, 1, 1).plusDays(i % 365))
+                    .build());
+        }
+        return cuentas;
+    }
+
+    /**
+     * Ventas con su grafo completo (tienda, cuenta, usuario, detalles y productos),
+     * como las deja cargadas el batch fetching antes de mapearlas.
+     */
+    public static List<VentaEntity> ventas(TiendaEntity tienda, List<ProductoEntity> productos,
+                                           List<CuentaClienteEntity> cuentas, int cantidad, Random aleatorio) {
+        List<VentaEntity> ventas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            boolean credito = aleatorio.nextInt(100) < 60;
+            VentaEntity venta = VentaEntity.builder()
+                    .id((long) i + 1)
+                    .tienda(tienda)
+                    .cuentaCliente(credito ? cuentas.get(aleatorio.nextInt(cuentas.size())) : null)
+                    .clienteOcasional(credito ? null : "Cliente de paso")
+                    .fechaVenta(LocalDateTime.of(2024, 6, 1, 7, 0).plusMinutes(7L * i))
+                    .tipoVenta(credito ? TipoVenta.CREDITO : TipoVenta.CONTADO)
+                    .estado(credito ? EstadoVenta.PENDIENTE : EstadoVenta.PAGADA)
+                    .build();
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (DetalleVentaRequest linea : lineasVenta(productos, aleatorio.nextInt(20) + 1, aleatorio)) {
+                ProductoEntity producto = productos.get((int) (linea.getProductoId() - 1));
+                BigDecimal subtotal = producto.getPrecioUnitario().multiply(BigDecimal.valueOf(linea.getCantidad()));
+                venta.getDetalleVentas().add(DetalleVentaEntity.builder()
+                        .id((long) i * 100 + venta.getDetalleVentas().size())
+                        .venta(venta)
+                        .producto(producto)
+                        .cantidad(linea.getCantidad())
+                        .precioUnitario(producto.getPrecioUnitario())
+                        .subtotal(subtotal)
+                        .build());
+                total = total.add(subtotal);
+            }
+            venta.setSubtotal(total);
+            venta.setTotal(total);
+            ventas.add(venta);
+        }
+        return ventas;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Distribución sesgada: la mayoría de productos cuesta menos de $5
+    private static BigDecimal precio(Random aleatorio) {
+        double valor = 0.25 + Math.exp(aleatorio.nextGaussian() * 1.1 + 0.4);
+        return BigDecimal.valueOf(Math.min(valor, 150.0)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static int cantidad(Random aleatorio) {
+        int sorteo = aleatorio.nextInt(100);
+        if (sorteo < 70) {
+            return 1;
+        }
+        return sorteo < 95 ? aleatorio.nextInt(5) + 2 : aleatorio.nextInt(24) + 6;
+    }
+}
@@ -0,0 +1,59 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import com.devsteve.prestashopv2_backend.benchmarks.DatosBenchmark;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import com.devsteve.prestashopv2_backend.repositories.UsuarioRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomUserDetailsService.loadUserByUsername sin base de datos: mapeo de roles a
+ * GrantedAuthority y construcción del User. El repositorio es un proxy que devuelve
+ * siempre el mismo usuario ya cargado.
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.incluir=Autoridades
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutoridadesBenchmark {
+
+    @Param({"1", "3"})
+    private int roles;
+
+    private CustomUserDetailsService userDetailsService;
+    private String email;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        String[] nombres = {"CLIENTE", "EMPLEADO", "ENCARGADO"};
+        String[] asignados = new String[roles];
+        System.arraycopy(nombres, 0, asignados, 0, roles);
+
+        UsuarioEntity usuario = DatosBenchmark.usuario(1L, asignados);
+        email = usuario.getEmail();
+
+        UsuarioRepository repositorio = (UsuarioRepository) Proxy.newProxyInstance(
+                UsuarioRepository.class.getClassLoader(),
+                new Class<?>[]{UsuarioRepository.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("findByEmailWithRolesAndTiendas")) {
+                        return Optional.of(usuario);
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+        userDetailsService = new CustomUserDetailsService(repositorio);
+    }
+
+    @Benchmark
+    public UserDetails cargarUsuario() {
+        return userDetailsService.loadUserByUsername(email);
+    }
+}
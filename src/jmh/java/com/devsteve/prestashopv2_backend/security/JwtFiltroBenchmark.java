@@ -0,0 +1,120 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ruta del filtro JWT por petición: token ya verificado (acierto de caché), token nuevo
+ * (verificación con el parser compartido) y, como referencia, el esquema anterior de tres
+ * parseos con clave y parser reconstruidos en cada llamada.
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.incluir=JwtFiltro
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFiltroBenchmark {
+
+    private static final long EXPIRACION = 86_400_000L;
+    private static final int TOKENS_DISTINTOS = 50_000;
+
+    private String secreto;
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filtro;
+    private String tokenFrecuente;
+    private String[] tokensDistintos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        byte[] clave = new byte[32];
+        new SecureRandom().nextBytes(clave);
+        secreto = Encoders.BASE64.encode(clave);
+
+        // Caché más pequeña que el conjunto de tokens distintos para forzar verificaciones
+        jwtService = new JwtService(secreto, EXPIRACION, 1_000);
+        PrincipalCache principalCache = new PrincipalCache(email -> {
+            throw new UsernameNotFoundException(email);
+        }, 300, 10_000, EXPIRACION);
+        filtro = new JwtAuthenticationFilter(jwtService, principalCache);
+
+        tokenFrecuente = generarToken(1L);
+        tokensDistintos = new String[TOKENS_DISTINTOS];
+        for (int i = 0; i < TOKENS_DISTINTOS; i++) {
+            tokensDistintos[i] = generarToken(i + 2L);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Peticion {
+        int siguiente;
+
+        @TearDown(Level.Invocation)
+        public void limpiar() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object filtroTokenCacheado(Peticion peticion) throws Exception {
+        return filtrar(tokenFrecuente);
+    }
+
+    @Benchmark
+    public Object filtroTokenNuevo(Peticion peticion) throws Exception {
+        String token = tokensDistintos[peticion.siguiente++ % TOKENS_DISTINTOS];
+        return filtrar(token);
+    }
+
+    @Benchmark
+    public Object verificacionAnteriorTresParseos() {
+        // extractUsername + isTokenValid (extractUsername y extractExpiration) del filtro anterior
+        Claims claims = null;
+        for (int i = 0; i < 3; i++) {
+            claims = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secreto)))
+                    .build()
+                    .parseClaimsJws(tokenFrecuente)
+                    .getBody();
+        }
+        return claims;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private Object filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String generarToken(Long userId) {
+        return jwtService.generateToken(
+                Map.of("userId", userId,
+                        "nombreCompleto", "Usuario " + userId,
+                        "roles", List.of("EMPLEADO"),
+                        "tiendas", List.of(1L, 2L)),
+                User.withUsername("usuario" + userId + "@prestashop.test")
+                        .password("")
+                        .authorities("ROLE_EMPLEADO")
+                        .build());
+    }
+}
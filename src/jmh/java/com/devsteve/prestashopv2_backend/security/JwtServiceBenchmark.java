@@ -0,0 +1,68 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import com.devsteve.prestashopv2_backend.benchmarks.DatosBenchmark;
+import com.devsteve.prestashopv2_backend.models.entities.EmpleadoTiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import io.jsonwebtoken.io.Encoders;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión de un token en el login (generateTokenForUser) y verificación completa de firma
+ * y claims de un token que no está en la caché de JwtService.
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.incluir=JwtService
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final long EXPIRACION = 86_400_000L;
+    private static final int TOKENS_DISTINTOS = 50_000;
+
+    private JwtService jwtService;
+    private UsuarioEntity empleado;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        byte[] clave = new byte[32];
+        new SecureRandom().nextBytes(clave);
+        // Caché mínima: cada verificación recorre el parser completo
+        jwtService = new JwtService(Encoders.BASE64.encode(clave), EXPIRACION, 1);
+
+        empleado = DatosBenchmark.usuario(1L, "EMPLEADO");
+        empleado.getEmpleadoTiendas().add(EmpleadoTiendaEntity.builder()
+                .usuario(empleado)
+                .tienda(DatosBenchmark.tienda(1L))
+                .activo(true)
+                .build());
+
+        tokens = new String[TOKENS_DISTINTOS];
+        for (int i = 0; i < TOKENS_DISTINTOS; i++) {
+            UsuarioEntity usuario = DatosBenchmark.usuario(i + 2L, "CLIENTE");
+            tokens[i] = jwtService.generateTokenForUser(usuario);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int siguiente;
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtService.generateTokenForUser(empleado);
+    }
+
+    @Benchmark
+    public TokenVerificado verificarToken(Cursor cursor) {
+        return jwtService.verificar(tokens[cursor.siguiente++ % TOKENS_DISTINTOS]);
+    }
+}
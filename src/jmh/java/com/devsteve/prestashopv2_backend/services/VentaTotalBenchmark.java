@@ -0,0 +1,45 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.benchmarks.DatosBenchmark;
+import com.devsteve.prestashopv2_backend.models.dto.request.DetalleVentaRequest;
+import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo del total de una venta (BigDecimal) a partir de los productos cargados para la venta.
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.incluir=VentaTotal
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VentaTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lineas;
+
+    private List<DetalleVentaRequest> detalles;
+    private Map<Long, ProductoEntity> catalogo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = DatosBenchmark.aleatorio();
+        List<ProductoEntity> productos = DatosBenchmark.productos(DatosBenchmark.tienda(1L), 500, aleatorio);
+        catalogo = DatosBenchmark.catalogo(productos);
+        detalles = DatosBenchmark.lineasVenta(productos, lineas, aleatorio);
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotal() {
+        return VentaService.calcularTotalVenta(detalles, catalogo);
+    }
+}
@@ -0,0 +1,71 @@
+package com.devsteve.prestashopv2_backend.services.email;
+
+import com.devsteve.prestashopv2_backend.benchmarks.DatosBenchmark;
+import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.VentaEntity;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preparación de variables y renderizado de la plantilla factura-venta con la misma
+ * configuración que Spring Boot (plantillas en classpath:templates/, caché activada).
+ * Se usa la venta generada con más detalles para medir el peor caso habitual.
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.incluir=FacturaVenta
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacturaVentaBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private VentaEntity venta;
+    private Map<String, Object> variables;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        Random aleatorio = DatosBenchmark.aleatorio();
+        TiendaEntity tienda = DatosBenchmark.tienda(1L);
+        List<ProductoEntity> productos = DatosBenchmark.productos(tienda, 500, aleatorio);
+        venta = DatosBenchmark.ventas(tienda, productos, DatosBenchmark.cuentas(tienda, 10, aleatorio), 50, aleatorio)
+                .stream()
+                .filter(v -> v.getCuentaCliente() != null)
+                .max(Comparator.comparingInt(v -> v.getDetalleVentas().size()))
+                .orElseThrow();
+        variables = VentaEmailService.variablesFactura(venta, venta.getCuentaCliente().getUsuario().getNombreCompleto());
+    }
+
+    @Benchmark
+    public Map<String, Object> prepararVariables() {
+        return VentaEmailService.variablesFactura(venta, venta.getCuentaCliente().getUsuario().getNombreCompleto());
+    }
+
+    @Benchmark
+    public String renderizarFactura() {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process("factura-venta", context);
+    }
+}
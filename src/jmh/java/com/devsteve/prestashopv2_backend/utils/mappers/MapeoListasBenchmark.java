@@ -0,0 +1,61 @@
+package com.devsteve.prestashopv2_backend.utils.mappers;
+
+import com.devsteve.prestashopv2_backend.benchmarks.DatosBenchmark;
+import com.devsteve.prestashopv2_backend.models.dto.response.CuentaClienteResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.VentaResponse;
+import com.devsteve.prestashopv2_backend.models.entities.CuentaClienteEntity;
+import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.VentaEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión a DTO de listados completos con las implementaciones generadas por MapStruct.
+ * Las ventas llevan de 1 a 20 detalles cada una, como en el listado de ventas de una tienda.
+ *
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Djmh.incluir=MapeoListas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoListasBenchmark {
+
+    @Param({"50", "500"})
+    private int tamano;
+
+    private VentaMapper ventaMapper;
+    private CuentaClienteMapper cuentaClienteMapper;
+    private List<VentaEntity> ventas;
+    private List<CuentaClienteEntity> cuentas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ventaMapper = new VentaMapperImpl();
+        ReflectionTestUtils.setField(ventaMapper, "detalleVentaMapper", new DetalleVentaMapperImpl());
+        cuentaClienteMapper = new CuentaClienteMapperImpl();
+
+        Random aleatorio = DatosBenchmark.aleatorio();
+        TiendaEntity tienda = DatosBenchmark.tienda(1L);
+        List<ProductoEntity> productos = DatosBenchmark.productos(tienda, 500, aleatorio);
+        cuentas = DatosBenchmark.cuentas(tienda, tamano, aleatorio);
+        ventas = DatosBenchmark.ventas(tienda, productos, cuentas, tamano, aleatorio);
+    }
+
+    @Benchmark
+    public List<VentaResponse> ventasToResponseList() {
+        return ventaMapper.toResponseList(ventas);
+    }
+
+    @Benchmark
+    public List<CuentaClienteResponse> cuentasToResponseList() {
+        return cuentaClienteMapper.toResponseList(cuentas);
+    }
+}
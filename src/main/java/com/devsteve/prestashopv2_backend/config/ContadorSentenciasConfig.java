@@ -0,0 +1,31 @@
+package com.devsteve.prestashopv2_backend.config;
+
+import com.devsteve.prestashopv2_backend.utils.consultas.DataSourceContador;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource con DataSourceContador para contar sentencias por hilo
+ * (presupuestos de consultas en pruebas y aviso de sentencias repetidas en desarrollo).
+ * Desactivado por defecto: cada sentencia pasa por un proxy dinámico.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.consultas.contador.habilitado", havingValue = "true")
+public class ContadorSentenciasConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceContadorPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof DataSourceContador)
+                        ? new DataSourceContador(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.devsteve.prestashopv2_backend.config;
+
+import com.devsteve.prestashopv2_backend.utils.consultas.ContadorCargasIntegrator;
+import com.devsteve.prestashopv2_backend.utils.consultas.EstadisticasSesionListener;
+import com.devsteve.prestashopv2_backend.utils.consultas.InspectorSentencias;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Conecta a Hibernate los recolectores de estadísticas por petición (utils.consultas):
+ * listener de sesión para tiempos JDBC, inspector de sentencias para el log de consultas
+ * lentas y contadores de entidades y colecciones cargadas.
+ */
+@Configuration
+public class EstadisticasConsultasConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer estadisticasConsultasCustomizer() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, EstadisticasSesionListener.class.getName());
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new InspectorSentencias());
+            propiedades.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new ContadorCargasIntegrator()));
+        };
+    }
+}
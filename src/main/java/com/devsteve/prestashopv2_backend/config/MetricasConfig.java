@@ -0,0 +1,69 @@
+package com.devsteve.prestashopv2_backend.config;
+
+import com.devsteve.prestashopv2_backend.security.OperadorContextEstadisticas;
+import com.devsteve.prestashopv2_backend.services.email.EmailOutboxEstadisticas;
+import com.devsteve.prestashopv2_backend.services.movimientos.ColaMovimientos;
+import com.devsteve.prestashopv2_backend.services.movimientos.CuarentenaMovimientos;
+import com.devsteve.prestashopv2_backend.services.movimientos.RespaldoMovimientos;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publica en Micrometer los contadores que ya llevaban los componentes internos
+ * (outbox de correos, OperadorContext, cola de movimientos), además de las métricas
+ * de negocio de MetricasNegocio y las del pool Hikari que registra Spring Boot.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasEmailOutbox(EmailOutboxEstadisticas estadisticas) {
+        return registry -> {
+            FunctionCounter.builder("prestashop.correos.outbox.enviados", estadisticas, EmailOutboxEstadisticas::getEnviados)
+                    .register(registry);
+            FunctionCounter.builder("prestashop.correos.outbox.reintentos", estadisticas, EmailOutboxEstadisticas::getReintentos)
+                    .register(registry);
+            FunctionCounter.builder("prestashop.correos.outbox.fallidos", estadisticas, EmailOutboxEstadisticas::getFallidos)
+                    .register(registry);
+            Gauge.builder("prestashop.correos.outbox.latencia.promedio", estadisticas, EmailOutboxEstadisticas::getLatenciaPromedioMs)
+                    .baseUnit("milliseconds")
+                    .description("Latencia promedio desde que el correo se encola hasta que el servidor SMTP lo acepta")
+                    .register(registry);
+            Gauge.builder("prestashop.correos.outbox.latencia.maxima", estadisticas, EmailOutboxEstadisticas::getLatenciaMaximaMs)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasOperadorContext(OperadorContextEstadisticas estadisticas) {
+        return registry -> {
+            FunctionCounter.builder("prestashop.operador.peticiones", estadisticas, OperadorContextEstadisticas::getPeticiones)
+                    .description("Peticiones que resolvieron al operador autenticado")
+                    .register(registry);
+            FunctionCounter.builder("prestashop.operador.sentencias", estadisticas, OperadorContextEstadisticas::getSentencias)
+                    .description("Sentencias JDBC ejecutadas para resolver al operador (usuario y tienda asignada)")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasColaMovimientos(ColaMovimientos colaMovimientos,
+                                               CuarentenaMovimientos cuarentena,
+                                               RespaldoMovimientos respaldo) {
+        return registry -> {
+            Gauge.builder("prestashop.movimientos.cola.pendientes", colaMovimientos, ColaMovimientos::pendientes)
+                    .description("Movimientos automáticos en espera de escritura por lotes")
+                    .register(registry);
+            FunctionCounter.builder("prestashop.movimientos.cuarentena", cuarentena, CuarentenaMovimientos::apartados)
+                    .description("Movimientos rechazados por la base de datos y apartados en cuarentena")
+                    .register(registry);
+            FunctionCounter.builder("prestashop.movimientos.perdidos", respaldo, RespaldoMovimientos::perdidos)
+                    .description("Movimientos que no pudieron escribirse ni respaldarse en disco")
+                    .register(registry);
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.devsteve.prestashopv2_backend.controllers;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.AbonoRequest;
 import com.devsteve.prestashopv2_backend.models.dto.response.AbonoResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoAbono;
 import com.devsteve.prestashopv2_backend.services.AbonoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,6 +51,18 @@ public class AbonoController {
         return ResponseEntity.ok(abonos);
     }
 
+    @Operation(summary = "Listar abonos de una tienda por cursor",
+              description = "Página ordenada por fecha descendente; usar siguienteCursor para pedir la siguiente")
+    @GetMapping("/tienda/{tiendaId}/cursor")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
+    public ResponseEntity<CursorPageResponse<AbonoResponse>> listarAbonosDeTiendaPorCursor(
+            @PathVariable Long tiendaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        CursorPageResponse<AbonoResponse> abonos = abonoService.listarAbonosDeTiendaPorCursor(tiendaId, cursor, tamano);
+        return ResponseEntity.ok(abonos);
+    }
+
     @Operation(summary = "Listar abonos por estado de una tienda", description = "Solo empleados de la tienda pueden ver los abonos")
     @GetMapping("/tienda/{tiendaId}/estado/{estado}")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
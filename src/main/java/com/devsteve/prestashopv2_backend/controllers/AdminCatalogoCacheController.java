@@ -0,0 +1,27 @@
+package com.devsteve.prestashopv2_backend.controllers;
+
+import com.devsteve.prestashopv2_backend.services.CatalogoTiendaCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/catalogo-cache")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('SYSADMIN')")
+@Tag(name = "Administración - Catálogo", description = "Estado de la caché de catálogos por tienda")
+public class AdminCatalogoCacheController {
+
+    private final CatalogoTiendaCache catalogoTiendaCache;
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas de la caché de catálogo", description = "Aciertos, fallos, recargas por cambio de versión y desalojos por peso")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+        return ResponseEntity.ok(catalogoTiendaCache.obtenerEstadisticas());
+    }
+}
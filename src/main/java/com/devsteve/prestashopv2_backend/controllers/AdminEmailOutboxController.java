@@ -0,0 +1,27 @@
+package com.devsteve.prestashopv2_backend.controllers;
+
+import com.devsteve.prestashopv2_backend.services.email.EmailOutboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/email-outbox")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('SYSADMIN')")
+@Tag(name = "Administración - Correos", description = "Estado de la bandeja de salida de correos")
+public class AdminEmailOutboxController {
+
+    private final EmailOutboxService emailOutboxService;
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas del outbox", description = "Correos pendientes, antigüedad del más viejo, reintentos y latencia de envío")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+        return ResponseEntity.ok(emailOutboxService.obtenerEstadisticas());
+    }
+}
@@ -0,0 +1,45 @@
+package com.devsteve.prestashopv2_backend.controllers;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.VerificacionResumenResponse;
+import com.devsteve.prestashopv2_backend.services.ResumenDiarioTiendaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/resumen-diario")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('SYSADMIN')")
+@Tag(name = "Administración - Resumen diario", description = "Reconstrucción y verificación del resumen diario por tienda")
+public class AdminResumenDiarioController {
+
+    private final ResumenDiarioTiendaService resumenDiarioTiendaService;
+
+    @PostMapping("/reconstruir")
+    @Operation(summary = "Reconstruir resumen", description = "Recalcula el resumen diario desde los movimientos para un rango de fechas")
+    public ResponseEntity<Map<String, Object>> reconstruir(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        int filas = resumenDiarioTiendaService.reconstruir(desde, hasta);
+        return ResponseEntity.ok(Map.of(
+            "desde", desde,
+            "hasta", hasta,
+            "filasGeneradas", filas
+        ));
+    }
+
+    @GetMapping("/verificar")
+    @Operation(summary = "Verificar resumen", description = "Compara el resumen diario con los movimientos y lista las diferencias")
+    public ResponseEntity<VerificacionResumenResponse> verificar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(resumenDiarioTiendaService.verificar(desde, hasta));
+    }
+}
@@ -4,10 +4,13 @@ import com.devsteve.prestashopv2_backend.models.dto.request.CrearCategoriaReques
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateCategoriaRequest;
 import com.devsteve.prestashopv2_backend.models.dto.response.CategoriaResponse;
 import com.devsteve.prestashopv2_backend.services.CategoriaService;
+import com.devsteve.prestashopv2_backend.utils.etag.RespuestaCondicional;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,12 +25,15 @@ import java.util.List;
 public class CategoriaController {
 
     private final CategoriaService categoriaService;
+    private final VersionesCambio versionesCambio;
 
     @Operation(summary = "Listar categorías de una tienda", description = "Público - no requiere autenticación")
     @GetMapping("/tienda/{tiendaId}")
-    public ResponseEntity<List<CategoriaResponse>> listarCategoriasDeTienda(@PathVariable Long tiendaId) {
-        List<CategoriaResponse> categorias = categoriaService.listarCategoriasDeTienda(tiendaId);
-        return ResponseEntity.ok(categorias);
+    public ResponseEntity<List<CategoriaResponse>> listarCategoriasDeTienda(
+            @PathVariable Long tiendaId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagCatalogo(tiendaId),
+                () -> categoriaService.listarCategoriasDeTienda(tiendaId));
     }
 
     @Operation(summary = "Obtener categoría por ID", description = "Público - no requiere autenticación")
@@ -41,9 +47,10 @@ public class CategoriaController {
     @GetMapping("/tienda/{tiendaId}/buscar")
     public ResponseEntity<List<CategoriaResponse>> buscarCategoriasPorNombre(
             @PathVariable Long tiendaId,
-            @RequestParam String nombre) {
-        List<CategoriaResponse> categorias = categoriaService.buscarCategoriasPorNombre(tiendaId, nombre);
-        return ResponseEntity.ok(categorias);
+            @RequestParam String nombre,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagCatalogo(tiendaId),
+                () -> categoriaService.buscarCategoriasPorNombre(tiendaId, nombre));
     }
 
     @Operation(summary = "Crear nueva categoría", description = "Solo encargados y empleados pueden crear categorías")
@@ -1,6 +1,7 @@
 package com.devsteve.prestashopv2_backend.controllers;
 
 import com.devsteve.prestashopv2_backend.models.dto.response.AbonoResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoAbono;
 import com.devsteve.prestashopv2_backend.services.AbonoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +32,16 @@ public class ClienteAbonosController {
         return ResponseEntity.ok(abonos);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar mis abonos por cursor",
+              description = "Página ordenada por fecha descendente; usar siguienteCursor para pedir la siguiente")
+    public ResponseEntity<CursorPageResponse<AbonoResponse>> listarMisAbonosPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        CursorPageResponse<AbonoResponse> abonos = abonoService.listarMisAbonosPorCursor(cursor, tamano);
+        return ResponseEntity.ok(abonos);
+    }
+
     @GetMapping("/estado/{estado}")
     @Operation(summary = "Listar mis abonos por estado",
               description = "Obtiene los abonos del cliente filtrados por estado")
@@ -1,5 +1,6 @@
 package com.devsteve.prestashopv2_backend.controllers;
 
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.dto.response.VentaResponse;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
 import com.devsteve.prestashopv2_backend.services.VentaService;
@@ -31,6 +32,16 @@ public class ClienteComprasController {
         return ResponseEntity.ok(compras);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar mis compras por cursor",
+              description = "Página ordenada por fecha descendente; usar siguienteCursor para pedir la siguiente")
+    public ResponseEntity<CursorPageResponse<VentaResponse>> listarMisComprasPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        CursorPageResponse<VentaResponse> compras = ventaService.listarMisComprasPorCursor(cursor, tamano);
+        return ResponseEntity.ok(compras);
+    }
+
     @GetMapping("/estado/{estado}")
     @Operation(summary = "Listar mis compras por estado",
               description = "Obtiene las compras del cliente filtradas por estado")
@@ -4,6 +4,7 @@ import com.devsteve.prestashopv2_backend.models.dto.request.CrearCuentaClienteRe
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateEstadoCuentaRequest;
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateLimiteCreditoRequest;
 import com.devsteve.prestashopv2_backend.models.dto.response.CuentaClienteResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.ReservaCreditoResponse;
 import com.devsteve.prestashopv2_backend.services.CuentaClienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -87,6 +88,26 @@ public class CuentaClienteController {
         return ResponseEntity.ok(puedeComprar);
     }
 
+    @Operation(summary = "Reservar crédito", description = "Aparta crédito mientras se registra una venta; se confirma al enviar reservaCreditoId en la venta")
+    @PostMapping("/{cuentaId}/reservas")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO')")
+    public ResponseEntity<ReservaCreditoResponse> reservarCredito(
+            @PathVariable Long cuentaId,
+            @RequestParam BigDecimal monto) {
+        ReservaCreditoResponse reserva = cuentaClienteService.reservarCredito(cuentaId, monto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reserva);
+    }
+
+    @Operation(summary = "Liberar reserva de crédito", description = "Devuelve el crédito apartado si la venta no se concreta")
+    @DeleteMapping("/{cuentaId}/reservas/{reservaId}")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO')")
+    public ResponseEntity<Void> liberarReserva(
+            @PathVariable Long cuentaId,
+            @PathVariable String reservaId) {
+        cuentaClienteService.liberarReserva(cuentaId, reservaId);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Cargar saldo a cuenta", description = "Solo encargados y empleados pueden cargar saldo")
     @PostMapping("/{cuentaId}/cargar-saldo")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO')")
@@ -1,8 +1,10 @@
 package com.devsteve.prestashopv2_backend.controllers;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.MovimientoTiendaRequest;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.dto.response.MovimientoTiendaResponse;
 import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.repositories.ResumenDiarioTiendaRepository.TotalesPeriodo;
 import com.devsteve.prestashopv2_backend.services.MovimientoTiendaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -57,6 +59,19 @@ public class MovimientoTiendaController {
         return ResponseEntity.ok(movimientos);
     }
 
+    @Operation(summary = "Listar movimientos de una tienda por cursor",
+              description = "Página ordenada por fecha descendente; no degrada con la profundidad como la paginación por offset")
+    @GetMapping("/tienda/{tiendaId}/cursor")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
+    public ResponseEntity<CursorPageResponse<MovimientoTiendaResponse>> listarMovimientosDeTiendaPorCursor(
+            @PathVariable Long tiendaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        CursorPageResponse<MovimientoTiendaResponse> movimientos =
+                movimientoTiendaService.listarMovimientosDeTiendaPorCursor(tiendaId, cursor, tamano);
+        return ResponseEntity.ok(movimientos);
+    }
+
     @Operation(summary = "Listar movimientos por tipo de evento", description = "Filtra movimientos por tipo de evento")
     @GetMapping("/tienda/{tiendaId}/tipo/{tipoEvento}")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
@@ -86,13 +101,16 @@ public class MovimientoTiendaController {
     @GetMapping("/tienda/{tiendaId}/estadisticas/dia")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
     public ResponseEntity<Map<String, BigDecimal>> obtenerEstadisticasDelDia(@PathVariable Long tiendaId) {
-        BigDecimal totalVentas = movimientoTiendaService.obtenerTotalVentasDelDia(tiendaId);
-        BigDecimal totalAbonos = movimientoTiendaService.obtenerTotalAbonosDelDia(tiendaId);
+        TotalesPeriodo totales = movimientoTiendaService.obtenerTotalesDelDia(tiendaId);
 
         Map<String, BigDecimal> estadisticas = Map.of(
-            "totalVentasDelDia", totalVentas,
-            "totalAbonosDelDia", totalAbonos,
-            "totalDelDia", totalVentas.add(totalAbonos)
+            "totalVentasDelDia", totales.getTotalVentas(),
+            "totalVentasCreditoDelDia", totales.getTotalVentasCredito(),
+            "totalAbonosDelDia", totales.getTotalAbonos(),
+            "totalDelDia", totales.getTotalVentas().add(totales.getTotalAbonos()),
+            "cantidadVentasDelDia", BigDecimal.valueOf(totales.getCantidadVentas()),
+            "cantidadAbonosDelDia", BigDecimal.valueOf(totales.getCantidadAbonos()),
+            "clientesDistintosDelDia", BigDecimal.valueOf(totales.getClientesDistintos())
         );
 
         return ResponseEntity.ok(estadisticas);
@@ -102,13 +120,16 @@ public class MovimientoTiendaController {
     @GetMapping("/tienda/{tiendaId}/estadisticas/mes")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
     public ResponseEntity<Map<String, BigDecimal>> obtenerEstadisticasDelMes(@PathVariable Long tiendaId) {
-        BigDecimal totalVentas = movimientoTiendaService.obtenerTotalVentasDelMes(tiendaId);
-        BigDecimal totalAbonos = movimientoTiendaService.obtenerTotalAbonosDelMes(tiendaId);
+        TotalesPeriodo totales = movimientoTiendaService.obtenerTotalesDelMes(tiendaId);
 
         Map<String, BigDecimal> estadisticas = Map.of(
-            "totalVentasDelMes", totalVentas,
-            "totalAbonosDelMes", totalAbonos,
-            "totalDelMes", totalVentas.add(totalAbonos)
+            "totalVentasDelMes", totales.getTotalVentas(),
+            "totalVentasCreditoDelMes", totales.getTotalVentasCredito(),
+            "totalAbonosDelMes", totales.getTotalAbonos(),
+            "totalDelMes", totales.getTotalVentas().add(totales.getTotalAbonos()),
+            "cantidadVentasDelMes", BigDecimal.valueOf(totales.getCantidadVentas()),
+            "cantidadAbonosDelMes", BigDecimal.valueOf(totales.getCantidadAbonos()),
+            "clientesDistintosDelMes", BigDecimal.valueOf(totales.getClientesDistintos())
         );
 
         return ResponseEntity.ok(estadisticas);
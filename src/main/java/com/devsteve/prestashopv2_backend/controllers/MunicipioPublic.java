@@ -2,13 +2,14 @@ package com.devsteve.prestashopv2_backend.controllers;
 
 import com.devsteve.prestashopv2_backend.models.dto.response.MunicipioResponse;
 import com.devsteve.prestashopv2_backend.services.MunicipioService;
+import com.devsteve.prestashopv2_backend.utils.etag.RespuestaCondicional;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
@@ -18,11 +19,33 @@ import java.util.List;
 @Tag(name = "Municipios disponibles", description = "Municipios para uso publico")
 public class MunicipioPublic {
     private final MunicipioService municipioService;
+    private final VersionesCambio versionesCambio;
 
     @GetMapping
     @Operation(summary = "Listar municipios", description = "Lista de municpios disponibles")
-    public ResponseEntity<List<MunicipioResponse>> getAllMunicipios() {
-        List<MunicipioResponse> municipios = municipioService.listarTodos();
-        return ResponseEntity.ok(municipios);
+    public ResponseEntity<List<MunicipioResponse>> getAllMunicipios(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagTiendas(),
+                municipioService::listarTodos);
+    }
+
+    @GetMapping("/departamento/{departamentoId}")
+    @Operation(summary = "Listar municipios de un departamento", description = "Municipios del departamento con su cantidad de tiendas activas")
+    public ResponseEntity<List<MunicipioResponse>> getMunicipiosPorDepartamento(
+            @PathVariable Integer departamentoId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagTiendas(),
+                () -> municipioService.listarPorDepartamento(departamentoId));
+    }
+
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar municipios", description = "Municipios cuyo nombre empieza con el prefijo, sin distinguir mayúsculas ni tildes")
+    public ResponseEntity<List<MunicipioResponse>> buscarMunicipios(
+            @RequestParam String prefijo,
+            @RequestParam(defaultValue = "20") int limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        int limiteAcotado = Math.max(1, Math.min(limite, 100));
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagTiendas(),
+                () -> municipioService.buscarPorPrefijo(prefijo, limiteAcotado));
     }
 }
@@ -1,13 +1,17 @@
 package com.devsteve.prestashopv2_backend.controllers;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.CrearProductoRequest;
+import com.devsteve.prestashopv2_backend.models.dto.request.ImportarProductosRequest;
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateProductoRequest;
 import com.devsteve.prestashopv2_backend.models.dto.response.ProductoResponse;
 import com.devsteve.prestashopv2_backend.services.ProductoService;
+import com.devsteve.prestashopv2_backend.utils.etag.RespuestaCondicional;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,19 +26,24 @@ import java.util.List;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final VersionesCambio versionesCambio;
 
     @Operation(summary = "Listar todos los productos de una tienda", description = "Público - no requiere autenticación")
     @GetMapping("/tienda/{tiendaId}")
-    public ResponseEntity<List<ProductoResponse>> listarProductosDeTienda(@PathVariable Long tiendaId) {
-        List<ProductoResponse> productos = productoService.listarProductosDeTienda(tiendaId);
-        return ResponseEntity.ok(productos);
+    public ResponseEntity<List<ProductoResponse>> listarProductosDeTienda(
+            @PathVariable Long tiendaId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagCatalogo(tiendaId),
+                () -> productoService.listarProductosDeTienda(tiendaId));
     }
 
     @Operation(summary = "Listar productos activos de una tienda", description = "Público - no requiere autenticación")
     @GetMapping("/tienda/{tiendaId}/activos")
-    public ResponseEntity<List<ProductoResponse>> listarProductosActivosDeTienda(@PathVariable Long tiendaId) {
-        List<ProductoResponse> productos = productoService.listarProductosActivosDeTienda(tiendaId);
-        return ResponseEntity.ok(productos);
+    public ResponseEntity<List<ProductoResponse>> listarProductosActivosDeTienda(
+            @PathVariable Long tiendaId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagCatalogo(tiendaId),
+                () -> productoService.listarProductosActivosDeTienda(tiendaId));
     }
 
     @Operation(summary = "Obtener producto por ID", description = "Público - no requiere autenticación")
@@ -48,18 +57,20 @@ public class ProductoController {
     @GetMapping("/tienda/{tiendaId}/buscar")
     public ResponseEntity<List<ProductoResponse>> buscarProductosPorNombre(
             @PathVariable Long tiendaId,
-            @RequestParam String nombre) {
-        List<ProductoResponse> productos = productoService.buscarProductosPorNombre(tiendaId, nombre);
-        return ResponseEntity.ok(productos);
+            @RequestParam String nombre,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagCatalogo(tiendaId),
+                () -> productoService.buscarProductosPorNombre(tiendaId, nombre));
     }
 
     @Operation(summary = "Buscar productos activos por nombre", description = "Público - no requiere autenticación")
     @GetMapping("/tienda/{tiendaId}/buscar/activos")
     public ResponseEntity<List<ProductoResponse>> buscarProductosActivosPorNombre(
             @PathVariable Long tiendaId,
-            @RequestParam String nombre) {
-        List<ProductoResponse> productos = productoService.buscarProductosActivosPorNombre(tiendaId, nombre);
-        return ResponseEntity.ok(productos);
+            @RequestParam String nombre,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return RespuestaCondicional.conEtag(ifNoneMatch, versionesCambio.etagCatalogo(tiendaId),
+                () -> productoService.buscarProductosActivosPorNombre(tiendaId, nombre));
     }
 
     @Operation(summary = "Crear nuevo producto", description = "Solo encargados y empleados pueden crear productos")
@@ -70,6 +81,14 @@ public class ProductoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(producto);
     }
 
+    @Operation(summary = "Importar productos en lote", description = "Solo encargados y empleados pueden importar productos a su tienda")
+    @PostMapping("/importar")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO')")
+    public ResponseEntity<List<ProductoResponse>> importarProductos(@Valid @RequestBody ImportarProductosRequest request) {
+        List<ProductoResponse> productos = productoService.importarProductos(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(productos);
+    }
+
     @Operation(summary = "Actualizar producto", description = "Solo encargados y empleados pueden actualizar productos")
     @PutMapping("/{productoId}")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO')")
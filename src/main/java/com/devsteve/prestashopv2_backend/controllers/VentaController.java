@@ -1,18 +1,25 @@
 package com.devsteve.prestashopv2_backend.controllers;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.VentaRequest;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.dto.response.VentaResponse;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.services.VentaExportService;
 import com.devsteve.prestashopv2_backend.services.VentaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +30,7 @@ import java.util.Optional;
 public class VentaController {
 
     private final VentaService ventaService;
+    private final VentaExportService ventaExportService;
 
     @Operation(summary = "Crear nueva venta", description = "Solo encargados y empleados pueden crear ventas")
     @PostMapping
@@ -49,6 +57,40 @@ public class VentaController {
         return ResponseEntity.ok(ventas);
     }
 
+    @Operation(summary = "Listar ventas de una tienda por cursor",
+              description = "Página ordenada por fecha descendente; usar siguienteCursor para pedir la siguiente")
+    @GetMapping("/tienda/{tiendaId}/cursor")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
+    public ResponseEntity<CursorPageResponse<VentaResponse>> listarVentasDeTiendaPorCursor(
+            @PathVariable Long tiendaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        CursorPageResponse<VentaResponse> ventas = ventaService.listarVentasDeTiendaPorCursor(tiendaId, cursor, tamano);
+        return ResponseEntity.ok(ventas);
+    }
+
+    @Operation(summary = "Exportar historial de ventas de una tienda",
+              description = "Descarga en CSV (una línea por detalle) o NDJSON (una línea por venta) sin cargar el historial en memoria")
+    @GetMapping("/tienda/{tiendaId}/exportar")
+    @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
+    public void exportarVentasDeTienda(
+            @PathVariable Long tiendaId,
+            @RequestParam(defaultValue = "CSV") VentaExportService.Formato formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) EstadoVenta estado,
+            HttpServletResponse response) throws IOException {
+        // Validar antes de comprometer la respuesta para que un error se devuelva como tal
+        ventaExportService.validarAccesoATienda(tiendaId);
+
+        boolean csv = formato == VentaExportService.Formato.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"ventas-tienda-" + tiendaId + (csv ? ".csv" : ".ndjson") + "\"");
+
+        ventaExportService.exportar(tiendaId, desde, hasta, estado, formato, response.getOutputStream());
+    }
+
     @Operation(summary = "Listar ventas por estado de una tienda", description = "Solo empleados de la tienda pueden ver las ventas")
     @GetMapping("/tienda/{tiendaId}/estado/{estado}")
     @PreAuthorize("hasRole('ENCARGADO') or hasRole('EMPLEADO') or hasRole('SYSADMIN')")
@@ -0,0 +1,21 @@
+package com.devsteve.prestashopv2_backend.models.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportarProductosRequest {
+
+    @NotEmpty(message = "Debe incluir al menos un producto a importar")
+    @Size(max = 1000, message = "No se pueden importar más de 1000 productos por solicitud")
+    @Valid
+    private List<CrearProductoRequest> productos;
+}
@@ -21,6 +21,8 @@ public class VentaRequest {
 
     private Long cuentaClienteId; // Para ventas a crédito o contado con cliente registrado
 
+    private String reservaCreditoId; // Reserva obtenida al iniciar la venta a crédito (opcional)
+
     @Size(max = 100, message = "El nombre del cliente ocasional no puede exceder 100 caracteres")
     private String clienteOcasional; // Para ventas al contado sin cliente registrado
 
@@ -0,0 +1,21 @@
+package com.devsteve.prestashopv2_backend.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> contenido;
+    private Integer tamano;
+    private Boolean hayMas;
+    // Token opaco para pedir la siguiente página; null cuando no hay más resultados
+    private String siguienteCursor;
+}
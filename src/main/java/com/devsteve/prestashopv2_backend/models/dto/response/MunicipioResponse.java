@@ -11,4 +11,5 @@ import lombok.NoArgsConstructor;
 public class MunicipioResponse {
     private Integer id;
     private String nombre;
+    private Integer cantidadTiendas;
 }
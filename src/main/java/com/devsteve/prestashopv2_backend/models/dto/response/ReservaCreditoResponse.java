@@ -0,0 +1,22 @@
+package com.devsteve.prestashopv2_backend.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservaCreditoResponse {
+
+    private String reservaId;
+    private Long cuentaId;
+    private BigDecimal monto;
+    private LocalDateTime expiraEn;
+    private BigDecimal creditoDisponible; // Límite - saldo actual - reservas activas
+}
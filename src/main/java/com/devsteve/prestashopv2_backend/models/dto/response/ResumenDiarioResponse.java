@@ -0,0 +1,25 @@
+package com.devsteve.prestashopv2_backend.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenDiarioResponse {
+
+    private Long tiendaId;
+    private LocalDate fecha;
+    private BigDecimal totalVentas;
+    private BigDecimal totalVentasCredito;
+    private BigDecimal totalAbonos;
+    private Long cantidadVentas;
+    private Long cantidadAbonos;
+    private Long clientesDistintos;
+}
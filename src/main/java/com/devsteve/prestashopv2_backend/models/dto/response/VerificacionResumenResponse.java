@@ -0,0 +1,33 @@
+package com.devsteve.prestashopv2_backend.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VerificacionResumenResponse {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Integer diasVerificados;
+    private Boolean consistente;
+    private List<Discrepancia> discrepancias;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Discrepancia {
+        private Long tiendaId;
+        private LocalDate fecha;
+        private ResumenDiarioResponse esperado;
+        private ResumenDiarioResponse registrado;
+    }
+}
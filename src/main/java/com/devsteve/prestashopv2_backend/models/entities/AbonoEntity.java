@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Getter @Setter @Builder
 public class AbonoEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "abonos_seq")
+    @SequenceGenerator(name = "abonos_seq", sequenceName = "abonos_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
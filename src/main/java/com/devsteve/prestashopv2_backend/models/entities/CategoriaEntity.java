@@ -2,11 +2,15 @@ package com.devsteve.prestashopv2_backend.models.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "categorias")
 @Table(name = "categorias",
        uniqueConstraints = @UniqueConstraint(columnNames = {"tienda_id", "nombre"}))
 @NoArgsConstructor @AllArgsConstructor
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 @Getter @Setter @Builder
 public class DetalleVentaEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_ventas_seq")
+    @SequenceGenerator(name = "detalle_ventas_seq", sequenceName = "detalle_ventas_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,62 @@
+package com.devsteve.prestashopv2_backend.models.entities;
+
+import com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Correo pendiente de envío, escrito en la misma transacción que la operación que lo origina.
+ * Las variables son una copia autocontenida (solo textos, números y mapas) para renderizar
+ * la plantilla sin volver a cargar entidades.
+ */
+@Entity
+@Table(name = "email_outbox")
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter @Builder
+public class EmailOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String asunto;
+
+    @Column(nullable = false, length = 100)
+    private String plantilla;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Map<String, Object> variables;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private EstadoEmailOutbox estado = EstadoEmailOutbox.PENDIENTE;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer intentos = 0;
+
+    @Column(name = "proximo_intento", nullable = false)
+    @Builder.Default
+    private LocalDateTime proximoIntento = LocalDateTime.now();
+
+    @Column(name = "ultimo_error", columnDefinition = "TEXT")
+    private String ultimoError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "enviado_at")
+    private LocalDateTime enviadoAt;
+}
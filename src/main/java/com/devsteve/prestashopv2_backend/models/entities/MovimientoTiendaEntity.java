@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Getter @Setter @Builder
 public class MovimientoTiendaEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_tienda_seq")
+    @SequenceGenerator(name = "movimientos_tienda_seq", sequenceName = "movimientos_tienda_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
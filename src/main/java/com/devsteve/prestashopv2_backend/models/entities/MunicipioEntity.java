@@ -2,11 +2,15 @@ package com.devsteve.prestashopv2_backend.models.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "municipios")
 @Table(name = "municipios",
        uniqueConstraints = @UniqueConstraint(columnNames = {"departamento_id", "nombre"}))
 @NoArgsConstructor @AllArgsConstructor
@@ -0,0 +1,37 @@
+package com.devsteve.prestashopv2_backend.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Clientes atendidos por tienda y día. Permite contar clientes distintos
+ * en el resumen diario y en rangos de varios días sin recorrer los movimientos.
+ */
+@Entity
+@Table(name = "resumen_diario_cliente")
+@IdClass(ResumenDiarioClienteEntity.Clave.class)
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter @Builder
+public class ResumenDiarioClienteEntity {
+    @Id
+    @Column(name = "tienda_id")
+    private Long tiendaId;
+
+    @Id
+    private LocalDate fecha;
+
+    @Id
+    @Column(name = "cliente_usuario_id")
+    private Long clienteUsuarioId;
+
+    @Data
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Long tiendaId;
+        private LocalDate fecha;
+        private Long clienteUsuarioId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.devsteve.prestashopv2_backend.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totales por tienda y día, acumulados al registrar cada movimiento.
+ */
+@Entity
+@Table(name = "resumen_diario_tienda")
+@IdClass(ResumenDiarioTiendaEntity.Clave.class)
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter @Builder
+public class ResumenDiarioTiendaEntity {
+    @Id
+    @Column(name = "tienda_id")
+    private Long tiendaId;
+
+    @Id
+    private LocalDate fecha;
+
+    @Column(name = "total_ventas", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal totalVentas = BigDecimal.ZERO;
+
+    @Column(name = "total_ventas_credito", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal totalVentasCredito = BigDecimal.ZERO;
+
+    @Column(name = "total_abonos", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAbonos = BigDecimal.ZERO;
+
+    @Column(name = "cantidad_ventas", nullable = false)
+    @Builder.Default
+    private Long cantidadVentas = 0L;
+
+    @Column(name = "cantidad_abonos", nullable = false)
+    @Builder.Default
+    private Long cantidadAbonos = 0L;
+
+    @Column(name = "clientes_distintos", nullable = false)
+    @Builder.Default
+    private Long clientesDistintos = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Long tiendaId;
+        private LocalDate fecha;
+    }
+}
@@ -0,0 +1,7 @@
+package com.devsteve.prestashopv2_backend.models.enums;
+
+public enum EstadoEmailOutbox {
+    PENDIENTE,
+    ENVIADO,
+    FALLIDO
+}
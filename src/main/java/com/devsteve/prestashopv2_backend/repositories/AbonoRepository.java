@@ -2,8 +2,10 @@ package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.AbonoEntity;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoAbono;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,7 +18,8 @@ public interface AbonoRepository extends JpaRepository<AbonoEntity, Long> {
     // Consultas por cuenta de cliente
     Page<AbonoEntity> findByCuentaClienteId(@Param("cuentaClienteId") Long cuentaClienteId, Pageable pageable);
 
-    List<AbonoEntity> findByCuentaClienteIdOrderByFechaAbonoDesc(@Param("cuentaClienteId") Long cuentaClienteId);
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<AbonoEntity> findByCuentaClienteIdOrderByFechaAbonoDesc(@Param("cuentaClienteId") Long cuentaClienteId, Limit limite);
 
     Page<AbonoEntity> findByCuentaClienteIdAndEstado(
             @Param("cuentaClienteId") Long cuentaClienteId,
@@ -26,13 +29,20 @@ public interface AbonoRepository extends JpaRepository<AbonoEntity, Long> {
     // Consultas por tienda
     Page<AbonoEntity> findByTiendaId(@Param("tiendaId") Long tiendaId, Pageable pageable);
 
-    List<AbonoEntity> findByTiendaIdOrderByFechaAbonoDesc(@Param("tiendaId") Long tiendaId);
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<AbonoEntity> findByTiendaIdOrderByFechaAbonoDesc(@Param("tiendaId") Long tiendaId, Limit limite);
 
     Page<AbonoEntity> findByTiendaIdAndEstado(
             @Param("tiendaId") Long tiendaId,
             @Param("estado") EstadoAbono estado,
             Pageable pageable);
 
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<AbonoEntity> findByTiendaIdAndEstadoOrderByFechaAbonoDesc(
+            @Param("tiendaId") Long tiendaId,
+            @Param("estado") EstadoAbono estado,
+            Limit limite);
+
     // Consultas por estado
     Page<AbonoEntity> findByEstado(@Param("estado") EstadoAbono estado, Pageable pageable);
 
@@ -43,11 +53,14 @@ public interface AbonoRepository extends JpaRepository<AbonoEntity, Long> {
             Pageable pageable);
 
     // Consultas para clientes
-    List<AbonoEntity> findByCuentaClienteUsuarioIdOrderByFechaAbonoDesc(@Param("usuarioId") Long usuarioId);
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<AbonoEntity> findByCuentaClienteUsuarioIdOrderByFechaAbonoDesc(@Param("usuarioId") Long usuarioId, Limit limite);
 
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
     List<AbonoEntity> findByCuentaClienteUsuarioIdAndEstadoOrderByFechaAbonoDesc(
             @Param("usuarioId") Long usuarioId,
-            @Param("estado") EstadoAbono estado);
+            @Param("estado") EstadoAbono estado,
+            Limit limite);
 
     // Consulta con joins para optimización
     @Query("SELECT a FROM AbonoEntity a " +
@@ -58,7 +71,30 @@ public interface AbonoRepository extends JpaRepository<AbonoEntity, Long> {
     AbonoEntity findByIdWithDetails(@Param("id") Long id);
 
     // Método para clientes - abonos por tienda
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
     List<AbonoEntity> findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaAbonoDesc(
             @Param("usuarioId") Long usuarioId,
-            @Param("tiendaId") Long tiendaId);
+            @Param("tiendaId") Long tiendaId,
+            Limit limite);
+
+    // Paginación por cursor (fecha, id)
+    @Query("SELECT a FROM AbonoEntity a WHERE a.tienda.id = :tiendaId " +
+           "AND (a.fechaAbono < :fecha OR (a.fechaAbono = :fecha AND a.id < :id)) " +
+           "ORDER BY a.fechaAbono DESC, a.id DESC")
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<AbonoEntity> findPaginaDeTienda(
+            @Param("tiendaId") Long tiendaId,
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") Long id,
+            Limit limite);
+
+    @Query("SELECT a FROM AbonoEntity a WHERE a.cuentaCliente.usuario.id = :usuarioId " +
+           "AND (a.fechaAbono < :fecha OR (a.fechaAbono = :fecha AND a.id < :id)) " +
+           "ORDER BY a.fechaAbono DESC, a.id DESC")
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<AbonoEntity> findPaginaDeCliente(
+            @Param("usuarioId") Long usuarioId,
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") Long id,
+            Limit limite);
 }
@@ -1,7 +1,10 @@
 package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.CategoriaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -9,11 +12,13 @@ import java.util.Optional;
 
 public interface CategoriaRepository extends JpaRepository<CategoriaEntity, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CategoriaEntity> findByTiendaIdOrderByNombreAsc(@Param("tiendaId") Long tiendaId);
 
     List<CategoriaEntity> findByTiendaIdAndNombreContainingIgnoreCaseOrderByNombreAsc(
         @Param("tiendaId") Long tiendaId, @Param("nombre") String nombre);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<CategoriaEntity> findByIdAndTiendaId(@Param("id") Long id, @Param("tiendaId") Long tiendaId);
 
     boolean existsByNombreAndTiendaId(@Param("nombre") String nombre, @Param("tiendaId") Long tiendaId);
@@ -1,9 +1,12 @@
 package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.CuentaClienteEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +16,34 @@ public interface CuentaClienteRepository extends JpaRepository<CuentaClienteEnti
 
     boolean existsByUsuarioIdAndTiendaId(@Param("usuarioId") Long usuarioId, @Param("tiendaId") Long tiendaId);
 
+    @EntityGraph(attributePaths = {"usuario", "tienda"})
     List<CuentaClienteEntity> findByTiendaIdOrderByUsuarioNombreCompletoAsc(@Param("tiendaId") Long tiendaId);
 
+    @EntityGraph(attributePaths = {"usuario", "tienda"})
     List<CuentaClienteEntity> findByTiendaIdAndActivaTrueOrderByUsuarioNombreCompletoAsc(@Param("tiendaId") Long tiendaId);
 
+    @EntityGraph(attributePaths = {"usuario", "tienda"})
     List<CuentaClienteEntity> findByUsuarioIdOrderByTiendaNombreAsc(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Verifica y carga en una sola sentencia: solo actualiza si la cuenta está activa y el
+     * crédito disponible cubre {@code creditoRequerido} (el monto más lo reservado por otras
+     * ventas en curso). Devuelve el saldo resultante o vacío si no se aplicó.
+     * El bloqueo de fila lo toma la propia sentencia, así que dos cargas simultáneas no pueden
+     * superar el límite ni perder una actualización.
+     */
+    @Query(value = "UPDATE cuentas_cliente SET saldo_actual = saldo_actual + :monto, updated_at = now() " +
+                   "WHERE id = :cuentaId AND activa AND limite_credito - saldo_actual >= :creditoRequerido " +
+                   "RETURNING saldo_actual",
+           nativeQuery = true)
+    Optional<BigDecimal> cargarSiHayCredito(@Param("cuentaId") Long cuentaId,
+                                            @Param("monto") BigDecimal monto,
+                                            @Param("creditoRequerido") BigDecimal creditoRequerido);
+
+    // Resta el monto solo si el saldo no queda negativo; vacío si no se aplicó
+    @Query(value = "UPDATE cuentas_cliente SET saldo_actual = saldo_actual - :monto, updated_at = now() " +
+                   "WHERE id = :cuentaId AND saldo_actual >= :monto " +
+                   "RETURNING saldo_actual",
+           nativeQuery = true)
+    Optional<BigDecimal> abonarSiHaySaldo(@Param("cuentaId") Long cuentaId, @Param("monto") BigDecimal monto);
 }
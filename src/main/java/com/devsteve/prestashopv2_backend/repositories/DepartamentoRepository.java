@@ -1,10 +1,14 @@
 package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.DepartamentoEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface DepartamentoRepository extends JpaRepository<DepartamentoEntity, Integer> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<DepartamentoEntity> findByNombre(String nombre);
 }
@@ -4,4 +4,6 @@ import com.devsteve.prestashopv2_backend.models.entities.DetalleVentaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface DetalleVentaRepository extends JpaRepository<DetalleVentaEntity, Long> {
+
+    boolean existsByProductoId(Long productoId);
 }
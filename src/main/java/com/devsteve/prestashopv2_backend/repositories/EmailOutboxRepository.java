@@ -0,0 +1,51 @@
+package com.devsteve.prestashopv2_backend.repositories;
+
+import com.devsteve.prestashopv2_backend.models.entities.EmailOutboxEntity;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+    // Filas listas para enviar; las bloqueadas por otro despachador se saltan en lugar de esperar
+    @Query(value = "SELECT * FROM email_outbox " +
+                   "WHERE estado = 'PENDIENTE' AND proximo_intento <= :ahora " +
+                   "ORDER BY proximo_intento, id " +
+                   "LIMIT :lote " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EmailOutboxEntity> reclamarPendientes(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    long countByEstado(EstadoEmailOutbox estado);
+
+    @Query("SELECT MIN(e.createdAt) FROM EmailOutboxEntity e WHERE e.estado = :estado")
+    LocalDateTime findCreacionMasAntigua(@Param("estado") EstadoEmailOutbox estado);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity e SET e.estado = com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox.ENVIADO, " +
+           "e.enviadoAt = :enviadoAt, e.ultimoError = null " +
+           "WHERE e.id = :id")
+    int marcarEnviado(@Param("id") Long id, @Param("enviadoAt") LocalDateTime enviadoAt);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity e SET e.proximoIntento = :proximoIntento, e.ultimoError = :error " +
+           "WHERE e.id = :id")
+    int reprogramar(@Param("id") Long id,
+                    @Param("proximoIntento") LocalDateTime proximoIntento,
+                    @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity e SET e.estado = com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox.FALLIDO, " +
+           "e.ultimoError = :error WHERE e.id = :id")
+    int marcarFallido(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxEntity e WHERE e.estado = com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox.ENVIADO " +
+           "AND e.enviadoAt < :limite")
+    int eliminarEnviadosAntesDe(@Param("limite") LocalDateTime limite);
+}
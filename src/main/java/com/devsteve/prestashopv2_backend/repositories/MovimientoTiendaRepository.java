@@ -2,8 +2,10 @@ package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.MovimientoTiendaEntity;
 import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,11 +16,13 @@ import java.util.List;
 public interface MovimientoTiendaRepository extends JpaRepository<MovimientoTiendaEntity, Long> {
 
     // Consultas por tienda
+    @EntityGraph(attributePaths = {"tienda", "usuarioOperador", "clienteUsuario"})
     Page<MovimientoTiendaEntity> findByTiendaId(@Param("tiendaId") Long tiendaId, Pageable pageable);
 
     List<MovimientoTiendaEntity> findByTiendaIdOrderByFechaEventoDesc(@Param("tiendaId") Long tiendaId);
 
     // Consultas por tipo de evento
+    @EntityGraph(attributePaths = {"tienda", "usuarioOperador", "clienteUsuario"})
     Page<MovimientoTiendaEntity> findByTiendaIdAndTipoEvento(
             @Param("tiendaId") Long tiendaId,
             @Param("tipoEvento") TipoEvento tipoEvento,
@@ -31,47 +35,23 @@ public interface MovimientoTiendaRepository extends JpaRepository<MovimientoTien
     Page<MovimientoTiendaEntity> findByClienteUsuarioId(@Param("clienteUsuarioId") Long clienteUsuarioId, Pageable pageable);
 
     // Consultas por fecha
+    @EntityGraph(attributePaths = {"tienda", "usuarioOperador", "clienteUsuario"})
     Page<MovimientoTiendaEntity> findByTiendaIdAndFechaEventoBetween(
             @Param("tiendaId") Long tiendaId,
             @Param("fechaInicio") LocalDateTime fechaInicio,
             @Param("fechaFin") LocalDateTime fechaFin,
             Pageable pageable);
 
-    // Consultas para estadísticas - ventas del día
+    // Paginación por cursor (fecha, id)
     @Query("SELECT m FROM MovimientoTiendaEntity m WHERE m.tienda.id = :tiendaId " +
-           "AND m.tipoEvento = 'VENTA_REGISTRADA' " +
-           "AND m.fechaEvento BETWEEN :fechaInicio AND :fechaFin")
-    List<MovimientoTiendaEntity> findVentasDelDia(
+           "AND (m.fechaEvento < :fecha OR (m.fechaEvento = :fecha AND m.id < :id)) " +
+           "ORDER BY m.fechaEvento DESC, m.id DESC")
+    @EntityGraph(attributePaths = {"tienda", "usuarioOperador", "clienteUsuario"})
+    List<MovimientoTiendaEntity> findPaginaDeTienda(
             @Param("tiendaId") Long tiendaId,
-            @Param("fechaInicio") LocalDateTime fechaInicio,
-            @Param("fechaFin") LocalDateTime fechaFin);
-
-    // Consultas para estadísticas - abonos del día
-    @Query("SELECT m FROM MovimientoTiendaEntity m WHERE m.tienda.id = :tiendaId " +
-           "AND m.tipoEvento = 'ABONO_REGISTRADO' " +
-           "AND m.fechaEvento BETWEEN :fechaInicio AND :fechaFin")
-    List<MovimientoTiendaEntity> findAbonosDelDia(
-            @Param("tiendaId") Long tiendaId,
-            @Param("fechaInicio") LocalDateTime fechaInicio,
-            @Param("fechaFin") LocalDateTime fechaFin);
-
-    // Consultas para estadísticas - ventas del mes
-    @Query("SELECT m FROM MovimientoTiendaEntity m WHERE m.tienda.id = :tiendaId " +
-           "AND m.tipoEvento = 'VENTA_REGISTRADA' " +
-           "AND m.fechaEvento BETWEEN :fechaInicio AND :fechaFin")
-    List<MovimientoTiendaEntity> findVentasDelMes(
-            @Param("tiendaId") Long tiendaId,
-            @Param("fechaInicio") LocalDateTime fechaInicio,
-            @Param("fechaFin") LocalDateTime fechaFin);
-
-    // Consultas para estadísticas - abonos del mes
-    @Query("SELECT m FROM MovimientoTiendaEntity m WHERE m.tienda.id = :tiendaId " +
-           "AND m.tipoEvento = 'ABONO_REGISTRADO' " +
-           "AND m.fechaEvento BETWEEN :fechaInicio AND :fechaFin")
-    List<MovimientoTiendaEntity> findAbonosDelMes(
-            @Param("tiendaId") Long tiendaId,
-            @Param("fechaInicio") LocalDateTime fechaInicio,
-            @Param("fechaFin") LocalDateTime fechaFin);
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") Long id,
+            Limit limite);
 
     // Consulta con joins para optimización
     @Query("SELECT m FROM MovimientoTiendaEntity m " +
@@ -2,10 +2,19 @@ package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.DepartamentoEntity;
 import com.devsteve.prestashopv2_backend.models.entities.MunicipioEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MunicipioRepository extends JpaRepository<MunicipioEntity, Integer> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<MunicipioEntity> findByDepartamentoAndNombre(DepartamentoEntity departamento, String nombre);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<MunicipioEntity> findAll();
 }
@@ -4,6 +4,7 @@ import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,5 +22,7 @@ public interface ProductoRepository extends JpaRepository<ProductoEntity, Long>
 
     Optional<ProductoEntity> findByIdAndTiendaId(@Param("id") Long id, @Param("tiendaId") Long tiendaId);
 
+    List<ProductoEntity> findAllByIdInAndTiendaId(@Param("ids") Collection<Long> ids, @Param("tiendaId") Long tiendaId);
+
     List<ProductoEntity> findByCategoriaIdOrderByNombreAsc(@Param("categoriaId") Long categoriaId);
 }
@@ -0,0 +1,143 @@
+package com.devsteve.prestashopv2_backend.repositories;
+
+import com.devsteve.prestashopv2_backend.models.entities.ResumenDiarioTiendaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumenDiarioTiendaRepository extends JpaRepository<ResumenDiarioTiendaEntity, ResumenDiarioTiendaEntity.Clave> {
+
+    /**
+     * Recalcula el resumen desde movimientos_tienda para las fechas [:desde, :hasta].
+     * Columnas: tienda_id, fecha, total_ventas, total_ventas_credito, total_abonos,
+     * cantidad_ventas, cantidad_abonos, clientes_distintos.
+     */
+    String CALCULO_DESDE_MOVIMIENTOS =
+            "SELECT m.tienda_id, CAST(m.fecha_evento AS date) AS fecha, " +
+            "COALESCE(SUM(m.monto) FILTER (WHERE CAST(m.tipo_evento AS text) = 'VENTA_REGISTRADA'), 0), " +
+            "COALESCE(SUM(m.monto) FILTER (WHERE CAST(m.tipo_evento AS text) = 'VENTA_REGISTRADA' " +
+            "AND CAST(v.tipo_venta AS text) = 'CREDITO'), 0), " +
+            "COALESCE(SUM(m.monto) FILTER (WHERE CAST(m.tipo_evento AS text) = 'ABONO_REGISTRADO'), 0), " +
+            "COUNT(*) FILTER (WHERE CAST(m.tipo_evento AS text) = 'VENTA_REGISTRADA'), " +
+            "COUNT(*) FILTER (WHERE CAST(m.tipo_evento AS text) = 'ABONO_REGISTRADO'), " +
+            "COUNT(DISTINCT m.cliente_usuario_id) " +
+            "FROM movimientos_tienda m " +
+            "LEFT JOIN ventas v ON m.referencia_tabla = 'ventas' AND v.id = m.referencia_id " +
+            "WHERE CAST(m.tipo_evento AS text) IN ('VENTA_REGISTRADA', 'ABONO_REGISTRADO') " +
+            "AND m.fecha_evento >= CAST(:desde AS timestamp) " +
+            "AND m.fecha_evento < CAST(:hasta AS timestamp) + INTERVAL '1 day' " +
+            "GROUP BY m.tienda_id, CAST(m.fecha_evento AS date)";
+
+    // Acumulación incremental (mismo INSERT concurrente-seguro para el primer y los siguientes eventos del día).
+    // Los SQL nativos de escritura declaran su tabla: sin ella Hibernate vacía toda la caché de segundo nivel
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_tienda"))
+    @Query(value = "INSERT INTO resumen_diario_tienda (tienda_id, fecha, total_ventas, total_ventas_credito, " +
+                   "total_abonos, cantidad_ventas, cantidad_abonos, clientes_distintos, updated_at) " +
+                   "VALUES (:tiendaId, :fecha, :totalVentas, :totalVentasCredito, :totalAbonos, " +
+                   ":cantidadVentas, :cantidadAbonos, :clientesNuevos, now()) " +
+                   "ON CONFLICT (tienda_id, fecha) DO UPDATE SET " +
+                   "total_ventas = resumen_diario_tienda.total_ventas + EXCLUDED.total_ventas, " +
+                   "total_ventas_credito = resumen_diario_tienda.total_ventas_credito + EXCLUDED.total_ventas_credito, " +
+                   "total_abonos = resumen_diario_tienda.total_abonos + EXCLUDED.total_abonos, " +
+                   "cantidad_ventas = resumen_diario_tienda.cantidad_ventas + EXCLUDED.cantidad_ventas, " +
+                   "cantidad_abonos = resumen_diario_tienda.cantidad_abonos + EXCLUDED.cantidad_abonos, " +
+                   "clientes_distintos = resumen_diario_tienda.clientes_distintos + EXCLUDED.clientes_distintos, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    int acumular(@Param("tiendaId") Long tiendaId,
+                 @Param("fecha") LocalDate fecha,
+                 @Param("totalVentas") BigDecimal totalVentas,
+                 @Param("totalVentasCredito") BigDecimal totalVentasCredito,
+                 @Param("totalAbonos") BigDecimal totalAbonos,
+                 @Param("cantidadVentas") long cantidadVentas,
+                 @Param("cantidadAbonos") long cantidadAbonos,
+                 @Param("clientesNuevos") long clientesNuevos);
+
+    // Devuelve 1 si es la primera vez que el cliente aparece en la tienda ese día
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cliente"))
+    @Query(value = "INSERT INTO resumen_diario_cliente (tienda_id, fecha, cliente_usuario_id) " +
+                   "VALUES (:tiendaId, :fecha, :clienteUsuarioId) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int registrarCliente(@Param("tiendaId") Long tiendaId,
+                         @Param("fecha") LocalDate fecha,
+                         @Param("clienteUsuarioId") Long clienteUsuarioId);
+
+    // Consultas de lectura para estadísticas: una fila por día, sin recorrer movimientos
+    @Query("SELECT COALESCE(SUM(r.totalVentas), 0) AS totalVentas, " +
+           "COALESCE(SUM(r.totalVentasCredito), 0) AS totalVentasCredito, " +
+           "COALESCE(SUM(r.totalAbonos), 0) AS totalAbonos, " +
+           "COALESCE(SUM(r.cantidadVentas), 0) AS cantidadVentas, " +
+           "COALESCE(SUM(r.cantidadAbonos), 0) AS cantidadAbonos, " +
+           "(SELECT COUNT(DISTINCT c.clienteUsuarioId) FROM ResumenDiarioClienteEntity c " +
+           " WHERE c.tiendaId = :tiendaId AND c.fecha BETWEEN :desde AND :hasta) AS clientesDistintos " +
+           "FROM ResumenDiarioTiendaEntity r " +
+           "WHERE r.tiendaId = :tiendaId AND r.fecha BETWEEN :desde AND :hasta")
+    TotalesPeriodo sumarPeriodo(@Param("tiendaId") Long tiendaId,
+                                @Param("desde") LocalDate desde,
+                                @Param("hasta") LocalDate hasta);
+
+    List<ResumenDiarioTiendaEntity> findByFechaBetween(LocalDate desde, LocalDate hasta);
+
+    // Reconstrucción desde movimientos_tienda
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_tienda"))
+    @Query(value = "LOCK TABLE resumen_diario_tienda, resumen_diario_cliente IN SHARE ROW EXCLUSIVE MODE",
+           nativeQuery = true)
+    void bloquearParaReconstruccion();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cliente"))
+    @Query(value = "DELETE FROM resumen_diario_cliente WHERE fecha BETWEEN :desde AND :hasta", nativeQuery = true)
+    int eliminarClientes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_tienda"))
+    @Query(value = "DELETE FROM resumen_diario_tienda WHERE fecha BETWEEN :desde AND :hasta", nativeQuery = true)
+    int eliminarResumenes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cliente"))
+    @Query(value = "INSERT INTO resumen_diario_cliente (tienda_id, fecha, cliente_usuario_id) " +
+                   "SELECT DISTINCT m.tienda_id, CAST(m.fecha_evento AS date), m.cliente_usuario_id " +
+                   "FROM movimientos_tienda m " +
+                   "WHERE m.cliente_usuario_id IS NOT NULL " +
+                   "AND CAST(m.tipo_evento AS text) IN ('VENTA_REGISTRADA', 'ABONO_REGISTRADO') " +
+                   "AND m.fecha_evento >= CAST(:desde AS timestamp) " +
+                   "AND m.fecha_evento < CAST(:hasta AS timestamp) + INTERVAL '1 day'",
+           nativeQuery = true)
+    int reconstruirClientes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_tienda"))
+    @Query(value = "INSERT INTO resumen_diario_tienda (tienda_id, fecha, total_ventas, total_ventas_credito, " +
+                   "total_abonos, cantidad_ventas, cantidad_abonos, clientes_distintos, updated_at) " +
+                   "SELECT calculo.*, now() FROM (" + CALCULO_DESDE_MOVIMIENTOS + ") calculo",
+           nativeQuery = true)
+    int reconstruirResumenes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // Verificación de consistencia
+    @Query(value = CALCULO_DESDE_MOVIMIENTOS, nativeQuery = true)
+    List<Object[]> calcularDesdeMovimientos(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Proyección de totales acumulados en un rango de días.
+     */
+    interface TotalesPeriodo {
+        BigDecimal getTotalVentas();
+        BigDecimal getTotalVentasCredito();
+        BigDecimal getTotalAbonos();
+        Long getCantidadVentas();
+        Long getCantidadAbonos();
+        Long getClientesDistintos();
+    }
+}
@@ -1,8 +1,11 @@
 package com.devsteve.prestashopv2_backend.repositories;
 
 import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -12,8 +15,10 @@ public interface TiendaRepository extends JpaRepository<TiendaEntity, Long> {
 
     List<TiendaEntity> findByActivoTrue();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TiendaEntity> findByActivoTrueOrderByNombre();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TiendaEntity> findByMunicipioIdAndActivoTrueOrderByNombre(@Param("municipioId") Integer municipioId);
 
     @Query("SELECT t FROM TiendaEntity t " +
@@ -21,7 +26,9 @@ public interface TiendaRepository extends JpaRepository<TiendaEntity, Long> {
            "JOIN m.departamento d " +
            "WHERE d.id = :departamentoId AND t.activo = true " +
            "ORDER BY t.nombre")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TiendaEntity> findByMunicipioDepartamentoIdAndActivoTrueOrderByNombre(@Param("departamentoId") Integer departamentoId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<TiendaEntity> findByIdAndActivoTrue(@Param("id") Long id);
 }
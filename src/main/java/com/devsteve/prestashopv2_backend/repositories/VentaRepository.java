@@ -3,8 +3,10 @@ package com.devsteve.prestashopv2_backend.repositories;
 import com.devsteve.prestashopv2_backend.models.entities.VentaEntity;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
 import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -42,11 +44,14 @@ public interface VentaRepository extends JpaRepository<VentaEntity, Long> {
         @Param("fechaFin") LocalDateTime fechaFin,
         Pageable pageable);
 
-    List<VentaEntity> findByTiendaIdOrderByFechaVentaDesc(@Param("tiendaId") Long tiendaId);
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<VentaEntity> findByTiendaIdOrderByFechaVentaDesc(@Param("tiendaId") Long tiendaId, Limit limite);
 
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
     List<VentaEntity> findByTiendaIdAndEstadoOrderByFechaVentaDesc(
         @Param("tiendaId") Long tiendaId,
-        @Param("estado") EstadoVenta estado);
+        @Param("estado") EstadoVenta estado,
+        Limit limite);
 
     @Query("SELECT v FROM VentaEntity v " +
            "LEFT JOIN FETCH v.detalleVentas d " +
@@ -57,17 +62,44 @@ public interface VentaRepository extends JpaRepository<VentaEntity, Long> {
            "WHERE v.id = :id")
     Optional<VentaEntity> findByIdWithDetalles(@Param("id") Long id);
 
+    // Paginación por cursor (fecha, id)
+    @Query("SELECT v FROM VentaEntity v WHERE v.tienda.id = :tiendaId " +
+           "AND (v.fechaVenta < :fecha OR (v.fechaVenta = :fecha AND v.id < :id)) " +
+           "ORDER BY v.fechaVenta DESC, v.id DESC")
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<VentaEntity> findPaginaDeTienda(
+        @Param("tiendaId") Long tiendaId,
+        @Param("fecha") LocalDateTime fecha,
+        @Param("id") Long id,
+        Limit limite);
+
+    @Query("SELECT v FROM VentaEntity v WHERE v.cuentaCliente.usuario.id = :usuarioId " +
+           "AND (v.fechaVenta < :fecha OR (v.fechaVenta = :fecha AND v.id < :id)) " +
+           "ORDER BY v.fechaVenta DESC, v.id DESC")
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<VentaEntity> findPaginaDeCliente(
+        @Param("usuarioId") Long usuarioId,
+        @Param("fecha") LocalDateTime fecha,
+        @Param("id") Long id,
+        Limit limite);
+
     // Métodos para consultar ventas de clientes
-    List<VentaEntity> findByCuentaClienteUsuarioIdOrderByFechaVentaDesc(@Param("usuarioId") Long usuarioId);
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
+    List<VentaEntity> findByCuentaClienteUsuarioIdOrderByFechaVentaDesc(@Param("usuarioId") Long usuarioId, Limit limite);
 
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
     List<VentaEntity> findByCuentaClienteUsuarioIdAndEstadoOrderByFechaVentaDesc(
         @Param("usuarioId") Long usuarioId,
-        @Param("estado") EstadoVenta estado);
+        @Param("estado") EstadoVenta estado,
+        Limit limite);
 
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
     List<VentaEntity> findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaVentaDesc(
         @Param("usuarioId") Long usuarioId,
-        @Param("tiendaId") Long tiendaId);
+        @Param("tiendaId") Long tiendaId,
+        Limit limite);
 
+    @EntityGraph(attributePaths = {"tienda", "cuentaCliente", "cuentaCliente.usuario"})
     List<VentaEntity> findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc(
         @Param("usuarioId") Long usuarioId,
         @Param("estados") List<EstadoVenta> estados);
@@ -1,7 +1,10 @@
 package com.devsteve.prestashopv2_backend.security;
 
 import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
-import io.jsonwebtoken.Claims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -13,43 +16,78 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
-    @Value("${jwt.secret-key}")
-    private String secretKey;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
-    }
-
-    @SuppressWarnings("unchecked")
-    public List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> (List<String>) claims.get("roles"));
-    }
-
-    @SuppressWarnings("unchecked")
-    public List<Long> extractTiendas(String token) {
-        return extractClaim(token, claims -> (List<Long>) claims.get("tiendas"));
+    private final long jwtExpiration;
+    // Clave y parser inmutables: se construyen una sola vez (el parser de jjwt es thread-safe)
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final Cache<String, TokenVerificado> verificados;
+
+    public JwtService(@Value("${jwt.secret-key}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${security.jwt-cache.max-entradas:10000}") long maxEntradas) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        // Cada entrada vence junto con su token
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new Expiry<String, TokenVerificado>() {
+                    @Override
+                    public long expireAfterCreate(String hash, TokenVerificado token, long ahora) {
+                        if (token.expiraEn() == null) {
+                            return Duration.ofMillis(jwtExpiration).toNanos();
+                        }
+                        return Math.max(0, Duration.between(Instant.now(), token.expiraEn()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, TokenVerificado token, long ahora, long restante) {
+                        return restante;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, TokenVerificado token, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Verifica firma y expiración del token una sola vez y devuelve sus claims inmutables.
+     * Los tokens verificados recientemente se reconocen por su hash SHA-256 sin volver a verificar.
+     *
+     * @throws io.jsonwebtoken.JwtException si el token es inválido o expiró
+     */
+    public TokenVerificado verificar(String token) {
+        String hash = hash(token);
+
+        TokenVerificado cacheado = verificados.getIfPresent(hash);
+        if (cacheado != null && cacheado.vigente()) {
+            return cacheado;
+        }
+
+        TokenVerificado verificado = TokenVerificado.desde(parser.parseClaimsJws(token).getBody());
+        verificados.put(hash, verificado);
+        return verificado;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -97,34 +135,20 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public boolean isTokenValid(TokenVerificado token, UserDetails userDetails) {
+        return token.email().equals(userDetails.getUsername()) && token.vigente();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
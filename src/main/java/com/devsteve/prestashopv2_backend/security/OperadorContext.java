@@ -0,0 +1,123 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import com.devsteve.prestashopv2_backend.repositories.TiendaRepository;
+import com.devsteve.prestashopv2_backend.repositories.UsuarioRepository;
+import com.devsteve.prestashopv2_backend.utils.consultas.EstadisticasPeticion;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Operador autenticado de la petición actual.
+ * Id, roles y tiendas activas salen del PrincipalOperador que JwtAuthenticationFilter dejó en el
+ * contexto de seguridad (claims del JWT, o la base de datos tras una invalidación), sin consultar.
+ * Las entidades solo se cargan cuando un servicio las pide, y por id.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+@Slf4j
+public class OperadorContext {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TiendaRepository tiendaRepository;
+    private final OperadorContextEstadisticas estadisticas;
+
+    private PrincipalOperador operador;
+    private Set<Long> tiendasActivasIds;
+    private TiendaEntity tiendaAsignada;
+    private int sentencias;
+
+    /**
+     * Referencia al usuario para asociarlo a otra entidad; no consulta la base de datos
+     * hasta que se lee alguno de sus campos.
+     */
+    public UsuarioEntity getUsuario() {
+        return usuarioRepository.getReferenceById(getUsuarioId());
+    }
+
+    public Long getUsuarioId() {
+        return resolver().getUsuarioId();
+    }
+
+    public String getEmail() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    public boolean tieneRol(String rol) {
+        return resolver().getRoles().contains(rol);
+    }
+
+    public boolean esSysAdmin() {
+        return tieneRol("SYSADMIN");
+    }
+
+    public boolean esEncargadoOEmpleado() {
+        Set<String> roles = resolver().getRoles();
+        return roles.contains("ENCARGADO") || roles.contains("EMPLEADO");
+    }
+
+    public Set<Long> getTiendasActivasIds() {
+        if (tiendasActivasIds == null) {
+            tiendasActivasIds = Set.copyOf(resolver().getTiendasActivasIds());
+        }
+        return tiendasActivasIds;
+    }
+
+    public boolean tieneAccesoATienda(Long tiendaId) {
+        return getTiendasActivasIds().contains(tiendaId);
+    }
+
+    /**
+     * Primera tienda activa donde trabaja el operador, cargada por id (caché de segundo nivel).
+     */
+    public Optional<TiendaEntity> getTiendaAsignada() {
+        if (tiendaAsignada == null) {
+            resolver().getTiendasActivasIds().stream().findFirst().ifPresent(tiendaId -> {
+                int antes = EstadisticasPeticion.sentenciasEnCurso();
+                tiendaAsignada = tiendaRepository.findById(tiendaId).orElse(null);
+                sentencias += EstadisticasPeticion.sentenciasEnCurso() - antes;
+            });
+        }
+        return Optional.ofNullable(tiendaAsignada);
+    }
+
+    @PreDestroy
+    void registrarEstadisticas() {
+        if (operador != null) {
+            estadisticas.registrar(sentencias);
+            log.debug("Operador {} resuelto con {} sentencias", operador.getUsername(), sentencias);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private PrincipalOperador resolver() {
+        if (operador != null) {
+            return operador;
+        }
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.getPrincipal() instanceof PrincipalOperador principal) {
+            operador = principal;
+            return operador;
+        }
+
+        // Autenticación sin PrincipalOperador (otro mecanismo de login): se resuelve contra la base de datos
+        int antes = EstadisticasPeticion.sentenciasEnCurso();
+        operador = usuarioRepository.findByEmailWithRolesAndTiendas(getEmail())
+                .map(PrincipalOperador::desde)
+                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+        sentencias += EstadisticasPeticion.sentenciasEnCurso() - antes;
+        return operador;
+    }
+}
@@ -0,0 +1,30 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores acumulados del OperadorContext: cuántas peticiones resolvieron al operador y cuántas
+ * sentencias JDBC costó resolverlo (medidas con EstadisticasPeticion). Con el principal armado
+ * desde el JWT el segundo contador solo crece al cargar la tienda asignada fuera de la caché.
+ */
+@Component
+public class OperadorContextEstadisticas {
+
+    private final LongAdder peticiones = new LongAdder();
+    private final LongAdder sentencias = new LongAdder();
+
+    void registrar(int sentenciasPeticion) {
+        peticiones.increment();
+        sentencias.add(sentenciasPeticion);
+    }
+
+    public long getPeticiones() {
+        return peticiones.sum();
+    }
+
+    public long getSentencias() {
+        return sentencias.sum();
+    }
+}
@@ -0,0 +1,116 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Caché de principales autenticados por ID de usuario.
+ * Construye el PrincipalOperador a partir de los claims firmados del JWT y solo consulta
+ * la base de datos cuando el token fue emitido antes de la última invalidación del usuario.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<Long, UserDetails> principales;
+    private final Cache<Long, Date> invalidaciones;
+
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          @Value("${security.principal-cache.ttl-segundos:300}") long ttlSegundos,
+                          @Value("${security.principal-cache.max-entradas:10000}") long maxEntradas,
+                          @Value("${jwt.expiration}") long jwtExpiration) {
+        this.userDetailsService = userDetailsService;
+        this.principales = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .build();
+        // Las invalidaciones deben sobrevivir a cualquier token emitido antes de ellas
+        this.invalidaciones = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
+    }
+
+    public UserDetails obtener(TokenVerificado token) {
+        Long userId = token.userId();
+
+        // Tokens sin userId: resolver contra la base de datos como antes
+        if (userId == null) {
+            return userDetailsService.loadUserByUsername(token.email());
+        }
+
+        UserDetails cacheado = principales.getIfPresent(userId);
+        if (cacheado != null) {
+            return cacheado;
+        }
+
+        // Invalidación vigente al empezar: si cambia mientras se construye el principal, no se cachea
+        Date invalidacionPrevia = invalidaciones.getIfPresent(userId);
+
+        // Sin roles o tiendas en los claims (tokens anteriores) tampoco alcanza con el token
+        UserDetails principal = emitidoAntesDeInvalidacion(invalidacionPrevia, token.emitidoEn())
+                || token.roles() == null || token.tiendas() == null
+                ? userDetailsService.loadUserByUsername(token.email())
+                : construirDesdeClaims(token);
+
+        // compute bloquea la entrada frente a principales.invalidate: una invalidación aplicada durante
+        // la construcción ya está en invalidaciones y el principal anterior no vuelve a la caché
+        principales.asMap().compute(userId, (id, actual) ->
+                invalidaciones.getIfPresent(id) == invalidacionPrevia ? principal : actual);
+        return principal;
+    }
+
+    /**
+     * Descarta el principal cacheado del usuario. Si hay una transacción activa,
+     * la invalidación se aplica después del commit para no recachear el estado anterior.
+     */
+    public void invalidar(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicarInvalidacion(userId);
+                }
+            });
+        } else {
+            aplicarInvalidacion(userId);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void aplicarInvalidacion(Long userId) {
+        // Siempre una instancia nueva: obtener compara por identidad para detectar invalidaciones concurrentes
+        invalidaciones.put(userId, new Date());
+        principales.invalidate(userId);
+        log.debug("Principal invalidado para usuario {}", userId);
+    }
+
+    private boolean emitidoAntesDeInvalidacion(Date invalidadoEn, Instant emitidoEn) {
+        if (invalidadoEn == null) {
+            return false;
+        }
+        // iat tiene precisión de segundos: un token del mismo segundo se considera anterior
+        return emitidoEn == null || emitidoEn.getEpochSecond() <= invalidadoEn.getTime() / 1000;
+    }
+
+    private UserDetails construirDesdeClaims(TokenVerificado token) {
+        return new PrincipalOperador(token.email(), "", true, token.userId(), token.roles(), token.tiendas());
+    }
+}
@@ -0,0 +1,68 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Principal autenticado con lo que los servicios necesitan del operador: id, roles y tiendas
+ * activas. Se arma desde los claims del JWT o, tras una invalidación, desde la base de datos;
+ * PrincipalCache lo guarda y OperadorContext lo lee sin volver a consultar al usuario.
+ */
+public class PrincipalOperador extends User {
+
+    private final Long usuarioId;
+    private final Set<String> roles;
+    // En el orden de asignación: la primera es la tienda asignada del operador
+    private final List<Long> tiendasActivasIds;
+
+    public PrincipalOperador(String email, String password, boolean activo, Long usuarioId,
+                             Collection<String> roles, List<Long> tiendasActivasIds) {
+        super(email, password, activo, true, true, true, autoridades(roles));
+        this.usuarioId = usuarioId;
+        this.roles = roles.stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet());
+        this.tiendasActivasIds = List.copyOf(tiendasActivasIds);
+    }
+
+    /**
+     * Usuario cargado con sus roles y tiendas (findByEmailWithRolesAndTiendas).
+     */
+    public static PrincipalOperador desde(UsuarioEntity usuario) {
+        return new PrincipalOperador(
+                usuario.getEmail(),
+                usuario.getPassword(),
+                Boolean.TRUE.equals(usuario.getActivo()),
+                usuario.getId(),
+                usuario.getRoles().stream().map(rol -> rol.getNombre()).toList(),
+                usuario.getEmpleadoTiendas().stream()
+                        .filter(et -> et.getActivo())
+                        .map(et -> et.getTienda().getId())
+                        .toList());
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public List<Long> getTiendasActivasIds() {
+        return tiendasActivasIds;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static List<GrantedAuthority> autoridades(Collection<String> roles) {
+        return roles.stream()
+                .map(rol -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + rol.toUpperCase()))
+                .toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims de un JWT ya verificado (firma y expiración). Inmutable: se obtiene una vez por
+ * petición en JwtAuthenticationFilter y queda como credencial de la autenticación.
+ */
+public record TokenVerificado(String email,
+                              Long userId,
+                              String nombreCompleto,
+                              List<String> roles,
+                              List<Long> tiendas,
+                              Instant emitidoEn,
+                              Instant expiraEn) {
+
+    static TokenVerificado desde(Claims claims) {
+        return new TokenVerificado(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("nombreCompleto", String.class),
+                listaDe(claims.get("roles"), String.class),
+                listaDe(claims.get("tiendas"), Long.class),
+                instante(claims.getIssuedAt()),
+                instante(claims.getExpiration()));
+    }
+
+    public boolean vigente() {
+        return expiraEn == null || Instant.now().isBefore(expiraEn);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static <T> List<T> listaDe(Object valor, Class<T> tipo) {
+        if (!(valor instanceof List<?> lista)) {
+            return null;
+        }
+        // Jackson deserializa los números pequeños como Integer
+        return lista.stream()
+                .map(elemento -> tipo == Long.class && elemento instanceof Number numero
+                        ? tipo.cast(numero.longValue())
+                        : tipo.cast(elemento))
+                .toList();
+    }
+
+    private static Instant instante(Date fecha) {
+        return fecha == null ? null : fecha.toInstant();
+    }
+}
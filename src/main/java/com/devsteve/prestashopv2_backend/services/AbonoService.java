@@ -1,16 +1,20 @@
 package com.devsteve.prestashopv2_backend.services;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.AbonoRequest;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.dto.response.AbonoResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoAbono;
 import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
 import com.devsteve.prestashopv2_backend.services.email.AbonoEmailService;
+import com.devsteve.prestashopv2_backend.services.metricas.MetricasNegocio;
 import com.devsteve.prestashopv2_backend.utils.mappers.AbonoMapper;
+import com.devsteve.prestashopv2_backend.utils.paginacion.Cursor;
+import com.devsteve.prestashopv2_backend.utils.paginacion.Paginacion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,21 +29,25 @@ public class AbonoService {
 
     private final AbonoRepository abonoRepository;
     private final CuentaClienteRepository cuentaClienteRepository;
-    private final UsuarioRepository usuarioRepository;
     private final CuentaClienteService cuentaClienteService;
     private final AbonoMapper abonoMapper;
     private final AbonoEmailService abonoEmailService;
     private final MovimientoTiendaService movimientoTiendaService;
+    private final OperadorContext operadorContext;
+    private final Paginacion paginacion;
+    private final MetricasNegocio metricasNegocio;
 
     @Transactional
     public AbonoResponse crear(AbonoRequest request) {
-        // Obtener usuario autenticado (encargado o empleado)
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+        // Obtener la tienda del empleado autenticado
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        return metricasNegocio.medir(MetricasNegocio.ABONO_CREACION, tienda.getId(),
+                () -> crearEnTienda(request, tienda));
+    }
+
+    private AbonoResponse crearEnTienda(AbonoRequest request, TiendaEntity tienda) {
+        String emailSolicitante = operadorContext.getEmail();
 
         // Verificar que la cuenta del cliente existe y pertenece a la tienda
         CuentaClienteEntity cuentaCliente = cuentaClienteRepository.findById(request.getCuentaClienteId())
@@ -97,16 +105,30 @@ public class AbonoService {
         // Validar acceso a la tienda
         validarAccesoATienda(tiendaId);
 
-        List<AbonoEntity> abonos = abonoRepository.findByTiendaIdOrderByFechaAbonoDesc(tiendaId);
+        List<AbonoEntity> abonos = abonoRepository.findByTiendaIdOrderByFechaAbonoDesc(tiendaId, paginacion.limiteListado());
         return abonoMapper.toResponseList(abonos);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AbonoResponse> listarAbonosDeTiendaPorCursor(Long tiendaId, String cursor, Integer tamano) {
+        // Validar acceso a la tienda
+        validarAccesoATienda(tiendaId);
+
+        Cursor posicion = Cursor.decodificar(cursor);
+        int tamanoPagina = paginacion.tamanoPagina(tamano);
+
+        List<AbonoEntity> abonos = abonoRepository.findPaginaDeTienda(
+                tiendaId, posicion.getFecha(), posicion.getId(), paginacion.limitePagina(tamanoPagina));
+        return paginacion.construirPagina(abonos, tamanoPagina,
+                AbonoEntity::getFechaAbono, AbonoEntity::getId, abonoMapper::toResponseList);
+    }
+
     @Transactional(readOnly = true)
     public List<AbonoResponse> listarAbonosPorEstado(Long tiendaId, EstadoAbono estado) {
         // Validar acceso a la tienda
         validarAccesoATienda(tiendaId);
 
-        List<AbonoEntity> abonos = abonoRepository.findByTiendaIdAndEstado(tiendaId, estado, null).getContent();
+        List<AbonoEntity> abonos = abonoRepository.findByTiendaIdAndEstadoOrderByFechaAbonoDesc(tiendaId, estado, paginacion.limiteListado());
         return abonoMapper.toResponseList(abonos);
     }
 
@@ -118,37 +140,36 @@ public class AbonoService {
 
         validarAccesoACuenta(cuenta);
 
-        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteIdOrderByFechaAbonoDesc(cuentaClienteId);
+        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteIdOrderByFechaAbonoDesc(cuentaClienteId, paginacion.limiteListado());
         return abonoMapper.toResponseList(abonos);
     }
 
     @Transactional(readOnly = true)
     public List<AbonoResponse> listarMisAbonos() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteUsuarioIdOrderByFechaAbonoDesc(usuario.getId());
+        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteUsuarioIdOrderByFechaAbonoDesc(operadorContext.getUsuarioId(), paginacion.limiteListado());
         return abonoMapper.toResponseList(abonos);
     }
 
     @Transactional(readOnly = true)
-    public List<AbonoResponse> listarMisAbonosPorEstado(EstadoAbono estado) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    public CursorPageResponse<AbonoResponse> listarMisAbonosPorCursor(String cursor, Integer tamano) {
+        Cursor posicion = Cursor.decodificar(cursor);
+        int tamanoPagina = paginacion.tamanoPagina(tamano);
+
+        List<AbonoEntity> abonos = abonoRepository.findPaginaDeCliente(
+                operadorContext.getUsuarioId(), posicion.getFecha(), posicion.getId(), paginacion.limitePagina(tamanoPagina));
+        return paginacion.construirPagina(abonos, tamanoPagina,
+                AbonoEntity::getFechaAbono, AbonoEntity::getId, abonoMapper::toResponseList);
+    }
 
-        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteUsuarioIdAndEstadoOrderByFechaAbonoDesc(usuario.getId(), estado);
+    @Transactional(readOnly = true)
+    public List<AbonoResponse> listarMisAbonosPorEstado(EstadoAbono estado) {
+        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteUsuarioIdAndEstadoOrderByFechaAbonoDesc(operadorContext.getUsuarioId(), estado, paginacion.limiteListado());
         return abonoMapper.toResponseList(abonos);
     }
 
     @Transactional(readOnly = true)
     public List<AbonoResponse> listarMisAbonosPorTienda(Long tiendaId) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaAbonoDesc(usuario.getId(), tiendaId);
+        List<AbonoEntity> abonos = abonoRepository.findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaAbonoDesc(operadorContext.getUsuarioId(), tiendaId, paginacion.limiteListado());
         return abonoMapper.toResponseList(abonos);
     }
 
@@ -187,7 +208,7 @@ public class AbonoService {
         }
 
         log.info("Estado de abono #{} cambiado de {} a {} por {}",
-                id, estadoAnterior, nuevoEstado, SecurityContextHolder.getContext().getAuthentication().getName());
+                id, estadoAnterior, nuevoEstado, operadorContext.getEmail());
 
         return abonoMapper.toResponse(abonoActualizado);
     }
@@ -215,54 +236,32 @@ public class AbonoService {
                 .orElseThrow(() -> new RuntimeException("Abono no encontrado con ID: " + id));
     }
 
-    private TiendaEntity obtenerTiendaDelEmpleado(UsuarioEntity empleado) {
+    private TiendaEntity obtenerTiendaDelEmpleado() {
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = empleado.getRoles().stream()
-                .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden crear abonos");
         }
 
-        return empleado.getEmpleadoTiendas().stream()
-                .filter(et -> et.getActivo())
-                .findFirst()
-                .map(EmpleadoTiendaEntity::getTienda)
+        return operadorContext.getTiendaAsignada()
                 .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
     }
 
     private void validarAccesoATienda(Long tiendaId) {
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = solicitante.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
-        boolean tieneAcceso = solicitante.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(tiendaId) && et.getActivo());
-
-        if (!tieneAcceso) {
+        if (!operadorContext.tieneAccesoATienda(tiendaId)) {
             throw new RuntimeException("Sin acceso a esta tienda");
         }
     }
 
     private void validarAccesoACuenta(CuentaClienteEntity cuenta) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = usuario.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
+        boolean esAdmin = operadorContext.esSysAdmin();
 
-        boolean esPropietario = cuenta.getUsuario().getId().equals(usuario.getId());
+        boolean esPropietario = cuenta.getUsuario().getId().equals(operadorContext.getUsuarioId());
 
-        boolean esEmpleadoTienda = usuario.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(cuenta.getTienda().getId()) && et.getActivo());
+        boolean esEmpleadoTienda = operadorContext.tieneAccesoATienda(cuenta.getTienda().getId());
 
         if (!esAdmin && !esPropietario && !esEmpleadoTienda) {
             throw new RuntimeException("Sin permisos para acceder a esta cuenta");
@@ -270,22 +269,14 @@ public class AbonoService {
     }
 
     private void validarAccesoAAbono(AbonoEntity abono) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = usuario.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
         boolean esPropietario = abono.getCuentaCliente() != null &&
-                abono.getCuentaCliente().getUsuario().getId().equals(usuario.getId());
+                abono.getCuentaCliente().getUsuario().getId().equals(operadorContext.getUsuarioId());
 
-        boolean esEmpleadoTienda = usuario.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(abono.getTienda().getId()) && et.getActivo());
+        boolean esEmpleadoTienda = operadorContext.tieneAccesoATienda(abono.getTienda().getId());
 
         if (!esPropietario && !esEmpleadoTienda) {
             throw new RuntimeException("No tienes permisos para acceder a este abono");
@@ -293,12 +284,8 @@ public class AbonoService {
     }
 
     private void validarPropietarioAbono(AbonoEntity abono) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
         boolean esPropietario = abono.getCuentaCliente() != null &&
-                abono.getCuentaCliente().getUsuario().getId().equals(usuario.getId());
+                abono.getCuentaCliente().getUsuario().getId().equals(operadorContext.getUsuarioId());
 
         if (!esPropietario) {
             throw new RuntimeException("No tienes permisos para ver este abono");
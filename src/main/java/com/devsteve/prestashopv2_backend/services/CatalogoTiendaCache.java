@@ -0,0 +1,173 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.CategoriaResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.ProductoResponse;
+import com.devsteve.prestashopv2_backend.repositories.CategoriaRepository;
+import com.devsteve.prestashopv2_backend.repositories.ProductoRepository;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
+import com.devsteve.prestashopv2_backend.utils.mappers.CategoriaMapper;
+import com.devsteve.prestashopv2_backend.utils.mappers.ProductoMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caché en memoria del catálogo de cada tienda (productos y categorías).
+ * La versión de cada instantánea es el contador de catálogo de la tienda en VersionesCambio,
+ * que se incrementa después del commit de cualquier cambio en sus productos o categorías;
+ * una instantánea con versión anterior se descarta y se vuelve a cargar en el siguiente acceso.
+ * Tampoco se sirve fuera de su tramo de vigencia: los cambios hechos en otra instancia no
+ * incrementan el contador local y se recogen al recargar en el tramo siguiente.
+ * El tamaño se limita por peso (número de productos y categorías), no por número de tiendas.
+ */
+@Component
+@Slf4j
+public class CatalogoTiendaCache implements MeterBinder {
+
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ProductoMapper productoMapper;
+    private final CategoriaMapper categoriaMapper;
+    private final VersionesCambio versionesCambio;
+
+    private final Cache<Long, CatalogoTienda> catalogos;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder obsoletos = new LongAdder();
+
+    public CatalogoTiendaCache(ProductoRepository productoRepository,
+                               CategoriaRepository categoriaRepository,
+                               ProductoMapper productoMapper,
+                               CategoriaMapper categoriaMapper,
+                               VersionesCambio versionesCambio,
+                               @Value("${app.catalogo-cache.max-peso:200000}") long maxPeso,
+                               @Value("${app.catalogo-cache.ttl-minutos:60}") long ttlMinutos) {
+        this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.productoMapper = productoMapper;
+        this.categoriaMapper = categoriaMapper;
+        this.versionesCambio = versionesCambio;
+        // Los cambios de otras instancias los acota el tramo de vigencia; el TTL libera tiendas sin accesos
+        this.catalogos = Caffeine.newBuilder()
+                .maximumWeight(maxPeso)
+                .weigher((Long tiendaId, CatalogoTienda catalogo) -> catalogo.peso())
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Instantánea vigente del catálogo de la tienda. Debe llamarse dentro de una transacción
+     * porque la carga mapea las relaciones perezosas de tienda y categoría.
+     */
+    public CatalogoTienda obtener(Long tiendaId) {
+        long version = versionesCambio.versionCatalogo(tiendaId);
+        long tramo = versionesCambio.tramoVigencia();
+
+        CatalogoTienda cacheado = catalogos.getIfPresent(tiendaId);
+        if (cacheado != null && cacheado.version() == version && cacheado.tramo() == tramo) {
+            aciertos.increment();
+            return cacheado;
+        }
+
+        if (cacheado != null) {
+            obsoletos.increment();
+        }
+        fallos.increment();
+
+        // compute serializa la carga por tienda: peticiones simultáneas esperan la misma instantánea
+        return catalogos.asMap().compute(tiendaId, (id, previo) ->
+                previo != null && previo.version() >= version && previo.tramo() >= tramo
+                        ? previo : cargar(id, version, tramo));
+    }
+
+    /**
+     * Registra un cambio en el catálogo de la tienda; la instantánea se recarga
+     * en el primer acceso posterior al commit.
+     */
+    public void invalidar(Long tiendaId) {
+        versionesCambio.registrarCambioCatalogo(tiendaId);
+    }
+
+    public Map<String, Object> obtenerEstadisticas() {
+        CacheStats stats = catalogos.stats();
+        long totalAccesos = aciertos.sum() + fallos.sum();
+
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("tiendasEnCache", catalogos.estimatedSize());
+        estadisticas.put("pesoEnCache", catalogos.policy().eviction()
+                .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+                .orElse(0L));
+        estadisticas.put("aciertos", aciertos.sum());
+        estadisticas.put("fallos", fallos.sum());
+        estadisticas.put("recargasPorVersion", obsoletos.sum());
+        estadisticas.put("tasaAciertos", totalAccesos == 0 ? 0.0 : (double) aciertos.sum() / totalAccesos);
+        estadisticas.put("desalojos", stats.evictionCount());
+        estadisticas.put("pesoDesalojado", stats.evictionWeight());
+        return estadisticas;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, catalogos, "catalogo-tienda");
+        FunctionCounter.builder("prestashop.catalogo.recargas.version", obsoletos, LongAdder::sum)
+                .description("Instantáneas descartadas por un cambio de versión o de tramo del catálogo")
+                .register(registry);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private CatalogoTienda cargar(Long tiendaId, long version, long tramo) {
+        List<ProductoResponse> productos = productoMapper.toResponseList(
+                productoRepository.findByTiendaIdOrderByNombreAsc(tiendaId));
+        List<CategoriaResponse> categorias = categoriaMapper.toResponseList(
+                categoriaRepository.findByTiendaIdOrderByNombreAsc(tiendaId));
+
+        List<ProductoResponse> activos = productos.stream()
+                .filter(p -> Boolean.TRUE.equals(p.getActivo()))
+                .toList();
+        Map<Long, ProductoResponse> porId = productos.stream()
+                .collect(Collectors.toUnmodifiableMap(ProductoResponse::getId, Function.identity()));
+
+        log.debug("Catálogo de tienda {} cargado (versión {}): {} productos, {} categorías",
+                tiendaId, version, productos.size(), categorias.size());
+
+        return new CatalogoTienda(version, tramo, List.copyOf(productos), activos, List.copyOf(categorias), porId);
+    }
+
+    /**
+     * Instantánea inmutable del catálogo de una tienda. Las listas se comparten entre
+     * peticiones: los llamadores no deben modificar los DTO que contienen.
+     */
+    public record CatalogoTienda(long version,
+                                 long tramo,
+                                 List<ProductoResponse> productos,
+                                 List<ProductoResponse> productosActivos,
+                                 List<CategoriaResponse> categorias,
+                                 Map<Long, ProductoResponse> productosPorId) {
+
+        public ProductoResponse producto(Long productoId) {
+            return productosPorId.get(productoId);
+        }
+
+        int peso() {
+            return 1 + productos.size() + categorias.size();
+        }
+    }
+}
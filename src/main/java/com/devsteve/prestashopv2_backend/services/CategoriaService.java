@@ -5,10 +5,10 @@ import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateCategor
 import com.devsteve.prestashopv2_backend.models.dto.response.CategoriaResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
 import com.devsteve.prestashopv2_backend.utils.mappers.CategoriaMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,13 +20,13 @@ import java.util.List;
 public class CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
-    private final UsuarioRepository usuarioRepository;
     private final CategoriaMapper categoriaMapper;
+    private final OperadorContext operadorContext;
+    private final CatalogoTiendaCache catalogoTiendaCache;
 
     @Transactional(readOnly = true)
     public List<CategoriaResponse> listarCategoriasDeTienda(Long tiendaId) {
-        List<CategoriaEntity> categorias = categoriaRepository.findByTiendaIdOrderByNombreAsc(tiendaId);
-        return categoriaMapper.toResponseList(categorias);
+        return catalogoTiendaCache.obtener(tiendaId).categorias();
     }
 
     @Transactional(readOnly = true)
@@ -45,13 +45,9 @@ public class CategoriaService {
 
     @Transactional
     public CategoriaResponse crearCategoria(CrearCategoriaRequest request) {
-        // Obtener usuario autenticado (debe ser encargado o empleado)
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Verificar que no exista una categoría con el mismo nombre en la tienda
         boolean yaExisteCategoria = categoriaRepository.existsByNombreAndTiendaId(
@@ -65,6 +61,7 @@ public class CategoriaService {
         CategoriaEntity nuevaCategoria = categoriaMapper.toEntity(request);
         nuevaCategoria.setTienda(tienda);
         nuevaCategoria = categoriaRepository.save(nuevaCategoria);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
         log.info("Categoría creada: {} en tienda {} por {}",
                 request.getNombre(), tienda.getNombre(), emailSolicitante);
@@ -74,13 +71,9 @@ public class CategoriaService {
 
     @Transactional
     public CategoriaResponse actualizarCategoria(Long categoriaId, UpdateCategoriaRequest request) {
-        // Obtener usuario autenticado
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Buscar la categoría en la tienda
         CategoriaEntity categoria = categoriaRepository.findByIdAndTiendaId(categoriaId, tienda.getId())
@@ -97,6 +90,7 @@ public class CategoriaService {
         // Actualizar la categoría
         categoriaMapper.updateEntityFromRequest(request, categoria);
         categoria = categoriaRepository.save(categoria);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
         log.info("Categoría actualizada: {} en tienda {} por {}",
                 request.getNombre(), tienda.getNombre(), emailSolicitante);
@@ -106,13 +100,9 @@ public class CategoriaService {
 
     @Transactional
     public void eliminarCategoria(Long categoriaId) {
-        // Obtener usuario autenticado
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Buscar la categoría en la tienda
         CategoriaEntity categoria = categoriaRepository.findByIdAndTiendaId(categoriaId, tienda.getId())
@@ -124,24 +114,19 @@ public class CategoriaService {
         }
 
         categoriaRepository.delete(categoria);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
         log.info("Categoría eliminada: {} de tienda {} por {}",
                 categoria.getNombre(), tienda.getNombre(), emailSolicitante);
     }
 
-    private TiendaEntity obtenerTiendaDelEmpleado(UsuarioEntity empleado) {
+    private TiendaEntity obtenerTiendaDelEmpleado() {
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = empleado.getRoles().stream()
-            .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden gestionar categorías");
         }
 
-        return empleado.getEmpleadoTiendas().stream()
-            .filter(et -> et.getActivo())
-            .findFirst()
-            .map(EmpleadoTiendaEntity::getTienda)
+        return operadorContext.getTiendaAsignada()
             .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
     }
 }
@@ -4,14 +4,19 @@ import com.devsteve.prestashopv2_backend.models.dto.request.CrearCuentaClienteRe
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateEstadoCuentaRequest;
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateLimiteCreditoRequest;
 import com.devsteve.prestashopv2_backend.models.dto.response.CuentaClienteResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.ReservaCreditoResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
+import com.devsteve.prestashopv2_backend.services.metricas.MetricasNegocio;
 import com.devsteve.prestashopv2_backend.utils.mappers.CuentaClienteMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -25,6 +30,10 @@ public class CuentaClienteService {
     private final UsuarioRepository usuarioRepository;
     private final TiendaRepository tiendaRepository;
     private final CuentaClienteMapper cuentaClienteMapper;
+    private final OperadorContext operadorContext;
+    private final EntityManager entityManager;
+    private final ReservasCredito reservasCredito;
+    private final MetricasNegocio metricasNegocio;
 
     @Transactional(readOnly = true)
     public List<CuentaClienteResponse> listarCuentasDeTienda(Long tiendaId) {
@@ -56,13 +65,9 @@ public class CuentaClienteService {
 
     @Transactional
     public CuentaClienteResponse crearCuenta(CrearCuentaClienteRequest request) {
-        // Obtener usuario autenticado (debe ser encargado)
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del encargado
-        TiendaEntity tienda = obtenerTiendaDelEncargado(solicitante);
+        // Obtener la tienda del encargado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEncargado();
 
         // Verificar que el usuario cliente existe
         UsuarioEntity cliente = usuarioRepository.findById(request.getUsuarioId())
@@ -127,6 +132,10 @@ public class CuentaClienteService {
         return cuentaClienteMapper.toResponse(cuenta);
     }
 
+    /**
+     * Consulta informativa. La verificación que cuenta es la de cargarSaldo, que valida y
+     * carga en la misma sentencia.
+     */
     @Transactional(readOnly = true)
     public boolean puedeRealizarCompra(Long cuentaId, BigDecimal montoCompra) {
         CuentaClienteEntity cuenta = buscarEntidadPorId(cuentaId);
@@ -136,13 +145,75 @@ public class CuentaClienteService {
             return false;
         }
 
-        // Calcular saldo disponible: límite de crédito - saldo actual
-        BigDecimal saldoDisponible = cuenta.getLimiteCredito().subtract(cuenta.getSaldoActual());
+        // Verificar que el crédito disponible (descontando reservas activas) sea suficiente
+        return creditoDisponible(cuenta).compareTo(montoCompra) >= 0;
+    }
 
-        // Verificar que el saldo disponible sea suficiente
-        return saldoDisponible.compareTo(montoCompra) >= 0;
+    /**
+     * Aparta crédito para una venta en curso durante app.reservas-credito.ttl-segundos.
+     * No escribe en la base de datos: el crédito se consume al confirmar la venta.
+     */
+    @Transactional(readOnly = true)
+    public ReservaCreditoResponse reservarCredito(Long cuentaId, BigDecimal monto) {
+        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("El monto a reservar debe ser mayor que cero");
+        }
+
+        CuentaClienteEntity cuenta = buscarEntidadPorId(cuentaId);
+
+        // Validar acceso
+        validarAccesoACuenta(cuenta);
+
+        Long tiendaId = cuenta.getTienda().getId();
+        if (!cuenta.getActiva()) {
+            metricasNegocio.registrarRechazoCredito(tiendaId, "reserva", MetricasNegocio.RECHAZO_CUENTA_INACTIVA);
+            throw new RuntimeException("La cuenta no está activa");
+        }
+
+        // Lectura sin bloqueo: el cargo condicional vuelve a verificar el saldo (ver ReservasCredito.reservar)
+        BigDecimal creditoSinReservas = cuenta.getLimiteCredito().subtract(cuenta.getSaldoActual());
+        ReservasCredito.Reserva reserva = reservasCredito.reservar(cuentaId, monto, creditoSinReservas)
+                .orElseThrow(() -> {
+                    metricasNegocio.registrarRechazoCredito(tiendaId, "reserva", MetricasNegocio.RECHAZO_CREDITO_INSUFICIENTE);
+                    return new RuntimeException("La cuenta no tiene crédito suficiente para reservar. " +
+                            "Crédito disponible: $" + creditoDisponible(cuenta));
+                });
+
+        log.info("Reserva de crédito {} por {} en cuenta {} por {}",
+                reserva.id(), monto, cuentaId, operadorContext.getEmail());
+
+        return ReservaCreditoResponse.builder()
+                .reservaId(reserva.id())
+                .cuentaId(cuentaId)
+                .monto(monto)
+                .expiraEn(reserva.expiraEn())
+                .creditoDisponible(creditoDisponible(cuenta))
+                .build();
     }
 
+    @Transactional(readOnly = true)
+    public void liberarReserva(Long cuentaId, String reservaId) {
+        CuentaClienteEntity cuenta = buscarEntidadPorId(cuentaId);
+
+        // Validar acceso
+        validarAccesoACuenta(cuenta);
+
+        boolean perteneceALaCuenta = reservasCredito.buscar(reservaId)
+                .map(r -> r.cuentaId().equals(cuentaId))
+                .orElse(false);
+
+        if (!perteneceALaCuenta || !reservasCredito.liberar(reservaId)) {
+            throw new RuntimeException("La reserva de crédito no existe o ya venció");
+        }
+
+        log.info("Reserva de crédito {} de cuenta {} liberada por {}",
+                reservaId, cuentaId, operadorContext.getEmail());
+    }
+
+    /**
+     * Carga el monto solo si la cuenta está activa y tiene crédito disponible suficiente.
+     * La verificación y la carga son un único UPDATE condicional sobre la fila.
+     */
     @Transactional
     public CuentaClienteResponse cargarSaldo(Long cuentaId, BigDecimal monto, String concepto) {
         if (monto.compareTo(BigDecimal.ZERO) <= 0) {
@@ -154,22 +225,22 @@ public class CuentaClienteService {
         // Validar acceso
         validarAccesoACuenta(cuenta);
 
-        BigDecimal saldoAnterior = cuenta.getSaldoActual();
-        BigDecimal saldoNuevo = saldoAnterior.add(monto);
+        // El crédito apartado por otras ventas en curso no puede consumirse
+        BigDecimal creditoRequerido = monto.add(reservasCredito.totalReservado(cuentaId));
 
-        cuenta.setSaldoActual(saldoNuevo);
-        cuenta = cuentaClienteRepository.save(cuenta);
-
-        log.info("Saldo cargado: {} a cuenta {}. Saldo anterior: {}, nuevo: {}",
-                monto, cuentaId, saldoAnterior, saldoNuevo);
-
-        return cuentaClienteMapper.toResponse(cuenta);
+        return metricasNegocio.medir(MetricasNegocio.CUENTA_CARGO, cuenta.getTienda().getId(),
+                () -> cargar(cuenta, monto, creditoRequerido, concepto));
     }
 
+    /**
+     * Igual que cargarSaldo pero consumiendo una reserva previa: el crédito que ella apartó
+     * cuenta como disponible para esta carga. La reserva se retira cuando la transacción
+     * confirma; si se revierte, sigue vigente hasta su vencimiento.
+     */
     @Transactional
-    public CuentaClienteResponse abonarSaldo(Long cuentaId, BigDecimal monto, String concepto) {
+    public CuentaClienteResponse cargarSaldoConReserva(Long cuentaId, BigDecimal monto, String reservaId, String concepto) {
         if (monto.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new RuntimeException("El monto a abonar debe ser mayor que cero");
+            throw new RuntimeException("El monto a cargar debe ser mayor que cero");
         }
 
         CuentaClienteEntity cuenta = buscarEntidadPorId(cuentaId);
@@ -177,30 +248,45 @@ public class CuentaClienteService {
         // Validar acceso
         validarAccesoACuenta(cuenta);
 
-        BigDecimal saldoAnterior = cuenta.getSaldoActual();
-        BigDecimal saldoNuevo = saldoAnterior.subtract(monto);
+        ReservasCredito.Reserva reserva = reservasCredito.tomar(reservaId, cuentaId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reservasCredito.confirmar(reserva);
+                } else {
+                    reservasCredito.devolver(reserva);
+                }
+            }
+        });
+
+        BigDecimal creditoRequerido = monto
+                .add(reservasCredito.totalReservado(cuentaId))
+                .subtract(reserva.monto())
+                .max(monto);
+
+        return metricasNegocio.medir(MetricasNegocio.CUENTA_CARGO, cuenta.getTienda().getId(),
+                () -> cargar(cuenta, monto, creditoRequerido, concepto + " (reserva " + reservaId + ")"));
+    }
 
-        // Verificar que no quede saldo negativo
-        if (saldoNuevo.compareTo(BigDecimal.ZERO) < 0) {
-            throw new RuntimeException("El abono no puede ser mayor que el saldo actual");
+    @Transactional
+    public CuentaClienteResponse abonarSaldo(Long cuentaId, BigDecimal monto, String concepto) {
+        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("El monto a abonar debe ser mayor que cero");
         }
 
-        cuenta.setSaldoActual(saldoNuevo);
-        cuenta = cuentaClienteRepository.save(cuenta);
+        CuentaClienteEntity cuenta = buscarEntidadPorId(cuentaId);
 
-        log.info("Saldo abonado: {} a cuenta {}. Saldo anterior: {}, nuevo: {}",
-                monto, cuentaId, saldoAnterior, saldoNuevo);
+        // Validar acceso
+        validarAccesoACuenta(cuenta);
 
-        return cuentaClienteMapper.toResponse(cuenta);
+        return metricasNegocio.medir(MetricasNegocio.CUENTA_ABONO, cuenta.getTienda().getId(),
+                () -> abonar(cuenta, monto, concepto));
     }
 
     @Transactional(readOnly = true)
     public List<CuentaClienteResponse> obtenerMisCuentas() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        List<CuentaClienteEntity> cuentas = cuentaClienteRepository.findByUsuarioIdOrderByTiendaNombreAsc(usuario.getId());
+        List<CuentaClienteEntity> cuentas = cuentaClienteRepository.findByUsuarioIdOrderByTiendaNombreAsc(operadorContext.getUsuarioId());
         return cuentaClienteMapper.toResponseList(cuentas);
     }
 
@@ -209,57 +295,84 @@ public class CuentaClienteService {
             .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
     }
 
-    private void validarAccesoATienda(Long tiendaId) {
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+    private CuentaClienteResponse abonar(CuentaClienteEntity cuenta, BigDecimal monto, String concepto) {
+        // Verificar que no quede saldo negativo en la misma sentencia que resta el monto
+        BigDecimal saldoNuevo = cuentaClienteRepository.abonarSiHaySaldo(cuenta.getId(), monto)
+                .orElseThrow(() -> new RuntimeException("El abono no puede ser mayor que el saldo actual"));
 
-        boolean esAdmin = solicitante.getRoles().stream()
-            .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
+        entityManager.refresh(cuenta);
 
-        if (esAdmin) {
-            return;
+        log.info("Saldo abonado: {} a cuenta {} ({}). Saldo nuevo: {}",
+                monto, cuenta.getId(), concepto, saldoNuevo);
+
+        return cuentaClienteMapper.toResponse(cuenta);
+    }
+
+    private CuentaClienteResponse cargar(CuentaClienteEntity cuenta, BigDecimal monto,
+                                         BigDecimal creditoRequerido, String concepto) {
+        BigDecimal saldoNuevo = cuentaClienteRepository.cargarSiHayCredito(cuenta.getId(), monto, creditoRequerido)
+                .orElseThrow(() -> rechazoDeCarga(cuenta.getId()));
+
+        // La entidad en sesión tiene el saldo anterior a la sentencia
+        entityManager.refresh(cuenta);
+
+        log.info("Saldo cargado: {} a cuenta {} ({}). Saldo nuevo: {}",
+                monto, cuenta.getId(), concepto, saldoNuevo);
+
+        return cuentaClienteMapper.toResponse(cuenta);
+    }
+
+    private BigDecimal creditoDisponible(CuentaClienteEntity cuenta) {
+        return cuenta.getLimiteCredito()
+                .subtract(cuenta.getSaldoActual())
+                .subtract(reservasCredito.totalReservado(cuenta.getId()));
+    }
+
+    // Motivo del rechazo según el estado confirmado de la cuenta, para el mensaje al operador
+    private RuntimeException rechazoDeCarga(Long cuentaId) {
+        CuentaClienteEntity actual = buscarEntidadPorId(cuentaId);
+        entityManager.refresh(actual);
+
+        Long tiendaId = actual.getTienda().getId();
+        if (!actual.getActiva()) {
+            metricasNegocio.registrarRechazoCredito(tiendaId, "cargo", MetricasNegocio.RECHAZO_CUENTA_INACTIVA);
+            return new RuntimeException("La cuenta no está activa");
         }
 
-        boolean tieneAcceso = solicitante.getEmpleadoTiendas().stream()
-            .anyMatch(et -> et.getTienda().getId().equals(tiendaId) && et.getActivo());
+        metricasNegocio.registrarRechazoCredito(tiendaId, "cargo", MetricasNegocio.RECHAZO_CREDITO_INSUFICIENTE);
+        return new RuntimeException("La cuenta no tiene crédito suficiente para realizar esta compra. " +
+                "Saldo disponible: $" + creditoDisponible(actual));
+    }
+
+    private void validarAccesoATienda(Long tiendaId) {
+        if (operadorContext.esSysAdmin()) {
+            return;
+        }
 
-        if (!tieneAcceso) {
+        if (!operadorContext.tieneAccesoATienda(tiendaId)) {
             throw new RuntimeException("Sin acceso a esta tienda");
         }
     }
 
     private void validarAccesoACuenta(CuentaClienteEntity cuenta) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+        boolean esAdmin = operadorContext.esSysAdmin();
 
-        boolean esAdmin = usuario.getRoles().stream()
-            .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
+        boolean esPropietario = cuenta.getUsuario().getId().equals(operadorContext.getUsuarioId());
 
-        boolean esPropietario = cuenta.getUsuario().getId().equals(usuario.getId());
-
-        boolean esEmpleadoTienda = usuario.getEmpleadoTiendas().stream()
-            .anyMatch(et -> et.getTienda().getId().equals(cuenta.getTienda().getId()) && et.getActivo());
+        boolean esEmpleadoTienda = operadorContext.tieneAccesoATienda(cuenta.getTienda().getId());
 
         if (!esAdmin && !esPropietario && !esEmpleadoTienda) {
             throw new RuntimeException("Sin permisos para acceder a esta cuenta");
         }
     }
 
-    private TiendaEntity obtenerTiendaDelEncargado(UsuarioEntity encargado) {
+    private TiendaEntity obtenerTiendaDelEncargado() {
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = encargado.getRoles().stream()
-            .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden crear cuentas");
         }
 
-        return encargado.getEmpleadoTiendas().stream()
-            .filter(et -> et.getActivo())
-            .findFirst()
-            .map(EmpleadoTiendaEntity::getTienda)
+        return operadorContext.getTiendaAsignada()
             .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
     }
 }
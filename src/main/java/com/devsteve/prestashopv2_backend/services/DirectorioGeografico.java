@@ -0,0 +1,373 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.MunicipioResponse;
+import com.devsteve.prestashopv2_backend.models.entities.DepartamentoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.MunicipioEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.repositories.DepartamentoRepository;
+import com.devsteve.prestashopv2_backend.repositories.MunicipioRepository;
+import com.devsteve.prestashopv2_backend.repositories.TiendaRepository;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria de departamentos, municipios y tiendas activas.
+ * Se construye al arrancar (después de UbicacionesSeeder) y se reconstruye completo en un hilo
+ * propio cuando se crea o modifica una tienda; el índice nuevo reemplaza al anterior de una vez.
+ * Los cambios hechos en otra instancia no llegan aquí: el índice se reconstruye además cada
+ * app.catalogo-cache.ttl-minutos, lo que también cambia el ETag de los listados.
+ * Mientras no exista índice, los llamadores consultan la base de datos como antes.
+ */
+@Component
+@Slf4j
+public class DirectorioGeografico {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private final DepartamentoRepository departamentoRepository;
+    private final MunicipioRepository municipioRepository;
+    private final TiendaRepository tiendaRepository;
+    private final VersionesCambio versionesCambio;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService reconstructor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "directorio-geografico");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+
+    private volatile Indice indice;
+
+    public DirectorioGeografico(DepartamentoRepository departamentoRepository,
+                                MunicipioRepository municipioRepository,
+                                TiendaRepository tiendaRepository,
+                                VersionesCambio versionesCambio,
+                                PlatformTransactionManager transactionManager) {
+        this.departamentoRepository = departamentoRepository;
+        this.municipioRepository = municipioRepository;
+        this.tiendaRepository = tiendaRepository;
+        this.versionesCambio = versionesCambio;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        Indice nuevo = transactionTemplate.execute(status -> construir());
+        indice = nuevo;
+        // Los listados públicos de tiendas salen del índice: su ETag cambia cuando el índice ya es visible
+        versionesCambio.registrarCambioDirectorio();
+        log.info("Directorio geográfico construido: {} departamentos, {} municipios, {} tiendas activas",
+                nuevo.departamentoIds.length, nuevo.municipioIds.length, nuevo.totalTiendas);
+    }
+
+    /**
+     * Programa la reconstrucción del índice después del commit (alta, cambio de municipio,
+     * activación o desactivación de una tienda). Varias solicitudes seguidas se agrupan en una.
+     */
+    public void registrarCambioTienda() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    programarReconstruccion();
+                }
+            });
+        } else {
+            programarReconstruccion();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.catalogo-cache.ttl-minutos:60}",
+            initialDelayString = "${app.catalogo-cache.ttl-minutos:60}", timeUnit = TimeUnit.MINUTES)
+    public void reconstruirPeriodicamente() {
+        programarReconstruccion();
+    }
+
+    public Optional<List<MunicipioResponse>> listarMunicipios() {
+        Indice actual = indice;
+        return actual == null ? Optional.empty() : Optional.of(actual.municipiosOrdenados);
+    }
+
+    public Optional<List<MunicipioResponse>> listarMunicipiosDeDepartamento(Integer departamentoId) {
+        Indice actual = indice;
+        if (actual == null) {
+            return Optional.empty();
+        }
+
+        int posicion = actual.posicionDepartamento(departamentoId);
+        if (posicion < 0) {
+            return Optional.of(List.of());
+        }
+
+        int[] municipios = actual.municipiosPorDepartamento[posicion];
+        List<MunicipioResponse> resultado = new ArrayList<>(municipios.length);
+        for (int m : municipios) {
+            resultado.add(actual.respuestas[m]);
+        }
+        return Optional.of(resultado);
+    }
+
+    /**
+     * Municipios cuyo nombre empieza con el prefijo, sin distinguir mayúsculas ni tildes.
+     */
+    public Optional<List<MunicipioResponse>> buscarMunicipios(String prefijo, int limite) {
+        Indice actual = indice;
+        if (actual == null) {
+            return Optional.empty();
+        }
+
+        String normalizado = normalizar(prefijo);
+        List<MunicipioResponse> resultado = new ArrayList<>();
+        for (int i = actual.primeraConPrefijo(normalizado);
+             i < actual.nombresNormalizados.length
+                     && actual.nombresNormalizados[i].startsWith(normalizado)
+                     && resultado.size() < limite;
+             i++) {
+            resultado.add(actual.respuestas[i]);
+        }
+        return Optional.of(resultado);
+    }
+
+    /**
+     * IDs de las tiendas activas del municipio, ordenadas por nombre de tienda.
+     */
+    public Optional<long[]> tiendasActivasDeMunicipio(Integer municipioId) {
+        Indice actual = indice;
+        if (actual == null) {
+            return Optional.empty();
+        }
+
+        int posicion = actual.posicionMunicipio(municipioId);
+        return Optional.of(posicion < 0 ? new long[0] : actual.tiendasPorMunicipio[posicion].clone());
+    }
+
+    /**
+     * IDs de las tiendas activas del departamento, ordenadas por nombre de tienda.
+     */
+    public Optional<long[]> tiendasActivasDeDepartamento(Integer departamentoId) {
+        Indice actual = indice;
+        if (actual == null) {
+            return Optional.empty();
+        }
+
+        int posicion = actual.posicionDepartamento(departamentoId);
+        return Optional.of(posicion < 0 ? new long[0] : actual.tiendasPorDepartamento[posicion].clone());
+    }
+
+    @PreDestroy
+    void detener() {
+        reconstructor.shutdownNow();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void programarReconstruccion() {
+        if (!reconstruccionPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        reconstructor.execute(() -> {
+            // Se libera antes de leer: un cambio confirmado durante la construcción programa otra
+            reconstruccionPendiente.set(false);
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.error("Error reconstruyendo el directorio geográfico; se mantiene el índice anterior", e);
+            }
+        });
+    }
+
+    private Indice construir() {
+        List<DepartamentoEntity> departamentos = new ArrayList<>(departamentoRepository.findAll());
+        List<MunicipioEntity> municipios = new ArrayList<>(municipioRepository.findAll());
+        List<TiendaEntity> tiendas = tiendaRepository.findByActivoTrueOrderByNombre();
+
+        departamentos.sort(Comparator.comparing(d -> normalizar(d.getNombre())));
+        municipios.sort(Comparator.comparing(m -> normalizar(m.getNombre())));
+
+        int maxDepartamentoId = departamentos.stream().mapToInt(DepartamentoEntity::getId).max().orElse(0);
+        int maxMunicipioId = municipios.stream().mapToInt(MunicipioEntity::getId).max().orElse(0);
+
+        // Departamentos: posición por ID
+        int[] departamentoIds = new int[departamentos.size()];
+        int[] posicionDepartamentoPorId = new int[maxDepartamentoId + 1];
+        Arrays.fill(posicionDepartamentoPorId, -1);
+        for (int d = 0; d < departamentoIds.length; d++) {
+            departamentoIds[d] = departamentos.get(d).getId();
+            posicionDepartamentoPorId[departamentoIds[d]] = d;
+        }
+
+        // Municipios: posición por ID y departamento de cada uno (getId del proxy no lo inicializa)
+        int[] municipioIds = new int[municipios.size()];
+        int[] departamentoDeMunicipio = new int[municipios.size()];
+        int[] posicionMunicipioPorId = new int[maxMunicipioId + 1];
+        Arrays.fill(posicionMunicipioPorId, -1);
+        int[] municipiosEnDepartamento = new int[departamentoIds.length];
+        for (int m = 0; m < municipioIds.length; m++) {
+            municipioIds[m] = municipios.get(m).getId();
+            posicionMunicipioPorId[municipioIds[m]] = m;
+            departamentoDeMunicipio[m] = posicionDepartamentoPorId[municipios.get(m).getDepartamento().getId()];
+            municipiosEnDepartamento[departamentoDeMunicipio[m]]++;
+        }
+
+        int[][] municipiosPorDepartamento = new int[departamentoIds.length][];
+        for (int d = 0; d < departamentoIds.length; d++) {
+            municipiosPorDepartamento[d] = new int[municipiosEnDepartamento[d]];
+        }
+        int[] llenado = new int[departamentoIds.length];
+        for (int m = 0; m < municipioIds.length; m++) {
+            int d = departamentoDeMunicipio[m];
+            municipiosPorDepartamento[d][llenado[d]++] = m;
+        }
+
+        // Tiendas activas por municipio y por departamento, en el orden por nombre de la consulta
+        int[] tiendasEnMunicipio = new int[municipioIds.length];
+        int[] tiendasEnDepartamento = new int[departamentoIds.length];
+        int[] municipioDeTienda = new int[tiendas.size()];
+        for (int t = 0; t < tiendas.size(); t++) {
+            Integer municipioId = tiendas.get(t).getMunicipio().getId();
+            municipioDeTienda[t] = municipioId <= maxMunicipioId ? posicionMunicipioPorId[municipioId] : -1;
+            if (municipioDeTienda[t] >= 0) {
+                tiendasEnMunicipio[municipioDeTienda[t]]++;
+                tiendasEnDepartamento[departamentoDeMunicipio[municipioDeTienda[t]]]++;
+            }
+        }
+
+        long[][] tiendasPorMunicipio = new long[municipioIds.length][];
+        for (int m = 0; m < municipioIds.length; m++) {
+            tiendasPorMunicipio[m] = new long[tiendasEnMunicipio[m]];
+        }
+        long[][] tiendasPorDepartamento = new long[departamentoIds.length][];
+        for (int d = 0; d < departamentoIds.length; d++) {
+            tiendasPorDepartamento[d] = new long[tiendasEnDepartamento[d]];
+        }
+        int[] llenadoMunicipio = new int[municipioIds.length];
+        int[] llenadoDepartamento = new int[departamentoIds.length];
+        int totalTiendas = 0;
+        for (int t = 0; t < tiendas.size(); t++) {
+            int m = municipioDeTienda[t];
+            if (m < 0) {
+                continue;
+            }
+            int d = departamentoDeMunicipio[m];
+            long tiendaId = tiendas.get(t).getId();
+            tiendasPorMunicipio[m][llenadoMunicipio[m]++] = tiendaId;
+            tiendasPorDepartamento[d][llenadoDepartamento[d]++] = tiendaId;
+            totalTiendas++;
+        }
+
+        // Respuestas ya armadas, con el conteo de tiendas activas por municipio
+        MunicipioResponse[] respuestas = new MunicipioResponse[municipioIds.length];
+        String[] nombresNormalizados = new String[municipioIds.length];
+        for (int m = 0; m < municipioIds.length; m++) {
+            respuestas[m] = MunicipioResponse.builder()
+                    .id(municipioIds[m])
+                    .nombre(municipios.get(m).getNombre())
+                    .cantidadTiendas(tiendasEnMunicipio[m])
+                    .build();
+            // Los municipios ya están ordenados por nombre normalizado: sirve directo para la búsqueda binaria
+            nombresNormalizados[m] = normalizar(municipios.get(m).getNombre());
+        }
+
+        return new Indice(departamentoIds, posicionDepartamentoPorId, municipioIds, posicionMunicipioPorId,
+                municipiosPorDepartamento, tiendasPorMunicipio, tiendasPorDepartamento, respuestas,
+                List.of(respuestas), nombresNormalizados, totalTiendas);
+    }
+
+    /**
+     * Minúsculas y sin tildes: "Cuscatlán", "cuscatlan" y "CUSCATLAN" coinciden.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Estructura inmutable del índice. Departamentos y municipios se referencian por su
+     * posición en los arreglos; posicion*PorId traduce los IDs (enteros pequeños y densos).
+     */
+    private static final class Indice {
+
+        final int[] departamentoIds;
+        final int[] posicionDepartamentoPorId;
+        final int[] municipioIds;
+        final int[] posicionMunicipioPorId;
+        final int[][] municipiosPorDepartamento;
+        final long[][] tiendasPorMunicipio;
+        final long[][] tiendasPorDepartamento;
+        final MunicipioResponse[] respuestas;
+        final List<MunicipioResponse> municipiosOrdenados;
+        final String[] nombresNormalizados;
+        final int totalTiendas;
+
+        Indice(int[] departamentoIds, int[] posicionDepartamentoPorId, int[] municipioIds,
+               int[] posicionMunicipioPorId, int[][] municipiosPorDepartamento, long[][] tiendasPorMunicipio,
+               long[][] tiendasPorDepartamento, MunicipioResponse[] respuestas,
+               List<MunicipioResponse> municipiosOrdenados, String[] nombresNormalizados, int totalTiendas) {
+            this.departamentoIds = departamentoIds;
+            this.posicionDepartamentoPorId = posicionDepartamentoPorId;
+            this.municipioIds = municipioIds;
+            this.posicionMunicipioPorId = posicionMunicipioPorId;
+            this.municipiosPorDepartamento = municipiosPorDepartamento;
+            this.tiendasPorMunicipio = tiendasPorMunicipio;
+            this.tiendasPorDepartamento = tiendasPorDepartamento;
+            this.respuestas = respuestas;
+            this.municipiosOrdenados = municipiosOrdenados;
+            this.nombresNormalizados = nombresNormalizados;
+            this.totalTiendas = totalTiendas;
+        }
+
+        int posicionDepartamento(Integer departamentoId) {
+            return departamentoId == null || departamentoId < 0 || departamentoId >= posicionDepartamentoPorId.length
+                    ? -1 : posicionDepartamentoPorId[departamentoId];
+        }
+
+        int posicionMunicipio(Integer municipioId) {
+            return municipioId == null || municipioId < 0 || municipioId >= posicionMunicipioPorId.length
+                    ? -1 : posicionMunicipioPorId[municipioId];
+        }
+
+        /**
+         * Primera posición cuyo nombre normalizado es mayor o igual al prefijo.
+         */
+        int primeraConPrefijo(String prefijo) {
+            int bajo = 0;
+            int alto = nombresNormalizados.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (nombresNormalizados[medio].compareTo(prefijo) < 0) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.devsteve.prestashopv2_backend.services;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.MovimientoTiendaRequest;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.dto.response.MovimientoTiendaResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.repositories.ResumenDiarioTiendaRepository.TotalesPeriodo;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
+import com.devsteve.prestashopv2_backend.services.movimientos.ColaMovimientos;
+import com.devsteve.prestashopv2_backend.services.movimientos.EventoMovimiento;
 import com.devsteve.prestashopv2_backend.utils.mappers.MovimientoTiendaMapper;
+import com.devsteve.prestashopv2_backend.utils.paginacion.Cursor;
+import com.devsteve.prestashopv2_backend.utils.paginacion.Paginacion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,16 +35,17 @@ public class MovimientoTiendaService {
     private final MovimientoTiendaRepository movimientoTiendaRepository;
     private final UsuarioRepository usuarioRepository;
     private final MovimientoTiendaMapper movimientoTiendaMapper;
+    private final OperadorContext operadorContext;
+    private final ResumenDiarioTiendaService resumenDiarioTiendaService;
+    private final Paginacion paginacion;
+    private final ColaMovimientos colaMovimientos;
 
     @Transactional
     public MovimientoTiendaResponse crear(MovimientoTiendaRequest request) {
-        // Obtener usuario autenticado (encargado o empleado)
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity operador = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(operador);
+        // Obtener usuario autenticado (encargado o empleado) y su tienda
+        String emailSolicitante = operadorContext.getEmail();
+        UsuarioEntity operador = operadorContext.getUsuario();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Crear el movimiento
         MovimientoTiendaEntity movimiento = movimientoTiendaMapper.toEntity(request);
@@ -53,6 +61,7 @@ public class MovimientoTiendaService {
         }
 
         MovimientoTiendaEntity movimientoGuardado = movimientoTiendaRepository.save(movimiento);
+        acumularEnResumen(movimientoGuardado, null);
 
         log.info("Movimiento #{} creado por {} en tienda {} - Evento: {}",
                 movimientoGuardado.getId(), emailSolicitante, tienda.getNombre(), request.getTipoEvento());
@@ -79,6 +88,20 @@ public class MovimientoTiendaService {
         return movimientos.map(movimientoTiendaMapper::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MovimientoTiendaResponse> listarMovimientosDeTiendaPorCursor(Long tiendaId, String cursor, Integer tamano) {
+        // Validar acceso a la tienda
+        validarAccesoATienda(tiendaId);
+
+        Cursor posicion = Cursor.decodificar(cursor);
+        int tamanoPagina = paginacion.tamanoPagina(tamano);
+
+        List<MovimientoTiendaEntity> movimientos = movimientoTiendaRepository.findPaginaDeTienda(
+                tiendaId, posicion.getFecha(), posicion.getId(), paginacion.limitePagina(tamanoPagina));
+        return paginacion.construirPagina(movimientos, tamanoPagina,
+                MovimientoTiendaEntity::getFechaEvento, MovimientoTiendaEntity::getId, movimientoTiendaMapper::toResponseList);
+    }
+
     @Transactional(readOnly = true)
     public Page<MovimientoTiendaResponse> listarMovimientosPorTipo(Long tiendaId, TipoEvento tipoEvento, Pageable pageable) {
         // Validar acceso a la tienda
@@ -100,110 +123,70 @@ public class MovimientoTiendaService {
     // MÉTODOS DE ESTADÍSTICAS
 
     @Transactional(readOnly = true)
-    public BigDecimal obtenerTotalVentasDelDia(Long tiendaId) {
-        // Validar acceso a la tienda
-        validarAccesoATienda(tiendaId);
-
+    public TotalesPeriodo obtenerTotalesDelDia(Long tiendaId) {
         LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioDelDia = hoy.atStartOfDay();
-        LocalDateTime finDelDia = hoy.atTime(23, 59, 59);
-
-        return movimientoTiendaRepository.findVentasDelDia(tiendaId, inicioDelDia, finDelDia)
-                .stream()
-                .map(MovimientoTiendaEntity::getMonto)
-                .filter(monto -> monto != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return obtenerTotales(tiendaId, hoy, hoy);
     }
 
     @Transactional(readOnly = true)
-    public BigDecimal obtenerTotalAbonosDelDia(Long tiendaId) {
-        // Validar acceso a la tienda
-        validarAccesoATienda(tiendaId);
-
+    public TotalesPeriodo obtenerTotalesDelMes(Long tiendaId) {
         LocalDate hoy = LocalDate.now();
-        LocalDateTime inicioDelDia = hoy.atStartOfDay();
-        LocalDateTime finDelDia = hoy.atTime(23, 59, 59);
-
-        return movimientoTiendaRepository.findAbonosDelDia(tiendaId, inicioDelDia, finDelDia)
-                .stream()
-                .map(MovimientoTiendaEntity::getMonto)
-                .filter(monto -> monto != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return obtenerTotales(tiendaId, hoy.withDayOfMonth(1), hoy.withDayOfMonth(hoy.lengthOfMonth()));
     }
 
     @Transactional(readOnly = true)
-    public BigDecimal obtenerTotalVentasDelMes(Long tiendaId) {
-        // Validar acceso a la tienda
-        validarAccesoATienda(tiendaId);
-
-        LocalDate hoy = LocalDate.now();
-        LocalDate inicioDelMes = hoy.withDayOfMonth(1);
-        LocalDate finDelMes = hoy.withDayOfMonth(hoy.lengthOfMonth());
+    public BigDecimal obtenerTotalVentasDelDia(Long tiendaId) {
+        return obtenerTotalesDelDia(tiendaId).getTotalVentas();
+    }
 
-        LocalDateTime inicioDelMesDateTime = inicioDelMes.atStartOfDay();
-        LocalDateTime finDelMesDateTime = finDelMes.atTime(23, 59, 59);
+    @Transactional(readOnly = true)
+    public BigDecimal obtenerTotalAbonosDelDia(Long tiendaId) {
+        return obtenerTotalesDelDia(tiendaId).getTotalAbonos();
+    }
 
-        return movimientoTiendaRepository.findVentasDelMes(tiendaId, inicioDelMesDateTime, finDelMesDateTime)
-                .stream()
-                .map(MovimientoTiendaEntity::getMonto)
-                .filter(monto -> monto != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Transactional(readOnly = true)
+    public BigDecimal obtenerTotalVentasDelMes(Long tiendaId) {
+        return obtenerTotalesDelMes(tiendaId).getTotalVentas();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal obtenerTotalAbonosDelMes(Long tiendaId) {
-        // Validar acceso a la tienda
-        validarAccesoATienda(tiendaId);
-
-        LocalDate hoy = LocalDate.now();
-        LocalDate inicioDelMes = hoy.withDayOfMonth(1);
-        LocalDate finDelMes = hoy.withDayOfMonth(hoy.lengthOfMonth());
-
-        LocalDateTime inicioDelMesDateTime = inicioDelMes.atStartOfDay();
-        LocalDateTime finDelMesDateTime = finDelMes.atTime(23, 59, 59);
-
-        return movimientoTiendaRepository.findAbonosDelMes(tiendaId, inicioDelMesDateTime, finDelMesDateTime)
-                .stream()
-                .map(MovimientoTiendaEntity::getMonto)
-                .filter(monto -> monto != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return obtenerTotalesDelMes(tiendaId).getTotalAbonos();
     }
 
     // MÉTODO PARA REGISTRAR EVENTOS AUTOMÁTICAMENTE
 
-    @Transactional
     public void registrarEvento(TipoEvento tipoEvento, String descripcion, BigDecimal monto, Long clienteId, Long referenciaId, String referenciaTabla) {
+        registrarEvento(tipoEvento, descripcion, monto, clienteId, referenciaId, referenciaTabla, null);
+    }
+
+    /**
+     * Publica el evento en la cola de movimientos: se escribe por lotes, junto con su
+     * acumulación en el resumen diario, después de que la transacción de negocio confirme.
+     * El tipo de venta solo aplica a VENTA_REGISTRADA y permite separar el total a crédito.
+     */
+    public void registrarEvento(TipoEvento tipoEvento, String descripcion, BigDecimal monto, Long clienteId,
+                                Long referenciaId, String referenciaTabla, TipoVenta tipoVenta) {
         try {
-            String emailOperador = SecurityContextHolder.getContext().getAuthentication().getName();
-            UsuarioEntity operador = usuarioRepository.findByEmailWithRolesAndTiendas(emailOperador)
-                    .orElse(null);
-
-            if (operador == null) {
-                return; // No registrar si no hay usuario autenticado
-            }
-
-            TiendaEntity tienda = obtenerTiendaDelEmpleado(operador);
-
-            UsuarioEntity cliente = null;
-            if (clienteId != null) {
-                cliente = usuarioRepository.findById(clienteId).orElse(null);
-            }
-
-            MovimientoTiendaEntity movimiento = MovimientoTiendaEntity.builder()
-                    .tienda(tienda)
-                    .usuarioOperador(operador)
-                    .clienteUsuario(cliente)
-                    .tipoEvento(tipoEvento)
-                    .descripcion(descripcion)
-                    .monto(monto)
-                    .referenciaId(referenciaId)
-                    .referenciaTabla(referenciaTabla)
-                    .fechaEvento(LocalDateTime.now())
-                    .build();
-
-            movimientoTiendaRepository.save(movimiento);
-
-            log.info("Evento automático registrado: {} en tienda {} por operador {}",
+            // Operador y tienda ya resueltos en el contexto de la petición: el evento solo lleva ids
+            String emailOperador = operadorContext.getEmail();
+            Long operadorId = operadorContext.getUsuarioId();
+            TiendaEntity tienda = obtenerTiendaDelEmpleado();
+
+            colaMovimientos.publicar(new EventoMovimiento(
+                    tienda.getId(),
+                    operadorId,
+                    clienteId,
+                    tipoEvento,
+                    descripcion,
+                    monto,
+                    referenciaId,
+                    referenciaTabla,
+                    tipoVenta,
+                    LocalDateTime.now()
+            ));
+
+            log.info("Evento automático publicado: {} en tienda {} por operador {}",
                     tipoEvento, tienda.getNombre(), emailOperador);
         } catch (Exception e) {
             log.warn("Error al registrar evento automático: {}", e.getMessage());
@@ -212,63 +195,56 @@ public class MovimientoTiendaService {
 
     // MÉTODOS AUXILIARES
 
+    private TotalesPeriodo obtenerTotales(Long tiendaId, LocalDate desde, LocalDate hasta) {
+        // Validar acceso a la tienda
+        validarAccesoATienda(tiendaId);
+
+        // Lectura del resumen diario: una fila por día en lugar de recorrer los movimientos
+        return resumenDiarioTiendaService.obtenerTotales(tiendaId, desde, hasta);
+    }
+
+    private void acumularEnResumen(MovimientoTiendaEntity movimiento, TipoVenta tipoVenta) {
+        resumenDiarioTiendaService.acumular(
+                movimiento.getTienda().getId(),
+                movimiento.getFechaEvento().toLocalDate(),
+                movimiento.getTipoEvento(),
+                movimiento.getMonto(),
+                tipoVenta,
+                movimiento.getClienteUsuario() != null ? movimiento.getClienteUsuario().getId() : null
+        );
+    }
+
     private MovimientoTiendaEntity buscarEntidadPorId(Long id) {
         return movimientoTiendaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Movimiento no encontrado con ID: " + id));
     }
 
-    private TiendaEntity obtenerTiendaDelEmpleado(UsuarioEntity empleado) {
+    private TiendaEntity obtenerTiendaDelEmpleado() {
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = empleado.getRoles().stream()
-                .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden gestionar movimientos");
         }
 
-        return empleado.getEmpleadoTiendas().stream()
-                .filter(et -> et.getActivo())
-                .findFirst()
-                .map(EmpleadoTiendaEntity::getTienda)
+        return operadorContext.getTiendaAsignada()
                 .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
     }
 
     private void validarAccesoATienda(Long tiendaId) {
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = solicitante.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
-        boolean tieneAcceso = solicitante.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(tiendaId) && et.getActivo());
-
-        if (!tieneAcceso) {
+        if (!operadorContext.tieneAccesoATienda(tiendaId)) {
             throw new RuntimeException("Sin acceso a esta tienda");
         }
     }
 
     private void validarAccesoAMovimiento(MovimientoTiendaEntity movimiento) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = usuario.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
-        boolean esEmpleadoTienda = usuario.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(movimiento.getTienda().getId()) && et.getActivo());
-
-        if (!esEmpleadoTienda) {
+        if (!operadorContext.tieneAccesoATienda(movimiento.getTienda().getId())) {
             throw new RuntimeException("No tienes permisos para acceder a este movimiento");
         }
     }
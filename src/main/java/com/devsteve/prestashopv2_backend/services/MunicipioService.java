@@ -1,6 +1,7 @@
 package com.devsteve.prestashopv2_backend.services;
 
 import com.devsteve.prestashopv2_backend.models.dto.response.MunicipioResponse;
+import com.devsteve.prestashopv2_backend.models.entities.MunicipioEntity;
 import com.devsteve.prestashopv2_backend.repositories.MunicipioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -11,15 +12,39 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MunicipioService {
     private final MunicipioRepository municipioRepository;
+    private final DirectorioGeografico directorioGeografico;
 
     public List<MunicipioResponse> listarTodos() {
-        List<MunicipioResponse> municipios = municipioRepository.findAll()
-                .stream()
+        return directorioGeografico.listarMunicipios()
+                .orElseGet(() -> toResponseList(municipioRepository.findAll()));
+    }
+
+    public List<MunicipioResponse> listarPorDepartamento(Integer departamentoId) {
+        return directorioGeografico.listarMunicipiosDeDepartamento(departamentoId)
+                .orElseGet(() -> toResponseList(municipioRepository.findAll().stream()
+                        .filter(municipio -> municipio.getDepartamento().getId().equals(departamentoId))
+                        .toList()));
+    }
+
+    public List<MunicipioResponse> buscarPorPrefijo(String prefijo, int limite) {
+        return directorioGeografico.buscarMunicipios(prefijo, limite)
+                .orElseGet(() -> {
+                    String normalizado = DirectorioGeografico.normalizar(prefijo);
+                    return toResponseList(municipioRepository.findAll().stream()
+                            .filter(municipio -> DirectorioGeografico.normalizar(municipio.getNombre()).startsWith(normalizado))
+                            .limit(limite)
+                            .toList());
+                });
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private List<MunicipioResponse> toResponseList(List<MunicipioEntity> municipios) {
+        return municipios.stream()
                 .map(municipio -> MunicipioResponse.builder()
                         .id(municipio.getId())
                         .nombre(municipio.getNombre())
                         .build())
                 .toList();
-        return municipios;
     }
 }
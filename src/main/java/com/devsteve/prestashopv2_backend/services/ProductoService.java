@@ -1,18 +1,23 @@
 package com.devsteve.prestashopv2_backend.services;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.CrearProductoRequest;
+import com.devsteve.prestashopv2_backend.models.dto.request.ImportarProductosRequest;
 import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateProductoRequest;
 import com.devsteve.prestashopv2_backend.models.dto.response.ProductoResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
 import com.devsteve.prestashopv2_backend.utils.mappers.ProductoMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,20 +25,20 @@ import java.util.List;
 public class ProductoService {
 
     private final ProductoRepository productoRepository;
+    private final DetalleVentaRepository detalleVentaRepository;
     private final CategoriaRepository categoriaRepository;
-    private final UsuarioRepository usuarioRepository;
     private final ProductoMapper productoMapper;
+    private final OperadorContext operadorContext;
+    private final CatalogoTiendaCache catalogoTiendaCache;
 
     @Transactional(readOnly = true)
     public List<ProductoResponse> listarProductosDeTienda(Long tiendaId) {
-        List<ProductoEntity> productos = productoRepository.findByTiendaIdOrderByNombreAsc(tiendaId);
-        return productoMapper.toResponseList(productos);
+        return catalogoTiendaCache.obtener(tiendaId).productos();
     }
 
     @Transactional(readOnly = true)
     public List<ProductoResponse> listarProductosActivosDeTienda(Long tiendaId) {
-        List<ProductoEntity> productos = productoRepository.findByTiendaIdAndActivoTrueOrderByNombreAsc(tiendaId);
-        return productoMapper.toResponseList(productos);
+        return catalogoTiendaCache.obtener(tiendaId).productosActivos();
     }
 
     @Transactional(readOnly = true)
@@ -59,13 +64,9 @@ public class ProductoService {
 
     @Transactional
     public ProductoResponse crearProducto(CrearProductoRequest request) {
-        // Obtener usuario autenticado (debe ser encargado o empleado)
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Crear el nuevo producto
         ProductoEntity nuevoProducto = productoMapper.toEntity(request);
@@ -80,6 +81,7 @@ public class ProductoService {
         }
 
         nuevoProducto = productoRepository.save(nuevoProducto);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
         log.info("Producto creado: {} en tienda {} por {}",
                 request.getNombre(), tienda.getNombre(), emailSolicitante);
@@ -88,14 +90,48 @@ public class ProductoService {
     }
 
     @Transactional
-    public ProductoResponse actualizarProducto(Long productoId, UpdateProductoRequest request) {
-        // Obtener usuario autenticado
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+    public List<ProductoResponse> importarProductos(ImportarProductosRequest request) {
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
+
+        // Cargar las categorías de la tienda una sola vez
+        Map<Long, CategoriaEntity> categorias = categoriaRepository.findByTiendaIdOrderByNombreAsc(tienda.getId())
+            .stream()
+            .collect(Collectors.toMap(CategoriaEntity::getId, Function.identity()));
+
+        List<ProductoEntity> nuevosProductos = new ArrayList<>();
+        for (CrearProductoRequest productoRequest : request.getProductos()) {
+            ProductoEntity nuevoProducto = productoMapper.toEntity(productoRequest);
+            nuevoProducto.setTienda(tienda);
+
+            // Asignar categoría si se proporciona
+            if (productoRequest.getCategoriaId() != null) {
+                CategoriaEntity categoria = categorias.get(productoRequest.getCategoriaId());
+                if (categoria == null) {
+                    throw new RuntimeException("Categoría no encontrada en tu tienda con ID: " + productoRequest.getCategoriaId());
+                }
+                nuevoProducto.setCategoria(categoria);
+            }
+
+            nuevosProductos.add(nuevoProducto);
+        }
+
+        // Con ids por secuencia los INSERT salen en lotes de hibernate.jdbc.batch_size
+        nuevosProductos = productoRepository.saveAll(nuevosProductos);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        log.info("{} productos importados en tienda {} por {}",
+                nuevosProductos.size(), tienda.getNombre(), emailSolicitante);
+
+        return productoMapper.toResponseList(nuevosProductos);
+    }
+
+    @Transactional
+    public ProductoResponse actualizarProducto(Long productoId, UpdateProductoRequest request) {
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Buscar el producto en la tienda
         ProductoEntity producto = productoRepository.findByIdAndTiendaId(productoId, tienda.getId())
@@ -115,6 +151,7 @@ public class ProductoService {
         }
 
         producto = productoRepository.save(producto);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
         log.info("Producto actualizado: {} en tienda {} por {}",
                 request.getNombre(), tienda.getNombre(), emailSolicitante);
@@ -124,42 +161,33 @@ public class ProductoService {
 
     @Transactional
     public void eliminarProducto(Long productoId) {
-        // Obtener usuario autenticado
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        // Obtener la tienda del empleado autenticado
+        String emailSolicitante = operadorContext.getEmail();
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
         // Buscar el producto en la tienda
         ProductoEntity producto = productoRepository.findByIdAndTiendaId(productoId, tienda.getId())
             .orElseThrow(() -> new RuntimeException("Producto no encontrado en tu tienda"));
 
-        // Verificar que no tenga ventas asociadas
-        if (!producto.getDetallesVenta().isEmpty()) {
+        // Verificar que no tenga ventas asociadas, sin cargar la colección de detalles
+        if (detalleVentaRepository.existsByProductoId(producto.getId())) {
             throw new RuntimeException("No se puede eliminar el producto porque tiene ventas asociadas");
         }
 
         productoRepository.delete(producto);
+        catalogoTiendaCache.invalidar(tienda.getId());
 
         log.info("Producto eliminado: {} de tienda {} por {}",
                 producto.getNombre(), tienda.getNombre(), emailSolicitante);
     }
 
-    private TiendaEntity obtenerTiendaDelEmpleado(UsuarioEntity empleado) {
+    private TiendaEntity obtenerTiendaDelEmpleado() {
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = empleado.getRoles().stream()
-            .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden gestionar productos");
         }
 
-        return empleado.getEmpleadoTiendas().stream()
-            .filter(et -> et.getActivo())
-            .findFirst()
-            .map(EmpleadoTiendaEntity::getTienda)
+        return operadorContext.getTiendaAsignada()
             .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
     }
 }
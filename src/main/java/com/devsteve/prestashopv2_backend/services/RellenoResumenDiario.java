@@ -0,0 +1,85 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Completa al arrancar resumen_diario_tienda en los días que tienen ventas o abonos en
+ * movimientos_tienda pero ninguna fila de resumen para su tienda: bases anteriores al resumen,
+ * o restauradas sin él. Los días se agrupan en rangos consecutivos y cada rango se reconstruye
+ * en su propia transacción con ResumenDiarioTiendaService.reconstruir.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RellenoResumenDiario {
+
+    // reconstruir admite como máximo 366 días por rango
+    private static final long MAX_DIAS_POR_RANGO = 365;
+
+    private static final String DIAS_SIN_RESUMEN =
+            "SELECT DISTINCT CAST(m.fecha_evento AS date) AS fecha FROM movimientos_tienda m " +
+            "WHERE CAST(m.tipo_evento AS text) IN ('VENTA_REGISTRADA', 'ABONO_REGISTRADO') " +
+            "AND NOT EXISTS (SELECT 1 FROM resumen_diario_tienda r " +
+            "WHERE r.tienda_id = m.tienda_id AND r.fecha = CAST(m.fecha_evento AS date)) " +
+            "ORDER BY fecha";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResumenDiarioTiendaService resumenDiarioTiendaService;
+
+    @Value("${app.resumen-diario.completar-al-arrancar:true}")
+    private boolean habilitado;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarAlArrancar() {
+        if (habilitado) {
+            completar();
+        }
+    }
+
+    /**
+     * Reconstruye los días sin resumen y devuelve cuántos días faltaban.
+     */
+    public int completar() {
+        List<LocalDate> dias = jdbcTemplate.queryForList(DIAS_SIN_RESUMEN, LocalDate.class);
+        if (dias.isEmpty()) {
+            log.debug("Resumen diario completo: no hay días con movimientos sin resumir");
+            return 0;
+        }
+
+        log.warn("Resumen diario incompleto: {} días con movimientos sin resumir, entre {} y {}",
+                dias.size(), dias.get(0), dias.get(dias.size() - 1));
+
+        LocalDate inicio = dias.get(0);
+        LocalDate anterior = inicio;
+        for (LocalDate dia : dias.subList(1, dias.size())) {
+            if (!dia.equals(anterior.plusDays(1)) || ChronoUnit.DAYS.between(inicio, dia) > MAX_DIAS_POR_RANGO) {
+                reconstruir(inicio, anterior);
+                inicio = dia;
+            }
+            anterior = dia;
+        }
+        reconstruir(inicio, anterior);
+        return dias.size();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void reconstruir(LocalDate desde, LocalDate hasta) {
+        try {
+            resumenDiarioTiendaService.reconstruir(desde, hasta);
+        } catch (RuntimeException e) {
+            // El resto de rangos sigue; el siguiente arranque vuelve a intentar este
+            log.error("No se pudo completar el resumen diario del {} al {}: {}", desde, hasta, e.getMessage());
+        }
+    }
+}
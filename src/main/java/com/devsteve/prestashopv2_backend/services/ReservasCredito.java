@@ -0,0 +1,171 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reservas de crédito en memoria (preautorizaciones del POS) por cuenta de cliente.
+ * El total reservado por cuenta vive en un ConcurrentHashMap: leerlo no bloquea y reservar
+ * solo serializa sobre la entrada de esa cuenta. Las reservas vencidas las retira la rueda
+ * de tiempo de Caffeine con su planificador, sin recorrer la tabla.
+ */
+@Component
+@Slf4j
+public class ReservasCredito {
+
+    /**
+     * Reserva activa. {@code enUso} se marca mientras una venta la está confirmando.
+     */
+    public record Reserva(String id, Long cuentaId, BigDecimal monto, LocalDateTime expiraEn, AtomicBoolean enUso) {
+    }
+
+    private final Cache<String, Reserva> reservas;
+    private final ConcurrentMap<Long, BigDecimal> totalesPorCuenta = new ConcurrentHashMap<>();
+    private final Duration ttl;
+
+    public ReservasCredito(@Value("${app.reservas-credito.ttl-segundos:900}") long ttlSegundos,
+                           @Value("${app.reservas-credito.max-entradas:100000}") long maxEntradas) {
+        this.ttl = Duration.ofSeconds(ttlSegundos);
+        this.reservas = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new Expiry<String, Reserva>() {
+                    @Override
+                    public long expireAfterCreate(String id, Reserva reserva, long ahora) {
+                        return ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Reserva reserva, long ahora, long restante) {
+                        return restante;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Reserva reserva, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                // Síncrono: el crédito vuelve a estar disponible en cuanto la reserva vence
+                .evictionListener((String id, Reserva reserva, RemovalCause causa) -> {
+                    if (reserva != null) {
+                        descontar(reserva);
+                        log.debug("Reserva {} de cuenta {} retirada ({})", id, reserva.cuentaId(), causa);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Reserva {@code monto} si, sumado a las reservas activas de la cuenta, no supera
+     * {@code creditoSinReservas} (límite menos saldo actual).
+     * <p>
+     * Las reservas de la misma cuenta se serializan entre sí, pero {@code creditoSinReservas}
+     * viene de una lectura del saldo sin bloqueo: una carga que confirme entre esa lectura y
+     * la reserva no se ve aquí. La reserva es una preautorización, no un cargo; el UPDATE
+     * condicional de CuentaClienteService vuelve a comprobar saldo y reservas al cobrar,
+     * así que la cuenta nunca supera su límite y, en ese caso, la venta se rechaza al confirmar.
+     */
+    public Optional<Reserva> reservar(Long cuentaId, BigDecimal monto, BigDecimal creditoSinReservas) {
+        Reserva[] creada = new Reserva[1];
+
+        totalesPorCuenta.compute(cuentaId, (id, reservado) -> {
+            BigDecimal actual = reservado != null ? reservado : BigDecimal.ZERO;
+            if (actual.add(monto).compareTo(creditoSinReservas) > 0) {
+                return reservado;
+            }
+
+            creada[0] = new Reserva(UUID.randomUUID().toString(), cuentaId, monto,
+                    LocalDateTime.now().plus(ttl), new AtomicBoolean(false));
+            return actual.add(monto);
+        });
+
+        // Fuera del compute: la caché puede desalojar y su listener vuelve a tocar totalesPorCuenta
+        if (creada[0] != null) {
+            reservas.put(creada[0].id(), creada[0]);
+        }
+        return Optional.ofNullable(creada[0]);
+    }
+
+    public BigDecimal totalReservado(Long cuentaId) {
+        return totalesPorCuenta.getOrDefault(cuentaId, BigDecimal.ZERO);
+    }
+
+    /**
+     * Marca la reserva como en uso por una venta. Falla si no existe, venció,
+     * pertenece a otra cuenta o ya la está usando otra venta.
+     */
+    public Reserva tomar(String reservaId, Long cuentaId) {
+        Reserva reserva = reservas.getIfPresent(reservaId);
+        if (reserva == null || !reserva.cuentaId().equals(cuentaId)) {
+            throw new RuntimeException("La reserva de crédito no existe o ya venció");
+        }
+        if (!reserva.enUso().compareAndSet(false, true)) {
+            throw new RuntimeException("La reserva de crédito ya está siendo usada por otra venta");
+        }
+        return reserva;
+    }
+
+    // La venta que usaba la reserva no confirmó: queda disponible hasta su vencimiento
+    public void devolver(Reserva reserva) {
+        reserva.enUso().set(false);
+    }
+
+    /**
+     * Retira la reserva y libera su monto. Devuelve false si ya no existía; falla si una venta
+     * la está usando, porque esa venta ya descontó su monto del crédito requerido y al confirmar
+     * la retira ella misma.
+     */
+    public boolean liberar(String reservaId) {
+        Reserva reserva = reservas.getIfPresent(reservaId);
+        if (reserva == null) {
+            return false;
+        }
+        // Tomarla impide que una venta la use mientras se retira
+        if (!reserva.enUso().compareAndSet(false, true)) {
+            throw new RuntimeException("La reserva de crédito está siendo usada por una venta");
+        }
+        return retirar(reserva);
+    }
+
+    // La venta que usaba la reserva confirmó: el cargo ya incluye su monto
+    public void confirmar(Reserva reserva) {
+        retirar(reserva);
+    }
+
+    public Optional<Reserva> buscar(String reservaId) {
+        return Optional.ofNullable(reservas.getIfPresent(reservaId));
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private boolean retirar(Reserva reserva) {
+        // Solo quien la saca del mapa descuenta su monto: vencimiento y retiro no se suman
+        if (!reservas.asMap().remove(reserva.id(), reserva)) {
+            return false;
+        }
+        descontar(reserva);
+        return true;
+    }
+
+    private void descontar(Reserva reserva) {
+        totalesPorCuenta.computeIfPresent(reserva.cuentaId(), (id, reservado) -> {
+            BigDecimal restante = reservado.subtract(reserva.monto());
+            return restante.signum() > 0 ? restante : null;
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.ResumenDiarioResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.VerificacionResumenResponse;
+import com.devsteve.prestashopv2_backend.models.entities.ResumenDiarioTiendaEntity;
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.devsteve.prestashopv2_backend.repositories.ResumenDiarioTiendaRepository;
+import com.devsteve.prestashopv2_backend.repositories.ResumenDiarioTiendaRepository.TotalesPeriodo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mantiene la tabla resumen_diario_tienda: se acumula en la misma transacción que
+ * registra cada movimiento y puede reconstruirse o verificarse contra movimientos_tienda.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumenDiarioTiendaService {
+
+    private static final long MAX_DIAS_RECONSTRUCCION = 366;
+
+    private final ResumenDiarioTiendaRepository resumenRepository;
+
+    @Value("${app.resumen-diario.dias-verificacion:2}")
+    private int diasVerificacion;
+
+    @Value("${app.resumen-diario.reparar-automaticamente:true}")
+    private boolean repararAutomaticamente;
+
+    /**
+     * Acumula un movimiento en el resumen de su tienda y día.
+     * Debe llamarse dentro de la transacción que inserta el movimiento.
+     */
+    @Transactional
+    public void acumular(Long tiendaId, LocalDate fecha, TipoEvento tipoEvento, BigDecimal monto,
+                         TipoVenta tipoVenta, Long clienteUsuarioId) {
+        boolean esVenta = tipoEvento == TipoEvento.VENTA_REGISTRADA;
+        boolean esAbono = tipoEvento == TipoEvento.ABONO_REGISTRADO;
+        if (!esVenta && !esAbono) {
+            return;
+        }
+
+        BigDecimal importe = monto != null ? monto : BigDecimal.ZERO;
+
+        long clientesNuevos = clienteUsuarioId != null
+                ? resumenRepository.registrarCliente(tiendaId, fecha, clienteUsuarioId)
+                : 0;
+
+        resumenRepository.acumular(
+                tiendaId,
+                fecha,
+                esVenta ? importe : BigDecimal.ZERO,
+                esVenta && tipoVenta == TipoVenta.CREDITO ? importe : BigDecimal.ZERO,
+                esAbono ? importe : BigDecimal.ZERO,
+                esVenta ? 1 : 0,
+                esAbono ? 1 : 0,
+                clientesNuevos
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public TotalesPeriodo obtenerTotales(Long tiendaId, LocalDate desde, LocalDate hasta) {
+        return resumenRepository.sumarPeriodo(tiendaId, desde, hasta);
+    }
+
+    /**
+     * Recalcula el resumen del rango desde movimientos_tienda. Bloquea las tablas de resumen
+     * durante la transacción para que las acumulaciones concurrentes esperen y se sumen después.
+     */
+    @Transactional
+    public int reconstruir(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+
+        resumenRepository.bloquearParaReconstruccion();
+        resumenRepository.eliminarClientes(desde, hasta);
+        resumenRepository.eliminarResumenes(desde, hasta);
+        resumenRepository.reconstruirClientes(desde, hasta);
+        int filas = resumenRepository.reconstruirResumenes(desde, hasta);
+
+        log.info("Resumen diario reconstruido del {} al {}: {} filas", desde, hasta, filas);
+        return filas;
+    }
+
+    @Transactional(readOnly = true)
+    public VerificacionResumenResponse verificar(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+
+        Map<ResumenDiarioTiendaEntity.Clave, ResumenDiarioResponse> esperados = new HashMap<>();
+        for (Object[] fila : resumenRepository.calcularDesdeMovimientos(desde, hasta)) {
+            ResumenDiarioResponse esperado = desdeFila(fila);
+            esperados.put(new ResumenDiarioTiendaEntity.Clave(esperado.getTiendaId(), esperado.getFecha()), esperado);
+        }
+
+        Map<ResumenDiarioTiendaEntity.Clave, ResumenDiarioResponse> registrados = new HashMap<>();
+        for (ResumenDiarioTiendaEntity resumen : resumenRepository.findByFechaBetween(desde, hasta)) {
+            registrados.put(new ResumenDiarioTiendaEntity.Clave(resumen.getTiendaId(), resumen.getFecha()),
+                    desdeEntidad(resumen));
+        }
+
+        Set<ResumenDiarioTiendaEntity.Clave> claves = new HashSet<>(esperados.keySet());
+        claves.addAll(registrados.keySet());
+
+        List<VerificacionResumenResponse.Discrepancia> discrepancias = new ArrayList<>();
+        for (ResumenDiarioTiendaEntity.Clave clave : claves) {
+            ResumenDiarioResponse esperado = esperados.get(clave);
+            ResumenDiarioResponse registrado = registrados.get(clave);
+            if (!coinciden(esperado, registrado)) {
+                discrepancias.add(VerificacionResumenResponse.Discrepancia.builder()
+                        .tiendaId(clave.getTiendaId())
+                        .fecha(clave.getFecha())
+                        .esperado(esperado)
+                        .registrado(registrado)
+                        .build());
+            }
+        }
+
+        return VerificacionResumenResponse.builder()
+                .desde(desde)
+                .hasta(hasta)
+                .diasVerificados((int) ChronoUnit.DAYS.between(desde, hasta) + 1)
+                .consistente(discrepancias.isEmpty())
+                .discrepancias(discrepancias)
+                .build();
+    }
+
+    /**
+     * Verificación nocturna de los últimos días cerrados; repara el rango si encuentra diferencias.
+     * Verificación y reparación comparten la transacción de este método.
+     */
+    @Scheduled(cron = "${app.resumen-diario.verificacion-cron:0 30 2 * * *}")
+    @Transactional
+    public void verificarDiasRecientes() {
+        LocalDate hasta = LocalDate.now().minusDays(1);
+        LocalDate desde = hasta.minusDays(Math.max(diasVerificacion, 1) - 1L);
+
+        VerificacionResumenResponse verificacion = verificar(desde, hasta);
+        if (verificacion.getConsistente()) {
+            log.debug("Resumen diario consistente del {} al {}", desde, hasta);
+            return;
+        }
+
+        log.warn("Resumen diario con {} discrepancias del {} al {}",
+                verificacion.getDiscrepancias().size(), desde, hasta);
+        if (repararAutomaticamente) {
+            reconstruir(desde, hasta);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || desde.isAfter(hasta)) {
+            throw new RuntimeException("Rango de fechas inválido");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS_RECONSTRUCCION) {
+            throw new RuntimeException("El rango no puede superar " + MAX_DIAS_RECONSTRUCCION + " días");
+        }
+    }
+
+    private ResumenDiarioResponse desdeFila(Object[] fila) {
+        Object fecha = fila[1];
+        return ResumenDiarioResponse.builder()
+                .tiendaId(((Number) fila[0]).longValue())
+                .fecha(fecha instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) fecha)
+                .totalVentas((BigDecimal) fila[2])
+                .totalVentasCredito((BigDecimal) fila[3])
+                .totalAbonos((BigDecimal) fila[4])
+                .cantidadVentas(((Number) fila[5]).longValue())
+                .cantidadAbonos(((Number) fila[6]).longValue())
+                .clientesDistintos(((Number) fila[7]).longValue())
+                .build();
+    }
+
+    private ResumenDiarioResponse desdeEntidad(ResumenDiarioTiendaEntity resumen) {
+        return ResumenDiarioResponse.builder()
+                .tiendaId(resumen.getTiendaId())
+                .fecha(resumen.getFecha())
+                .totalVentas(resumen.getTotalVentas())
+                .totalVentasCredito(resumen.getTotalVentasCredito())
+                .totalAbonos(resumen.getTotalAbonos())
+                .cantidadVentas(resumen.getCantidadVentas())
+                .cantidadAbonos(resumen.getCantidadAbonos())
+                .clientesDistintos(resumen.getClientesDistintos())
+                .build();
+    }
+
+    private boolean coinciden(ResumenDiarioResponse esperado, ResumenDiarioResponse registrado) {
+        if (esperado == null || registrado == null) {
+            return false;
+        }
+        return esperado.getTotalVentas().compareTo(registrado.getTotalVentas()) == 0
+                && esperado.getTotalVentasCredito().compareTo(registrado.getTotalVentasCredito()) == 0
+                && esperado.getTotalAbonos().compareTo(registrado.getTotalAbonos()) == 0
+                && Objects.equals(esperado.getCantidadVentas(), registrado.getCantidadVentas())
+                && Objects.equals(esperado.getCantidadAbonos(), registrado.getCantidadAbonos())
+                && Objects.equals(esperado.getClientesDistintos(), registrado.getClientesDistintos());
+    }
+}
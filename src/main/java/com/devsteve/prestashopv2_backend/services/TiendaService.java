@@ -5,14 +5,20 @@ import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateTiendaR
 import com.devsteve.prestashopv2_backend.models.dto.response.TiendaResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
 import com.devsteve.prestashopv2_backend.utils.mappers.TiendaMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,8 +28,10 @@ public class TiendaService {
     private final TiendaRepository tiendaRepository;
     private final MunicipioRepository municipioRepository;
     private final DepartamentoRepository departamentoRepository;
-    private final UsuarioRepository usuarioRepository;
     private final TiendaMapper tiendaMapper;
+    private final OperadorContext operadorContext;
+    private final VersionesCambio versionesCambio;
+    private final DirectorioGeografico directorioGeografico;
 
     @Transactional(readOnly = true)
     public List<TiendaResponse> listarTiendasActivas() {
@@ -33,13 +41,18 @@ public class TiendaService {
 
     @Transactional(readOnly = true)
     public List<TiendaResponse> listarTiendasPorMunicipio(Integer municipioId) {
-        List<TiendaEntity> tiendas = tiendaRepository.findByMunicipioIdAndActivoTrueOrderByNombre(municipioId);
+        List<TiendaEntity> tiendas = directorioGeografico.tiendasActivasDeMunicipio(municipioId)
+            .map(this::cargarEnOrden)
+            .orElseGet(() -> tiendaRepository.findByMunicipioIdAndActivoTrueOrderByNombre(municipioId));
         return tiendaMapper.toResponseList(tiendas);
     }
 
     @Transactional(readOnly = true)
     public List<TiendaResponse> listarTiendasPorDepartamento(Integer departamentoId) {
-        List<TiendaEntity> tiendas = tiendaRepository.findByMunicipioDepartamentoIdAndActivoTrueOrderByNombre(departamentoId);
+        // Los IDs salen del directorio en memoria: sin el JOIN tiendas-municipios-departamentos
+        List<TiendaEntity> tiendas = directorioGeografico.tiendasActivasDeDepartamento(departamentoId)
+            .map(this::cargarEnOrden)
+            .orElseGet(() -> tiendaRepository.findByMunicipioDepartamentoIdAndActivoTrueOrderByNombre(departamentoId));
         return tiendaMapper.toResponseList(tiendas);
     }
 
@@ -64,6 +77,8 @@ public class TiendaService {
         nuevaTienda.setMunicipio(municipio);
         nuevaTienda.setActivo(true);
         nuevaTienda = tiendaRepository.save(nuevaTienda);
+        versionesCambio.registrarCambioTienda(nuevaTienda.getId());
+        directorioGeografico.registrarCambioTienda();
 
         log.info("Tienda creada: {} en municipio: {}", request.getNombre(), municipio.getNombre());
 
@@ -73,23 +88,15 @@ public class TiendaService {
     @Transactional
     public TiendaResponse actualizarMiTienda(UpdateTiendaRequest request) {
         // Obtener usuario autenticado
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+        String email = operadorContext.getEmail();
 
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = usuario.getRoles().stream()
-            .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden actualizar información de tienda");
         }
 
         // Obtener la tienda del usuario (primera tienda activa donde trabaja)
-        TiendaEntity miTienda = usuario.getEmpleadoTiendas().stream()
-            .filter(et -> et.getActivo())
-            .findFirst()
-            .map(et -> et.getTienda())
+        TiendaEntity miTienda = operadorContext.getTiendaAsignada()
             .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
 
         // Validar municipio si se está cambiando
@@ -102,6 +109,8 @@ public class TiendaService {
         // Actualizar usando mapper
         tiendaMapper.updateEntityFromRequest(request, miTienda);
         miTienda = tiendaRepository.save(miTienda);
+        versionesCambio.registrarCambioTienda(miTienda.getId());
+        directorioGeografico.registrarCambioTienda();
 
         log.info("Tienda actualizada por {}: {}", email, miTienda.getNombre());
 
@@ -110,31 +119,36 @@ public class TiendaService {
 
     @Transactional(readOnly = true)
     public TiendaResponse obtenerMiTienda() {
-        // Obtener usuario autenticado
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        // Obtener la tienda del usuario
-        TiendaEntity miTienda = usuario.getEmpleadoTiendas().stream()
-            .filter(et -> et.getActivo())
-            .findFirst()
-            .map(et -> et.getTienda())
+        // Obtener la tienda del usuario autenticado
+        TiendaEntity miTienda = operadorContext.getTiendaAsignada()
             .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
 
         return tiendaMapper.toResponse(miTienda);
     }
 
     private void validarEsSysAdmin() {
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = solicitante.getRoles().stream()
-            .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (!esAdmin) {
+        if (!operadorContext.esSysAdmin()) {
             throw new RuntimeException("Solo administradores pueden realizar esta acción");
         }
     }
+
+    /**
+     * Carga las tiendas por ID y respeta el orden del directorio. Descarta las que se
+     * desactivaron después de la última reconstrucción del índice.
+     */
+    private List<TiendaEntity> cargarEnOrden(long[] tiendaIds) {
+        if (tiendaIds.length == 0) {
+            return List.of();
+        }
+
+        List<Long> ids = Arrays.stream(tiendaIds).boxed().toList();
+        Map<Long, TiendaEntity> porId = tiendaRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(TiendaEntity::getId, Function.identity()));
+
+        return ids.stream()
+            .map(porId::get)
+            .filter(Objects::nonNull)
+            .filter(TiendaEntity::getActivo)
+            .toList();
+    }
 }
@@ -0,0 +1,257 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exportación del historial de ventas de una tienda. Lee ventas y detalles con un cursor
+ * JDBC de solo avance y escribe cada fila directamente en la salida, con memoria constante.
+ */
+@Service
+@Slf4j
+public class VentaExportService {
+
+    public enum Formato { CSV, NDJSON }
+
+    private static final String CONSULTA_BASE =
+            "SELECT v.id, v.fecha_venta, CAST(v.tipo_venta AS text) AS tipo_venta, CAST(v.estado AS text) AS estado, " +
+            "COALESCE(u.nombre_completo, v.cliente_ocasional) AS cliente, v.subtotal, v.total, v.observaciones, " +
+            "d.producto_id, p.nombre AS producto, d.cantidad, d.precio_unitario, d.subtotal AS detalle_subtotal " +
+            "FROM ventas v " +
+            "LEFT JOIN cuentas_cliente cc ON cc.id = v.cuenta_cliente_id " +
+            "LEFT JOIN usuarios u ON u.id = cc.usuario_id " +
+            "LEFT JOIN detalle_ventas d ON d.venta_id = v.id " +
+            "LEFT JOIN productos p ON p.id = d.producto_id " +
+            "WHERE v.tienda_id = ?";
+
+    private static final String ENCABEZADO_CSV =
+            "venta_id,fecha_venta,tipo_venta,estado,cliente,subtotal,total,observaciones," +
+            "producto_id,producto,cantidad,precio_unitario,detalle_subtotal\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OperadorContext operadorContext;
+
+    public VentaExportService(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              OperadorContext operadorContext,
+                              @Value("${app.exportacion.fetch-size:500}") int fetchSize) {
+        // Con autocommit desactivado (transacción de solo lectura) el driver de PostgreSQL
+        // trae las filas por lotes de fetchSize en lugar de cargar el resultado completo
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.operadorContext = operadorContext;
+    }
+
+    /**
+     * Valida el acceso antes de escribir cualquier byte de la respuesta.
+     */
+    public void validarAccesoATienda(Long tiendaId) {
+        if (operadorContext.esSysAdmin()) {
+            return;
+        }
+
+        if (!operadorContext.tieneAccesoATienda(tiendaId)) {
+            throw new RuntimeException("Sin acceso a esta tienda");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportar(Long tiendaId, LocalDate desde, LocalDate hasta, EstadoVenta estado,
+                         Formato formato, OutputStream salida) throws IOException {
+        validarAccesoATienda(tiendaId);
+
+        StringBuilder sql = new StringBuilder(CONSULTA_BASE);
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(tiendaId);
+
+        if (desde != null) {
+            sql.append(" AND v.fecha_venta >= ?");
+            parametros.add(Timestamp.valueOf(desde.atStartOfDay()));
+        }
+        if (hasta != null) {
+            sql.append(" AND v.fecha_venta < ?");
+            parametros.add(Timestamp.valueOf(hasta.plusDays(1).atStartOfDay()));
+        }
+        if (estado != null) {
+            sql.append(" AND CAST(v.estado AS text) = ?");
+            parametros.add(estado.name());
+        }
+        // Las filas de una misma venta llegan contiguas
+        sql.append(" ORDER BY v.fecha_venta, v.id, d.id");
+
+        Escritor escritor = formato == Formato.NDJSON ? new EscritorNdjson(salida) : new EscritorCsv(salida);
+        try {
+            jdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    escritor.fila(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, parametros.toArray());
+            escritor.cerrar();
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cerró la conexión: se corta la lectura del cursor
+            throw e.getCause();
+        }
+
+        log.info("Exportación de ventas de tienda {} en {}: {} ventas", tiendaId, formato, escritor.ventas);
+        return escritor.ventas;
+    }
+
+    // ESCRITORES
+
+    private abstract static class Escritor {
+        protected long ventas;
+        protected Long ventaActual;
+
+        abstract void fila(ResultSet rs) throws SQLException, IOException;
+
+        abstract void cerrar() throws IOException;
+
+        protected boolean esNuevaVenta(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (ventaActual != null && ventaActual == id) {
+                return false;
+            }
+            ventaActual = id;
+            ventas++;
+            return true;
+        }
+    }
+
+    private static class EscritorCsv extends Escritor {
+        private final Writer writer;
+
+        EscritorCsv(OutputStream salida) throws IOException {
+            this.writer = new OutputStreamWriter(salida, StandardCharsets.UTF_8);
+            writer.write(ENCABEZADO_CSV);
+        }
+
+        @Override
+        void fila(ResultSet rs) throws SQLException, IOException {
+            esNuevaVenta(rs);
+
+            // Una línea por detalle; las ventas sin detalle producen una línea con columnas vacías
+            Timestamp fecha = rs.getTimestamp("fecha_venta");
+            writer.write(String.valueOf(rs.getLong("id")));
+            campo(fecha != null ? fecha.toLocalDateTime().toString() : null);
+            campo(rs.getString("tipo_venta"));
+            campo(rs.getString("estado"));
+            campo(rs.getString("cliente"));
+            campo(decimal(rs.getBigDecimal("subtotal")));
+            campo(decimal(rs.getBigDecimal("total")));
+            campo(rs.getString("observaciones"));
+            campo(rs.getString("producto_id"));
+            campo(rs.getString("producto"));
+            campo(rs.getString("cantidad"));
+            campo(decimal(rs.getBigDecimal("precio_unitario")));
+            campo(decimal(rs.getBigDecimal("detalle_subtotal")));
+            writer.write('\n');
+        }
+
+        @Override
+        void cerrar() throws IOException {
+            writer.flush();
+        }
+
+        private void campo(String valor) throws IOException {
+            writer.write(',');
+            if (valor == null) {
+                return;
+            }
+            if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(valor.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(valor);
+            }
+        }
+
+        private static String decimal(BigDecimal valor) {
+            return valor != null ? valor.toPlainString() : null;
+        }
+    }
+
+    private class EscritorNdjson extends Escritor {
+        private final JsonGenerator generator;
+
+        EscritorNdjson(OutputStream salida) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(salida);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sin separador entre valores raíz: cada venta termina con su propio salto de línea
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        void fila(ResultSet rs) throws SQLException, IOException {
+            // Una línea JSON por venta con sus detalles anidados
+            if (esNuevaVenta(rs)) {
+                if (ventas > 1) {
+                    terminarVenta();
+                }
+                Timestamp fecha = rs.getTimestamp("fecha_venta");
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("fechaVenta", fecha != null ? fecha.toLocalDateTime().toString() : null);
+                generator.writeStringField("tipoVenta", rs.getString("tipo_venta"));
+                generator.writeStringField("estado", rs.getString("estado"));
+                generator.writeStringField("cliente", rs.getString("cliente"));
+                generator.writeNumberField("subtotal", rs.getBigDecimal("subtotal"));
+                generator.writeNumberField("total", rs.getBigDecimal("total"));
+                generator.writeStringField("observaciones", rs.getString("observaciones"));
+                generator.writeArrayFieldStart("detalles");
+            }
+
+            long productoId = rs.getLong("producto_id");
+            if (!rs.wasNull()) {
+                generator.writeStartObject();
+                generator.writeNumberField("productoId", productoId);
+                generator.writeStringField("producto", rs.getString("producto"));
+                generator.writeNumberField("cantidad", rs.getInt("cantidad"));
+                generator.writeNumberField("precioUnitario", rs.getBigDecimal("precio_unitario"));
+                generator.writeNumberField("subtotal", rs.getBigDecimal("detalle_subtotal"));
+                generator.writeEndObject();
+            }
+        }
+
+        @Override
+        void cerrar() throws IOException {
+            if (ventas > 0) {
+                terminarVenta();
+            }
+            generator.flush();
+        }
+
+        private void terminarVenta() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+}
@@ -2,20 +2,25 @@ package com.devsteve.prestashopv2_backend.services;
 
 import com.devsteve.prestashopv2_backend.models.dto.request.DetalleVentaRequest;
 import com.devsteve.prestashopv2_backend.models.dto.request.VentaRequest;
+import com.devsteve.prestashopv2_backend.models.dto.response.CuentaClienteResponse;
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
 import com.devsteve.prestashopv2_backend.models.dto.response.VentaResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
 import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
 import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
 import com.devsteve.prestashopv2_backend.services.email.VentaEmailService;
+import com.devsteve.prestashopv2_backend.services.metricas.MetricasNegocio;
 import com.devsteve.prestashopv2_backend.utils.mappers.DetalleVentaMapper;
 import com.devsteve.prestashopv2_backend.utils.mappers.VentaMapper;
+import com.devsteve.prestashopv2_backend.utils.paginacion.Cursor;
+import com.devsteve.prestashopv2_backend.utils.paginacion.Paginacion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,7 +28,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -34,36 +41,42 @@ public class VentaService {
     private final VentaRepository ventaRepository;
     private final ProductoRepository productoRepository;
     private final CuentaClienteRepository cuentaClienteRepository;
-    private final UsuarioRepository usuarioRepository;
-    private final DetalleVentaRepository detalleVentaRepository;
     private final CuentaClienteService cuentaClienteService;
     private final VentaMapper ventaMapper;
     private final DetalleVentaMapper detalleVentaMapper;
     private final VentaEmailService ventaEmailService;
     private final MovimientoTiendaService movimientoTiendaService;
+    private final OperadorContext operadorContext;
+    private final Paginacion paginacion;
+    private final MetricasNegocio metricasNegocio;
 
     @Transactional
     public VentaResponse crear(VentaRequest request) {
-        // Obtener usuario autenticado (encargado o empleado)
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+        // Obtener la tienda del empleado autenticado
+        TiendaEntity tienda = obtenerTiendaDelEmpleado();
 
-        // Obtener la tienda del empleado
-        TiendaEntity tienda = obtenerTiendaDelEmpleado(solicitante);
+        return metricasNegocio.medir(MetricasNegocio.VENTA_CREACION, tienda.getId(),
+                () -> crearEnTienda(request, tienda));
+    }
+
+    private VentaResponse crearEnTienda(VentaRequest request, TiendaEntity tienda) {
+        // Precios vigentes de la base de datos, en una sola consulta para todas las líneas
+        Map<Long, ProductoEntity> productos = cargarProductosDeVenta(request.getDetalleVentas(), tienda.getId());
 
         // Primero calcular totales basado en los productos y cantidades
-        BigDecimal totalCalculado = calcularTotalVenta(request.getDetalleVentas(), tienda.getId());
+        BigDecimal totalCalculado = calcularTotalVenta(request.getDetalleVentas(), productos);
 
         // Determinar el tipo de venta y procesar según corresponda
-        if (request.getTipoVenta() == TipoVenta.CREDITO) {
-            return procesarVentaCredito(request, totalCalculado, tienda);
-        } else {
-            return procesarVentaContado(request, totalCalculado, tienda);
-        }
+        VentaResponse venta = request.getTipoVenta() == TipoVenta.CREDITO
+                ? procesarVentaCredito(request, totalCalculado, tienda, productos)
+                : procesarVentaContado(request, totalCalculado, tienda, productos);
+
+        metricasNegocio.registrarVenta(tienda.getId(), venta.getTipoVenta(), venta.getEstado());
+        return venta;
     }
 
-    private VentaResponse procesarVentaCredito(VentaRequest request, BigDecimal totalCalculado, TiendaEntity tienda) {
+    private VentaResponse procesarVentaCredito(VentaRequest request, BigDecimal totalCalculado, TiendaEntity tienda,
+                                               Map<Long, ProductoEntity> productos) {
         // Validar que se especifique una cuenta de cliente
         if (request.getCuentaClienteId() == null) {
             throw new RuntimeException("Para ventas a crédito se debe especificar una cuenta de cliente");
@@ -78,21 +91,25 @@ public class VentaService {
             throw new RuntimeException("La cuenta de cliente no pertenece a esta tienda");
         }
 
-        // Verificar que la cuenta puede realizar la compra
-        if (!cuentaClienteService.puedeRealizarCompra(cuenta.getId(), totalCalculado)) {
-            BigDecimal saldoDisponible = cuenta.getLimiteCredito().subtract(cuenta.getSaldoActual());
-            throw new RuntimeException("La cuenta no tiene crédito suficiente para realizar esta compra. " +
-                    "Saldo disponible: $" + saldoDisponible);
-        }
+        // Cargar el saldo antes de crear la venta: el UPDATE condicional verifica el crédito
+        // disponible y lo consume en la misma sentencia, incluso con cajas simultáneas
+        String concepto = "Compra a crédito en tienda " + tienda.getId();
+        CuentaClienteResponse cargo = request.getReservaCreditoId() != null
+                ? cuentaClienteService.cargarSaldoConReserva(cuenta.getId(), totalCalculado,
+                        request.getReservaCreditoId(), concepto)
+                : cuentaClienteService.cargarSaldo(cuenta.getId(), totalCalculado, concepto);
 
         // Crear la venta
         VentaEntity venta = crearVentaBase(request, cuenta, null, totalCalculado, tienda);
         venta.setEstado(EstadoVenta.PENDIENTE); // Las ventas a crédito inician como PENDIENTE
 
+        // Agregar detalles: se persisten en cascada junto con la venta
+        agregarDetallesVenta(venta, request.getDetalleVentas(), productos);
         VentaEntity ventaGuardada = ventaRepository.save(venta);
 
-        // Procesar detalles de venta
-        procesarDetallesVenta(ventaGuardada, request.getDetalleVentas());
+        // El cargo se registró antes de tener el id de la venta: cuenta y saldo nuevo lo enlazan
+        log.info("Venta #{} cargada a cuenta {}: {}. Saldo nuevo: {}",
+                ventaGuardada.getId(), cuenta.getId(), totalCalculado, cargo.getSaldoActual());
 
         // REGISTRAR MOVIMIENTO AUTOMÁTICAMENTE
         movimientoTiendaService.registrarEvento(
@@ -101,7 +118,8 @@ public class VentaService {
                 venta.getTotal(),
                 cuenta != null ? cuenta.getUsuario().getId() : null,
                 ventaGuardada.getId(),
-                "ventas"
+                "ventas",
+                venta.getTipoVenta()
         );
 
         // FACTURA POR CORREO (VENTA A CRÉDITO)
@@ -111,7 +129,8 @@ public class VentaService {
         return ventaMapper.toResponse(ventaGuardada);
     }
 
-    private VentaResponse procesarVentaContado(VentaRequest request, BigDecimal totalCalculado, TiendaEntity tienda) {
+    private VentaResponse procesarVentaContado(VentaRequest request, BigDecimal totalCalculado, TiendaEntity tienda,
+                                               Map<Long, ProductoEntity> productos) {
         CuentaClienteEntity cuenta = null;
         String clienteOcasional = null;
 
@@ -136,11 +155,10 @@ public class VentaService {
         VentaEntity venta = crearVentaBase(request, cuenta, clienteOcasional, totalCalculado, tienda);
         venta.setEstado(EstadoVenta.PAGADA); // Las ventas al contado se marcan como PAGADA inmediatamente
 
+        // Agregar detalles: se persisten en cascada junto con la venta
+        agregarDetallesVenta(venta, request.getDetalleVentas(), productos);
         VentaEntity ventaGuardada = ventaRepository.save(venta);
 
-        // Procesar detalles de venta
-        procesarDetallesVenta(ventaGuardada, request.getDetalleVentas());
-
         // REGISTRAR MOVIMIENTO AUTOMÁTICAMENTE
         movimientoTiendaService.registrarEvento(
                 TipoEvento.VENTA_REGISTRADA,
@@ -148,7 +166,8 @@ public class VentaService {
                 venta.getTotal(),
                 cuenta != null ? cuenta.getUsuario().getId() : null,
                 ventaGuardada.getId(),
-                "ventas"
+                "ventas",
+                venta.getTipoVenta()
         );
 
         // FACTURA POR CORREO (VENTA DE CONTADO - SOLO SI TIENE CUENTA)
@@ -171,16 +190,30 @@ public class VentaService {
         // Validar acceso a la tienda
         validarAccesoATienda(tiendaId);
 
-        List<VentaEntity> ventas = ventaRepository.findByTiendaIdOrderByFechaVentaDesc(tiendaId);
+        List<VentaEntity> ventas = ventaRepository.findByTiendaIdOrderByFechaVentaDesc(tiendaId, paginacion.limiteListado());
         return ventaMapper.toResponseList(ventas);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<VentaResponse> listarVentasDeTiendaPorCursor(Long tiendaId, String cursor, Integer tamano) {
+        // Validar acceso a la tienda
+        validarAccesoATienda(tiendaId);
+
+        Cursor posicion = Cursor.decodificar(cursor);
+        int tamanoPagina = paginacion.tamanoPagina(tamano);
+
+        List<VentaEntity> ventas = ventaRepository.findPaginaDeTienda(
+                tiendaId, posicion.getFecha(), posicion.getId(), paginacion.limitePagina(tamanoPagina));
+        return paginacion.construirPagina(ventas, tamanoPagina,
+                VentaEntity::getFechaVenta, VentaEntity::getId, ventaMapper::toResponseList);
+    }
+
     @Transactional(readOnly = true)
     public List<VentaResponse> listarVentasPorEstado(Long tiendaId, EstadoVenta estado) {
         // Validar acceso a la tienda
         validarAccesoATienda(tiendaId);
 
-        List<VentaEntity> ventas = ventaRepository.findByTiendaIdAndEstadoOrderByFechaVentaDesc(tiendaId, estado);
+        List<VentaEntity> ventas = ventaRepository.findByTiendaIdAndEstadoOrderByFechaVentaDesc(tiendaId, estado, paginacion.limiteListado());
         return ventaMapper.toResponseList(ventas);
     }
 
@@ -206,7 +239,7 @@ public class VentaService {
         VentaEntity ventaActualizada = ventaRepository.save(venta);
 
         log.info("Venta #{} cancelada por {}",
-                id, SecurityContextHolder.getContext().getAuthentication().getName());
+                id, operadorContext.getEmail());
 
         return ventaMapper.toResponse(ventaActualizada);
     }
@@ -232,14 +265,12 @@ public class VentaService {
         return venta;
     }
 
-    private void procesarDetallesVenta(VentaEntity venta, List<DetalleVentaRequest> detallesRequest) {
-        List<DetalleVentaEntity> detalles = new ArrayList<>();
+    private void agregarDetallesVenta(VentaEntity venta, List<DetalleVentaRequest> detallesRequest,
+                                      Map<Long, ProductoEntity> productos) {
         BigDecimal subtotalVenta = BigDecimal.ZERO;
 
         for (DetalleVentaRequest detalleRequest : detallesRequest) {
-            // Verificar que el producto existe
-            ProductoEntity producto = productoRepository.findById(detalleRequest.getProductoId())
-                    .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + detalleRequest.getProductoId()));
+            ProductoEntity producto = productos.get(detalleRequest.getProductoId());
 
             DetalleVentaEntity detalle = detalleVentaMapper.toEntity(detalleRequest);
             detalle.setVenta(venta);
@@ -254,44 +285,44 @@ public class VentaService {
             detalle.setSubtotal(subtotalDetalle);
 
             subtotalVenta = subtotalVenta.add(subtotalDetalle);
-            detalles.add(detalle);
+            venta.getDetalleVentas().add(detalle);
         }
 
-        // Guardar todos los detalles en la base de datos para que obtengan sus IDs
-        List<DetalleVentaEntity> detallesGuardados = new ArrayList<>();
-        for (DetalleVentaEntity detalle : detalles) {
-            DetalleVentaEntity detalleGuardado = detalleVentaRepository.save(detalle);
-            detallesGuardados.add(detalleGuardado);
-        }
-
-        // Actualizar la venta con los detalles guardados (que ya tienen IDs)
-        venta.setDetalleVentas(detallesGuardados);
         venta.setSubtotal(subtotalVenta);
-
-        // Guardar la venta actualizada con los detalles
-        ventaRepository.save(venta);
-
-        // Si es venta a crédito, cargar el saldo a la cuenta
-        if (venta.getTipoVenta() == TipoVenta.CREDITO && venta.getCuentaCliente() != null) {
-            cuentaClienteService.cargarSaldo(venta.getCuentaCliente().getId(),
-                    venta.getTotal(), "Compra venta #" + venta.getId());
-        }
     }
 
-    private BigDecimal calcularTotalVenta(List<DetalleVentaRequest> detallesRequest, Long tiendaId) {
-        BigDecimal total = BigDecimal.ZERO;
+    private Map<Long, ProductoEntity> cargarProductosDeVenta(List<DetalleVentaRequest> detallesRequest, Long tiendaId) {
+        // No se usa la instantánea del catálogo: es por instancia y otro nodo puede haber cambiado
+        // un precio o desactivado un producto sin que esta instancia se entere todavía
+        List<Long> ids = detallesRequest.stream().map(DetalleVentaRequest::getProductoId).distinct().toList();
+        Map<Long, ProductoEntity> productos = new HashMap<>();
+        for (ProductoEntity producto : productoRepository.findAllByIdInAndTiendaId(ids, tiendaId)) {
+            productos.put(producto.getId(), producto);
+        }
 
-        for (DetalleVentaRequest detalleRequest : detallesRequest) {
-            // Obtener el producto para extraer su precio y verificar que pertenece a la tienda
-            ProductoEntity producto = productoRepository.findByIdAndTiendaId(detalleRequest.getProductoId(), tiendaId)
-                    .orElseThrow(() -> new RuntimeException("Producto no encontrado en esta tienda con ID: " + detalleRequest.getProductoId()));
+        for (Long productoId : ids) {
+            // Verificar que el producto pertenece a la tienda
+            ProductoEntity producto = productos.get(productoId);
+            if (producto == null) {
+                throw new RuntimeException("Producto no encontrado en esta tienda con ID: " + productoId);
+            }
 
             // Verificar que el producto esté activo
-            if (!producto.getActivo()) {
+            if (!Boolean.TRUE.equals(producto.getActivo())) {
                 throw new RuntimeException("El producto " + producto.getNombre() + " no está disponible");
             }
+        }
+
+        return productos;
+    }
+
+    // Sin estado: accesible desde el benchmark del paquete (src/jmh/java)
+    static BigDecimal calcularTotalVenta(List<DetalleVentaRequest> detallesRequest, Map<Long, ProductoEntity> productos) {
+        BigDecimal total = BigDecimal.ZERO;
 
+        for (DetalleVentaRequest detalleRequest : detallesRequest) {
             // Calcular subtotal usando el precio del producto
+            ProductoEntity producto = productos.get(detalleRequest.getProductoId());
             BigDecimal subtotal = producto.getPrecioUnitario().multiply(BigDecimal.valueOf(detalleRequest.getCantidad()));
             total = total.add(subtotal);
         }
@@ -299,38 +330,22 @@ public class VentaService {
         return total;
     }
 
-    private TiendaEntity obtenerTiendaDelEmpleado(UsuarioEntity empleado) {
+    private TiendaEntity obtenerTiendaDelEmpleado() {
         // Validar que sea encargado o empleado
-        boolean esEncargadoOEmpleado = empleado.getRoles().stream()
-            .anyMatch(r -> "ENCARGADO".equals(r.getNombre()) || "EMPLEADO".equals(r.getNombre()));
-
-        if (!esEncargadoOEmpleado) {
+        if (!operadorContext.esEncargadoOEmpleado()) {
             throw new RuntimeException("Solo encargados y empleados pueden realizar ventas");
         }
 
-        return empleado.getEmpleadoTiendas().stream()
-            .filter(et -> et.getActivo())
-            .findFirst()
-            .map(EmpleadoTiendaEntity::getTienda)
+        return operadorContext.getTiendaAsignada()
             .orElseThrow(() -> new RuntimeException("No tienes una tienda asignada"));
     }
 
     private void validarAccesoATienda(Long tiendaId) {
-        String emailSolicitante = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity solicitante = usuarioRepository.findByEmailWithRolesAndTiendas(emailSolicitante)
-            .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = solicitante.getRoles().stream()
-            .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
-        boolean tieneAcceso = solicitante.getEmpleadoTiendas().stream()
-            .anyMatch(et -> et.getTienda().getId().equals(tiendaId) && et.getActivo());
-
-        if (!tieneAcceso) {
+        if (!operadorContext.tieneAccesoATienda(tiendaId)) {
             throw new RuntimeException("Sin acceso a esta tienda");
         }
     }
@@ -339,21 +354,24 @@ public class VentaService {
 
     @Transactional(readOnly = true)
     public List<VentaResponse> listarMisCompras() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        List<VentaEntity> ventas = ventaRepository.findByCuentaClienteUsuarioIdOrderByFechaVentaDesc(usuario.getId());
+        List<VentaEntity> ventas = ventaRepository.findByCuentaClienteUsuarioIdOrderByFechaVentaDesc(operadorContext.getUsuarioId(), paginacion.limiteListado());
         return ventaMapper.toResponseList(ventas);
     }
 
     @Transactional(readOnly = true)
-    public List<VentaResponse> listarMisComprasPorEstado(EstadoVenta estado) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    public CursorPageResponse<VentaResponse> listarMisComprasPorCursor(String cursor, Integer tamano) {
+        Cursor posicion = Cursor.decodificar(cursor);
+        int tamanoPagina = paginacion.tamanoPagina(tamano);
+
+        List<VentaEntity> ventas = ventaRepository.findPaginaDeCliente(
+                operadorContext.getUsuarioId(), posicion.getFecha(), posicion.getId(), paginacion.limitePagina(tamanoPagina));
+        return paginacion.construirPagina(ventas, tamanoPagina,
+                VentaEntity::getFechaVenta, VentaEntity::getId, ventaMapper::toResponseList);
+    }
 
-        List<VentaEntity> ventas = ventaRepository.findByCuentaClienteUsuarioIdAndEstadoOrderByFechaVentaDesc(usuario.getId(), estado);
+    @Transactional(readOnly = true)
+    public List<VentaResponse> listarMisComprasPorEstado(EstadoVenta estado) {
+        List<VentaEntity> ventas = ventaRepository.findByCuentaClienteUsuarioIdAndEstadoOrderByFechaVentaDesc(operadorContext.getUsuarioId(), estado, paginacion.limiteListado());
         return ventaMapper.toResponseList(ventas);
     }
 
@@ -366,11 +384,7 @@ public class VentaService {
 
     @Transactional(readOnly = true)
     public List<VentaResponse> listarMisComprasPorTienda(Long tiendaId) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        List<VentaEntity> ventas = ventaRepository.findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaVentaDesc(usuario.getId(), tiendaId);
+        List<VentaEntity> ventas = ventaRepository.findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaVentaDesc(operadorContext.getUsuarioId(), tiendaId, paginacion.limiteListado());
         return ventaMapper.toResponseList(ventas);
     }
 
@@ -392,19 +406,16 @@ public class VentaService {
         venta.setEstado(EstadoVenta.PAGADA);
         VentaEntity ventaActualizada = ventaRepository.save(venta);
 
-        log.info("Venta #{} marcada como PAGADA por {}", ventaId, SecurityContextHolder.getContext().getAuthentication().getName());
+        log.info("Venta #{} marcada como PAGADA por {}", ventaId, operadorContext.getEmail());
 
         return ventaMapper.toResponse(ventaActualizada);
     }
 
     @Transactional
     public List<VentaResponse> marcarTodasMisVentasComoPagadas() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
+        String email = operadorContext.getEmail();
         List<VentaEntity> ventasPendientes = ventaRepository.findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc(
-                usuario.getId(), List.of(EstadoVenta.PENDIENTE, EstadoVenta.PARCIAL));
+                operadorContext.getUsuarioId(), List.of(EstadoVenta.PENDIENTE, EstadoVenta.PARCIAL));
 
         if (ventasPendientes.isEmpty()) {
             return List.of();
@@ -440,9 +451,7 @@ public class VentaService {
     @Transactional
     public List<VentaResponse> marcarTodasVentasClienteComoPagadas(Long clienteId) {
         // Validar que el empleado tenga acceso (debe validar que es de la misma tienda)
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity empleado = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
+        String email = operadorContext.getEmail();
 
         // Buscar todas las ventas pendientes y parciales del cliente
         List<VentaEntity> ventasPendientes = ventaRepository.findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc(
@@ -453,7 +462,7 @@ public class VentaService {
         }
 
         // Validar que el empleado tenga acceso a las tiendas donde están las ventas
-        TiendaEntity tiendaEmpleado = obtenerTiendaDelEmpleado(empleado);
+        TiendaEntity tiendaEmpleado = obtenerTiendaDelEmpleado();
         boolean todasVentasSonDeLaTienda = ventasPendientes.stream()
                 .allMatch(v -> v.getTienda().getId().equals(tiendaEmpleado.getId()));
 
@@ -479,22 +488,14 @@ public class VentaService {
     // MÉTODOS AUXILIARES PARA NUEVAS FUNCIONALIDADES
 
     private void validarPropietarioVenta(VentaEntity venta) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = usuario.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
         boolean esPropietario = venta.getCuentaCliente() != null &&
-                venta.getCuentaCliente().getUsuario().getId().equals(usuario.getId());
+                venta.getCuentaCliente().getUsuario().getId().equals(operadorContext.getUsuarioId());
 
-        boolean esEmpleadoTienda = usuario.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(venta.getTienda().getId()) && et.getActivo());
+        boolean esEmpleadoTienda = operadorContext.tieneAccesoATienda(venta.getTienda().getId());
 
         if (!esPropietario && !esEmpleadoTienda) {
             throw new RuntimeException("No tienes permisos para acceder a esta venta");
@@ -502,22 +503,14 @@ public class VentaService {
     }
 
     private void validarAccesoPagoVenta(VentaEntity venta) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UsuarioEntity usuario = usuarioRepository.findByEmailWithRolesAndTiendas(email)
-                .orElseThrow(() -> new RuntimeException("Usuario autenticado no encontrado"));
-
-        boolean esAdmin = usuario.getRoles().stream()
-                .anyMatch(r -> "SYSADMIN".equals(r.getNombre()));
-
-        if (esAdmin) {
+        if (operadorContext.esSysAdmin()) {
             return;
         }
 
         boolean esPropietario = venta.getCuentaCliente() != null &&
-                venta.getCuentaCliente().getUsuario().getId().equals(usuario.getId());
+                venta.getCuentaCliente().getUsuario().getId().equals(operadorContext.getUsuarioId());
 
-        boolean esEmpleadoTienda = usuario.getEmpleadoTiendas().stream()
-                .anyMatch(et -> et.getTienda().getId().equals(venta.getTienda().getId()) && et.getActivo());
+        boolean esEmpleadoTienda = operadorContext.tieneAccesoATienda(venta.getTienda().getId());
 
         if (!esPropietario && !esEmpleadoTienda) {
             throw new RuntimeException("No tienes permisos para marcar esta venta como pagada");
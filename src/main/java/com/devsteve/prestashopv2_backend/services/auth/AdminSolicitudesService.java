@@ -5,7 +5,9 @@ import com.devsteve.prestashopv2_backend.models.dto.request.RechazarSolicitudReq
 import com.devsteve.prestashopv2_backend.models.dto.response.SolicitudTiendaResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.services.DirectorioGeografico;
 import com.devsteve.prestashopv2_backend.services.email.SolicitudTiendaEmailService;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
 import com.devsteve.prestashopv2_backend.utils.mappers.SolicitudTiendaMapper;
 import com.devsteve.prestashopv2_backend.utils.mappers.TiendaMapper;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +36,8 @@ public class AdminSolicitudesService {
     private final TiendaMapper tiendaMapper;
 
     private final SolicitudTiendaEmailService emailService;
+    private final VersionesCambio versionesCambio;
+    private final DirectorioGeografico directorioGeografico;
 
     public List<SolicitudTiendaResponse.Basica> obtenerSolicitudesPendientes() {
         return solicitudTiendaRepository
@@ -71,6 +75,8 @@ public class AdminSolicitudesService {
             // 1. Crear la tienda usando mapper
             TiendaEntity nuevaTienda = tiendaMapper.fromSolicitudToTienda(solicitud);
             nuevaTienda = tiendaRepository.save(nuevaTienda);
+            versionesCambio.registrarCambioTienda(nuevaTienda.getId());
+            directorioGeografico.registrarCambioTienda();
 
             // 2. Crear usuario encargado usando mapper
             String passwordTemporal = generarPasswordTemporal();
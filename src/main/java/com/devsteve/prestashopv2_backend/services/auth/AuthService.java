@@ -11,6 +11,7 @@ import com.devsteve.prestashopv2_backend.models.dto.response.UsuarioResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
 import com.devsteve.prestashopv2_backend.security.JwtService;
+import com.devsteve.prestashopv2_backend.security.PrincipalCache;
 import com.devsteve.prestashopv2_backend.services.email.SolicitudTiendaEmailService;
 import com.devsteve.prestashopv2_backend.utils.mappers.AuthMapper;
 import com.devsteve.prestashopv2_backend.utils.mappers.SolicitudTiendaMapper;
@@ -38,6 +39,7 @@ public class AuthService {
     private final EmpleadoTiendaRepository empleadoTiendaRepository;
     private final CuentaClienteRepository cuentaClienteRepository;
     private final JwtService jwtService;
+    private final PrincipalCache principalCache;
     private final PasswordEncoder passwordEncoder;
 
     private final AuthMapper authMapper;
@@ -208,6 +210,7 @@ public class AuthService {
         // Usar el mapper de usuario para actualizar
         usuarioMapper.updateEntityFromRequest(request, usuario);
         usuario = usuarioRepository.save(usuario);
+        principalCache.invalidar(usuario.getId());
 
         log.info("Perfil actualizado: {}", usuario.getEmail());
 
@@ -5,6 +5,7 @@ import com.devsteve.prestashopv2_backend.models.dto.request.update.UpdateUsuario
 import com.devsteve.prestashopv2_backend.models.dto.response.UsuarioResponse;
 import com.devsteve.prestashopv2_backend.models.entities.*;
 import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.PrincipalCache;
 import com.devsteve.prestashopv2_backend.utils.mappers.UsuarioMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class UsuarioService {
     private final CuentaClienteRepository cuentaClienteRepository;
     private final PasswordEncoder passwordEncoder;
     private final UsuarioMapper usuarioMapper;
+    private final PrincipalCache principalCache;
 
     @Transactional(readOnly = true)
     public List<UsuarioResponse> listarClientesDeTienda(Long tiendaId) {
@@ -134,6 +136,7 @@ public class UsuarioService {
 
         usuarioMapper.updateEntityFromRequest(request, usuario);
         usuario = usuarioRepository.save(usuario);
+        principalCache.invalidar(usuario.getId());
 
         log.info("Usuario actualizado: {}", usuario.getEmail());
 
@@ -150,6 +153,7 @@ public class UsuarioService {
 
         usuario.setActivo(true);
         usuarioRepository.save(usuario);
+        principalCache.invalidar(usuarioId);
 
         log.info("Usuario activado: {}", usuario.getEmail());
     }
@@ -170,6 +174,7 @@ public class UsuarioService {
 
         empleadoTienda.setActivo(true);
         empleadoTiendaRepository.save(empleadoTienda);
+        principalCache.invalidar(usuarioId);
 
         log.info("Empleado activado en tienda: usuarioId={}, tiendaId={}", usuarioId, tiendaId);
     }
@@ -190,6 +195,7 @@ public class UsuarioService {
 
         empleadoTienda.setActivo(false);
         empleadoTiendaRepository.save(empleadoTienda);
+        principalCache.invalidar(usuarioId);
 
         log.info("Empleado desactivado en tienda: usuarioId={}, tiendaId={}", usuarioId, tiendaId);
     }
@@ -244,6 +250,7 @@ public class UsuarioService {
 
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        principalCache.invalidar(usuarioId);
 
         log.info("Usuario desactivado: {}", usuario.getEmail());
     }
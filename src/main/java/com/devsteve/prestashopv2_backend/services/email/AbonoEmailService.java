@@ -1,72 +1,65 @@
 package com.devsteve.prestashopv2_backend.services.email;
 
 import com.devsteve.prestashopv2_backend.models.entities.AbonoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AbonoEmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-
-    @Value("${spring.mail.username:noreply@prestashop.com}")
-    private String fromEmail;
+    private final EmailOutboxService emailOutboxService;
 
+    /**
+     * Encola el comprobante en la transacción del abono; el envío SMTP lo hace el despachador.
+     */
     public void enviarComprobanteAbono(AbonoEntity abono) {
-        try {
-            if (abono.getCuentaCliente() == null || abono.getCuentaCliente().getUsuario() == null) {
-                log.warn("No se puede enviar comprobante de abono {} - Cliente o cuenta no disponible", abono.getId());
-                return;
-            }
+        if (abono.getCuentaCliente() == null || abono.getCuentaCliente().getUsuario() == null) {
+            log.warn("No se puede enviar comprobante de abono {} - Cliente o cuenta no disponible", abono.getId());
+            return;
+        }
 
-            String destinatario = abono.getCuentaCliente().getUsuario().getEmail();
-            String asunto = "Comprobante de Abono #" + abono.getId() + " - " + abono.getTienda().getNombre();
+        UsuarioEntity cliente = abono.getCuentaCliente().getUsuario();
+        TiendaEntity tienda = abono.getTienda();
 
-            // Preparar el contexto para Thymeleaf
-            Context context = new Context(Locale.getDefault());
-            context.setVariable("abono", abono);
-            context.setVariable("cliente", abono.getCuentaCliente().getUsuario());
-            context.setVariable("tienda", abono.getTienda());
-            context.setVariable("fechaFormateada", abono.getFechaAbono().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-            context.setVariable("montoFormateado", String.format("$%.2f", abono.getMonto()));
-            context.setVariable("estadoTexto", getEstadoTexto(abono.getEstado().name()));
-            context.setVariable("metodoPagoTexto", getMetodoPagoTexto(abono.getMetodoPago().name()));
+        String destinatario = cliente.getEmail();
+        String asunto = "Comprobante de Abono #" + abono.getId() + " - " + tienda.getNombre();
 
-            // Generar el HTML del email usando la plantilla
-            String contenidoHtml = templateEngine.process("comprobante-abono", context);
+        // Copia de los datos que usa la plantilla, sin referencias a entidades
+        Map<String, Object> datosAbono = new HashMap<>();
+        datosAbono.put("id", abono.getId());
+        datosAbono.put("estado", abono.getEstado().name());
+        datosAbono.put("observaciones", abono.getObservaciones());
 
-            // Crear y enviar el email
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        Map<String, Object> datosCliente = new HashMap<>();
+        datosCliente.put("nombreCompleto", cliente.getNombreCompleto());
+        datosCliente.put("email", cliente.getEmail());
 
-            helper.setFrom(fromEmail);
-            helper.setTo(destinatario);
-            helper.setSubject(asunto);
-            helper.setText(contenidoHtml, true);
+        Map<String, Object> datosTienda = new HashMap<>();
+        datosTienda.put("nombre", tienda.getNombre());
+        datosTienda.put("direccionExacta", tienda.getDireccionExacta());
+        datosTienda.put("telefono", tienda.getTelefono());
 
-            mailSender.send(message);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("abono", datosAbono);
+        variables.put("cliente", datosCliente);
+        variables.put("tienda", datosTienda);
+        variables.put("fechaFormateada", abono.getFechaAbono().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        variables.put("montoFormateado", String.format("$%.2f", abono.getMonto()));
+        variables.put("estadoTexto", getEstadoTexto(abono.getEstado().name()));
+        variables.put("metodoPagoTexto", getMetodoPagoTexto(abono.getMetodoPago().name()));
 
-            log.info("Comprobante de abono #{} enviado exitosamente a {}", abono.getId(), destinatario);
+        emailOutboxService.encolar(destinatario, asunto, "comprobante-abono", variables);
 
-        } catch (MessagingException e) {
-            log.error("Error al enviar comprobante de abono #{}: {}", abono.getId(), e.getMessage());
-        } catch (Exception e) {
-            log.error("Error inesperado al enviar comprobante de abono #{}: {}", abono.getId(), e.getMessage());
-        }
+        log.info("Comprobante de abono #{} encolado para {}", abono.getId(), destinatario);
     }
 
     private String getEstadoTexto(String estado) {
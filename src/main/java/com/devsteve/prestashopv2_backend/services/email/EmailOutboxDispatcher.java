@@ -0,0 +1,61 @@
+package com.devsteve.prestashopv2_backend.services.email;
+
+import com.devsteve.prestashopv2_backend.models.entities.EmailOutboxEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Envía los correos del outbox por lotes. La conexión SMTP se usa fuera de cualquier
+ * transacción: solo reclamar el lote y registrar cada resultado tocan la base de datos.
+ * Varias instancias pueden ejecutarlo a la vez gracias a FOR UPDATE SKIP LOCKED.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final EmailService emailService;
+
+    @Value("${app.email-outbox.tamano-lote:20}")
+    private int tamanoLote;
+
+    @Value("${app.email-outbox.max-lotes-por-ciclo:10}")
+    private int maxLotesPorCiclo;
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.intervalo-ms:5000}")
+    public void despachar() {
+        for (int i = 0; i < maxLotesPorCiclo; i++) {
+            List<EmailOutboxEntity> lote = outboxService.reclamarLote(tamanoLote);
+            lote.forEach(this::enviar);
+
+            if (lote.size() < tamanoLote) {
+                return;
+            }
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void enviar(EmailOutboxEntity correo) {
+        try {
+            emailService.enviarEmailSincrono(
+                    correo.getDestinatario(),
+                    correo.getAsunto(),
+                    correo.getPlantilla(),
+                    correo.getVariables()
+            );
+        } catch (Exception e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            outboxService.registrarFallo(correo, causa.getMessage());
+            return;
+        }
+        // Fuera del try: un error al registrar el envío no debe reprogramar un correo ya entregado
+        outboxService.registrarEnvio(correo);
+    }
+}
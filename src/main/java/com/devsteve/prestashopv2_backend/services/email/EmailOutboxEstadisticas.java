@@ -0,0 +1,57 @@
+package com.devsteve.prestashopv2_backend.services.email;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores acumulados del despachador de correos: envíos, reintentos, descartes
+ * y latencia desde que el correo se encola hasta que el servidor SMTP lo acepta.
+ */
+@Component
+public class EmailOutboxEstadisticas {
+
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder latenciaTotalMs = new LongAdder();
+    private final LongAccumulator latenciaMaximaMs = new LongAccumulator(Long::max, 0);
+
+    void registrarEnvio(Duration latencia) {
+        long ms = Math.max(0, latencia.toMillis());
+        enviados.increment();
+        latenciaTotalMs.add(ms);
+        latenciaMaximaMs.accumulate(ms);
+    }
+
+    void registrarReintento() {
+        reintentos.increment();
+    }
+
+    void registrarFallido() {
+        fallidos.increment();
+    }
+
+    public long getEnviados() {
+        return enviados.sum();
+    }
+
+    public long getReintentos() {
+        return reintentos.sum();
+    }
+
+    public long getFallidos() {
+        return fallidos.sum();
+    }
+
+    public long getLatenciaPromedioMs() {
+        long total = enviados.sum();
+        return total == 0 ? 0 : latenciaTotalMs.sum() / total;
+    }
+
+    public long getLatenciaMaximaMs() {
+        return latenciaMaximaMs.get();
+    }
+}
@@ -0,0 +1,136 @@
+package com.devsteve.prestashopv2_backend.services.email;
+
+import com.devsteve.prestashopv2_backend.models.entities.EmailOutboxEntity;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox;
+import com.devsteve.prestashopv2_backend.repositories.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bandeja de salida de correos. Los servicios de negocio encolan dentro de su transacción
+ * y el EmailOutboxDispatcher envía fuera de ella, con reintentos y backoff exponencial.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_LONGITUD_ERROR = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxEstadisticas estadisticas;
+
+    @Value("${app.email-outbox.max-intentos:6}")
+    private int maxIntentos;
+
+    @Value("${app.email-outbox.backoff-inicial-segundos:30}")
+    private long backoffInicialSegundos;
+
+    @Value("${app.email-outbox.backoff-maximo-segundos:3600}")
+    private long backoffMaximoSegundos;
+
+    @Value("${app.email-outbox.bloqueo-segundos:300}")
+    private long bloqueoSegundos;
+
+    @Value("${app.email-outbox.dias-retencion:30}")
+    private int diasRetencion;
+
+    /**
+     * Guarda el correo en la transacción actual: solo se enviará si esa transacción confirma.
+     * Las variables deben ser valores simples (textos, números, listas y mapas).
+     */
+    @Transactional
+    public void encolar(String destinatario, String asunto, String plantilla, Map<String, Object> variables) {
+        EmailOutboxEntity correo = EmailOutboxEntity.builder()
+                .destinatario(destinatario)
+                .asunto(asunto)
+                .plantilla(plantilla)
+                .variables(variables)
+                .build();
+
+        outboxRepository.save(correo);
+        log.debug("Correo '{}' encolado para {}", plantilla, destinatario);
+    }
+
+    /**
+     * Reclama hasta {@code lote} correos listos. Cada uno queda apartado por bloqueo-segundos:
+     * si el despachador se detiene antes de registrar el resultado, vuelve a estar disponible.
+     */
+    @Transactional
+    public List<EmailOutboxEntity> reclamarLote(int lote) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EmailOutboxEntity> correos = outboxRepository.reclamarPendientes(ahora, lote);
+
+        for (EmailOutboxEntity correo : correos) {
+            correo.setIntentos(correo.getIntentos() + 1);
+            correo.setProximoIntento(ahora.plusSeconds(bloqueoSegundos));
+        }
+        return correos;
+    }
+
+    @Transactional
+    public void registrarEnvio(EmailOutboxEntity correo) {
+        LocalDateTime ahora = LocalDateTime.now();
+        outboxRepository.marcarEnviado(correo.getId(), ahora);
+        estadisticas.registrarEnvio(Duration.between(correo.getCreatedAt(), ahora));
+    }
+
+    @Transactional
+    public void registrarFallo(EmailOutboxEntity correo, String error) {
+        String detalle = error != null && error.length() > MAX_LONGITUD_ERROR
+                ? error.substring(0, MAX_LONGITUD_ERROR)
+                : error;
+
+        if (correo.getIntentos() >= maxIntentos) {
+            outboxRepository.marcarFallido(correo.getId(), detalle);
+            estadisticas.registrarFallido();
+            log.error("Correo #{} a {} descartado tras {} intentos: {}",
+                    correo.getId(), correo.getDestinatario(), correo.getIntentos(), detalle);
+            return;
+        }
+
+        long espera = Math.min(backoffMaximoSegundos,
+                backoffInicialSegundos << Math.min(correo.getIntentos() - 1, 20));
+        outboxRepository.reprogramar(correo.getId(), LocalDateTime.now().plusSeconds(espera), detalle);
+        estadisticas.registrarReintento();
+        log.warn("Correo #{} a {} falló (intento {}), se reintenta en {}s: {}",
+                correo.getId(), correo.getDestinatario(), correo.getIntentos(), espera, detalle);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenerEstadisticas() {
+        LocalDateTime masAntiguo = outboxRepository.findCreacionMasAntigua(EstadoEmailOutbox.PENDIENTE);
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("pendientes", outboxRepository.countByEstado(EstadoEmailOutbox.PENDIENTE));
+        resultado.put("fallidos", outboxRepository.countByEstado(EstadoEmailOutbox.FALLIDO));
+        resultado.put("antiguedadPendienteSegundos", masAntiguo != null
+                ? Duration.between(masAntiguo, LocalDateTime.now()).toSeconds()
+                : 0);
+        resultado.put("enviados", estadisticas.getEnviados());
+        resultado.put("reintentos", estadisticas.getReintentos());
+        resultado.put("descartados", estadisticas.getFallidos());
+        resultado.put("latenciaPromedioMs", estadisticas.getLatenciaPromedioMs());
+        resultado.put("latenciaMaximaMs", estadisticas.getLatenciaMaximaMs());
+        return resultado;
+    }
+
+    @Scheduled(cron = "${app.email-outbox.limpieza-cron:0 0 3 * * *}")
+    @Transactional
+    public void limpiarEnviados() {
+        int eliminados = outboxRepository.eliminarEnviadosAntesDe(LocalDateTime.now().minusDays(diasRetencion));
+        if (eliminados > 0) {
+            log.info("Outbox de correos: {} correos enviados eliminados", eliminados);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.devsteve.prestashopv2_backend.services.email;
 
+import com.devsteve.prestashopv2_backend.services.metricas.MetricasNegocio;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +25,7 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final MetricasNegocio metricasNegocio;
 
     @Value("${app.mail.from:noreply@shopmoney.com}")
     private String fromEmail;
@@ -35,6 +38,8 @@ public class EmailService {
      */
     @Async
     public void enviarEmail(String destinatario, String asunto, String templateName, Map<String, Object> variables) {
+        Timer.Sample muestra = metricasNegocio.iniciarMedicion();
+        boolean enviado = false;
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -54,6 +59,7 @@ public class EmailService {
             // Enviar correo
             mailSender.send(message);
             log.info("Correo enviado exitosamente a: {} con asunto: {}", destinatario, asunto);
+            enviado = true;
 
         } catch (MailAuthenticationException e) {
             log.error("Error de autenticación SMTP al enviar correo a {}: {}", destinatario, e.getMessage());
@@ -67,6 +73,8 @@ public class EmailService {
         } catch (Exception e) {
             log.error("Error inesperado enviando correo a {}: {}", destinatario, e.getMessage(), e);
             throw new RuntimeException("Error enviando correo electrónico", e);
+        } finally {
+            metricasNegocio.registrarEnvioCorreo(muestra, templateName, enviado);
         }
     }
 
@@ -75,6 +83,8 @@ public class EmailService {
      */
     @Async
     public void enviarEmailSimple(String destinatario, String asunto, String mensaje) {
+        Timer.Sample muestra = metricasNegocio.iniciarMedicion();
+        boolean enviado = false;
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -86,6 +96,7 @@ public class EmailService {
 
             mailSender.send(message);
             log.info("Correo simple enviado exitosamente a: {} con asunto: {}", destinatario, asunto);
+            enviado = true;
 
         } catch (MailAuthenticationException e) {
             log.error("Error de autenticación SMTP al enviar correo simple a {}: {}", destinatario, e.getMessage());
@@ -99,6 +110,8 @@ public class EmailService {
         } catch (Exception e) {
             log.error("Error inesperado enviando correo simple a {}: {}", destinatario, e.getMessage(), e);
             throw new RuntimeException("Error enviando correo electrónico", e);
+        } finally {
+            metricasNegocio.registrarEnvioCorreo(muestra, "texto-plano", enviado);
         }
     }
 
@@ -118,9 +131,12 @@ public class EmailService {
     }
 
     /**
-     * Versión síncrona del envío de email (para usar internamente en envíos masivos)
+     * Versión síncrona del envío de email (envíos masivos y despachador del outbox).
+     * Propaga el error para que el llamador decida si reintenta.
      */
-    private void enviarEmailSincrono(String destinatario, String asunto, String templateName, Map<String, Object> variables) {
+    public void enviarEmailSincrono(String destinatario, String asunto, String templateName, Map<String, Object> variables) {
+        Timer.Sample muestra = metricasNegocio.iniciarMedicion();
+        boolean enviado = false;
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -136,10 +152,13 @@ public class EmailService {
             helper.setText(htmlContent, true);
             mailSender.send(message);
             log.info("Correo enviado exitosamente a: {} con asunto: {}", destinatario, asunto);
+            enviado = true;
 
         } catch (Exception e) {
             log.error("Error enviando correo a {}: {}", destinatario, e.getMessage());
             throw new RuntimeException("Error enviando correo electrónico", e);
+        } finally {
+            metricasNegocio.registrarEnvioCorreo(muestra, templateName, enviado);
         }
     }
 }
@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,9 +19,11 @@ import java.util.Map;
 @Slf4j
 public class SolicitudTiendaEmailService {
     private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
     /**
-     * Envía las credenciales de acceso al encargado con datos ya resueltos
+     * Envía las credenciales de acceso al encargado con datos ya resueltos.
+     * No pasa por el outbox para no guardar la contraseña temporal en la base de datos.
      */
     @Async
     public void enviarCredencialesEncargadoConDatos(String nombreEncargado, String emailEncargado,
@@ -61,65 +64,52 @@ public class SolicitudTiendaEmailService {
     }
 
     /**
-     * Envía notificación de rechazo de solicitud
+     * Encola la notificación de rechazo en la transacción que rechaza la solicitud
      */
-    @Async
     public void enviarNotificacionRechazo(SolicitudTiendaEntity solicitud, RechazarSolicitudRequest request) {
-        try {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("nombreEncargado", solicitud.getNombreEncargado());
-            variables.put("nombreTienda", solicitud.getNombreTienda());
-            variables.put("motivoRechazo", request.getMotivo());
-            variables.put("observaciones", request.getObservaciones());
-            variables.put("emailSoporte", "soporte@shopmoney.com"); // Configurable
-
-            String asunto = "Solicitud de tienda \"" + solicitud.getNombreTienda() + "\" - Información importante";
-
-            emailService.enviarEmail(
-                solicitud.getEmailEncargado(),
-                asunto,
-                "solicitud-rechazada",
-                variables
-            );
-
-            log.info("Email de rechazo enviado exitosamente a: {} para tienda: {}",
-                    solicitud.getEmailEncargado(), solicitud.getNombreTienda());
-
-        } catch (Exception e) {
-            log.error("Error enviando notificación de rechazo a {}: {}",
-                    solicitud.getEmailEncargado(), e.getMessage(), e);
-            // No lanzamos la excepción para no afectar el proceso principal
-        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("nombreEncargado", solicitud.getNombreEncargado());
+        variables.put("nombreTienda", solicitud.getNombreTienda());
+        variables.put("motivoRechazo", request.getMotivo());
+        variables.put("observaciones", request.getObservaciones());
+        variables.put("emailSoporte", "soporte@shopmoney.com"); // Configurable
+
+        String asunto = "Solicitud de tienda \"" + solicitud.getNombreTienda() + "\" - Información importante";
+
+        emailOutboxService.encolar(
+            solicitud.getEmailEncargado(),
+            asunto,
+            "solicitud-rechazada",
+            variables
+        );
+
+        log.info("Email de rechazo encolado para: {} para tienda: {}",
+                solicitud.getEmailEncargado(), solicitud.getNombreTienda());
     }
 
     /**
-     * Envía confirmación de recepción de solicitud
+     * Encola la confirmación de recepción en la transacción que crea la solicitud
      */
-    @Async
     public void enviarConfirmacionSolicitud(SolicitudTiendaEntity solicitud) {
-        try {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("nombreEncargado", solicitud.getNombreEncargado());
-            variables.put("nombreTienda", solicitud.getNombreTienda());
-            variables.put("numeroSolicitud", solicitud.getId());
-            variables.put("fechaSolicitud", solicitud.getCreatedAt());
-            variables.put("emailSoporte", "soporte@shopmoney.com");
-
-            String asunto = "Solicitud recibida - Tienda \"" + solicitud.getNombreTienda() + "\"";
-
-            emailService.enviarEmail(
-                solicitud.getEmailEncargado(),
-                asunto,
-                "solicitud-recibida",
-                variables
-            );
-
-            log.info("Email de confirmación enviado exitosamente a: {} para solicitud: {}",
-                    solicitud.getEmailEncargado(), solicitud.getId());
-
-        } catch (Exception e) {
-            log.error("Error enviando confirmación de solicitud a {}: {}",
-                    solicitud.getEmailEncargado(), e.getMessage(), e);
-        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("nombreEncargado", solicitud.getNombreEncargado());
+        variables.put("nombreTienda", solicitud.getNombreTienda());
+        variables.put("numeroSolicitud", solicitud.getId());
+        variables.put("fechaSolicitud", solicitud.getCreatedAt() != null
+                ? solicitud.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))
+                : null);
+        variables.put("emailSoporte", "soporte@shopmoney.com");
+
+        String asunto = "Solicitud recibida - Tienda \"" + solicitud.getNombreTienda() + "\"";
+
+        emailOutboxService.encolar(
+            solicitud.getEmailEncargado(),
+            asunto,
+            "solicitud-recibida",
+            variables
+        );
+
+        log.info("Email de confirmación encolado para: {} para solicitud: {}",
+                solicitud.getEmailEncargado(), solicitud.getId());
     }
 }
@@ -8,7 +8,9 @@ import org.springframework.stereotype.Service;
 
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -17,63 +19,80 @@ import java.util.Map;
 @Slf4j
 public class VentaEmailService {
 
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
+    /**
+     * Encola la factura en la transacción de la venta; el envío SMTP lo hace el despachador.
+     */
     public void enviarFacturaVenta(VentaEntity venta) {
-        try {
-            // Solo enviar si el cliente tiene email (cuenta registrada)
-            if (venta.getCuentaCliente() == null ||
-                venta.getCuentaCliente().getUsuario() == null ||
-                venta.getCuentaCliente().getUsuario().getEmail() == null) {
-                log.info("No se envía factura por email - cliente sin cuenta registrada: Venta #{}", venta.getId());
-                return;
-            }
-
-            String emailCliente = venta.getCuentaCliente().getUsuario().getEmail();
-            String nombreCliente = venta.getCuentaCliente().getUsuario().getNombreCompleto();
-
-            // Preparar variables para el template
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("numeroVenta", venta.getId());
-            variables.put("nombreCliente", nombreCliente);
-            variables.put("nombreTienda", venta.getTienda().getNombre());
-            variables.put("telefonoTienda", venta.getTienda().getTelefono());
-            variables.put("fechaVenta", venta.getFechaVenta().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-            variables.put("tipoVenta", venta.getTipoVenta().name());
-            variables.put("estado", venta.getEstado().name());
-
-            // Formatear montos
-            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "SV"));
-            variables.put("subtotal", currencyFormat.format(venta.getSubtotal()));
-            variables.put("total", currencyFormat.format(venta.getTotal()));
-
-            if (venta.getObservaciones() != null && !venta.getObservaciones().trim().isEmpty()) {
-                variables.put("observaciones", venta.getObservaciones());
-            }
-
-            // Preparar detalles de la venta
-            variables.put("detalles", venta.getDetalleVentas());
-            variables.put("currencyFormat", currencyFormat);
-
-            // Determinar asunto según el tipo de venta
-            String asunto;
-            if (venta.getTipoVenta().name().equals("CREDITO")) {
-                asunto = String.format("Factura de Compra a Crédito #%d - %s",
-                    venta.getId(), venta.getTienda().getNombre());
-            } else {
-                asunto = String.format("Factura de Compra #%d - %s",
-                    venta.getId(), venta.getTienda().getNombre());
-            }
-
-            // Enviar email
-            emailService.enviarEmail(emailCliente, asunto, "factura-venta", variables);
-
-            log.info("Factura enviada por email para venta #{} al cliente: {}",
-                venta.getId(), emailCliente);
-
-        } catch (Exception e) {
-            log.error("Error al enviar factura por email para venta #{}: {}",
-                venta.getId(), e.getMessage(), e);
+        // Solo enviar si el cliente tiene email (cuenta registrada)
+        if (venta.getCuentaCliente() == null ||
+            venta.getCuentaCliente().getUsuario() == null ||
+            venta.getCuentaCliente().getUsuario().getEmail() == null) {
+            log.info("No se envía factura por email - cliente sin cuenta registrada: Venta #{}", venta.getId());
+            return;
         }
+
+        String emailCliente = venta.getCuentaCliente().getUsuario().getEmail();
+        String nombreCliente = venta.getCuentaCliente().getUsuario().getNombreCompleto();
+
+        Map<String, Object> variables = variablesFactura(venta, nombreCliente);
+
+        // Determinar asunto según el tipo de venta
+        String asunto;
+        if (venta.getTipoVenta().name().equals("CREDITO")) {
+            asunto = String.format("Factura de Compra a Crédito #%d - %s",
+                venta.getId(), venta.getTienda().getNombre());
+        } else {
+            asunto = String.format("Factura de Compra #%d - %s",
+                venta.getId(), venta.getTienda().getNombre());
+        }
+
+        emailOutboxService.encolar(emailCliente, asunto, "factura-venta", variables);
+
+        log.info("Factura de venta #{} encolada para el cliente: {}", venta.getId(), emailCliente);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    /**
+     * Variables de la plantilla factura-venta, con montos ya formateados y sin referencias a entidades.
+     */
+    static Map<String, Object> variablesFactura(VentaEntity venta, String nombreCliente) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("numeroVenta", venta.getId());
+        variables.put("nombreCliente", nombreCliente);
+        variables.put("nombreTienda", venta.getTienda().getNombre());
+        variables.put("telefonoTienda", venta.getTienda().getTelefono());
+        variables.put("fechaVenta", venta.getFechaVenta().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        variables.put("tipoVenta", venta.getTipoVenta().name());
+        variables.put("estado", venta.getEstado().name());
+
+        // Formatear montos
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "SV"));
+        variables.put("subtotal", currencyFormat.format(venta.getSubtotal()));
+        variables.put("total", currencyFormat.format(venta.getTotal()));
+
+        if (venta.getObservaciones() != null && !venta.getObservaciones().trim().isEmpty()) {
+            variables.put("observaciones", venta.getObservaciones());
+        }
+
+        // Copia de los detalles con montos ya formateados, sin referencias a entidades
+        List<Map<String, Object>> detalles = new ArrayList<>();
+        for (DetalleVentaEntity detalle : venta.getDetalleVentas()) {
+            Map<String, Object> producto = new HashMap<>();
+            producto.put("nombre", detalle.getProducto().getNombre());
+            producto.put("descripcion", detalle.getProducto().getDescripcion());
+
+            Map<String, Object> linea = new HashMap<>();
+            linea.put("producto", producto);
+            linea.put("cantidad", detalle.getCantidad());
+            linea.put("precioUnitario", currencyFormat.format(detalle.getPrecioUnitario()));
+            linea.put("subtotal", currencyFormat.format(detalle.getSubtotal()));
+            detalles.add(linea);
+        }
+        variables.put("detalles", detalles);
+
+        return variables;
     }
 }
@@ -0,0 +1,135 @@
+package com.devsteve.prestashopv2_backend.services.metricas;
+
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Timers y contadores de las rutas críticas del POS: creación de ventas y abonos,
+ * cargos y abonos al saldo de las cuentas, envío de correos y rechazos de crédito.
+ * La etiqueta de tienda tiene cardinalidad acotada: solo las primeras
+ * app.metricas.max-tiendas-etiquetadas tiendas observadas llevan su id, el resto se agrupa en "otras".
+ */
+@Component
+public class MetricasNegocio {
+
+    public static final String VENTA_CREACION = "prestashop.ventas.creacion";
+    public static final String ABONO_CREACION = "prestashop.abonos.creacion";
+    public static final String CUENTA_CARGO = "prestashop.cuentas.cargo";
+    public static final String CUENTA_ABONO = "prestashop.cuentas.abono";
+
+    public static final String RECHAZO_CUENTA_INACTIVA = "cuenta_inactiva";
+    public static final String RECHAZO_CREDITO_INSUFICIENTE = "credito_insuficiente";
+
+    static final String CORREO_ENVIO = "prestashop.correos.envio";
+    static final String VENTAS = "prestashop.ventas";
+    static final String RECHAZOS_CREDITO = "prestashop.credito.rechazos";
+
+    static final String OTRAS_TIENDAS = "otras";
+    static final String SIN_TIENDA = "ninguna";
+
+    private final MeterRegistry registry;
+    private final int maxTiendasEtiquetadas;
+    private final Set<Long> tiendasEtiquetadas = ConcurrentHashMap.newKeySet();
+
+    public MetricasNegocio(MeterRegistry registry,
+                           @Value("${app.metricas.max-tiendas-etiquetadas:200}") int maxTiendasEtiquetadas) {
+        this.registry = registry;
+        this.maxTiendasEtiquetadas = maxTiendasEtiquetadas;
+    }
+
+    /**
+     * Ejecuta la acción midiendo su duración con el timer de la operación,
+     * etiquetado por tienda y por resultado (exito/error). Las excepciones se propagan.
+     */
+    public <T> T medir(String operacion, Long tiendaId, Supplier<T> accion) {
+        Timer.Sample muestra = Timer.start(registry);
+        boolean exito = false;
+        try {
+            T resultado = accion.get();
+            exito = true;
+            return resultado;
+        } finally {
+            muestra.stop(Timer.builder(operacion)
+                    .tag("tienda", etiquetaTienda(tiendaId))
+                    .tag("resultado", resultado(exito))
+                    .register(registry));
+        }
+    }
+
+    public Timer.Sample iniciarMedicion() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Cierra la medición de un envío de correo. La plantilla acota la cardinalidad
+     * porque el conjunto de plantillas es fijo.
+     */
+    public void registrarEnvioCorreo(Timer.Sample muestra, String plantilla, boolean exito) {
+        muestra.stop(Timer.builder(CORREO_ENVIO)
+                .tag("plantilla", plantilla)
+                .tag("resultado", resultado(exito))
+                .register(registry));
+    }
+
+    /**
+     * Cuenta la venta creada cuando la transacción confirma; una venta revertida no se cuenta.
+     */
+    public void registrarVenta(Long tiendaId, TipoVenta tipo, EstadoVenta estado) {
+        despuesDelCommit(() -> registry.counter(VENTAS,
+                "tienda", etiquetaTienda(tiendaId),
+                "tipo", tipo.name(),
+                "estado", estado.name()).increment());
+    }
+
+    /**
+     * Cuenta un rechazo de crédito. Se registra de inmediato: la transacción
+     * que lo provoca siempre se revierte.
+     */
+    public void registrarRechazoCredito(Long tiendaId, String operacion, String motivo) {
+        registry.counter(RECHAZOS_CREDITO,
+                "tienda", etiquetaTienda(tiendaId),
+                "operacion", operacion,
+                "motivo", motivo).increment();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    String etiquetaTienda(Long tiendaId) {
+        if (tiendaId == null) {
+            return SIN_TIENDA;
+        }
+        // El límite es aproximado bajo concurrencia, suficiente para acotar las series
+        if (tiendasEtiquetadas.contains(tiendaId)
+                || (tiendasEtiquetadas.size() < maxTiendasEtiquetadas && tiendasEtiquetadas.add(tiendaId))) {
+            return tiendaId.toString();
+        }
+        return OTRAS_TIENDAS;
+    }
+
+    private static String resultado(boolean exito) {
+        return exito ? "exito" : "error";
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
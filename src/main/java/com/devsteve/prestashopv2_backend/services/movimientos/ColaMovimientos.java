@@ -0,0 +1,159 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola acotada de movimientos automáticos (write-behind). La venta o el abono solo encolan
+ * al confirmar su transacción; un hilo propio escribe por lotes cuando se juntan
+ * tamano-lote eventos o pasa intervalo-ms desde el primero. Lo que no puede escribirse
+ * (cola llena, base de datos caída, apagado) va a RespaldoMovimientos; las filas rechazadas
+ * por la base de datos se apartan una a una en CuarentenaMovimientos sin detener al resto del lote.
+ */
+@Component
+@Slf4j
+public class ColaMovimientos {
+
+    private final CuarentenaMovimientos cuarentena;
+    private final RespaldoMovimientos respaldo;
+    private final BlockingQueue<EventoMovimiento> cola;
+    private final int tamanoLote;
+    private final long intervaloNanos;
+    private final long esperaApagadoMs;
+
+    private volatile boolean activa = true;
+    private Thread hilo;
+
+    public ColaMovimientos(CuarentenaMovimientos cuarentena,
+                           RespaldoMovimientos respaldo,
+                           @Value("${app.movimientos.capacidad-cola:10000}") int capacidad,
+                           @Value("${app.movimientos.tamano-lote:200}") int tamanoLote,
+                           @Value("${app.movimientos.intervalo-ms:500}") long intervaloMs,
+                           @Value("${app.movimientos.espera-apagado-ms:10000}") long esperaApagadoMs) {
+        this.cuarentena = cuarentena;
+        this.respaldo = respaldo;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.tamanoLote = tamanoLote;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        this.esperaApagadoMs = esperaApagadoMs;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        hilo = new Thread(this::procesar, "movimientos-escritor");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Encola el evento cuando la transacción actual confirme; si se revierte, se descarta.
+     */
+    public void publicar(EventoMovimiento evento) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolar(evento);
+                }
+            });
+        } else {
+            encolar(evento);
+        }
+    }
+
+    public int pendientes() {
+        return cola.size();
+    }
+
+    /**
+     * Detiene la recepción, espera a que el hilo vacíe la cola y respalda lo que quede.
+     */
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activa = false;
+        hilo.join(esperaApagadoMs);
+
+        List<EventoMovimiento> restantes = new ArrayList<>();
+        cola.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            log.warn("Apagado: {} movimientos sin escribir pasan al respaldo", restantes.size());
+            respaldo.guardar(restantes);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void encolar(EventoMovimiento evento) {
+        if (!activa || !cola.offer(evento)) {
+            // Sin espacio o apagando: la venta no espera, el evento queda en disco
+            try {
+                respaldo.guardar(List.of(evento));
+            } catch (UncheckedIOException e) {
+                // Corre en afterCommit: la venta ya confirmó y no debe responder con error.
+                // guardar ya dejó el evento en el log y lo contó en prestashop.movimientos.perdidos
+                log.error("No se pudo respaldar el movimiento {}: {}", evento.clave(), e.getMessage());
+            }
+        }
+    }
+
+    private void procesar() {
+        List<EventoMovimiento> lote = new ArrayList<>(tamanoLote);
+        while (activa || !cola.isEmpty()) {
+            try {
+                EventoMovimiento primero = cola.poll(intervaloNanos, TimeUnit.NANOSECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                completarLote(lote);
+                escribir(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en la cola de movimientos: {}", e.getMessage(), e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    // Junta eventos hasta llenar el lote o agotar el intervalo desde el primero
+    private void completarLote(List<EventoMovimiento> lote) throws InterruptedException {
+        long limite = System.nanoTime() + intervaloNanos;
+        while (lote.size() < tamanoLote) {
+            cola.drainTo(lote, tamanoLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= tamanoLote || restante <= 0 || !activa) {
+                return;
+            }
+            EventoMovimiento siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    private void escribir(List<EventoMovimiento> lote) {
+        try {
+            cuarentena.escribirAislando(lote);
+            log.debug("Lote de {} movimientos escrito", lote.size());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo escribir un lote de {} movimientos, se respalda: {}", lote.size(), e.getMessage());
+            respaldo.guardar(List.copyOf(lote));
+        }
+    }
+}
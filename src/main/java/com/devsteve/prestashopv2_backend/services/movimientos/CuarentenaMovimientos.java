@@ -0,0 +1,111 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aísla los movimientos que la base de datos rechaza por sí mismos (restricción violada,
+ * referencia inexistente, dato inválido) para que no bloqueen al resto del lote.
+ * Si un lote falla por un error que no es transitorio se reescribe fila por fila y las filas
+ * que siguen fallando se apartan en cuarentena.ndjson, junto al respaldo. Ese archivo no se
+ * reproduce solo: tras corregir los datos basta renombrarlo a reproduciendo-&lt;n&gt;.ndjson.
+ */
+@Component
+@Slf4j
+public class CuarentenaMovimientos {
+
+    static final String ARCHIVO = "cuarentena.ndjson";
+
+    private final MovimientoTiendaEscritor escritor;
+    private final ObjectMapper objectMapper;
+    private final Path directorio;
+
+    private final LongAdder apartados = new LongAdder();
+
+    public CuarentenaMovimientos(MovimientoTiendaEscritor escritor,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.movimientos.directorio-respaldo:./data/movimientos-pendientes}") String directorio) {
+        this.escritor = escritor;
+        this.objectMapper = objectMapper;
+        this.directorio = Path.of(directorio);
+    }
+
+    /**
+     * Escribe el lote y devuelve cuántos movimientos eran nuevos. Los errores transitorios
+     * (base de datos caída, timeout, bloqueo) se propagan para que el llamador reintente el lote
+     * completo; el escritor es idempotente, así que lo ya escrito no se duplica.
+     */
+    public int escribirAislando(List<EventoMovimiento> lote) {
+        try {
+            return escritor.escribir(lote);
+        } catch (RuntimeException e) {
+            if (esTransitorio(e) || lote.size() == 1) {
+                return apartarSiNoEsTransitorio(lote.get(0), e);
+            }
+            log.warn("Lote de {} movimientos rechazado, se escribe fila por fila: {}", lote.size(), e.getMessage());
+        }
+
+        int nuevos = 0;
+        for (EventoMovimiento evento : lote) {
+            try {
+                nuevos += escritor.escribir(List.of(evento));
+            } catch (RuntimeException e) {
+                apartarSiNoEsTransitorio(evento, e);
+            }
+        }
+        return nuevos;
+    }
+
+    public long apartados() {
+        return apartados.sum();
+    }
+
+    static boolean esTransitorio(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private int apartarSiNoEsTransitorio(EventoMovimiento evento, RuntimeException e) {
+        if (esTransitorio(e)) {
+            throw e;
+        }
+        apartar(evento, e);
+        return 0;
+    }
+
+    private synchronized void apartar(EventoMovimiento evento, RuntimeException causa) {
+        try {
+            Files.createDirectories(directorio);
+            Files.writeString(directorio.resolve(ARCHIVO), objectMapper.writeValueAsString(evento) + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (JsonProcessingException e) {
+            log.error("Movimiento perdido, no se pudo serializar para la cuarentena: {}", evento);
+            throw new UncheckedIOException(e);
+        } catch (IOException e) {
+            // Sin cuarentena el evento no se descarta: el llamador lo conserva en el respaldo
+            throw new UncheckedIOException(e);
+        }
+        apartados.increment();
+        log.error("Movimiento {} en cuarentena: {}", evento, causa.getMessage());
+    }
+}
@@ -0,0 +1,29 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento automático pendiente de escribir, con todas las referencias ya resueltas a ids.
+ * Se identifica por (referenciaTabla, referenciaId, tipoEvento) para que reescribirlo no lo duplique.
+ */
+public record EventoMovimiento(
+        Long tiendaId,
+        Long operadorId,
+        Long clienteId,
+        TipoEvento tipoEvento,
+        String descripcion,
+        BigDecimal monto,
+        Long referenciaId,
+        String referenciaTabla,
+        TipoVenta tipoVenta,
+        LocalDateTime fechaEvento
+) {
+
+    public String clave() {
+        return referenciaTabla + ":" + referenciaId + ":" + tipoEvento.name();
+    }
+}
@@ -0,0 +1,65 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Garantiza el índice único parcial del que depende la idempotencia del escritor de movimientos.
+ * El esquema lo mantiene ddl-auto=update, que no sabe declarar índices parciales, así que se
+ * crea aquí al arrancar (después de que Hibernate haya creado las tablas). Si no queda un índice
+ * único y válido, la aplicación no arranca: sin él, reintentos y respaldos duplicarían movimientos
+ * y los acumularían dos veces en el resumen diario.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceIdempotenciaMovimientos {
+
+    static final String NOMBRE = "uq_movimientos_referencia";
+
+    // Mismo índice que db/migrations/V4__movimientos_idempotentes.sql; CONCURRENTLY para no
+    // bloquear las escrituras de otras instancias durante un despliegue escalonado
+    private static final String CREAR =
+            "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + NOMBRE +
+            " ON movimientos_tienda (referencia_tabla, referencia_id, tipo_evento)" +
+            " WHERE referencia_id IS NOT NULL";
+
+    private static final String ESTADO =
+            "SELECT i.indisunique AND i.indisvalid AND i.indpred IS NOT NULL " +
+            "FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "WHERE c.relname = ? AND i.indrelid = 'movimientos_tienda'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void asegurar() {
+        try {
+            jdbcTemplate.execute(CREAR);
+        } catch (DataAccessException e) {
+            // Normalmente filas duplicadas previas; la verificación de abajo decide si se puede seguir
+            log.error("No se pudo crear el índice {}: {}", NOMBRE, e.getMostSpecificCause().getMessage());
+        }
+
+        if (!indiceValido()) {
+            throw new IllegalStateException("El índice único " + NOMBRE + " no existe o no es válido. " +
+                    "Elimina los movimientos duplicados por (referencia_tabla, referencia_id, tipo_evento), " +
+                    "borra el índice inválido si quedó uno y vuelve a arrancar");
+        }
+        log.info("Índice de idempotencia {} verificado", NOMBRE);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private boolean indiceValido() {
+        List<Boolean> estado = jdbcTemplate.queryForList(ESTADO, Boolean.class, NOMBRE);
+        return !estado.isEmpty() && Boolean.TRUE.equals(estado.get(0));
+    }
+}
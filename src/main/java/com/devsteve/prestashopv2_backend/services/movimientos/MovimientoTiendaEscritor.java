@@ -0,0 +1,103 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.devsteve.prestashopv2_backend.services.ResumenDiarioTiendaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escribe un lote de movimientos con un único INSERT multi-fila y acumula en el resumen
+ * diario solo las filas que realmente se insertaron, en la misma transacción.
+ * No se crea hasta que {@link IndiceIdempotenciaMovimientos} ha verificado el índice único.
+ */
+@Component
+@DependsOn("indiceIdempotenciaMovimientos")
+@RequiredArgsConstructor
+@Slf4j
+public class MovimientoTiendaEscritor {
+
+    private static final String INSERT =
+            "INSERT INTO movimientos_tienda (id, tienda_id, usuario_operador_id, cliente_usuario_id, tipo_evento, " +
+            "descripcion, monto, referencia_id, referencia_tabla, fecha_evento, created_at) VALUES ";
+    private static final String FILA = "(nextval('movimientos_tienda_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, now())";
+    // Idempotencia: el índice único parcial uq_movimientos_referencia (IndiceIdempotenciaMovimientos) descarta los repetidos
+    private static final String CONFLICTO =
+            " ON CONFLICT DO NOTHING RETURNING referencia_tabla, referencia_id, CAST(tipo_evento AS text)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResumenDiarioTiendaService resumenDiarioTiendaService;
+
+    /**
+     * Transacción propia: se invoca desde el hilo de la cola o tras el commit de la venta.
+     * Devuelve cuántos movimientos eran nuevos.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int escribir(Collection<EventoMovimiento> eventos) {
+        // Un mismo evento repetido dentro del lote se escribe una vez
+        Map<String, EventoMovimiento> unicos = new LinkedHashMap<>();
+        for (EventoMovimiento evento : eventos) {
+            unicos.putIfAbsent(evento.referenciaId() != null ? evento.clave() : "sin-ref:" + unicos.size(), evento);
+        }
+        List<EventoMovimiento> lote = List.copyOf(unicos.values());
+
+        String sql = INSERT + String.join(", ", Collections.nCopies(lote.size(), FILA)) + CONFLICTO;
+
+        Set<String> insertados = new HashSet<>(jdbcTemplate.query(sql,
+                ps -> enlazar(ps, lote),
+                (rs, i) -> rs.getString(1) + ":" + rs.getLong(2) + ":" + rs.getString(3)));
+
+        int nuevos = 0;
+        for (EventoMovimiento evento : lote) {
+            if (evento.referenciaId() != null && !insertados.contains(evento.clave())) {
+                continue;
+            }
+            nuevos++;
+            resumenDiarioTiendaService.acumular(
+                    evento.tiendaId(),
+                    evento.fechaEvento().toLocalDate(),
+                    evento.tipoEvento(),
+                    evento.monto(),
+                    evento.tipoVenta(),
+                    evento.clienteId()
+            );
+        }
+
+        if (nuevos < lote.size()) {
+            log.info("Movimientos: {} de {} ya estaban registrados", lote.size() - nuevos, lote.size());
+        }
+        return nuevos;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void enlazar(PreparedStatement ps, List<EventoMovimiento> lote) throws SQLException {
+        int i = 1;
+        for (EventoMovimiento evento : lote) {
+            ps.setLong(i++, evento.tiendaId());
+            ps.setLong(i++, evento.operadorId());
+            ps.setObject(i++, evento.clienteId(), Types.BIGINT);
+            // Sin tipo explícito: PostgreSQL lo adapta al ENUM tipo_evento o a VARCHAR según el esquema
+            ps.setObject(i++, evento.tipoEvento().name(), Types.OTHER);
+            ps.setString(i++, evento.descripcion());
+            ps.setBigDecimal(i++, evento.monto());
+            ps.setObject(i++, evento.referenciaId(), Types.BIGINT);
+            ps.setString(i++, evento.referenciaTabla());
+            ps.setObject(i++, evento.fechaEvento());
+        }
+    }
+}
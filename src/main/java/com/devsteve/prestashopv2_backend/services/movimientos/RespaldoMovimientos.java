@@ -0,0 +1,164 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Respaldo en disco (NDJSON) de los movimientos que no pudieron escribirse: cola llena,
+ * base de datos caída o apagado sin tiempo para vaciar la cola. Se reintenta periódicamente;
+ * el escritor es idempotente, así que reproducir un archivo dos veces no duplica filas.
+ * Las filas que la base de datos rechaza por sí mismas pasan a CuarentenaMovimientos y el archivo
+ * se elimina igual; solo un error transitorio deja los archivos para el siguiente intento.
+ */
+@Component
+@Slf4j
+public class RespaldoMovimientos {
+
+    private static final String ARCHIVO_ACTIVO = "pendientes.ndjson";
+    private static final String PREFIJO_REPRODUCCION = "reproduciendo-";
+
+    private final CuarentenaMovimientos cuarentena;
+    private final ObjectMapper objectMapper;
+    private final Path directorio;
+    private final int tamanoLote;
+
+    private final LongAdder perdidos = new LongAdder();
+
+    public RespaldoMovimientos(CuarentenaMovimientos cuarentena,
+                               ObjectMapper objectMapper,
+                               @Value("${app.movimientos.directorio-respaldo:./data/movimientos-pendientes}") String directorio,
+                               @Value("${app.movimientos.tamano-lote:200}") int tamanoLote) {
+        this.cuarentena = cuarentena;
+        this.objectMapper = objectMapper;
+        this.directorio = Path.of(directorio);
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Añade los eventos al archivo activo y fuerza su escritura a disco antes de volver.
+     */
+    public synchronized void guardar(Collection<EventoMovimiento> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directorio);
+            StringBuilder lineas = new StringBuilder();
+            for (EventoMovimiento evento : eventos) {
+                lineas.append(objectMapper.writeValueAsString(evento)).append('\n');
+            }
+            Files.writeString(directorio.resolve(ARCHIVO_ACTIVO), lineas, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            log.warn("{} movimientos guardados en el respaldo {}", eventos.size(), directorio);
+        } catch (IOException e) {
+            // Último recurso: dejar el evento en el log para poder reconstruirlo
+            perdidos.add(eventos.size());
+            eventos.forEach(evento -> log.error("Movimiento perdido, no se pudo respaldar: {}", evento));
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reproduce los archivos pendientes. El archivo activo se renombra primero para que
+     * los nuevos respaldos no se mezclen con el que se está procesando.
+     */
+    @Scheduled(fixedDelayString = "${app.movimientos.reintento-respaldo-ms:60000}")
+    public void reproducir() {
+        if (!Files.isDirectory(directorio)) {
+            return;
+        }
+
+        synchronized (this) {
+            Path activo = directorio.resolve(ARCHIVO_ACTIVO);
+            if (Files.exists(activo)) {
+                try {
+                    Files.move(activo, directorio.resolve(PREFIJO_REPRODUCCION + System.currentTimeMillis() + ".ndjson"),
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.error("No se pudo preparar el respaldo de movimientos: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO_REPRODUCCION + "*.ndjson")) {
+            for (Path archivo : archivos) {
+                try {
+                    reproducirArchivo(archivo);
+                } catch (IOException | UncheckedIOException e) {
+                    // Problema de este archivo (o de la cuarentena): se reintenta en la próxima pasada
+                    log.error("No se pudo reproducir el respaldo {}: {}", archivo.getFileName(), e.getMessage());
+                } catch (RuntimeException e) {
+                    // Error transitorio: la base de datos sigue sin responder, los archivos quedan para el próximo intento
+                    log.warn("Respaldo de movimientos pendiente de reproducir: {}", e.getMessage());
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("No se pudo leer el respaldo de movimientos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Movimientos que no pudieron escribirse ni respaldarse; solo quedan en el log.
+     */
+    public long perdidos() {
+        return perdidos.sum();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void reproducirArchivo(Path archivo) throws IOException {
+        int total = 0;
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            List<EventoMovimiento> lote = new ArrayList<>(tamanoLote);
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                EventoMovimiento evento = leer(linea);
+                if (evento != null) {
+                    lote.add(evento);
+                }
+                if (lote.size() == tamanoLote) {
+                    total += cuarentena.escribirAislando(lote);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                total += cuarentena.escribirAislando(lote);
+            }
+        }
+
+        Files.delete(archivo);
+        log.info("Respaldo {} reproducido: {} movimientos nuevos", archivo.getFileName(), total);
+    }
+
+    private EventoMovimiento leer(String linea) {
+        try {
+            return objectMapper.readValue(linea, EventoMovimiento.class);
+        } catch (JsonProcessingException e) {
+            log.error("Línea de respaldo de movimientos descartada por inválida: {}", linea);
+            return null;
+        }
+    }
+}
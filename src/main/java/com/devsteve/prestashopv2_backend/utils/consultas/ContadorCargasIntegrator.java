@@ -0,0 +1,43 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Añade, después de los listeners por defecto, contadores de entidades cargadas y de
+ * colecciones inicializadas. Cada inicialización de colección es un viaje a la base de datos:
+ * muchas en una misma petición delatan un N+1.
+ */
+public class ContadorCargasIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registro = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        registro.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            EstadisticasPeticion estadisticas = EstadisticasPeticion.actual();
+            if (estadisticas != null) {
+                estadisticas.registrarEntidadCargada();
+            }
+        });
+        registro.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+            EstadisticasPeticion estadisticas = EstadisticasPeticion.actual();
+            if (estadisticas != null) {
+                estadisticas.registrarColeccionInicializada();
+            }
+        });
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Sin recursos que liberar
+    }
+}
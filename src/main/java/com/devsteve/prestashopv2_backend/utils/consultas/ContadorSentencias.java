@@ -0,0 +1,99 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import java.util.*;
+
+/**
+ * Mediciones de sentencias JDBC por hilo, alimentadas por DataSourceContador. Una medición
+ * cuenta todas las sentencias que el hilo ejecuta mientras está abierta, agrupadas por SQL;
+ * puede haber varias anidadas. Las sentencias de otros hilos (colas, despachadores) no cuentan.
+ */
+public final class ContadorSentencias {
+
+    private static final ThreadLocal<List<Medicion>> ACTIVAS = new ThreadLocal<>();
+
+    private static volatile boolean proxyInstalado;
+
+    private ContadorSentencias() {
+    }
+
+    public static Medicion iniciar() {
+        List<Medicion> activas = ACTIVAS.get();
+        if (activas == null) {
+            activas = new ArrayList<>(2);
+            ACTIVAS.set(activas);
+        }
+        Medicion medicion = new Medicion();
+        activas.add(medicion);
+        return medicion;
+    }
+
+    /**
+     * Indica si algún DataSource está envuelto por DataSourceContador; sin él las mediciones quedan en cero.
+     */
+    public static boolean proxyInstalado() {
+        return proxyInstalado;
+    }
+
+    static void marcarProxyInstalado() {
+        proxyInstalado = true;
+    }
+
+    static void registrar(String sql) {
+        List<Medicion> activas = ACTIVAS.get();
+        if (activas == null) {
+            return;
+        }
+        for (Medicion medicion : activas) {
+            medicion.registrar(sql);
+        }
+    }
+
+    private static void cerrar(Medicion medicion) {
+        List<Medicion> activas = ACTIVAS.get();
+        if (activas == null) {
+            return;
+        }
+        activas.remove(medicion);
+        if (activas.isEmpty()) {
+            ACTIVAS.remove();
+        }
+    }
+
+    public static final class Medicion implements AutoCloseable {
+
+        private final Map<String, Integer> porSentencia = new LinkedHashMap<>();
+        private int total;
+
+        private Medicion() {
+        }
+
+        private void registrar(String sql) {
+            total++;
+            porSentencia.merge(sql, 1, Integer::sum);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Sentencias ejecutadas al menos {@code minimo} veces, de la más a la menos repetida.
+         */
+        public List<Map.Entry<String, Integer>> repetidas(int minimo) {
+            return porSentencia.entrySet().stream()
+                    .filter(entrada -> entrada.getValue() >= minimo)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .map(entrada -> Map.entry(entrada.getKey(), entrada.getValue()))
+                    .toList();
+        }
+
+        public int maximoRepeticiones() {
+            return porSentencia.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        @Override
+        public void close() {
+            cerrar(this);
+        }
+    }
+}
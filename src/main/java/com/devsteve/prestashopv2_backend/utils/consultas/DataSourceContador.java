@@ -0,0 +1,76 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * DataSource que informa a ContadorSentencias cada sentencia ejecutada por sus conexiones,
+ * incluidas las que no pasan por Hibernate. Un executeBatch cuenta como una sentencia
+ * (un viaje a la base de datos). Solo se instala si app.consultas.contador.habilitado=true.
+ */
+public class DataSourceContador extends DelegatingDataSource {
+
+    private static final String SENTENCIA_SIN_SQL = "<sentencia sin SQL>";
+
+    public DataSourceContador(DataSource destino) {
+        super(destino);
+        ContadorSentencias.marcarProxyInstalado();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static Connection envolver(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(DataSourceContador.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+                    // Identidad del proxy: el pool y Spring comparan la conexión que entregaron
+                    if (metodo.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (metodo.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    Object resultado = invocar(conexion, metodo, args);
+                    return switch (metodo.getName()) {
+                        case "createStatement" -> envolver((Statement) resultado, Statement.class, null);
+                        case "prepareStatement" -> envolver((Statement) resultado, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> envolver((Statement) resultado, CallableStatement.class, (String) args[0]);
+                        default -> resultado;
+                    };
+                });
+    }
+
+    private static Statement envolver(Statement sentencia, Class<? extends Statement> tipo, String sqlPreparado) {
+        InvocationHandler manejador = (proxy, metodo, args) -> {
+            if (metodo.getName().startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sqlPreparado;
+                ContadorSentencias.registrar(sql != null ? sql : SENTENCIA_SIN_SQL);
+            }
+            return invocar(sentencia, metodo, args);
+        };
+        return (Statement) Proxy.newProxyInstance(DataSourceContador.class.getClassLoader(), new Class<?>[]{tipo}, manejador);
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+/**
+ * Acumulador de la actividad de Hibernate durante una petición HTTP: sentencias ejecutadas,
+ * tiempo JDBC, entidades cargadas y colecciones inicializadas. Vive en un ThreadLocal
+ * que abre y cierra EstadisticasPeticionFilter; fuera de una petición no se acumula nada.
+ */
+public final class EstadisticasPeticion {
+
+    private static final ThreadLocal<EstadisticasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private final RegistroConsultasLentas consultasLentas;
+
+    private int sentencias;
+    private long nanosJdbc;
+    private int entidadesCargadas;
+    private int coleccionesInicializadas;
+    private String ultimaSentencia;
+
+    private EstadisticasPeticion(RegistroConsultasLentas consultasLentas) {
+        this.consultasLentas = consultasLentas;
+    }
+
+    static EstadisticasPeticion iniciar(RegistroConsultasLentas consultasLentas) {
+        EstadisticasPeticion estadisticas = new EstadisticasPeticion(consultasLentas);
+        ACTUAL.set(estadisticas);
+        return estadisticas;
+    }
+
+    static void finalizar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * Estadísticas de la petición en curso en este hilo, o null si no hay ninguna.
+     */
+    static EstadisticasPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Sentencias ejecutadas hasta ahora por la petición en curso en este hilo (0 fuera de una petición).
+     * Restando dos lecturas se mide lo que ejecutó un tramo concreto de la petición.
+     */
+    public static int sentenciasEnCurso() {
+        EstadisticasPeticion estadisticas = ACTUAL.get();
+        return estadisticas != null ? estadisticas.sentencias : 0;
+    }
+
+    void registrarSql(String sql) {
+        ultimaSentencia = sql;
+    }
+
+    void registrarEjecucion(long nanos) {
+        sentencias++;
+        nanosJdbc += nanos;
+        consultasLentas.registrar(ultimaSentencia, nanos);
+    }
+
+    void registrarEntidadCargada() {
+        entidadesCargadas++;
+    }
+
+    void registrarColeccionInicializada() {
+        coleccionesInicializadas++;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getNanosJdbc() {
+        return nanosJdbc;
+    }
+
+    public int getEntidadesCargadas() {
+        return entidadesCargadas;
+    }
+
+    public int getColeccionesInicializadas() {
+        return coleccionesInicializadas;
+    }
+}
@@ -0,0 +1,119 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre las estadísticas de Hibernate de cada petición y, al terminar, publica por endpoint
+ * el número de sentencias (prestashop.peticion.sentencias) y el tiempo JDBC (prestashop.peticion.jdbc).
+ * Solo escribe una línea en el log cuando la petición supera los umbrales configurados.
+ * Con DataSourceContador instalado y app.consultas.repeticiones.umbral > 0 (perfil dev) avisa además
+ * de las sentencias idénticas repetidas en la petición, el síntoma típico de un N+1.
+ * Va antes de la cadena de seguridad para incluir las consultas de autenticación.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class EstadisticasPeticionFilter extends OncePerRequestFilter {
+
+    private static final String ENDPOINT_DESCONOCIDO = "desconocido";
+    private static final int MAX_REPETIDAS_EN_LOG = 5;
+
+    private final RegistroConsultasLentas consultasLentas;
+    private final MeterRegistry registry;
+    private final int umbralSentencias;
+    private final long umbralJdbcNanos;
+    private final int umbralRepeticiones;
+
+    public EstadisticasPeticionFilter(RegistroConsultasLentas consultasLentas,
+                                      MeterRegistry registry,
+                                      @Value("${app.consultas.umbral-sentencias:25}") int umbralSentencias,
+                                      @Value("${app.consultas.umbral-jdbc-ms:300}") long umbralJdbcMs,
+                                      @Value("${app.consultas.repeticiones.umbral:0}") int umbralRepeticiones) {
+        this.consultasLentas = consultasLentas;
+        this.registry = registry;
+        this.umbralSentencias = umbralSentencias;
+        this.umbralJdbcNanos = TimeUnit.MILLISECONDS.toNanos(umbralJdbcMs);
+        this.umbralRepeticiones = umbralRepeticiones;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        EstadisticasPeticion estadisticas = EstadisticasPeticion.iniciar(consultasLentas);
+        ContadorSentencias.Medicion medicion = umbralRepeticiones > 0 && ContadorSentencias.proxyInstalado()
+                ? ContadorSentencias.iniciar()
+                : null;
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            EstadisticasPeticion.finalizar();
+            publicar(request, response, estadisticas, System.nanoTime() - inicio);
+            if (medicion != null) {
+                medicion.close();
+                avisarRepeticiones(request, medicion);
+            }
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void publicar(HttpServletRequest request, HttpServletResponse response,
+                          EstadisticasPeticion estadisticas, long nanosPeticion) {
+        String endpoint = endpoint(request);
+        String metodo = request.getMethod();
+
+        DistributionSummary.builder("prestashop.peticion.sentencias")
+                .description("Sentencias JDBC ejecutadas por petición")
+                .tags("metodo", metodo, "endpoint", endpoint)
+                .serviceLevelObjectives(1, 2, 5, 10, 25, 50, 100, 250)
+                .register(registry)
+                .record(estadisticas.getSentencias());
+        Timer.builder("prestashop.peticion.jdbc")
+                .description("Tiempo JDBC acumulado por petición")
+                .tags("metodo", metodo, "endpoint", endpoint)
+                .register(registry)
+                .record(estadisticas.getNanosJdbc(), TimeUnit.NANOSECONDS);
+
+        if (estadisticas.getSentencias() >= umbralSentencias || estadisticas.getNanosJdbc() >= umbralJdbcNanos) {
+            log.warn("estadisticas_peticion metodo={} endpoint={} estado={} sentencias={} jdbc_ms={} " +
+                            "entidades_cargadas={} colecciones_inicializadas={} duracion_ms={}",
+                    metodo, endpoint, response.getStatus(), estadisticas.getSentencias(),
+                    TimeUnit.NANOSECONDS.toMillis(estadisticas.getNanosJdbc()),
+                    estadisticas.getEntidadesCargadas(), estadisticas.getColeccionesInicializadas(),
+                    TimeUnit.NANOSECONDS.toMillis(nanosPeticion));
+        }
+    }
+
+    private void avisarRepeticiones(HttpServletRequest request, ContadorSentencias.Medicion medicion) {
+        medicion.repetidas(umbralRepeticiones).stream()
+                .limit(MAX_REPETIDAS_EN_LOG)
+                .forEach(repetida -> log.warn("sentencia_repetida metodo={} endpoint={} repeticiones={} sql={}",
+                        request.getMethod(), endpoint(request), repetida.getValue(),
+                        RegistroConsultasLentas.redactar(repetida.getKey())));
+    }
+
+    // El patrón del handler acota la cardinalidad (/api/ventas/{id}, no cada id)
+    private static String endpoint(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return patron != null ? patron.toString() : ENDPOINT_DESCONOCIDO;
+    }
+}
@@ -0,0 +1,42 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide cada ejecución JDBC de la sesión (sentencias y lotes) y la suma a la petición en curso.
+ * Hibernate crea una instancia por sesión (hibernate.session.events.auto), por eso
+ * el inicio de la ejecución puede guardarse en un campo sin sincronizar.
+ */
+public class EstadisticasSesionListener implements SessionEventListener {
+
+    private long inicioEjecucion;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioEjecucion = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        registrar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioEjecucion = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        registrar();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void registrar() {
+        EstadisticasPeticion estadisticas = EstadisticasPeticion.actual();
+        if (estadisticas != null) {
+            estadisticas.registrarEjecucion(System.nanoTime() - inicioEjecucion);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Guarda el SQL de la sentencia que Hibernate está por ejecutar para que el registro
+ * de consultas lentas pueda mostrarlo. No modifica la sentencia.
+ */
+public class InspectorSentencias implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        EstadisticasPeticion estadisticas = EstadisticasPeticion.actual();
+        if (estadisticas != null) {
+            estadisticas.registrarSql(sql);
+        }
+        return sql;
+    }
+}
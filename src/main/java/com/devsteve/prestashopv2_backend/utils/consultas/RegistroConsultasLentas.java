@@ -0,0 +1,62 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Registro muestreado de sentencias que superan app.consultas.lentas.umbral-ms.
+ * Todas se cuentan en prestashop.consultas.lentas; solo una fracción (muestreo) se escribe
+ * en el log. El SQL se registra sin valores: los parámetros enlazados nunca llegan aquí
+ * y los literales del texto se reemplazan por '?'.
+ */
+@Component
+@Slf4j
+public class RegistroConsultasLentas {
+
+    private static final Pattern LITERAL_CADENA = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAL_NUMERICO = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final long umbralNanos;
+    private final double muestreo;
+    private final Counter consultasLentas;
+
+    public RegistroConsultasLentas(MeterRegistry registry,
+                                   @Value("${app.consultas.lentas.umbral-ms:200}") long umbralMs,
+                                   @Value("${app.consultas.lentas.muestreo:0.1}") double muestreo) {
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        this.muestreo = muestreo;
+        this.consultasLentas = Counter.builder("prestashop.consultas.lentas")
+                .description("Sentencias JDBC que superaron el umbral de consulta lenta")
+                .register(registry);
+    }
+
+    void registrar(String sql, long nanos) {
+        if (nanos < umbralNanos) {
+            return;
+        }
+        consultasLentas.increment();
+
+        if (ThreadLocalRandom.current().nextDouble() >= muestreo) {
+            return;
+        }
+        log.warn("consulta_lenta duracion_ms={} sql=\"{}\"",
+                TimeUnit.NANOSECONDS.toMillis(nanos), sql == null ? "desconocida" : redactar(sql));
+    }
+
+    /**
+     * SQL en una sola línea con los literales de cadena y numéricos reemplazados por '?'.
+     */
+    static String redactar(String sql) {
+        String sinCadenas = LITERAL_CADENA.matcher(sql).replaceAll("?");
+        String sinNumeros = LITERAL_NUMERICO.matcher(sinCadenas).replaceAll("?");
+        return ESPACIOS.matcher(sinNumeros).replaceAll(" ").trim();
+    }
+}
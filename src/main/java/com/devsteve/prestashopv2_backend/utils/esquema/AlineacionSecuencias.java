@@ -0,0 +1,50 @@
+package com.devsteve.prestashopv2_backend.utils.esquema;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Alinea al arrancar las secuencias pooled (allocationSize = 50) con los ids existentes.
+ * En bases que venían de IDENTITY, o cargadas con ids explícitos, la secuencia puede ir por
+ * detrás del MAX(id) y Hibernate entregaría ids repetidos. Solo se adelanta, nunca se
+ * retrocede: si la secuencia ya va por delante no se toca.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class AlineacionSecuencias {
+
+    // Mismo incremento que las secuencias: se deja un bloque completo de margen
+    static final int INCREMENTO = 50;
+
+    static final List<String> TABLAS = List.of(
+            "productos", "detalle_ventas", "abonos", "movimientos_tienda", "email_outbox");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alinear() {
+        int ajustadas = 0;
+        for (String tabla : TABLAS) {
+            String secuencia = tabla + "_seq";
+            List<Long> nuevoValor = jdbcTemplate.queryForList(
+                    "SELECT setval('" + secuencia + "', m.maximo + " + INCREMENTO + ") " +
+                    "FROM (SELECT COALESCE(MAX(id), 0) AS maximo FROM " + tabla + ") m, " + secuencia + " s " +
+                    // Desfasada si el próximo bloque que entregaría la secuencia empieza en o antes del MAX(id)
+                    "WHERE m.maximo > 0 AND m.maximo > s.last_value - CASE WHEN s.is_called THEN 0 ELSE " + INCREMENTO + " END",
+                    Long.class);
+            if (!nuevoValor.isEmpty()) {
+                ajustadas++;
+                log.warn("Secuencia {} adelantada a {} para no repetir ids de {}", secuencia, nuevoValor.get(0), tabla);
+            }
+        }
+        log.info("Secuencias pooled verificadas: {} de {} ajustadas", ajustadas, TABLAS.size());
+    }
+}
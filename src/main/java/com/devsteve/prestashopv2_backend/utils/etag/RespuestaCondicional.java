@@ -0,0 +1,55 @@
+package com.devsteve.prestashopv2_backend.utils.etag;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * GET condicional con If-None-Match. Si el ETag del cliente coincide se responde 304
+ * sin invocar al proveedor del cuerpo, es decir, sin consultar ni serializar nada.
+ * Con no-cache el cliente puede guardar la respuesta pero debe revalidarla en cada uso.
+ */
+public final class RespuestaCondicional {
+
+    private RespuestaCondicional() {
+    }
+
+    public static <T> ResponseEntity<T> conEtag(String ifNoneMatch, String etag, Supplier<T> cuerpo) {
+        if (coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(cuerpo.get());
+    }
+
+    // MÉTODOS AUXILIARES
+
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            // Comparación débil (RFC 9110): se ignora el prefijo W/
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+package com.devsteve.prestashopv2_backend.utils.etag;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Contadores de cambio en memoria: uno por tienda (catálogo de productos y categorías)
+ * y uno global para el directorio público de tiendas y municipios. Los servicios que modifican esos
+ * datos los incrementan después del commit; los ETag se arman solo con estos contadores,
+ * sin cargar entidades.
+ * La época distingue los contadores de cada arranque: tras un reinicio ningún ETag anterior coincide.
+ * Los contadores solo ven los cambios hechos en esta instancia; por eso el ETag del catálogo incluye
+ * además el tramo de vigencia (mismo TTL que CatalogoTiendaCache): al cambiar de tramo cambia el ETag
+ * y la instantánea se recarga, así que un cambio hecho en otra instancia se ve como mucho un tramo después.
+ */
+@Component
+@Slf4j
+public class VersionesCambio {
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Long> versionesTienda = new ConcurrentHashMap<>();
+    private final AtomicLong versionTiendas = new AtomicLong();
+    private final long vigenciaMillis;
+    private final LongSupplier reloj;
+
+    @Autowired
+    public VersionesCambio(@Value("${app.catalogo-cache.ttl-minutos:60}") long vigenciaMinutos) {
+        this(vigenciaMinutos, System::currentTimeMillis);
+    }
+
+    public VersionesCambio(long vigenciaMinutos, LongSupplier reloj) {
+        this.vigenciaMillis = Duration.ofMinutes(vigenciaMinutos).toMillis();
+        this.reloj = reloj;
+    }
+
+    public long versionCatalogo(Long tiendaId) {
+        return versionesTienda.getOrDefault(tiendaId, 0L);
+    }
+
+    /**
+     * Tramo de vigencia actual: todas las instancias cambian de tramo al mismo tiempo.
+     */
+    public long tramoVigencia() {
+        return reloj.getAsLong() / vigenciaMillis;
+    }
+
+    public String etagCatalogo(Long tiendaId) {
+        return "\"cat-" + epoca + "-" + tiendaId + "-" + versionCatalogo(tiendaId) + "-" + tramoVigencia() + "\"";
+    }
+
+    public String etagTiendas() {
+        return "\"tiendas-" + epoca + "-" + versionTiendas.get() + "\"";
+    }
+
+    /**
+     * Cambio en productos o categorías de la tienda.
+     */
+    public void registrarCambioCatalogo(Long tiendaId) {
+        if (tiendaId == null) {
+            return;
+        }
+        despuesDelCommit(() -> {
+            long nueva = versionesTienda.merge(tiendaId, 1L, Long::sum);
+            log.debug("Catálogo de tienda {} en versión {}", tiendaId, nueva);
+        });
+    }
+
+    /**
+     * Cambio en los datos de una tienda. También cambia su catálogo porque
+     * las respuestas de productos y categorías incluyen el nombre de la tienda.
+     */
+    public void registrarCambioTienda(Long tiendaId) {
+        despuesDelCommit(versionTiendas::incrementAndGet);
+        registrarCambioCatalogo(tiendaId);
+    }
+
+    /**
+     * El directorio geográfico en memoria se reconstruyó: cambian los listados públicos
+     * de tiendas y los conteos de tiendas por municipio.
+     */
+    public void registrarCambioDirectorio() {
+        despuesDelCommit(versionTiendas::incrementAndGet);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.devsteve.prestashopv2_backend.utils.paginacion;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posición (fecha, id) del último elemento entregado en un listado ordenado por fecha e id descendentes.
+ * Viaja al cliente como token opaco en base64.
+ */
+@Getter
+@AllArgsConstructor
+public class Cursor {
+
+    // Posición anterior a cualquier registro: la primera página usa la misma consulta que las siguientes
+    private static final Cursor INICIAL = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime fecha;
+    private final Long id;
+
+    public static Cursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return INICIAL;
+        }
+
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor de paginación inválido");
+        }
+    }
+
+    public String codificar() {
+        String valor = fecha + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
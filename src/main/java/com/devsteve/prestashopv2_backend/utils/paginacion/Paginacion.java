@@ -0,0 +1,75 @@
+package com.devsteve.prestashopv2_backend.utils.paginacion;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.CursorPageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Límites de los listados y armado de páginas por cursor.
+ */
+@Component
+public class Paginacion {
+
+    private final int limiteMaximo;
+    private final int tamanoPorDefecto;
+    private final int tamanoMaximo;
+
+    public Paginacion(@Value("${app.listados.limite-maximo:500}") int limiteMaximo,
+                      @Value("${app.listados.tamano-pagina:50}") int tamanoPorDefecto,
+                      @Value("${app.listados.tamano-pagina-maximo:200}") int tamanoMaximo) {
+        this.limiteMaximo = limiteMaximo;
+        this.tamanoPorDefecto = tamanoPorDefecto;
+        this.tamanoMaximo = tamanoMaximo;
+    }
+
+    /**
+     * Tope de filas para los listados completos (sin cursor).
+     */
+    public Limit limiteListado() {
+        return Limit.of(limiteMaximo);
+    }
+
+    public int getLimiteMaximo() {
+        return limiteMaximo;
+    }
+
+    public int tamanoPagina(Integer solicitado) {
+        if (solicitado == null || solicitado < 1) {
+            return tamanoPorDefecto;
+        }
+        return Math.min(solicitado, tamanoMaximo);
+    }
+
+    /**
+     * Se consulta una fila más que el tamaño de página para saber si existe una página siguiente.
+     */
+    public Limit limitePagina(int tamano) {
+        return Limit.of(tamano + 1);
+    }
+
+    public <E, R> CursorPageResponse<R> construirPagina(List<E> filas, int tamano,
+                                                       Function<E, LocalDateTime> fecha,
+                                                       Function<E, Long> id,
+                                                       Function<List<E>, List<R>> mapper) {
+        boolean hayMas = filas.size() > tamano;
+        List<E> pagina = hayMas ? filas.subList(0, tamano) : filas;
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            E ultimo = pagina.get(pagina.size() - 1);
+            siguienteCursor = new Cursor(fecha.apply(ultimo), id.apply(ultimo)).codificar();
+        }
+
+        return CursorPageResponse.<R>builder()
+                .contenido(mapper.apply(pagina))
+                .tamano(pagina.size())
+                .hayMas(hayMas)
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.devsteve.prestashopv2_backend.utils.seeders;
+
+import com.devsteve.prestashopv2_backend.services.ResumenDiarioTiendaService;
+import com.devsteve.prestashopv2_backend.utils.seeders.sinteticos.DatosGenerados;
+import com.devsteve.prestashopv2_backend.utils.seeders.sinteticos.GeneradorDatosSinteticos;
+import com.devsteve.prestashopv2_backend.utils.seeders.sinteticos.VolumenDatos;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+/**
+ * Carga un conjunto de datos sintético de volumen productivo (perfil datos-sinteticos).
+ * Volúmenes en application-datos-sinteticos.properties; se omite si ya hay datos sintéticos.
+ */
+@Component
+@Profile("datos-sinteticos")
+@RequiredArgsConstructor
+@Slf4j
+@Order(3) // Requiere roles y municipios
+public class DatosSinteticosSeeder implements CommandLineRunner {
+
+    // reconstruir() admite rangos de hasta 366 días
+    private static final int DIAS_POR_RECONSTRUCCION = 365;
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final ResumenDiarioTiendaService resumenDiarioTiendaService;
+    private final ConfigurableApplicationContext contexto;
+
+    @Value("${app.datos-sinteticos.tiendas:50}")
+    private int tiendas;
+
+    @Value("${app.datos-sinteticos.empleados-por-tienda:3}")
+    private int empleadosPorTienda;
+
+    @Value("${app.datos-sinteticos.categorias-por-tienda:12}")
+    private int categoriasPorTienda;
+
+    @Value("${app.datos-sinteticos.productos-por-tienda:400}")
+    private int productosPorTienda;
+
+    @Value("${app.datos-sinteticos.cuentas:10000}")
+    private int cuentas;
+
+    @Value("${app.datos-sinteticos.ventas:500000}")
+    private long ventas;
+
+    @Value("${app.datos-sinteticos.lineas-maximas:12}")
+    private int lineasMaximas;
+
+    @Value("${app.datos-sinteticos.proporcion-credito:0.4}")
+    private double proporcionCredito;
+
+    @Value("${app.datos-sinteticos.sesgo:1.1}")
+    private double sesgo;
+
+    @Value("${app.datos-sinteticos.dias-historia:365}")
+    private int diasHistoria;
+
+    @Value("${app.datos-sinteticos.tamano-lote:20000}")
+    private int tamanoLote;
+
+    @Value("${app.datos-sinteticos.semilla:20240611}")
+    private long semilla;
+
+    @Value("${app.datos-sinteticos.password:Sintetico#2024}")
+    private String password;
+
+    @Value("${app.datos-sinteticos.salir-al-terminar:true}")
+    private boolean salirAlTerminar;
+
+    @Override
+    public void run(String... args) {
+        GeneradorDatosSinteticos generador = new GeneradorDatosSinteticos(dataSource);
+
+        if (generador.existenDatos()) {
+            log.info("ℹ️  Ya existen datos sintéticos, se omite la generación");
+        } else {
+            log.info("🏭 Generando datos sintéticos: {} tiendas, {} cuentas, {} ventas", tiendas, cuentas, ventas);
+            DatosGenerados datos = generador.generar(new VolumenDatos(tiendas, empleadosPorTienda, categoriasPorTienda,
+                    productosPorTienda, cuentas, ventas, lineasMaximas, proporcionCredito, sesgo, diasHistoria,
+                    tamanoLote, semilla), passwordEncoder.encode(password));
+
+            reconstruirResumenes(datos.desde().toLocalDate(), datos.hasta().toLocalDate());
+            log.info("✅ Datos sintéticos generados en {} s; usuarios {}*@prestashop.test con password {}",
+                    datos.duracion().toSeconds(), GeneradorDatosSinteticos.PREFIJO_CORREO, password);
+        }
+
+        if (salirAlTerminar) {
+            System.exit(SpringApplication.exit(contexto, () -> 0));
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void reconstruirResumenes(LocalDate desde, LocalDate hasta) {
+        for (LocalDate inicio = desde; !inicio.isAfter(hasta); inicio = inicio.plusDays(DIAS_POR_RECONSTRUCCION)) {
+            LocalDate fin = inicio.plusDays(DIAS_POR_RECONSTRUCCION - 1);
+            resumenDiarioTiendaService.reconstruir(inicio, fin.isAfter(hasta) ? hasta : fin);
+        }
+    }
+}
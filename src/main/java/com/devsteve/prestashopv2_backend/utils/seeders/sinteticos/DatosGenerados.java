@@ -0,0 +1,21 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una generación: filas insertadas por tabla, ids de las tiendas ordenados
+ * de la más a la menos activa y el rango de fechas cubierto por ventas y abonos.
+ */
+public record DatosGenerados(Map<String, Long> filasPorTabla,
+                             List<Long> tiendaIds,
+                             LocalDateTime desde,
+                             LocalDateTime hasta,
+                             Duration duracion) {
+
+    public long totalFilas() {
+        return filasPorTabla.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,44 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribución de Zipf sobre los rangos 0..n-1: el rango k tiene peso 1/(k+1)^sesgo.
+ * Con sesgo cercano a 1 unos pocos rangos concentran la mayor parte de las muestras
+ * (tiendas, productos y clientes "calientes"); con sesgo 0 es uniforme.
+ */
+public final class DistribucionZipf {
+
+    private final double[] acumulados;
+
+    public DistribucionZipf(int n, double sesgo) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("La distribución necesita al menos un elemento");
+        }
+        this.acumulados = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, sesgo);
+            acumulados[k] = total;
+        }
+    }
+
+    public int muestra(Random aleatorio) {
+        double objetivo = aleatorio.nextDouble() * acumulados[acumulados.length - 1];
+        int posicion = Arrays.binarySearch(acumulados, objetivo);
+        return Math.min(posicion >= 0 ? posicion : -posicion - 1, acumulados.length - 1);
+    }
+
+    /**
+     * Fracción de las muestras que recibe el rango k.
+     */
+    public double proporcion(int k) {
+        double anterior = k == 0 ? 0 : acumulados[k - 1];
+        return (acumulados[k] - anterior) / acumulados[acumulados.length - 1];
+    }
+
+    public int tamano() {
+        return acumulados.length;
+    }
+}
@@ -0,0 +1,474 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+import com.devsteve.prestashopv2_backend.models.enums.EstadoAbono;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.MetodoPago;
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Genera un conjunto de datos de negocio con volúmenes de producción: tiendas con empleados,
+ * categorías y productos, clientes con cuenta de crédito, ventas con sus detalles, abonos y
+ * los movimientos de tienda correspondientes. Las ventas se concentran en pocas tiendas,
+ * productos y clientes (Zipf), y una parte de los clientes casi no abona (deudores).
+ * <p>
+ * Las filas se cargan con COPY en una sola transacción, con ids asignados aquí a partir del
+ * máximo actual de cada tabla; al final se ajustan las secuencias. Debe ejecutarse sin tráfico:
+ * las tablas afectadas quedan bloqueadas para escritura mientras dura la carga.
+ * Los saldos de las cuentas quedan consistentes con ventas a crédito y abonos aplicados;
+ * el resumen diario no se toca y debe reconstruirse después.
+ */
+@Slf4j
+public class GeneradorDatosSinteticos {
+
+    public static final String PREFIJO_CORREO = "sintetico-";
+
+    private static final String[] TABLAS = {"tiendas", "usuarios", "usuarios_roles", "empleados_tienda",
+            "categorias", "productos", "cuentas_cliente", "ventas", "detalle_ventas", "abonos", "movimientos_tienda"};
+    private static final String[] TABLAS_IDENTITY = {"tiendas", "usuarios", "empleados_tienda",
+            "categorias", "cuentas_cliente", "ventas"};
+    private static final String[] TABLAS_SECUENCIA = {"productos", "detalle_ventas", "abonos", "movimientos_tienda"};
+    // Incremento de las secuencias con allocationSize = 50
+    private static final int INCREMENTO_SECUENCIA = 50;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long LIMITE_CREDITO_BASE = 50_000; // centavos
+    private static final double PROPORCION_DEUDORES = 0.15;
+    private static final int DIAS_MAXIMOS_PAGO = 15;
+    private static final int CUENTAS_POR_VOLCADO = 50_000;
+
+    private final DataSource dataSource;
+
+    public GeneradorDatosSinteticos(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean existenDatos() {
+        try (Connection conexion = dataSource.getConnection();
+             Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery(
+                     "SELECT EXISTS (SELECT 1 FROM usuarios WHERE email LIKE '" + PREFIJO_CORREO + "%')")) {
+            resultado.next();
+            return resultado.getBoolean(1);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al consultar datos sintéticos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Genera y carga el conjunto de datos. Todos los usuarios generados comparten el hash de contraseña.
+     * Si algo falla se revierte la carga completa.
+     */
+    public DatosGenerados generar(VolumenDatos volumen, String hashContrasena) {
+        long inicio = System.nanoTime();
+        try (Connection conexion = dataSource.getConnection()) {
+            boolean autoCommit = conexion.getAutoCommit();
+            conexion.setAutoCommit(false);
+            DatosGenerados datos;
+            try {
+                datos = new Carga(conexion, volumen, hashContrasena).ejecutar(inicio);
+                conexion.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conexion.rollback();
+                throw new RuntimeException("Error al generar datos sintéticos: " + e.getMessage(), e);
+            } finally {
+                conexion.setAutoCommit(autoCommit);
+            }
+
+            // Estadísticas del planificador al día para las consultas sobre el nuevo volumen
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("ANALYZE " + String.join(", ", TABLAS));
+            }
+
+            log.info("Datos sintéticos cargados en {} s: {} filas {}",
+                    datos.duracion().toSeconds(), datos.totalFilas(), datos.filasPorTabla());
+            return datos;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al generar datos sintéticos: " + e.getMessage(), e);
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Importes no negativos en centavos, sin pasar por BigDecimal en el ciclo de generación
+    static String monto(long centavos) {
+        long resto = centavos % 100;
+        return centavos / 100 + (resto < 10 ? ".0" : ".") + resto;
+    }
+
+    /**
+     * Estado de una ejecución: ids asignados, catálogos y saldos acumulados por cuenta.
+     */
+    private static final class Carga {
+
+        private final Connection conexion;
+        private final VolumenDatos volumen;
+        private final String hashContrasena;
+        private final Random aleatorio;
+        private final CopyManager copyManager;
+
+        private final LocalDateTime hasta = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        private final LocalDateTime desde;
+        private final String creado;
+
+        private final Map<String, Long> maximos = new HashMap<>();
+        private final LoteCopy tiendas = new LoteCopy("tiendas",
+                "id", "nombre", "telefono", "activo", "municipio_id", "direccion_exacta", "created_at", "updated_at");
+        private final LoteCopy usuarios = new LoteCopy("usuarios",
+                "id", "nombre_completo", "email", "password", "telefono", "dui", "activo", "created_at", "updated_at");
+        private final LoteCopy usuariosRoles = new LoteCopy("usuarios_roles", "usuario_id", "rol_id");
+        private final LoteCopy empleados = new LoteCopy("empleados_tienda",
+                "id", "usuario_id", "tienda_id", "activo", "created_at");
+        private final LoteCopy categorias = new LoteCopy("categorias", "id", "tienda_id", "nombre");
+        private final LoteCopy productos = new LoteCopy("productos",
+                "id", "tienda_id", "nombre", "precio_venta", "precio_unitario", "activo", "categoria_id", "created_at");
+        private final LoteCopy cuentas = new LoteCopy("cuentas_cliente",
+                "id", "usuario_id", "tienda_id", "limite_credito", "saldo_actual", "fecha_apertura", "activa",
+                "created_at", "updated_at");
+        private final LoteCopy ventas = new LoteCopy("ventas",
+                "id", "tienda_id", "cuenta_cliente_id", "cliente_ocasional", "fecha_venta", "subtotal", "total",
+                "tipo_venta", "estado", "created_at", "updated_at");
+        private final LoteCopy detalles = new LoteCopy("detalle_ventas",
+                "id", "venta_id", "producto_id", "cantidad", "precio_unitario", "subtotal");
+        private final LoteCopy abonos = new LoteCopy("abonos",
+                "id", "tienda_id", "cuenta_cliente_id", "monto", "fecha_abono", "metodo_pago", "estado");
+        private final LoteCopy movimientos = new LoteCopy("movimientos_tienda",
+                "id", "tienda_id", "usuario_operador_id", "cliente_usuario_id", "tipo_evento", "descripcion",
+                "monto", "referencia_id", "referencia_tabla", "fecha_evento", "created_at");
+
+        // Por tienda (índice = rango de actividad, 0 es la más activa)
+        private long[] tiendaIds;
+        private long[][] operadores;
+        private long[] primerProducto;
+        private long[][] preciosProductos;
+        private int[] primeraCuenta;
+        private DistribucionZipf[] clientesPorTienda;
+
+        // Por cuenta (índice global de cuenta generada)
+        private long[] cuentaIds;
+        private long[] clienteIds;
+        private float[] tasaPago;
+        private long[] saldos;
+
+        Carga(Connection conexion, VolumenDatos volumen, String hashContrasena) throws SQLException {
+            this.conexion = conexion;
+            this.volumen = volumen;
+            this.hashContrasena = hashContrasena;
+            this.aleatorio = new Random(volumen.semilla());
+            this.copyManager = conexion.unwrap(PGConnection.class).getCopyAPI();
+            this.desde = hasta.minusDays(volumen.diasHistoria());
+            this.creado = fecha(desde);
+        }
+
+        DatosGenerados ejecutar(long inicio) throws SQLException, IOException {
+            ejecutarSql("LOCK TABLE " + String.join(", ", TABLAS) + " IN EXCLUSIVE MODE");
+            for (String tabla : TABLAS) {
+                if (!tabla.equals("usuarios_roles")) {
+                    maximos.put(tabla, consultarLargo("SELECT COALESCE(MAX(id), 0) FROM " + tabla));
+                }
+            }
+
+            generarTiendas();
+            generarCuentas();
+            generarVentas();
+            actualizarSaldos();
+            ajustarSecuencias();
+
+            Map<String, Long> filas = new LinkedHashMap<>();
+            for (LoteCopy lote : List.of(tiendas, usuarios, usuariosRoles, empleados, categorias, productos,
+                    cuentas, ventas, detalles, abonos, movimientos)) {
+                filas.put(lote.tabla(), lote.total());
+            }
+            return new DatosGenerados(filas, Arrays.stream(tiendaIds).boxed().toList(), desde, hasta,
+                    Duration.ofNanos(System.nanoTime() - inicio));
+        }
+
+        // TIENDAS, EMPLEADOS Y CATÁLOGO
+
+        private void generarTiendas() throws SQLException, IOException {
+            List<Long> municipios = consultarIds("SELECT id FROM municipios ORDER BY id");
+            if (municipios.isEmpty()) {
+                throw new RuntimeException("No hay municipios cargados; se requiere el seeder de ubicaciones");
+            }
+            long rolEncargado = rol("ENCARGADO");
+            long rolEmpleado = rol("EMPLEADO");
+
+            int cantidad = volumen.tiendas();
+            tiendaIds = new long[cantidad];
+            operadores = new long[cantidad][volumen.empleadosPorTienda()];
+            primerProducto = new long[cantidad];
+            preciosProductos = new long[cantidad][volumen.productosPorTienda()];
+
+            for (int t = 0; t < cantidad; t++) {
+                long tiendaId = siguienteId("tiendas");
+                tiendaIds[t] = tiendaId;
+                tiendas.fila(tiendaId, "Tienda sintética " + tiendaId, telefono(), true,
+                        municipios.get(aleatorio.nextInt(municipios.size())), "Local " + (t + 1), creado, creado);
+
+                for (int e = 0; e < volumen.empleadosPorTienda(); e++) {
+                    long usuarioId = usuario("e" + tiendaId + "-" + e, "Empleado " + e + " de tienda " + tiendaId);
+                    usuariosRoles.fila(usuarioId, e == 0 ? rolEncargado : rolEmpleado);
+                    empleados.fila(siguienteId("empleados_tienda"), usuarioId, tiendaId, true, creado);
+                    operadores[t][e] = usuarioId;
+                }
+
+                long[] categoriaIds = new long[volumen.categoriasPorTienda()];
+                for (int c = 0; c < categoriaIds.length; c++) {
+                    categoriaIds[c] = siguienteId("categorias");
+                    categorias.fila(categoriaIds[c], tiendaId, "Categoría " + (c + 1));
+                }
+
+                primerProducto[t] = maximos.get("productos") + 1;
+                for (int p = 0; p < volumen.productosPorTienda(); p++) {
+                    // Precios log-normales: la mayoría baratos, algunos caros
+                    long precio = Math.max(25, Math.min(15_000, Math.round(Math.exp(5.3 + 0.9 * aleatorio.nextGaussian()))));
+                    preciosProductos[t][p] = precio;
+                    productos.fila(siguienteId("productos"), tiendaId, "Producto " + (p + 1), monto(precio), monto(precio),
+                            true, categoriaIds.length == 0 ? null : categoriaIds[p % categoriaIds.length], creado);
+                }
+            }
+
+            volcar(tiendas, usuarios, usuariosRoles, empleados, categorias, productos);
+            log.info("Generadas {} tiendas con {} productos cada una", cantidad, volumen.productosPorTienda());
+        }
+
+        // CLIENTES Y CUENTAS
+
+        private void generarCuentas() throws SQLException, IOException {
+            long rolCliente = rol("CLIENTE");
+            DistribucionZipf actividadTiendas = new DistribucionZipf(volumen.tiendas(), volumen.sesgo());
+
+            // Las tiendas más activas tienen más clientes; todas al menos uno
+            int[] cuentasPorTienda = new int[volumen.tiendas()];
+            int asignadas = 0;
+            for (int t = 0; t < cuentasPorTienda.length; t++) {
+                cuentasPorTienda[t] = 1 + (int) ((volumen.cuentas() - volumen.tiendas()) * actividadTiendas.proporcion(t));
+                asignadas += cuentasPorTienda[t];
+            }
+            cuentasPorTienda[0] += volumen.cuentas() - asignadas;
+
+            cuentaIds = new long[volumen.cuentas()];
+            clienteIds = new long[volumen.cuentas()];
+            tasaPago = new float[volumen.cuentas()];
+            saldos = new long[volumen.cuentas()];
+            primeraCuenta = new int[volumen.tiendas()];
+            clientesPorTienda = new DistribucionZipf[volumen.tiendas()];
+
+            String apertura = desde.toLocalDate().toString();
+            int indice = 0;
+            int volcadas = 0;
+            for (int t = 0; t < cuentasPorTienda.length; t++) {
+                primeraCuenta[t] = indice;
+                clientesPorTienda[t] = new DistribucionZipf(cuentasPorTienda[t], volumen.sesgo());
+                for (int c = 0; c < cuentasPorTienda[t]; c++, indice++) {
+                    long usuarioId = usuario("c" + tiendaIds[t] + "-" + c, "Cliente " + c + " de tienda " + tiendaIds[t]);
+                    usuariosRoles.fila(usuarioId, rolCliente);
+
+                    long cuentaId = siguienteId("cuentas_cliente");
+                    cuentas.fila(cuentaId, usuarioId, tiendaIds[t], monto(LIMITE_CREDITO_BASE), monto(0), apertura, true,
+                            creado, creado);
+
+                    cuentaIds[indice] = cuentaId;
+                    clienteIds[indice] = usuarioId;
+                    // Deudores: abonan pocas de sus compras; el resto paga casi todo
+                    tasaPago[indice] = aleatorio.nextDouble() < PROPORCION_DEUDORES
+                            ? 0.3f * aleatorio.nextFloat()
+                            : 0.7f + 0.3f * aleatorio.nextFloat();
+                }
+                if (indice - volcadas >= CUENTAS_POR_VOLCADO) {
+                    volcar(usuarios, usuariosRoles, cuentas);
+                    volcadas = indice;
+                }
+            }
+
+            volcar(usuarios, usuariosRoles, cuentas);
+            log.info("Generadas {} cuentas de crédito", volumen.cuentas());
+        }
+
+        // VENTAS, ABONOS Y MOVIMIENTOS
+
+        private void generarVentas() throws SQLException, IOException {
+            DistribucionZipf actividadTiendas = new DistribucionZipf(volumen.tiendas(), volumen.sesgo());
+            DistribucionZipf popularidadProductos = new DistribucionZipf(volumen.productosPorTienda(), volumen.sesgo());
+            long segundosHistoria = ChronoUnit.SECONDS.between(desde, hasta);
+
+            for (long i = 0; i < volumen.ventas(); i++) {
+                // Fechas crecientes con el id, como en producción
+                LocalDateTime fechaVenta = desde.plusSeconds(segundosHistoria * i / volumen.ventas());
+                int t = actividadTiendas.muestra(aleatorio);
+                boolean credito = aleatorio.nextDouble() < volumen.proporcionCredito();
+
+                long ventaId = siguienteId("ventas");
+                long total = 0;
+                int lineas = 1 + (int) (volumen.lineasMaximas() * Math.pow(aleatorio.nextDouble(), 2));
+                for (int l = 0; l < lineas; l++) {
+                    int p = popularidadProductos.muestra(aleatorio);
+                    int cantidad = aleatorio.nextInt(10) < 7 ? 1 : 2 + aleatorio.nextInt(4);
+                    long precio = preciosProductos[t][p];
+                    long subtotal = precio * cantidad;
+                    total += subtotal;
+                    detalles.fila(siguienteId("detalle_ventas"), ventaId, primerProducto[t] + p, cantidad,
+                            monto(precio), monto(subtotal));
+                }
+
+                String fecha = fecha(fechaVenta);
+                long operador = operadores[t][aleatorio.nextInt(operadores[t].length)];
+                if (credito) {
+                    int cuenta = primeraCuenta[t] + clientesPorTienda[t].muestra(aleatorio);
+                    boolean pagada = aleatorio.nextFloat() < tasaPago[cuenta];
+                    saldos[cuenta] += total;
+
+                    ventas.fila(ventaId, tiendaIds[t], cuentaIds[cuenta], null, fecha, monto(total), monto(total),
+                            TipoVenta.CREDITO, pagada ? EstadoVenta.PAGADA : EstadoVenta.PENDIENTE, fecha, fecha);
+                    movimientos.fila(siguienteId("movimientos_tienda"), tiendaIds[t], operador, clienteIds[cuenta],
+                            TipoEvento.VENTA_REGISTRADA, "Venta registrada - CREDITO por $" + monto(total), monto(total),
+                            ventaId, "ventas", fecha, fecha);
+
+                    if (pagada) {
+                        abonar(t, cuenta, total, fechaVenta);
+                    }
+                } else {
+                    ventas.fila(ventaId, tiendaIds[t], null, "Cliente ocasional", fecha, monto(total), monto(total),
+                            TipoVenta.CONTADO, EstadoVenta.PAGADA, fecha, fecha);
+                    movimientos.fila(siguienteId("movimientos_tienda"), tiendaIds[t], operador, null,
+                            TipoEvento.VENTA_REGISTRADA, "Venta registrada - CONTADO por $" + monto(total), monto(total),
+                            ventaId, "ventas", fecha, fecha);
+                }
+
+                if ((i + 1) % volumen.tamanoLote() == 0) {
+                    volcar(ventas, detalles, abonos, movimientos);
+                    if ((i + 1) % (volumen.tamanoLote() * 20L) == 0) {
+                        log.info("Ventas generadas: {} de {}", i + 1, volumen.ventas());
+                    }
+                }
+            }
+
+            volcar(ventas, detalles, abonos, movimientos);
+        }
+
+        private void abonar(int t, int cuenta, long monto, LocalDateTime fechaVenta) {
+            LocalDateTime fechaAbono = fechaVenta.plusSeconds(aleatorio.nextInt(DIAS_MAXIMOS_PAGO * 86_400));
+            if (fechaAbono.isAfter(hasta)) {
+                fechaAbono = hasta;
+            }
+            int metodo = aleatorio.nextInt(10);
+            MetodoPago metodoPago = metodo < 7 ? MetodoPago.EFECTIVO : metodo < 9 ? MetodoPago.TRANSFERENCIA : MetodoPago.TARJETA;
+
+            long abonoId = siguienteId("abonos");
+            String fecha = fecha(fechaAbono);
+            saldos[cuenta] -= monto;
+            abonos.fila(abonoId, tiendaIds[t], cuentaIds[cuenta], monto(monto), fecha, metodoPago, EstadoAbono.APLICADO);
+            movimientos.fila(siguienteId("movimientos_tienda"), tiendaIds[t],
+                    operadores[t][aleatorio.nextInt(operadores[t].length)], clienteIds[cuenta],
+                    TipoEvento.ABONO_REGISTRADO, "Abono registrado - " + metodoPago + " por $" + monto(monto), monto(monto),
+                    abonoId, "abonos", fecha, fecha);
+        }
+
+        // CIERRE
+
+        /**
+         * Escribe saldo y límite finales de cada cuenta con deuda: se conocen solo al terminar
+         * las ventas, y las cuentas deben existir antes por la llave foránea de ventas y abonos.
+         */
+        private void actualizarSaldos() throws SQLException, IOException {
+            ejecutarSql("CREATE TEMP TABLE saldos_sinteticos (id bigint PRIMARY KEY, saldo numeric(10,2), " +
+                    "limite numeric(10,2)) ON COMMIT DROP");
+            LoteCopy saldosFinales = new LoteCopy("saldos_sinteticos", "id", "saldo", "limite");
+            for (int c = 0; c < saldos.length; c++) {
+                if (saldos[c] > 0) {
+                    // Límite redondeado a 100 con holgura sobre la deuda
+                    long limite = Math.max(LIMITE_CREDITO_BASE, (saldos[c] * 5 / 4 / 10_000 + 1) * 10_000);
+                    saldosFinales.fila(cuentaIds[c], monto(saldos[c]), monto(limite));
+                }
+            }
+            volcar(saldosFinales);
+            ejecutarSql("UPDATE cuentas_cliente c SET saldo_actual = s.saldo, limite_credito = s.limite " +
+                    "FROM saldos_sinteticos s WHERE c.id = s.id");
+        }
+
+        private void ajustarSecuencias() throws SQLException {
+            for (String tabla : TABLAS_IDENTITY) {
+                ejecutarSql("SELECT setval(pg_get_serial_sequence('" + tabla + "', 'id'), " + Math.max(1, maximos.get(tabla)) + ")");
+            }
+            // Secuencias con optimizador pooled: se deja un bloque completo de margen
+            for (String tabla : TABLAS_SECUENCIA) {
+                ejecutarSql("SELECT setval('" + tabla + "_seq', " + (maximos.get(tabla) + INCREMENTO_SECUENCIA) + ")");
+            }
+        }
+
+        // AUXILIARES
+
+        private long usuario(String sufijo, String nombre) {
+            long usuarioId = siguienteId("usuarios");
+            usuarios.fila(usuarioId, nombre, PREFIJO_CORREO + sufijo + "@prestashop.test", hashContrasena,
+                    telefono(), null, true, creado, creado);
+            return usuarioId;
+        }
+
+        private long siguienteId(String tabla) {
+            return maximos.merge(tabla, 1L, Long::sum);
+        }
+
+        private String telefono() {
+            return String.format("%d%03d-%04d", 2 + aleatorio.nextInt(6), aleatorio.nextInt(1000), aleatorio.nextInt(10_000));
+        }
+
+        private long rol(String nombre) throws SQLException {
+            List<Long> ids = consultarIds("SELECT id FROM roles WHERE nombre = '" + nombre + "'");
+            if (ids.isEmpty()) {
+                throw new RuntimeException("Rol " + nombre + " no encontrado; se requiere el seeder de autenticación");
+            }
+            return ids.get(0);
+        }
+
+        private void volcar(LoteCopy... lotes) throws SQLException, IOException {
+            for (LoteCopy lote : lotes) {
+                lote.volcar(copyManager);
+            }
+        }
+
+        private void ejecutarSql(String sql) throws SQLException {
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute(sql);
+            }
+        }
+
+        private long consultarLargo(String sql) throws SQLException {
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet resultado = sentencia.executeQuery(sql)) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        }
+
+        private List<Long> consultarIds(String sql) throws SQLException {
+            List<Long> ids = new ArrayList<>();
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet resultado = sentencia.executeQuery(sql)) {
+                while (resultado.next()) {
+                    ids.add(resultado.getLong(1));
+                }
+            }
+            return ids;
+        }
+
+        private static String fecha(LocalDateTime fecha) {
+            return FORMATO_FECHA.format(fecha);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+
+/**
+ * Filas pendientes de una tabla en formato de texto de COPY (tabulaciones, \N para nulos).
+ * Se vuelcan por lotes porque una conexión solo admite un COPY a la vez: el generador
+ * acumula las filas de varias tablas y las vuelca en orden de dependencia.
+ */
+final class LoteCopy {
+
+    private final String tabla;
+    private final String sql;
+    private final StringBuilder filas = new StringBuilder(1 << 16);
+    private long pendientes;
+    private long total;
+
+    LoteCopy(String tabla, String... columnas) {
+        this.tabla = tabla;
+        this.sql = "COPY " + tabla + " (" + String.join(", ", columnas) + ") FROM STDIN";
+    }
+
+    void fila(Object... valores) {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                filas.append('\t');
+            }
+            agregarValor(valores[i]);
+        }
+        filas.append('\n');
+        pendientes++;
+    }
+
+    void volcar(CopyManager copyManager) throws SQLException, IOException {
+        if (pendientes == 0) {
+            return;
+        }
+        copyManager.copyIn(sql, new StringReader(filas.toString()));
+        total += pendientes;
+        pendientes = 0;
+        filas.setLength(0);
+    }
+
+    String tabla() {
+        return tabla;
+    }
+
+    long total() {
+        return total;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void agregarValor(Object valor) {
+        if (valor == null) {
+            filas.append("\\N");
+            return;
+        }
+        String texto = valor.toString();
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '\\' -> filas.append("\\\\");
+                case '\t' -> filas.append("\\t");
+                case '\n' -> filas.append("\\n");
+                case '\r' -> filas.append("\\r");
+                default -> filas.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+/**
+ * Volúmenes y forma del conjunto de datos sintético.
+ *
+ * @param cuentas           cuentas de crédito en total; se reparten entre tiendas con la misma
+ *                          distribución sesgada que las ventas, cada una con su propio cliente
+ * @param ventas            ventas en total, repartidas uniformemente en el tiempo
+ * @param proporcionCredito fracción de ventas a crédito
+ * @param sesgo             exponente de Zipf para tiendas, productos y clientes (0 = uniforme)
+ * @param tamanoLote        ventas generadas entre volcados de COPY; acota la memoria usada
+ */
+public record VolumenDatos(int tiendas,
+                           int empleadosPorTienda,
+                           int categoriasPorTienda,
+                           int productosPorTienda,
+                           int cuentas,
+                           long ventas,
+                           int lineasMaximas,
+                           double proporcionCredito,
+                           double sesgo,
+                           int diasHistoria,
+                           int tamanoLote,
+                           long semilla) {
+
+    public VolumenDatos {
+        if (tiendas <= 0 || empleadosPorTienda <= 0 || productosPorTienda <= 0 || lineasMaximas <= 0) {
+            throw new IllegalArgumentException("Tiendas, empleados, productos y líneas por venta deben ser positivos");
+        }
+        if (cuentas < tiendas) {
+            throw new IllegalArgumentException("Se necesita al menos una cuenta por tienda");
+        }
+        if (proporcionCredito < 0 || proporcionCredito > 1) {
+            throw new IllegalArgumentException("La proporción de crédito debe estar entre 0 y 1");
+        }
+        if (diasHistoria <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("Los días de historia y el tamaño de lote deben ser positivos");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.devsteve.prestashopv2_backend.repositories;
+
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que roles, departamentos, municipios, tiendas y categorías se sirven desde la
+ * caché de segundo nivel tras una primera carga, sin consultas a la base de datos.
+ * Cada paso corre en su propia transacción confirmada, como en la aplicación.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest extends PruebaPostgres {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private RolRepository rolRepository;
+    @Autowired private DepartamentoRepository departamentoRepository;
+    @Autowired private MunicipioRepository municipioRepository;
+    @Autowired private TiendaRepository tiendaRepository;
+    @Autowired private CategoriaRepository categoriaRepository;
+
+    private TransactionTemplate tx;
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void preparar() {
+        tx = new TransactionTemplate(transactionManager);
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void entidadesDeReferenciaSeSirvenDesdeCacheTrasPrimeraCarga() {
+        Semilla semilla = sembrar();
+        entityManagerFactory.getCache().evictAll();
+
+        // Calentamiento: primera carga desde la base de datos
+        tx.executeWithoutResult(status -> cargarTodas(semilla));
+
+        estadisticas.clear();
+        tx.executeWithoutResult(status -> cargarTodas(semilla));
+
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getSecondLevelCacheHitCount()).isEqualTo(5);
+        assertThat(estadisticas.getDomainDataRegionStatistics("tiendas").getHitCount()).isEqualTo(1);
+        assertThat(estadisticas.getDomainDataRegionStatistics("roles").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void finderCacheableSeSirveDesdeCacheDeConsultas() {
+        Semilla semilla = sembrar();
+
+        tx.executeWithoutResult(status ->
+                assertThat(categoriaRepository.findByTiendaIdOrderByNombreAsc(semilla.tiendaId())).hasSize(1));
+
+        estadisticas.clear();
+        tx.executeWithoutResult(status ->
+                assertThat(categoriaRepository.findByTiendaIdOrderByNombreAsc(semilla.tiendaId())).hasSize(1));
+
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void actualizarTiendaInvalidaSuEntradaYLasConsultas() {
+        Semilla semilla = sembrar();
+
+        tx.executeWithoutResult(status -> tiendaRepository.findByIdAndActivoTrue(semilla.tiendaId()).orElseThrow());
+        tx.executeWithoutResult(status ->
+                tiendaRepository.findById(semilla.tiendaId()).orElseThrow().setNombre("Tienda renombrada"));
+
+        estadisticas.clear();
+        String nombre = tx.execute(status ->
+                tiendaRepository.findByIdAndActivoTrue(semilla.tiendaId()).orElseThrow().getNombre());
+
+        assertThat(nombre).isEqualTo("Tienda renombrada");
+        assertThat(estadisticas.getQueryCacheHitCount()).isZero();
+        assertThat(estadisticas.getPrepareStatementCount()).isPositive();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void cargarTodas(Semilla semilla) {
+        rolRepository.findById(semilla.rolId()).orElseThrow();
+        departamentoRepository.findById(semilla.departamentoId()).orElseThrow();
+        municipioRepository.findById(semilla.municipioId()).orElseThrow();
+        tiendaRepository.findById(semilla.tiendaId()).orElseThrow();
+        categoriaRepository.findById(semilla.categoriaId()).orElseThrow();
+    }
+
+    private Semilla sembrar() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        return tx.execute(status -> {
+            RolEntity rol = rolRepository.save(RolEntity.builder().nombre("ROL_" + sufijo).build());
+            TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+            MunicipioEntity municipio = tienda.getMunicipio();
+            DepartamentoEntity departamento = municipio.getDepartamento();
+            CategoriaEntity categoria = categoriaRepository.save(CategoriaEntity.builder()
+                    .tienda(tienda).nombre("Categoria " + sufijo).build());
+            return new Semilla(rol.getId(), departamento.getId(), municipio.getId(), tienda.getId(), categoria.getId());
+        });
+    }
+
+    private record Semilla(Long rolId, Integer departamentoId, Integer municipioId, Long tiendaId, Long categoriaId) {
+    }
+}
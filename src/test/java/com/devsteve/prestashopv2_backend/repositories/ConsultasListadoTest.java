@@ -0,0 +1,127 @@
+package com.devsteve.prestashopv2_backend.repositories;
+
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoAbono;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.devsteve.prestashopv2_backend.utils.mappers.AbonoMapperImpl;
+import com.devsteve.prestashopv2_backend.utils.mappers.CuentaClienteMapperImpl;
+import com.devsteve.prestashopv2_backend.utils.mappers.DetalleVentaMapperImpl;
+import com.devsteve.prestashopv2_backend.utils.mappers.VentaMapperImpl;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con las estadísticas de Hibernate que mapear un listado a respuestas ejecuta
+ * un número constante de consultas, sin importar cuántas filas tenga.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({VentaMapperImpl.class, DetalleVentaMapperImpl.class, AbonoMapperImpl.class, CuentaClienteMapperImpl.class})
+class ConsultasListadoTest extends PruebaPostgres {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private VentaRepository ventaRepository;
+    @Autowired private AbonoRepository abonoRepository;
+    @Autowired private CuentaClienteRepository cuentaClienteRepository;
+    @Autowired private VentaMapperImpl ventaMapper;
+    @Autowired private AbonoMapperImpl abonoMapper;
+    @Autowired private CuentaClienteMapperImpl cuentaClienteMapper;
+
+    @Test
+    void listarVentasDeTiendaEjecutaConsultasConstantes() {
+        Long tiendaPequena = sembrarTienda(3);
+        Long tiendaGrande = sembrarTienda(40);
+
+        long consultasPequena = contarConsultas(() -> ventaMapper.toResponseList(
+                ventaRepository.findByTiendaIdOrderByFechaVentaDesc(tiendaPequena, Limit.of(500))).size());
+        long consultasGrande = contarConsultas(() -> ventaMapper.toResponseList(
+                ventaRepository.findByTiendaIdOrderByFechaVentaDesc(tiendaGrande, Limit.of(500))).size());
+
+        assertThat(consultasGrande).isEqualTo(consultasPequena);
+    }
+
+    @Test
+    void listarAbonosDeTiendaEjecutaConsultasConstantes() {
+        Long tiendaPequena = sembrarTienda(3);
+        Long tiendaGrande = sembrarTienda(40);
+
+        long consultasPequena = contarConsultas(() -> abonoMapper.toResponseList(
+                abonoRepository.findByTiendaIdOrderByFechaAbonoDesc(tiendaPequena, Limit.of(500))).size());
+        long consultasGrande = contarConsultas(() -> abonoMapper.toResponseList(
+                abonoRepository.findByTiendaIdOrderByFechaAbonoDesc(tiendaGrande, Limit.of(500))).size());
+
+        assertThat(consultasGrande).isEqualTo(consultasPequena).isEqualTo(1);
+    }
+
+    @Test
+    void listarCuentasDeTiendaEjecutaConsultasConstantes() {
+        Long tiendaPequena = sembrarTienda(3);
+        Long tiendaGrande = sembrarTienda(40);
+
+        long consultasPequena = contarConsultas(() -> cuentaClienteMapper.toResponseList(
+                cuentaClienteRepository.findByTiendaIdOrderByUsuarioNombreCompletoAsc(tiendaPequena)).size());
+        long consultasGrande = contarConsultas(() -> cuentaClienteMapper.toResponseList(
+                cuentaClienteRepository.findByTiendaIdOrderByUsuarioNombreCompletoAsc(tiendaGrande)).size());
+
+        assertThat(consultasGrande).isEqualTo(consultasPequena).isEqualTo(1);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private long contarConsultas(LongSupplier operacion) {
+        em.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        assertThat(operacion.getAsLong()).isPositive();
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Tienda con una cuenta, una venta de dos productos y un abono por cada cliente.
+     */
+    private Long sembrarTienda(int clientes) {
+        TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+
+        for (int i = 0; i < clientes; i++) {
+            UsuarioEntity usuario = SemillasPrueba.usuario(em.getEntityManager(), "Cliente " + i);
+            CuentaClienteEntity cuenta = em.persist(CuentaClienteEntity.builder()
+                    .usuario(usuario).tienda(tienda).limiteCredito(new BigDecimal("100")).build());
+            ProductoEntity producto1 = em.persist(ProductoEntity.builder().tienda(tienda).nombre("Producto A" + i)
+                    .precioVenta(BigDecimal.TEN).precioUnitario(BigDecimal.ONE).build());
+            ProductoEntity producto2 = em.persist(ProductoEntity.builder().tienda(tienda).nombre("Producto B" + i)
+                    .precioVenta(BigDecimal.TEN).precioUnitario(BigDecimal.ONE).build());
+
+            VentaEntity venta = VentaEntity.builder().tienda(tienda).cuentaCliente(cuenta)
+                    .subtotal(new BigDecimal("20")).total(new BigDecimal("20"))
+                    .tipoVenta(TipoVenta.CREDITO).estado(EstadoVenta.PENDIENTE).build();
+            for (ProductoEntity producto : new ProductoEntity[]{producto1, producto2}) {
+                venta.getDetalleVentas().add(DetalleVentaEntity.builder().venta(venta).producto(producto)
+                        .cantidad(1).precioUnitario(BigDecimal.TEN).subtotal(BigDecimal.TEN).build());
+            }
+            em.persist(venta);
+
+            em.persist(AbonoEntity.builder().tienda(tienda).cuentaCliente(cuenta)
+                    .monto(new BigDecimal("5")).estado(EstadoAbono.APLICADO).build());
+        }
+
+        em.flush();
+        return tienda.getId();
+    }
+}
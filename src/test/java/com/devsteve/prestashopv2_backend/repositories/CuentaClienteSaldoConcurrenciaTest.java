@@ -0,0 +1,155 @@
+package com.devsteve.prestashopv2_backend.repositories;
+
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de estrés de las cargas y abonos condicionales de CuentaClienteRepository:
+ * muchas cajas operando sobre la misma cuenta no pierden actualizaciones ni superan el límite.
+ */
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=" + CuentaClienteSaldoConcurrenciaTest.HILOS)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CuentaClienteSaldoConcurrenciaTest extends PruebaPostgres {
+
+    static final int HILOS = 16;
+    private static final int OPERACIONES_POR_HILO = 50;
+    // Piso conservador para detectar una serialización accidental (bloqueos de tabla, reintentos)
+    private static final double OPERACIONES_POR_SEGUNDO_MINIMAS = 50;
+
+    @Autowired private TestEntityManager em;
+    @Autowired private CuentaClienteRepository cuentaClienteRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void cargasSimultaneasNoPierdenActualizaciones() throws Exception {
+        // Límite holgado: todas las cargas deben aplicarse
+        Long cuentaId = crearCuenta(new BigDecimal("10000.00"), BigDecimal.ZERO);
+
+        Resultado resultado = ejecutarEnParalelo(() ->
+                cuentaClienteRepository.cargarSiHayCredito(cuentaId, BigDecimal.ONE, BigDecimal.ONE).isPresent());
+
+        assertThat(resultado.aplicadas()).isEqualTo(HILOS * OPERACIONES_POR_HILO);
+        assertThat(saldoDe(cuentaId)).isEqualByComparingTo(BigDecimal.valueOf(HILOS * OPERACIONES_POR_HILO));
+        assertThat(resultado.operacionesPorSegundo()).isGreaterThan(OPERACIONES_POR_SEGUNDO_MINIMAS);
+    }
+
+    @Test
+    void cargasSimultaneasNuncaSuperanElLimite() throws Exception {
+        BigDecimal limite = new BigDecimal("100.00");
+        Long cuentaId = crearCuenta(limite, BigDecimal.ZERO);
+
+        Resultado resultado = ejecutarEnParalelo(() ->
+                cuentaClienteRepository.cargarSiHayCredito(cuentaId, BigDecimal.ONE, BigDecimal.ONE).isPresent());
+
+        assertThat(resultado.aplicadas()).isEqualTo(100);
+        assertThat(saldoDe(cuentaId)).isEqualByComparingTo(limite);
+    }
+
+    @Test
+    void cargasYAbonosSimultaneosCuadranElSaldo() throws Exception {
+        BigDecimal saldoInicial = new BigDecimal("500.00");
+        Long cuentaId = crearCuenta(new BigDecimal("10000.00"), saldoInicial);
+        AtomicInteger turno = new AtomicInteger();
+        AtomicInteger cargas = new AtomicInteger();
+        AtomicInteger abonos = new AtomicInteger();
+
+        ejecutarEnParalelo(() -> {
+            if (turno.incrementAndGet() % 2 == 0) {
+                boolean aplicada = cuentaClienteRepository.cargarSiHayCredito(cuentaId, new BigDecimal("2.00"), new BigDecimal("2.00")).isPresent();
+                if (aplicada) cargas.incrementAndGet();
+                return aplicada;
+            }
+            boolean aplicado = cuentaClienteRepository.abonarSiHaySaldo(cuentaId, BigDecimal.ONE).isPresent();
+            if (aplicado) abonos.incrementAndGet();
+            return aplicado;
+        });
+
+        BigDecimal esperado = saldoInicial
+                .add(BigDecimal.valueOf(cargas.get() * 2L))
+                .subtract(BigDecimal.valueOf(abonos.get()));
+        assertThat(saldoDe(cuentaId)).isEqualByComparingTo(esperado);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private record Resultado(int aplicadas, double operacionesPorSegundo) {
+    }
+
+    private interface Operacion {
+        boolean ejecutar();
+    }
+
+    /**
+     * Cada operación corre en su propia transacción, como una venta independiente en una caja.
+     */
+    private Resultado ejecutarEnParalelo(Operacion operacion) throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        ExecutorService cajas = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger aplicadas = new AtomicInteger();
+
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                tareas.add(cajas.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                        if (Boolean.TRUE.equals(transaccion.execute(estado -> operacion.ejecutar()))) {
+                            aplicadas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long inicio = System.nanoTime();
+            salida.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(2, TimeUnit.MINUTES);
+            }
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            int total = HILOS * OPERACIONES_POR_HILO;
+            return new Resultado(aplicadas.get(), total / segundos);
+        } finally {
+            cajas.shutdownNow();
+        }
+    }
+
+    private Long crearCuenta(BigDecimal limite, BigDecimal saldo) {
+        return new TransactionTemplate(transactionManager).execute(estado -> {
+            TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+            UsuarioEntity usuario = SemillasPrueba.usuario(em.getEntityManager(), "Cliente");
+            CuentaClienteEntity cuenta = em.persist(CuentaClienteEntity.builder()
+                    .usuario(usuario).tienda(tienda).limiteCredito(limite).saldoActual(saldo).build());
+            return cuenta.getId();
+        });
+    }
+
+    private BigDecimal saldoDe(Long cuentaId) {
+        return cuentaClienteRepository.findById(cuentaId).orElseThrow().getSaldoActual();
+    }
+}
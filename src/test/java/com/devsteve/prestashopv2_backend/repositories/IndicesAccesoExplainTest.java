@@ -0,0 +1,202 @@
+package com.devsteve.prestashopv2_backend.repositories;
+
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.utils.consultas.ContadorSentencias;
+import com.devsteve.prestashopv2_backend.utils.consultas.PresupuestoConsultas;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN que las rutas de acceso de los repositorios usan los índices de
+ * db/migrations/V2__indices_acceso.sql. Cada caso invoca el método real del repositorio y
+ * explica el SQL que Hibernate emitió, capturado con DataSourceContador, como plan genérico
+ * (EXPLAIN GENERIC_PLAN, PostgreSQL 16). Con enable_seqscan = off el planificador solo cae
+ * en un Seq Scan cuando ningún índice sirve, así que el resultado no depende del volumen de datos.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@PresupuestoConsultas
+class IndicesAccesoExplainTest extends PruebaPostgres {
+
+    // Tablas grandes donde un Seq Scan indica que se perdió el índice
+    private static final Set<String> TABLAS_VIGILADAS = Set.of(
+            "ventas", "detalle_ventas", "abonos", "movimientos_tienda", "productos", "cuentas_cliente");
+
+    private static final Limit LIMITE = Limit.of(20);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static boolean indicesCreados;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private VentaRepository ventaRepository;
+    @Autowired private DetalleVentaRepository detalleVentaRepository;
+    @Autowired private AbonoRepository abonoRepository;
+    @Autowired private MovimientoTiendaRepository movimientoTiendaRepository;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private CuentaClienteRepository cuentaClienteRepository;
+
+    private TransactionTemplate tx;
+
+    /**
+     * Llamada a un repositorio cuyo SQL se va a explicar.
+     */
+    private interface Consulta {
+        void ejecutar(IndicesAccesoExplainTest prueba);
+    }
+
+    @BeforeEach
+    void crearIndices() throws Exception {
+        tx = new TransactionTemplate(transactionManager);
+        if (indicesCreados) {
+            return;
+        }
+        // El esquema lo crea Hibernate; los índices de acceso vienen de la migración V2
+        ejecutarScript(Path.of("db/migrations/V2__indices_acceso.sql"));
+        indicesCreados = true;
+    }
+
+    static Stream<Arguments> rutasDeAcceso() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return Stream.of(
+                caso("VentaRepository.findByTiendaIdOrderByFechaVentaDesc",
+                        p -> p.ventaRepository.findByTiendaIdOrderByFechaVentaDesc(7L, LIMITE)),
+                caso("VentaRepository.findByTiendaIdAndEstadoOrderByFechaVentaDesc",
+                        p -> p.ventaRepository.findByTiendaIdAndEstadoOrderByFechaVentaDesc(7L, EstadoVenta.PENDIENTE, LIMITE)),
+                caso("VentaRepository.findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc",
+                        p -> p.ventaRepository.findByCuentaClienteUsuarioIdAndEstadoInOrderByFechaVentaDesc(
+                                123L, List.of(EstadoVenta.PENDIENTE, EstadoVenta.PARCIAL))),
+                caso("VentaRepository.findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaVentaDesc",
+                        p -> p.ventaRepository.findByCuentaClienteUsuarioIdAndTiendaIdOrderByFechaVentaDesc(123L, 23L, LIMITE)),
+                caso("VentaRepository.findByClienteOcasionalContainingIgnoreCase",
+                        p -> p.ventaRepository.findByClienteOcasionalContainingIgnoreCase("ocasional 4242", PageRequest.of(0, 20))),
+                caso("VentaRepository.findByIdWithDetalles",
+                        p -> p.ventaRepository.findByIdWithDetalles(5000L)),
+                caso("DetalleVentaRepository.existsByProductoId",
+                        p -> p.detalleVentaRepository.existsByProductoId(42L)),
+                caso("AbonoRepository.findByTiendaIdOrderByFechaAbonoDesc",
+                        p -> p.abonoRepository.findByTiendaIdOrderByFechaAbonoDesc(7L, LIMITE)),
+                caso("AbonoRepository.findByCuentaClienteUsuarioIdOrderByFechaAbonoDesc",
+                        p -> p.abonoRepository.findByCuentaClienteUsuarioIdOrderByFechaAbonoDesc(123L, LIMITE)),
+                caso("MovimientoTiendaRepository.findByTiendaIdAndFechaEventoBetween",
+                        p -> p.movimientoTiendaRepository.findByTiendaIdAndFechaEventoBetween(
+                                7L, ahora.minusDays(7), ahora, PageRequest.of(0, 20))),
+                caso("MovimientoTiendaRepository.findByTiendaIdAndTipoEvento",
+                        p -> p.movimientoTiendaRepository.findByTiendaIdAndTipoEvento(
+                                7L, TipoEvento.ABONO_REGISTRADO, PageRequest.of(0, 20))),
+                caso("ProductoRepository.findByTiendaIdAndActivoTrueOrderByNombreAsc",
+                        p -> p.productoRepository.findByTiendaIdAndActivoTrueOrderByNombreAsc(7L)),
+                caso("ProductoRepository.findByTiendaIdAndActivoTrueAndNombreContainingIgnoreCaseOrderByNombreAsc",
+                        p -> p.productoRepository.findByTiendaIdAndActivoTrueAndNombreContainingIgnoreCaseOrderByNombreAsc(
+                                7L, "producto 12")),
+                caso("ProductoRepository.findByCategoriaIdOrderByNombreAsc",
+                        p -> p.productoRepository.findByCategoriaIdOrderByNombreAsc(42L)),
+                caso("CuentaClienteRepository.findByTiendaIdAndActivaTrueOrderByUsuarioNombreCompletoAsc",
+                        p -> p.cuentaClienteRepository.findByTiendaIdAndActivaTrueOrderByUsuarioNombreCompletoAsc(7L))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("rutasDeAcceso")
+    void noUsaSeqScanEnTablasGrandes(String metodo, Consulta consulta) throws Exception {
+        List<String> sentencias;
+        try (ContadorSentencias.Medicion medicion = ContadorSentencias.iniciar()) {
+            tx.executeWithoutResult(status -> consulta.ejecutar(this));
+            sentencias = medicion.repetidas(1).stream()
+                    .map(Map.Entry::getKey)
+                    .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                    .toList();
+        }
+        assertThat(sentencias).as("SQL emitido por %s", metodo).isNotEmpty();
+
+        for (String sql : sentencias) {
+            JsonNode plan = explicar(sql);
+
+            List<String> seqScans = new ArrayList<>();
+            buscarSeqScans(plan, seqScans);
+
+            assertTrue(seqScans.isEmpty(),
+                    metodo + " hace Seq Scan sobre " + seqScans + "\n" + sql + "\n" + plan.toPrettyString());
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static Arguments caso(String metodo, Consulta consulta) {
+        return Arguments.of(metodo, consulta);
+    }
+
+    private JsonNode explicar(String sql) throws Exception {
+        String plan = tx.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + parametrizar(sql), String.class);
+        });
+        return objectMapper.readTree(plan).get(0).get("Plan");
+    }
+
+    // Los marcadores JDBC (?) pasan a parámetros numerados ($1, $2...) para el plan genérico
+    private static String parametrizar(String sql) {
+        StringBuilder resultado = new StringBuilder(sql.length() + 16);
+        int parametro = 0;
+        for (char caracter : sql.toCharArray()) {
+            if (caracter == '?') {
+                resultado.append('$').append(++parametro);
+            } else {
+                resultado.append(caracter);
+            }
+        }
+        return resultado.toString();
+    }
+
+    private void ejecutarScript(Path script) throws Exception {
+        // Sin comentarios de línea; cada sentencia termina en ';'. Fuera de transacción por CONCURRENTLY
+        String contenido = Files.readAllLines(script).stream()
+                .filter(linea -> !linea.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        for (String sentencia : contenido.split(";")) {
+            if (!sentencia.isBlank()) {
+                jdbcTemplate.execute(sentencia);
+            }
+        }
+    }
+
+    private static void buscarSeqScans(JsonNode nodo, List<String> seqScans) {
+        String relacion = nodo.path("Relation Name").asText();
+        if ("Seq Scan".equals(nodo.path("Node Type").asText()) && TABLAS_VIGILADAS.contains(relacion)) {
+            seqScans.add(relacion);
+        }
+        for (JsonNode hijo : nodo.path("Plans")) {
+            buscarSeqScans(hijo, seqScans);
+        }
+    }
+}
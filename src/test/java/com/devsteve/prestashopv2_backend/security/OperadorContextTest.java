@@ -0,0 +1,79 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import com.devsteve.prestashopv2_backend.repositories.TiendaRepository;
+import com.devsteve.prestashopv2_backend.repositories.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * El operador de la petición se resuelve desde el PrincipalOperador del contexto de seguridad:
+ * roles y tiendas sin consultar al usuario, y la tienda asignada cargada una vez por id.
+ */
+class OperadorContextTest {
+
+    private static final String EMAIL = "cajero@correo.com";
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final TiendaRepository tiendaRepository = mock(TiendaRepository.class);
+    private final OperadorContextEstadisticas estadisticas = new OperadorContextEstadisticas();
+    private final OperadorContext contexto = new OperadorContext(usuarioRepository, tiendaRepository, estadisticas);
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rolesYTiendasSalenDelPrincipalSinConsultarAlUsuario() {
+        autenticar(new PrincipalOperador(EMAIL, "", true, 9L, List.of("EMPLEADO"), List.of(3L, 4L)));
+        TiendaEntity tienda = TiendaEntity.builder().id(3L).nombre("Tienda").build();
+        when(tiendaRepository.findById(3L)).thenReturn(Optional.of(tienda));
+        UsuarioEntity referencia = UsuarioEntity.builder().id(9L).build();
+        when(usuarioRepository.getReferenceById(9L)).thenReturn(referencia);
+
+        assertThat(contexto.getUsuarioId()).isEqualTo(9L);
+        assertThat(contexto.esEncargadoOEmpleado()).isTrue();
+        assertThat(contexto.esSysAdmin()).isFalse();
+        assertThat(contexto.tieneAccesoATienda(4L)).isTrue();
+        assertThat(contexto.tieneAccesoATienda(5L)).isFalse();
+        assertThat(contexto.getTiendaAsignada()).containsSame(tienda);
+        assertThat(contexto.getTiendaAsignada()).containsSame(tienda);
+        assertThat(contexto.getUsuario()).isSameAs(referencia);
+        contexto.registrarEstadisticas();
+
+        verify(usuarioRepository, never()).findByEmailWithRolesAndTiendas(anyString());
+        verify(tiendaRepository, times(1)).findById(3L);
+        assertThat(estadisticas.getPeticiones()).isEqualTo(1);
+    }
+
+    @Test
+    void sinTiendasActivasNoHayTiendaAsignada() {
+        autenticar(new PrincipalOperador(EMAIL, "", true, 9L, List.of("CLIENTE"), List.of()));
+
+        assertThat(contexto.getTiendaAsignada()).isEmpty();
+        assertThat(contexto.getTiendasActivasIds()).isEmpty();
+        verify(tiendaRepository, never()).findById(3L);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void autenticar(PrincipalOperador principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
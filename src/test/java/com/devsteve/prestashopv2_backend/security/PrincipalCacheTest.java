@@ -0,0 +1,71 @@
+package com.devsteve.prestashopv2_backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Una invalidación que llega mientras se construye el principal impide cachearlo:
+ * la siguiente petición vuelve a resolver el usuario en lugar de usar los permisos anteriores.
+ */
+class PrincipalCacheTest {
+
+    private static final Long USUARIO_ID = 7L;
+    private static final String EMAIL = "cajero@correo.com";
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final PrincipalCache cache = new PrincipalCache(userDetailsService, 300, 100, 86_400_000);
+
+    @Test
+    void invalidacionDuranteLaConstruccionNoDejaElPrincipalAnteriorEnCache() {
+        // Token emitido antes de una invalidación: el principal se carga desde la base de datos
+        cache.invalidar(USUARIO_ID);
+        TokenVerificado token = new TokenVerificado(EMAIL, USUARIO_ID, "Cajero", List.of("EMPLEADO"), List.of(3L),
+                Instant.now().minusSeconds(60), Instant.now().plusSeconds(3600));
+
+        AtomicBoolean primeraCarga = new AtomicBoolean(true);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(invocacion -> {
+            if (primeraCarga.getAndSet(false)) {
+                // Otra petición quita el rol mientras esta todavía arma el principal con los datos leídos
+                cache.invalidar(USUARIO_ID);
+            }
+            return usuario();
+        });
+
+        cache.obtener(token);
+        UserDetails segunda = cache.obtener(token);
+        UserDetails tercera = cache.obtener(token);
+
+        assertThat(tercera).isSameAs(segunda);
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void sinInvalidacionesElPrincipalSeConstruyeDesdeLosClaims() {
+        TokenVerificado token = new TokenVerificado(EMAIL, USUARIO_ID, "Cajero", List.of("empleado"), List.of(3L),
+                Instant.now(), Instant.now().plusSeconds(3600));
+
+        UserDetails principal = cache.obtener(token);
+
+        assertThat(cache.obtener(token)).isSameAs(principal);
+        assertThat(principal.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_EMPLEADO");
+        verify(userDetailsService, times(0)).loadUserByUsername(EMAIL);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private UserDetails usuario() {
+        return User.builder().username(EMAIL).password("").authorities("ROLE_EMPLEADO").build();
+    }
+}
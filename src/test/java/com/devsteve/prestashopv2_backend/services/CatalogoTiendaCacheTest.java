@@ -0,0 +1,169 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.ProductoResponse;
+import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
+import com.devsteve.prestashopv2_backend.repositories.CategoriaRepository;
+import com.devsteve.prestashopv2_backend.repositories.ProductoRepository;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
+import com.devsteve.prestashopv2_backend.utils.mappers.CategoriaMapper;
+import com.devsteve.prestashopv2_backend.utils.mappers.ProductoMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Invalidación por versión y por tramo de vigencia, desalojo por peso y carga única por tienda
+ * del catálogo en memoria.
+ */
+class CatalogoTiendaCacheTest {
+
+    private static final int PRODUCTOS = 6;
+    private static final long VIGENCIA_MINUTOS = 60;
+
+    private final ProductoRepository productoRepository = mock(ProductoRepository.class);
+    private final CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+    private final ProductoMapper productoMapper = mock(ProductoMapper.class);
+    private final CategoriaMapper categoriaMapper = mock(CategoriaMapper.class);
+    // Reloj controlado por la prueba para cruzar tramos de vigencia sin esperar
+    private final AtomicLong ahora = new AtomicLong(TimeUnit.DAYS.toMillis(1));
+    private final VersionesCambio versionesCambio = new VersionesCambio(VIGENCIA_MINUTOS, ahora::get);
+
+    // Precio vigente "en la base de datos" en el momento de cargar
+    private final AtomicReference<BigDecimal> precio = new AtomicReference<>(BigDecimal.ONE);
+
+    @BeforeEach
+    void preparar() {
+        when(productoRepository.findByTiendaIdOrderByNombreAsc(anyLong()))
+                .thenAnswer(invocacion -> Collections.nCopies(PRODUCTOS, new ProductoEntity()));
+        when(productoMapper.toResponseList(anyList())).thenAnswer(invocacion -> {
+            BigDecimal vigente = precio.get();
+            return IntStream.rangeClosed(1, invocacion.<List<?>>getArgument(0).size())
+                    .mapToObj(id -> ProductoResponse.builder()
+                            .id((long) id).activo(true).precioUnitario(vigente).build())
+                    .toList();
+        });
+        when(categoriaMapper.toResponseList(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void cambioDePrecioInvalidaLaInstantaneaPorVersion() {
+        CatalogoTiendaCache cache = cache(200_000);
+
+        CatalogoTiendaCache.CatalogoTienda inicial = cache.obtener(1L);
+        assertThat(cache.obtener(1L)).isSameAs(inicial);
+
+        precio.set(new BigDecimal("2.50"));
+        cache.invalidar(1L);
+        CatalogoTiendaCache.CatalogoTienda recargado = cache.obtener(1L);
+
+        assertThat(recargado.version()).isGreaterThan(inicial.version());
+        assertThat(recargado.producto(1L).getPrecioUnitario()).isEqualByComparingTo("2.50");
+        assertThat(inicial.producto(1L).getPrecioUnitario()).isEqualByComparingTo(BigDecimal.ONE);
+        verify(productoRepository, times(2)).findByTiendaIdOrderByNombreAsc(1L);
+        assertThat(cache.obtenerEstadisticas())
+                .containsEntry("aciertos", 1L)
+                .containsEntry("recargasPorVersion", 1L);
+    }
+
+    @Test
+    void cambioHechoEnOtraInstanciaSeVeAlCambiarDeTramo() {
+        CatalogoTiendaCache cache = cache(200_000);
+        CatalogoTiendaCache.CatalogoTienda inicial = cache.obtener(1L);
+        String etagInicial = versionesCambio.etagCatalogo(1L);
+
+        // Otra instancia cambia el precio: aquí no se incrementa ningún contador
+        precio.set(new BigDecimal("2.50"));
+        ahora.addAndGet(TimeUnit.MINUTES.toMillis(VIGENCIA_MINUTOS) - 1);
+        assertThat(cache.obtener(1L)).isSameAs(inicial);
+        assertThat(versionesCambio.etagCatalogo(1L)).isEqualTo(etagInicial);
+
+        ahora.incrementAndGet();
+        CatalogoTiendaCache.CatalogoTienda recargado = cache.obtener(1L);
+
+        assertThat(versionesCambio.etagCatalogo(1L)).isNotEqualTo(etagInicial);
+        assertThat(recargado.version()).isEqualTo(inicial.version());
+        assertThat(recargado.tramo()).isGreaterThan(inicial.tramo());
+        assertThat(recargado.producto(1L).getPrecioUnitario()).isEqualByComparingTo("2.50");
+        verify(productoRepository, times(2)).findByTiendaIdOrderByNombreAsc(1L);
+    }
+
+    @Test
+    void pesoMaximoDesalojaCatalogosCompletos() throws InterruptedException {
+        // Cada catálogo pesa 1 + 6 productos: caben uno, no dos
+        CatalogoTiendaCache cache = cache(10);
+
+        cache.obtener(1L);
+        cache.obtener(2L);
+
+        // Caffeine aplica el desalojo en su mantenimiento, que puede ser asíncrono
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) cache.obtenerEstadisticas().get("desalojos") == 0 && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+
+        assertThat(cache.obtenerEstadisticas())
+                .containsEntry("desalojos", 1L)
+                .containsEntry("pesoDesalojado", (long) (PRODUCTOS + 1))
+                .containsEntry("tiendasEnCache", 1L)
+                .containsEntry("pesoEnCache", (long) (PRODUCTOS + 1));
+    }
+
+    @Test
+    void accesosSimultaneosCarganElCatalogoUnaSolaVez() throws Exception {
+        CatalogoTiendaCache cache = cache(200_000);
+        CountDownLatch cargando = new CountDownLatch(1);
+        when(productoRepository.findByTiendaIdOrderByNombreAsc(1L)).thenAnswer(invocacion -> {
+            cargando.countDown();
+            // Carga lenta: las demás peticiones llegan mientras sigue en curso
+            Thread.sleep(200);
+            return Collections.nCopies(PRODUCTOS, new ProductoEntity());
+        });
+
+        int hilos = 8;
+        ExecutorService peticiones = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<CatalogoTiendaCache.CatalogoTienda>> resultados = new ArrayList<>();
+            resultados.add(peticiones.submit(() -> cache.obtener(1L)));
+            assertThat(cargando.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < hilos; i++) {
+                resultados.add(peticiones.submit(() -> cache.obtener(1L)));
+            }
+
+            CatalogoTiendaCache.CatalogoTienda primero = resultados.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<CatalogoTiendaCache.CatalogoTienda> resultado : resultados) {
+                assertThat(resultado.get(10, TimeUnit.SECONDS)).isSameAs(primero);
+            }
+        } finally {
+            peticiones.shutdownNow();
+        }
+
+        verify(productoRepository, times(1)).findByTiendaIdOrderByNombreAsc(1L);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private CatalogoTiendaCache cache(long maxPeso) {
+        return new CatalogoTiendaCache(productoRepository, categoriaRepository, productoMapper, categoriaMapper,
+                versionesCambio, maxPeso, VIGENCIA_MINUTOS);
+    }
+}
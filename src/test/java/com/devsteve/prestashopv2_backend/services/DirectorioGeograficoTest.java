@@ -0,0 +1,98 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.dto.response.MunicipioResponse;
+import com.devsteve.prestashopv2_backend.models.entities.DepartamentoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.MunicipioEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.repositories.DepartamentoRepository;
+import com.devsteve.prestashopv2_backend.repositories.MunicipioRepository;
+import com.devsteve.prestashopv2_backend.repositories.TiendaRepository;
+import com.devsteve.prestashopv2_backend.utils.etag.VersionesCambio;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Construcción del índice geográfico a partir de datos como los de UbicacionesSeeder.
+ */
+class DirectorioGeograficoTest {
+
+    private final DepartamentoRepository departamentoRepository = mock(DepartamentoRepository.class);
+    private final MunicipioRepository municipioRepository = mock(MunicipioRepository.class);
+    private final TiendaRepository tiendaRepository = mock(TiendaRepository.class);
+
+    private DirectorioGeografico directorio;
+
+    @BeforeEach
+    void preparar() {
+        DepartamentoEntity cuscatlan = departamento(4, "Cuscatlán");
+        DepartamentoEntity cabanas = departamento(2, "Cabañas");
+        MunicipioEntity cojutepeque = municipio(40, cuscatlan, "Cojutepeque");
+        MunicipioEntity suchitoto = municipio(41, cuscatlan, "Suchitoto");
+        MunicipioEntity sensuntepeque = municipio(20, cabanas, "Sensuntepeque");
+        MunicipioEntity ilobasco = municipio(21, cabanas, "Ilobasco");
+
+        when(departamentoRepository.findAll()).thenReturn(List.of(cuscatlan, cabanas));
+        when(municipioRepository.findAll()).thenReturn(List.of(cojutepeque, suchitoto, sensuntepeque, ilobasco));
+        // La consulta ya viene ordenada por nombre de tienda
+        when(tiendaRepository.findByActivoTrueOrderByNombre()).thenReturn(List.of(
+                tienda(7L, "Abarrotes Lupita", cojutepeque),
+                tienda(3L, "Despensa Familiar", ilobasco),
+                tienda(9L, "Tienda Don Beto", cojutepeque)));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        directorio = new DirectorioGeografico(departamentoRepository, municipioRepository, tiendaRepository,
+                new VersionesCambio(60), transactionManager);
+        directorio.reconstruir();
+    }
+
+    @Test
+    void buscaPorPrefijoSinDistinguirTildesNiMayusculas() {
+        List<MunicipioResponse> encontrados = directorio.buscarMunicipios("SU", 10).orElseThrow();
+
+        assertThat(encontrados).extracting(MunicipioResponse::getNombre).containsExactly("Suchitoto");
+        assertThat(DirectorioGeografico.normalizar("Cabañas")).isEqualTo("cabanas");
+        assertThat(directorio.buscarMunicipios("co", 10).orElseThrow())
+                .extracting(MunicipioResponse::getNombre).containsExactly("Cojutepeque");
+        assertThat(directorio.buscarMunicipios("x", 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void conservaElOrdenDeTiendasYLosConteosPorMunicipio() {
+        assertThat(directorio.tiendasActivasDeMunicipio(40).orElseThrow()).containsExactly(7L, 9L);
+        assertThat(directorio.tiendasActivasDeDepartamento(4).orElseThrow()).containsExactly(7L, 9L);
+        assertThat(directorio.tiendasActivasDeDepartamento(2).orElseThrow()).containsExactly(3L);
+        assertThat(directorio.tiendasActivasDeMunicipio(999).orElseThrow()).isEmpty();
+
+        assertThat(directorio.listarMunicipiosDeDepartamento(2).orElseThrow())
+                .extracting(MunicipioResponse::getNombre, MunicipioResponse::getCantidadTiendas)
+                .containsExactly(
+                        Tuple.tuple("Ilobasco", 1),
+                        Tuple.tuple("Sensuntepeque", 0));
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static DepartamentoEntity departamento(int id, String nombre) {
+        return DepartamentoEntity.builder().id(id).nombre(nombre).build();
+    }
+
+    private static MunicipioEntity municipio(int id, DepartamentoEntity departamento, String nombre) {
+        return MunicipioEntity.builder().id(id).departamento(departamento).nombre(nombre).build();
+    }
+
+    private static TiendaEntity tienda(Long id, String nombre, MunicipioEntity municipio) {
+        return TiendaEntity.builder().id(id).nombre(nombre).municipio(municipio).build();
+    }
+}
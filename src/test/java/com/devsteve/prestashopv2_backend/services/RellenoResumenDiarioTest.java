@@ -0,0 +1,88 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.repositories.ResumenDiarioTiendaRepository.TotalesPeriodo;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una base con movimientos anteriores al resumen diario queda resumida al arrancar:
+ * los días sin fila se reconstruyen, los ya resumidos no se tocan y un segundo arranque no hace nada.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ResumenDiarioTiendaService.class, RellenoResumenDiario.class})
+class RellenoResumenDiarioTest extends PruebaPostgres {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private RellenoResumenDiario relleno;
+    @Autowired private ResumenDiarioTiendaService resumenDiarioTiendaService;
+
+    @Test
+    void diasConMovimientosSinResumenSeReconstruyenUnaVez() {
+        LocalDate hoy = LocalDate.now();
+        Semilla semilla = sembrar();
+        Long tiendaId = semilla.tiendaId();
+        Long operadorId = semilla.operadorId();
+
+        // Historial anterior al resumen: dos días seguidos y uno suelto, sin filas de resumen
+        movimiento(tiendaId, operadorId, "VENTA_REGISTRADA", "20.00", hoy.minusDays(10));
+        movimiento(tiendaId, operadorId, "ABONO_REGISTRADO", "5.00", hoy.minusDays(10));
+        movimiento(tiendaId, operadorId, "VENTA_REGISTRADA", "7.50", hoy.minusDays(9));
+        movimiento(tiendaId, operadorId, "VENTA_REGISTRADA", "3.00", hoy.minusDays(2));
+        // Día ya resumido (acumulado en línea): no cuenta como faltante
+        movimiento(tiendaId, operadorId, "VENTA_REGISTRADA", "1.00", hoy);
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> resumenDiarioTiendaService
+                .acumular(tiendaId, hoy, TipoEvento.VENTA_REGISTRADA, BigDecimal.ONE, null, null));
+
+        assertThat(relleno.completar()).isEqualTo(3);
+        assertThat(relleno.completar()).isZero();
+
+        TotalesPeriodo totales = resumenDiarioTiendaService.obtenerTotales(tiendaId, hoy.minusDays(10), hoy);
+        assertThat(totales.getTotalVentas()).isEqualByComparingTo("31.50");
+        assertThat(totales.getTotalAbonos()).isEqualByComparingTo("5.00");
+        assertThat(totales.getCantidadVentas()).isEqualTo(4L);
+        assertThat(totales.getCantidadAbonos()).isEqualTo(1L);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private record Semilla(Long tiendaId, Long operadorId) {
+    }
+
+    private Semilla sembrar() {
+        return new TransactionTemplate(transactionManager).execute(estado -> {
+            TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+            UsuarioEntity operador = SemillasPrueba.usuario(em.getEntityManager(), "Cajero");
+            return new Semilla(tienda.getId(), operador.getId());
+        });
+    }
+
+    private void movimiento(Long tiendaId, Long operadorId, String tipo, String monto, LocalDate fecha) {
+        jdbcTemplate.update("INSERT INTO movimientos_tienda (id, tienda_id, usuario_operador_id, tipo_evento, " +
+                        "descripcion, monto, fecha_evento, created_at) " +
+                        "VALUES (nextval('movimientos_tienda_seq'), ?, ?, ?, 'Histórico', ?, ?, now())",
+                tiendaId, operadorId, tipo, new BigDecimal(monto), fecha.atTime(12, 0));
+    }
+}
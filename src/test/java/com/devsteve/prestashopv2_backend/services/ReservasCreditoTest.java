@@ -0,0 +1,199 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.entities.CuentaClienteEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import com.devsteve.prestashopv2_backend.repositories.CuentaClienteRepository;
+import com.devsteve.prestashopv2_backend.repositories.TiendaRepository;
+import com.devsteve.prestashopv2_backend.repositories.UsuarioRepository;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
+import com.devsteve.prestashopv2_backend.services.metricas.MetricasNegocio;
+import com.devsteve.prestashopv2_backend.utils.mappers.CuentaClienteMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservas de crédito en memoria: límite por cuenta con cajas simultáneas, vencimiento y
+ * el destino de la reserva cuando la venta que la usa confirma o se revierte.
+ */
+class ReservasCreditoTest {
+
+    private static final Long CUENTA_ID = 5L;
+    private static final int HILOS = 16;
+    private static final int RESERVAS_POR_HILO = 50;
+
+    @AfterEach
+    void limpiarSincronizacion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reservasSimultaneasEnUnaCuentaNoSuperanElCredito() throws Exception {
+        ReservasCredito reservas = new ReservasCredito(900, 100_000);
+        BigDecimal credito = new BigDecimal("100.00");
+        AtomicInteger concedidas = new AtomicInteger();
+        ExecutorService cajas = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                tareas.add(cajas.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < RESERVAS_POR_HILO; i++) {
+                        reservas.reservar(CUENTA_ID, BigDecimal.ONE, credito).ifPresent(r -> concedidas.incrementAndGet());
+                    }
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            cajas.shutdownNow();
+        }
+
+        assertThat(concedidas.get()).isEqualTo(100);
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(credito);
+        // Otra cuenta no comparte el límite
+        assertThat(reservas.reservar(6L, BigDecimal.TEN, credito)).isPresent();
+    }
+
+    @Test
+    void reservaVencidaLiberaSuMonto() throws InterruptedException {
+        ReservasCredito reservas = new ReservasCredito(1, 100_000);
+        ReservasCredito.Reserva reserva = reservas.reservar(CUENTA_ID, BigDecimal.TEN, new BigDecimal("10.00")).orElseThrow();
+        assertThat(reservas.reservar(CUENTA_ID, BigDecimal.ONE, new BigDecimal("10.00"))).isEmpty();
+
+        // El planificador de Caffeine retira la reserva al vencer, sin otra operación sobre la caché
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (reservas.totalReservado(CUENTA_ID).signum() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(reservas.buscar(reserva.id())).isEmpty();
+        assertThatThrownBy(() -> reservas.tomar(reserva.id(), CUENTA_ID)).isInstanceOf(RuntimeException.class);
+        assertThat(reservas.reservar(CUENTA_ID, BigDecimal.TEN, new BigDecimal("10.00"))).isPresent();
+    }
+
+    @Test
+    void ventaRevertidaDevuelveLaReservaParaReintentar() {
+        ReservasCredito reservas = new ReservasCredito(900, 100_000);
+        CuentaClienteService servicio = servicio(reservas);
+        ReservasCredito.Reserva reserva = reservas.reservar(CUENTA_ID, BigDecimal.TEN, new BigDecimal("100.00")).orElseThrow();
+
+        cargarConReserva(servicio, reserva, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Sigue apartada para la cuenta y la misma venta puede volver a usarla
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(BigDecimal.TEN);
+        assertThat(reservas.tomar(reserva.id(), CUENTA_ID)).isSameAs(reserva);
+    }
+
+    @Test
+    void ventaConfirmadaRetiraLaReserva() {
+        ReservasCredito reservas = new ReservasCredito(900, 100_000);
+        CuentaClienteService servicio = servicio(reservas);
+        ReservasCredito.Reserva reserva = reservas.reservar(CUENTA_ID, BigDecimal.TEN, new BigDecimal("100.00")).orElseThrow();
+
+        cargarConReserva(servicio, reserva, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(reservas.buscar(reserva.id())).isEmpty();
+    }
+
+    @Test
+    void reservaEnUsoNoSePuedeLiberar() {
+        ReservasCredito reservas = new ReservasCredito(900, 100_000);
+        CuentaClienteService servicio = servicio(reservas);
+        ReservasCredito.Reserva reserva = reservas.reservar(CUENTA_ID, BigDecimal.TEN, new BigDecimal("100.00")).orElseThrow();
+
+        TransactionSynchronizationManager.initSynchronization();
+        servicio.cargarSaldoConReserva(CUENTA_ID, BigDecimal.TEN, reserva.id(), "Venta");
+
+        // Mientras la venta confirma, el monto sigue reservado para ella
+        assertThatThrownBy(() -> servicio.liberarReserva(CUENTA_ID, reserva.id()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("siendo usada");
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(BigDecimal.TEN);
+
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(reservas.liberar(reserva.id())).isFalse();
+    }
+
+    @Test
+    void reservaLiberadaYaNoLaPuedeTomarUnaVenta() {
+        ReservasCredito reservas = new ReservasCredito(900, 100_000);
+        ReservasCredito.Reserva reserva = reservas.reservar(CUENTA_ID, BigDecimal.TEN, new BigDecimal("100.00")).orElseThrow();
+
+        assertThat(reservas.liberar(reserva.id())).isTrue();
+
+        assertThat(reservas.totalReservado(CUENTA_ID)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThatThrownBy(() -> reservas.tomar(reserva.id(), CUENTA_ID)).isInstanceOf(RuntimeException.class);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private CuentaClienteService servicio(ReservasCredito reservas) {
+        CuentaClienteEntity cuenta = CuentaClienteEntity.builder()
+                .id(CUENTA_ID)
+                .usuario(UsuarioEntity.builder().id(9L).build())
+                .tienda(TiendaEntity.builder().id(3L).build())
+                .activa(true)
+                .limiteCredito(new BigDecimal("100.00"))
+                .saldoActual(BigDecimal.ZERO)
+                .build();
+
+        CuentaClienteRepository cuentaClienteRepository = mock(CuentaClienteRepository.class);
+        when(cuentaClienteRepository.findById(CUENTA_ID)).thenReturn(Optional.of(cuenta));
+        when(cuentaClienteRepository.cargarSiHayCredito(eq(CUENTA_ID), any(), any()))
+                .thenReturn(Optional.of(BigDecimal.TEN));
+
+        OperadorContext operadorContext = mock(OperadorContext.class);
+        when(operadorContext.esSysAdmin()).thenReturn(true);
+
+        return new CuentaClienteService(cuentaClienteRepository, mock(UsuarioRepository.class),
+                mock(TiendaRepository.class), mock(CuentaClienteMapper.class), operadorContext,
+                mock(EntityManager.class), reservas, new MetricasNegocio(new SimpleMeterRegistry(), 10));
+    }
+
+    // Simula la transacción de la venta: registra las sincronizaciones y las completa con el estado dado
+    private void cargarConReserva(CuentaClienteService servicio, ReservasCredito.Reserva reserva, int estado) {
+        TransactionSynchronizationManager.initSynchronization();
+        servicio.cargarSaldoConReserva(CUENTA_ID, BigDecimal.TEN, reserva.id(), "Venta");
+        assertThat(reserva.enUso()).isTrue();
+
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(estado));
+    }
+}
@@ -0,0 +1,197 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.dto.request.DetalleVentaRequest;
+import com.devsteve.prestashopv2_backend.models.dto.request.VentaRequest;
+import com.devsteve.prestashopv2_backend.models.dto.response.VentaResponse;
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.security.PrincipalOperador;
+import com.devsteve.prestashopv2_backend.utils.consultas.ContadorSentencias;
+import com.devsteve.prestashopv2_backend.utils.consultas.PresupuestoConsultas;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Presupuesto de consultas de VentaService.crear: los precios de todas las líneas salen de una
+ * sola consulta y los detalles se insertan por lotes, así que una venta de 50 líneas envía las
+ * mismas sentencias que una de una. Cada venta corre en su propia petición simulada, como
+ * en la caja, con el PrincipalOperador que arma JwtAuthenticationFilter en el SecurityContext.
+ * También mide sentencias enviadas frente a filas escritas con las secuencias pooled.
+ */
+@SpringBootTest
+@PresupuestoConsultas
+class VentaCreacionConsultasTest extends PruebaPostgres {
+
+    private static final int PRODUCTOS = 50;
+    private static final int SENTENCIAS_POR_VENTA = 8;
+
+    @DynamicPropertySource
+    static void configurar(DynamicPropertyRegistry registry) {
+        registry.add("jwt.secret-key", () -> "dmVudGEtY29uc3VsdGFzLWNsYXZlLWRlLXBydWViYS1zb2xvLXBhcmEtdGVzdHM=");
+        registry.add("admin.email", () -> "admin@consultas.test");
+        registry.add("admin.password", () -> "consultas");
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> "2525");
+        registry.add("spring.mail.username", () -> "");
+        registry.add("spring.mail.password", () -> "");
+        registry.add("app.mail.from", () -> "no-reply@consultas.test");
+        registry.add("app.name", () -> "PrestaShop consultas");
+        registry.add("cloudinary.cloud-name", () -> "consultas");
+        registry.add("cloudinary.api-key", () -> "consultas");
+        registry.add("cloudinary.api-secret", () -> "consultas");
+        registry.add("app.email-outbox.intervalo-ms", () -> "3600000");
+        registry.add("management.server.port", () -> "0");
+    }
+
+    @Autowired private VentaService ventaService;
+    @Autowired private EntityManager entityManager;
+    @Autowired private RolRepository rolRepository;
+    @Autowired private EmpleadoTiendaRepository empleadoTiendaRepository;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private PrincipalOperador cajeroAutenticado;
+    private List<Long> productos;
+
+    @BeforeEach
+    void sembrar() {
+        productos = new TransactionTemplate(transactionManager).execute(status -> {
+            TiendaEntity tienda = SemillasPrueba.tienda(entityManager);
+            UsuarioEntity cajero = SemillasPrueba.usuario(entityManager, "Cajero");
+            cajero.getRoles().add(rolRepository.findByNombre("EMPLEADO").orElseThrow());
+            empleadoTiendaRepository.save(EmpleadoTiendaEntity.builder()
+                    .usuario(cajero).tienda(tienda).activo(true).build());
+            // El mismo principal que JwtAuthenticationFilter arma desde los claims del token
+            cajeroAutenticado = new PrincipalOperador(cajero.getEmail(), "", true, cajero.getId(),
+                    List.of("EMPLEADO"), List.of(tienda.getId()));
+
+            List<ProductoEntity> catalogo = new ArrayList<>();
+            for (int i = 0; i < PRODUCTOS; i++) {
+                catalogo.add(ProductoEntity.builder()
+                        .tienda(tienda).nombre("Producto " + i)
+                        .precioUnitario(BigDecimal.ONE).precioVenta(BigDecimal.ONE)
+                        .build());
+            }
+            return productoRepository.saveAll(catalogo).stream().map(ProductoEntity::getId).toList();
+        });
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(cajeroAutenticado, null, cajeroAutenticado.getAuthorities()));
+
+        // Calentamiento: la tienda asignada entra en la caché de segundo nivel
+        vender(1);
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @PresupuestoConsultas(value = 3 * SENTENCIAS_POR_VENTA)
+    void sentenciasNoCrecenConLasLineasDeLaVenta() {
+        Map<Integer, Integer> sentenciasPorLineas = new LinkedHashMap<>();
+        for (int lineas : new int[]{1, 10, 50}) {
+            try (ContadorSentencias.Medicion medicion = ContadorSentencias.iniciar()) {
+                assertThat(vender(lineas).getDetalles()).hasSize(lineas);
+                // El pool de la secuencia (allocationSize 50) pide un bloque nuevo según por dónde vaya
+                sentenciasPorLineas.put(lineas, medicion.getTotal() - llamadasASecuencia(medicion));
+            }
+        }
+
+        assertThat(sentenciasPorLineas.get(1)).isLessThanOrEqualTo(SENTENCIAS_POR_VENTA);
+        assertThat(sentenciasPorLineas.values()).as("sentencias por número de líneas: %s", sentenciasPorLineas)
+                .containsOnly(sentenciasPorLineas.get(1));
+    }
+
+    @Test
+    @PresupuestoConsultas(value = SENTENCIAS_POR_VENTA)
+    void detallesSeEscribenEnUnSoloLote() {
+        try (ContadorSentencias.Medicion medicion = ContadorSentencias.iniciar()) {
+            vender(PRODUCTOS);
+
+            // 51 filas (venta + 50 detalles): el INSERT de la venta (IDENTITY) y un lote de
+            // detalles (hibernate.jdbc.batch_size = 50), que reWriteBatchedInserts envía multi-fila
+            List<Map.Entry<String, Integer>> inserts = medicion.repetidas(1).stream()
+                    .filter(sentencia -> sentencia.getKey().startsWith("insert"))
+                    .toList();
+            assertThat(inserts).extracting(Map.Entry::getValue).containsOnly(1);
+            assertThat(inserts).hasSize(2);
+            assertThat(llamadasASecuencia(medicion)).isLessThanOrEqualTo(2);
+        }
+    }
+
+    @Test
+    void preciosSalenDeLaBaseDeDatosAunqueLaInstantaneaEsteVieja() {
+        // Cambios hechos por otra instancia: esta no invalida su instantánea del catálogo
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ProductoEntity encarecido = productoRepository.findById(productos.get(0)).orElseThrow();
+            encarecido.setPrecioUnitario(new BigDecimal("2.50"));
+            ProductoEntity desactivado = productoRepository.findById(productos.get(1)).orElseThrow();
+            desactivado.setActivo(false);
+        });
+
+        assertThat(vender(1).getTotal()).isEqualByComparingTo("2.50");
+        assertThatThrownBy(() -> vender(2))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("no está disponible");
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private VentaResponse vender(int lineas) {
+        List<DetalleVentaRequest> detalles = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            DetalleVentaRequest detalle = new DetalleVentaRequest();
+            detalle.setProductoId(productos.get(i));
+            detalle.setCantidad(1);
+            detalles.add(detalle);
+        }
+        VentaRequest request = new VentaRequest();
+        request.setTipoVenta(TipoVenta.CONTADO);
+        request.setClienteOcasional("Cliente ocasional");
+        request.setDetalleVentas(detalles);
+
+        // Una petición por venta: OperadorContext es @RequestScope
+        ServletRequestAttributes peticion = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(peticion);
+        try {
+            return ventaService.crear(request);
+        } finally {
+            peticion.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static int llamadasASecuencia(ContadorSentencias.Medicion medicion) {
+        return medicion.repetidas(1).stream()
+                .filter(sentencia -> sentencia.getKey().contains("nextval("))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+}
@@ -0,0 +1,194 @@
+package com.devsteve.prestashopv2_backend.services;
+
+import com.devsteve.prestashopv2_backend.models.entities.DetalleVentaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.VentaEntity;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.devsteve.prestashopv2_backend.security.OperadorContext;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exportación de ventas contra PostgreSQL real: comillas y saltos de línea en CSV, una línea
+ * NDJSON por venta con sus detalles anidados, ventas sin detalles y los filtros de fecha y estado.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(VentaExportService.class)
+class VentaExportServiceTest extends PruebaPostgres {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 3, 10);
+
+    @MockBean private OperadorContext operadorContext;
+
+    @Autowired private TestEntityManager em;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private VentaExportService exportService;
+
+    private Semilla semilla;
+
+    @BeforeEach
+    void sembrar() {
+        when(operadorContext.esSysAdmin()).thenReturn(true);
+
+        semilla = new TransactionTemplate(transactionManager).execute(estado -> {
+            TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+            ProductoEntity arroz = producto(tienda, "Arroz, 1kg", "1.50");
+            ProductoEntity frijol = producto(tienda, "Frijol \"rojo\"", "2.00");
+
+            VentaEntity conDetalles = venta(tienda, "Pérez, \"Juan\"", "Entregar\nmañana",
+                    DIA.atTime(10, 0), EstadoVenta.PAGADA);
+            detalle(conDetalles, arroz, 2);
+            detalle(conDetalles, frijol, 1);
+            em.persist(conDetalles);
+
+            VentaEntity sinDetalles = venta(tienda, "Cliente de paso", null,
+                    DIA.atTime(11, 30), EstadoVenta.PENDIENTE);
+            em.persist(sinDetalles);
+
+            VentaEntity otroDia = venta(tienda, "Cliente del lunes", null,
+                    DIA.plusDays(1).atTime(9, 0), EstadoVenta.CANCELADA);
+            detalle(otroDia, arroz, 1);
+            em.persist(otroDia);
+
+            return new Semilla(tienda.getId(), conDetalles.getId(), sinDetalles.getId(), otroDia.getId(),
+                    arroz.getId(), frijol.getId());
+        });
+    }
+
+    @Test
+    void csvEntrecomillaComasComillasYSaltosDeLinea() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long ventas = exportService.exportar(semilla.tiendaId(), DIA, DIA, null, VentaExportService.Formato.CSV, salida);
+
+        assertThat(ventas).isEqualTo(2);
+        assertThat(salida.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "venta_id,fecha_venta,tipo_venta,estado,cliente,subtotal,total,observaciones," +
+                "producto_id,producto,cantidad,precio_unitario,detalle_subtotal\n" +
+                semilla.conDetalles() + ",2024-03-10T10:00,CONTADO,PAGADA,\"Pérez, \"\"Juan\"\"\",5.00,5.00," +
+                "\"Entregar\nmañana\"," + semilla.arrozId() + ",\"Arroz, 1kg\",2,1.50,3.00\n" +
+                semilla.conDetalles() + ",2024-03-10T10:00,CONTADO,PAGADA,\"Pérez, \"\"Juan\"\"\",5.00,5.00," +
+                "\"Entregar\nmañana\"," + semilla.frijolId() + ",\"Frijol \"\"rojo\"\"\",1,2.00,2.00\n" +
+                // Venta sin detalles: una línea con las columnas del detalle vacías
+                semilla.sinDetalles() + ",2024-03-10T11:30,CONTADO,PENDIENTE,Cliente de paso,0.00,0.00,,,,,,\n");
+    }
+
+    @Test
+    void ndjsonAgrupaLosDetallesDeCadaVentaEnUnaLinea() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long ventas = exportService.exportar(semilla.tiendaId(), null, null, null, VentaExportService.Formato.NDJSON, salida);
+
+        List<JsonNode> lineas = lineasJson(salida);
+        assertThat(ventas).isEqualTo(3);
+        assertThat(lineas).extracting(linea -> linea.get("id").asLong())
+                .containsExactly(semilla.conDetalles(), semilla.sinDetalles(), semilla.otroDia());
+
+        JsonNode conDetalles = lineas.get(0);
+        assertThat(conDetalles.get("cliente").asText()).isEqualTo("Pérez, \"Juan\"");
+        assertThat(conDetalles.get("observaciones").asText()).isEqualTo("Entregar\nmañana");
+        assertThat(conDetalles.get("detalles")).hasSize(2);
+        assertThat(conDetalles.get("detalles").get(0).get("productoId").asLong()).isEqualTo(semilla.arrozId());
+        assertThat(conDetalles.get("detalles").get(0).get("subtotal").decimalValue()).isEqualByComparingTo("3.00");
+        assertThat(conDetalles.get("detalles").get(1).get("producto").asText()).isEqualTo("Frijol \"rojo\"");
+
+        assertThat(lineas.get(1).get("detalles")).isEmpty();
+        assertThat(lineas.get(2).get("detalles")).hasSize(1);
+    }
+
+    @Test
+    void filtraPorRangoDeFechasYEstado() throws IOException {
+        assertThat(idsExportados(DIA.plusDays(1), null, null)).containsExactly(semilla.otroDia());
+        assertThat(idsExportados(null, DIA, null)).containsExactly(semilla.conDetalles(), semilla.sinDetalles());
+        assertThat(idsExportados(null, null, EstadoVenta.PENDIENTE)).containsExactly(semilla.sinDetalles());
+        assertThat(idsExportados(DIA, DIA, EstadoVenta.CANCELADA)).isEmpty();
+        assertThat(idsExportados(DIA.minusDays(5), DIA.minusDays(1), null)).isEmpty();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private record Semilla(Long tiendaId, Long conDetalles, Long sinDetalles, Long otroDia,
+                           Long arrozId, Long frijolId) {
+    }
+
+    private ProductoEntity producto(TiendaEntity tienda, String nombre, String precio) {
+        return em.persist(ProductoEntity.builder()
+                .tienda(tienda).nombre(nombre)
+                .precioUnitario(new BigDecimal(precio)).precioVenta(new BigDecimal(precio))
+                .build());
+    }
+
+    private static VentaEntity venta(TiendaEntity tienda, String cliente, String observaciones,
+                                     LocalDateTime fecha, EstadoVenta estado) {
+        return VentaEntity.builder()
+                .tienda(tienda)
+                .clienteOcasional(cliente)
+                .observaciones(observaciones)
+                .fechaVenta(fecha)
+                .tipoVenta(TipoVenta.CONTADO)
+                .estado(estado)
+                .subtotal(BigDecimal.ZERO)
+                .total(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static void detalle(VentaEntity venta, ProductoEntity producto, int cantidad) {
+        BigDecimal subtotal = producto.getPrecioUnitario().multiply(BigDecimal.valueOf(cantidad));
+        venta.getDetalleVentas().add(DetalleVentaEntity.builder()
+                .venta(venta).producto(producto).cantidad(cantidad)
+                .precioUnitario(producto.getPrecioUnitario()).subtotal(subtotal)
+                .build());
+        venta.setSubtotal(venta.getSubtotal().add(subtotal));
+        venta.setTotal(venta.getTotal().add(subtotal));
+    }
+
+    private List<Long> idsExportados(LocalDate desde, LocalDate hasta, EstadoVenta estado) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportService.exportar(semilla.tiendaId(), desde, hasta, estado, VentaExportService.Formato.NDJSON, salida);
+        return lineasJson(salida).stream().map(linea -> linea.get("id").asLong()).toList();
+    }
+
+    private List<JsonNode> lineasJson(ByteArrayOutputStream salida) throws IOException {
+        List<JsonNode> lineas = new ArrayList<>();
+        for (String linea : salida.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!linea.isEmpty()) {
+                lineas.add(objectMapper.readTree(linea));
+            }
+        }
+        return lineas;
+    }
+}
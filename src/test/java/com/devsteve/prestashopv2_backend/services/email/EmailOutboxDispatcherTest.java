@@ -0,0 +1,138 @@
+package com.devsteve.prestashopv2_backend.services.email;
+
+import com.devsteve.prestashopv2_backend.models.entities.EmailOutboxEntity;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoEmailOutbox;
+import com.devsteve.prestashopv2_backend.repositories.EmailOutboxRepository;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Despachador del outbox contra PostgreSQL real (FOR UPDATE SKIP LOCKED) y un servidor
+ * SMTP local de GreenMail.
+ */
+@DataJpaTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "app.mail.from=noreply@prestashop.test",
+        "app.name=PrestaShop",
+        "app.email-outbox.backoff-inicial-segundos=30"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({MailSenderAutoConfiguration.class, ThymeleafAutoConfiguration.class})
+@Import({EmailService.class, EmailOutboxService.class, EmailOutboxEstadisticas.class, EmailOutboxDispatcher.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest extends PruebaPostgres {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private EmailOutboxService outboxService;
+    @Autowired private EmailOutboxDispatcher dispatcher;
+    @Autowired private EmailOutboxRepository outboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void limpiarOutbox() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void despacharEnviaLosCorreosEncoladosYLosMarcaEnviados() throws Exception {
+        encolarFactura("cliente1@correo.com", "Arroz 1kg");
+        encolarFactura("cliente2@correo.com", "Frijol 1kg");
+
+        dispatcher.despachar();
+
+        MimeMessage[] recibidos = greenMail.getReceivedMessages();
+        assertThat(recibidos).hasSize(2);
+        assertThat(GreenMailUtil.getBody(recibidos[0]) + GreenMailUtil.getBody(recibidos[1]))
+                .contains("Arroz 1kg", "Frijol 1kg");
+        assertThat(outboxRepository.countByEstado(EstadoEmailOutbox.ENVIADO)).isEqualTo(2);
+        assertThat(outboxRepository.countByEstado(EstadoEmailOutbox.PENDIENTE)).isZero();
+    }
+
+    @Test
+    void reclamarLoteSaltaLasFilasBloqueadasPorOtroDespachador() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            encolarFactura("cliente" + i + "@correo.com", "Producto " + i);
+        }
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        List<Long> reclamadosPorOtro = transaccion.execute(estado -> {
+            List<EmailOutboxEntity> bloqueados = outboxRepository.reclamarPendientes(LocalDateTime.now(), 1);
+            try {
+                // Mientras esta transacción mantiene el bloqueo, otro despachador reclama en paralelo
+                return CompletableFuture.supplyAsync(() -> outboxService.reclamarLote(10))
+                        .get(10, TimeUnit.SECONDS)
+                        .stream()
+                        .map(EmailOutboxEntity::getId)
+                        .filter(id -> bloqueados.stream().noneMatch(b -> b.getId().equals(id)))
+                        .toList();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(reclamadosPorOtro).hasSize(2);
+    }
+
+    @Test
+    void unFalloDeEnvioReprogramaElCorreoConBackoff() {
+        greenMail.stop();
+        encolarFactura("cliente@correo.com", "Azúcar 1kg");
+
+        dispatcher.despachar();
+
+        EmailOutboxEntity correo = outboxRepository.findAll().get(0);
+        assertThat(correo.getEstado()).isEqualTo(EstadoEmailOutbox.PENDIENTE);
+        assertThat(correo.getIntentos()).isEqualTo(1);
+        assertThat(correo.getUltimoError()).isNotBlank();
+        assertThat(correo.getProximoIntento()).isAfter(LocalDateTime.now().plusSeconds(20));
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private void encolarFactura(String destinatario, String producto) {
+        Map<String, Object> detalle = Map.of(
+                "producto", Map.of("nombre", producto),
+                "cantidad", 1,
+                "precioUnitario", "$1.00",
+                "subtotal", "$1.00");
+
+        outboxService.encolar(destinatario, "Factura de Compra", "factura-venta", Map.of(
+                "numeroVenta", 1,
+                "nombreCliente", "Cliente",
+                "nombreTienda", "Tienda",
+                "fechaVenta", "01/01/2025 10:00",
+                "tipoVenta", "CONTADO",
+                "estado", "PAGADA",
+                "subtotal", "$1.00",
+                "total", "$1.00",
+                "detalles", List.of(detalle)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.devsteve.prestashopv2_backend.services.email;
+
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.devsteve.prestashopv2_backend.repositories.*;
+import com.devsteve.prestashopv2_backend.utils.consultas.PresupuestoConsultas;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Presupuesto de consultas de la factura: recorrer los detalles de una venta recién leída
+ * carga sus productos en un solo lote (default_batch_fetch_size), no uno por línea.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@PresupuestoConsultas(repeticionesMaximas = 1)
+class FacturaVentaConsultasTest extends PruebaPostgres {
+
+    private static final int LINEAS = 8;
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private VentaRepository ventaRepository;
+
+    private TransactionTemplate tx;
+    private Long ventaId;
+
+    @BeforeEach
+    void sembrar() {
+        tx = new TransactionTemplate(transactionManager);
+
+        ventaId = tx.execute(status -> {
+            TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+
+            VentaEntity venta = VentaEntity.builder()
+                    .tienda(tienda)
+                    .tipoVenta(TipoVenta.CONTADO)
+                    .estado(EstadoVenta.PAGADA)
+                    .subtotal(BigDecimal.valueOf(LINEAS))
+                    .total(BigDecimal.valueOf(LINEAS))
+                    .build();
+            for (int i = 0; i < LINEAS; i++) {
+                ProductoEntity producto = productoRepository.save(ProductoEntity.builder()
+                        .tienda(tienda).nombre("Producto " + i)
+                        .precioUnitario(BigDecimal.ONE).precioVenta(BigDecimal.ONE)
+                        .build());
+                venta.getDetalleVentas().add(DetalleVentaEntity.builder()
+                        .venta(venta).producto(producto).cantidad(1)
+                        .precioUnitario(BigDecimal.ONE).subtotal(BigDecimal.ONE)
+                        .build());
+            }
+            return ventaRepository.save(venta).getId();
+        });
+
+        // Sin caché de segundo nivel: se mide la lectura completa desde la base de datos
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @PresupuestoConsultas(value = 4, repeticionesMaximas = 1)
+    void variablesDeFacturaCarganLosProductosEnUnLote() {
+        // venta, tienda, detalles y un lote de productos
+        Map<String, Object> variables = tx.execute(status ->
+                VentaEmailService.variablesFactura(ventaRepository.findById(ventaId).orElseThrow(), "Cliente"));
+
+        assertThat((List<?>) variables.get("detalles")).hasSize(LINEAS);
+    }
+}
@@ -0,0 +1,47 @@
+package com.devsteve.prestashopv2_backend.services.metricas;
+
+import com.devsteve.prestashopv2_backend.models.enums.EstadoVenta;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricasNegocioTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasNegocio metricas = new MetricasNegocio(registry, 2);
+
+    @Test
+    void agrupaLasTiendasQueExcedenElLimiteDeEtiquetas() {
+        assertThat(metricas.etiquetaTienda(10L)).isEqualTo("10");
+        assertThat(metricas.etiquetaTienda(20L)).isEqualTo("20");
+        assertThat(metricas.etiquetaTienda(30L)).isEqualTo(MetricasNegocio.OTRAS_TIENDAS);
+        assertThat(metricas.etiquetaTienda(10L)).isEqualTo("10");
+        assertThat(metricas.etiquetaTienda(null)).isEqualTo(MetricasNegocio.SIN_TIENDA);
+    }
+
+    @Test
+    void mideExitosYErroresPorSeparado() {
+        metricas.medir(MetricasNegocio.VENTA_CREACION, 10L, () -> "ok");
+        assertThatThrownBy(() -> metricas.medir(MetricasNegocio.VENTA_CREACION, 10L, () -> {
+            throw new RuntimeException("La cuenta no está activa");
+        })).hasMessage("La cuenta no está activa");
+
+        assertThat(registry.get(MetricasNegocio.VENTA_CREACION).tags("tienda", "10", "resultado", "exito").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(MetricasNegocio.VENTA_CREACION).tags("tienda", "10", "resultado", "error").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void cuentaVentasPorTipoYEstadoSinTransaccionActiva() {
+        metricas.registrarVenta(10L, TipoVenta.CREDITO, EstadoVenta.PENDIENTE);
+        metricas.registrarVenta(10L, TipoVenta.CREDITO, EstadoVenta.PENDIENTE);
+
+        assertThat(registry.get(MetricasNegocio.VENTAS)
+                .tags("tienda", "10", "tipo", "CREDITO", "estado", "PENDIENTE").counter().count())
+                .isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,154 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Desvío de la cola de movimientos al respaldo en disco (cola llena, base de datos caída, apagado)
+ * y aislamiento en cuarentena de las filas que la base de datos rechaza.
+ */
+class ColaMovimientosTest {
+
+    @TempDir
+    Path directorio;
+
+    private final MovimientoTiendaEscritor escritor = mock(MovimientoTiendaEscritor.class);
+    private final RespaldoMovimientos respaldo = mock(RespaldoMovimientos.class);
+
+    @Test
+    void colaLlenaEnviaElEventoAlRespaldoSinBloquear() {
+        // Sin iniciar el hilo: nada consume la cola
+        ColaMovimientos cola = new ColaMovimientos(cuarentena(), respaldo, 1, 200, 500, 1000);
+        EventoMovimiento primero = evento(1L);
+        EventoMovimiento segundo = evento(2L);
+        EventoMovimiento tercero = evento(3L);
+
+        cola.publicar(primero);
+        cola.publicar(segundo);
+        cola.publicar(tercero);
+
+        assertThat(cola.pendientes()).isEqualTo(1);
+        verify(respaldo).guardar(List.of(segundo));
+        verify(respaldo).guardar(List.of(tercero));
+        verify(respaldo, never()).guardar(List.of(primero));
+        verify(escritor, never()).escribir(anyCollection());
+    }
+
+    @Test
+    void errorDeEscrituraEnviaElLoteAlRespaldo() throws InterruptedException {
+        when(escritor.escribir(anyCollection())).thenThrow(new DataAccessResourceFailureException("sin conexión"));
+        ColaMovimientos cola = new ColaMovimientos(cuarentena(), respaldo, 10, 200, 10, 1000);
+        cola.iniciar();
+        EventoMovimiento evento = evento(1L);
+
+        // guardar es synchronized: verify(timeout) retendría el monitor y bloquearía al hilo de la cola
+        CountDownLatch respaldado = new CountDownLatch(1);
+        doAnswer(invocacion -> {
+            respaldado.countDown();
+            return null;
+        }).when(respaldo).guardar(anyCollection());
+
+        cola.publicar(evento);
+
+        assertThat(respaldado.await(2, TimeUnit.SECONDS)).isTrue();
+        verify(respaldo).guardar(List.of(evento));
+        cola.detener();
+    }
+
+    @Test
+    void apagadoRespaldaLoQueQuedaEnLaCola() throws InterruptedException {
+        ColaMovimientos cola = new ColaMovimientos(cuarentena(), respaldo, 10, 200, 500, 1000);
+        cola.iniciar();
+        // Apagado inmediato: el hilo no llega a escribir lo que entra después
+        cola.detener();
+        EventoMovimiento evento = evento(1L);
+
+        cola.publicar(evento);
+
+        verify(respaldo).guardar(List.of(evento));
+        verify(escritor, never()).escribir(anyCollection());
+    }
+
+    @Test
+    void filaRechazadaVaACuarentenaSinDetenerAlRestoDelLote() throws Exception {
+        EventoMovimiento bueno = evento(1L);
+        EventoMovimiento malo = evento(2L);
+        EventoMovimiento otro = evento(3L);
+        CountDownLatch escritos = new CountDownLatch(1);
+        when(escritor.escribir(anyCollection())).thenAnswer(invocacion -> {
+            Collection<EventoMovimiento> lote = invocacion.getArgument(0);
+            if (lote.contains(malo)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            if (lote.contains(otro)) {
+                escritos.countDown();
+            }
+            return lote.size();
+        });
+        CuarentenaMovimientos cuarentena = cuarentena();
+        ColaMovimientos cola = new ColaMovimientos(cuarentena, respaldo, 10, 3, 200, 1000);
+
+        cola.publicar(bueno);
+        cola.publicar(malo);
+        cola.publicar(otro);
+        cola.iniciar();
+
+        assertThat(escritos.await(2, TimeUnit.SECONDS)).isTrue();
+        cola.detener();
+
+        verify(escritor).escribir(List.of(bueno));
+        verify(escritor).escribir(List.of(otro));
+        verify(respaldo, never()).guardar(anyCollection());
+        assertThat(cuarentena.apartados()).isEqualTo(1);
+        assertThat(Files.readAllLines(directorio.resolve(CuarentenaMovimientos.ARCHIVO)))
+                .singleElement().asString().contains("Venta #2");
+    }
+
+    @Test
+    void errorDeDiscoTrasElCommitNoLlegaALaVenta() {
+        doThrow(new UncheckedIOException(new IOException("disco lleno"))).when(respaldo).guardar(anyCollection());
+        ColaMovimientos cola = new ColaMovimientos(cuarentena(), respaldo, 1, 200, 500, 1000);
+        EventoMovimiento sinEspacio = evento(2L);
+        cola.publicar(evento(1L));
+
+        assertThatCode(() -> cola.publicar(sinEspacio)).doesNotThrowAnyException();
+        verify(respaldo).guardar(List.of(sinEspacio));
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private CuarentenaMovimientos cuarentena() {
+        return new CuarentenaMovimientos(escritor, new ObjectMapper().findAndRegisterModules(), directorio.toString());
+    }
+
+    private EventoMovimiento evento(Long ventaId) {
+        return new EventoMovimiento(1L, 2L, null, TipoEvento.VENTA_REGISTRADA, "Venta #" + ventaId,
+                BigDecimal.TEN, ventaId, "ventas", TipoVenta.CONTADO, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,146 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.devsteve.prestashopv2_backend.models.entities.*;
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.devsteve.prestashopv2_backend.services.ResumenDiarioTiendaService;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotencia real contra PostgreSQL: el índice lo crea IndiceIdempotenciaMovimientos sobre el
+ * esquema de ddl-auto, y reescribir un lote o reproducir el respaldo no duplica movimientos ni
+ * vuelve a acumularlos en resumen_diario_tienda.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({IndiceIdempotenciaMovimientos.class, MovimientoTiendaEscritor.class, CuarentenaMovimientos.class,
+        RespaldoMovimientos.class, ResumenDiarioTiendaService.class})
+class MovimientosIdempotenciaTest extends PruebaPostgres {
+
+    @TempDir
+    static Path directorioRespaldo;
+
+    @DynamicPropertySource
+    static void configurarRespaldo(DynamicPropertyRegistry registry) {
+        registry.add("app.movimientos.directorio-respaldo", () -> directorioRespaldo.toString());
+    }
+
+    @Autowired private TestEntityManager em;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private MovimientoTiendaEscritor escritor;
+    @Autowired private RespaldoMovimientos respaldo;
+    @Autowired private IndiceIdempotenciaMovimientos indice;
+
+    @Test
+    void reescribirYReproducirElRespaldoNoDuplicaNiReacumula() throws IOException {
+        Semilla semilla = sembrar();
+        List<EventoMovimiento> lote = List.of(
+                evento(semilla, TipoEvento.VENTA_REGISTRADA, "ventas", 1001L, TipoVenta.CONTADO, "12.50"),
+                evento(semilla, TipoEvento.VENTA_REGISTRADA, "ventas", 1002L, TipoVenta.CREDITO, "30.00"),
+                evento(semilla, TipoEvento.ABONO_REGISTRADO, "abonos", 2001L, null, "10.00"));
+
+        assertThat(escritor.escribir(lote)).isEqualTo(3);
+        List<Map<String, Object>> resumen = resumenDe(semilla.tiendaId());
+
+        // Reintento del mismo lote, como tras un timeout del hilo de la cola
+        assertThat(escritor.escribir(lote)).isZero();
+
+        // Reproducción del respaldo con los mismos eventos
+        respaldo.guardar(lote);
+        respaldo.reproducir();
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM movimientos_tienda WHERE tienda_id = ? " +
+                "GROUP BY referencia_tabla, referencia_id, tipo_evento", Long.class, semilla.tiendaId()))
+                .hasSize(3)
+                .containsOnly(1L);
+        assertThat(resumenDe(semilla.tiendaId())).isEqualTo(resumen);
+        assertThat(resumen).singleElement().satisfies(fila -> {
+            assertThat((BigDecimal) fila.get("total_ventas")).isEqualByComparingTo("42.50");
+            assertThat((BigDecimal) fila.get("total_abonos")).isEqualByComparingTo("10.00");
+            assertThat(fila.get("cantidad_ventas")).isEqualTo(2L);
+        });
+        try (Stream<Path> pendientes = Files.list(directorioRespaldo)) {
+            assertThat(pendientes).isEmpty();
+        }
+    }
+
+    @Test
+    void sinIndiceValidoNoArranca() {
+        Semilla semilla = sembrar();
+        EventoMovimiento venta = evento(semilla, TipoEvento.VENTA_REGISTRADA, "ventas", 3001L, TipoVenta.CONTADO, "5.00");
+        jdbcTemplate.execute("DROP INDEX " + IndiceIdempotenciaMovimientos.NOMBRE);
+        try {
+            escritor.escribir(List.of(venta));
+            escritor.escribir(List.of(venta));
+
+            assertThatThrownBy(indice::asegurar)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining(IndiceIdempotenciaMovimientos.NOMBRE);
+        } finally {
+            jdbcTemplate.update("DELETE FROM movimientos_tienda WHERE tienda_id = ?", semilla.tiendaId());
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + IndiceIdempotenciaMovimientos.NOMBRE);
+            indice.asegurar();
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private record Semilla(Long tiendaId, Long operadorId, Long clienteId) {
+    }
+
+    private Semilla sembrar() {
+        return new TransactionTemplate(transactionManager).execute(estado -> {
+            TiendaEntity tienda = SemillasPrueba.tienda(em.getEntityManager());
+            UsuarioEntity operador = SemillasPrueba.usuario(em.getEntityManager(), "Cajero");
+            UsuarioEntity cliente = SemillasPrueba.usuario(em.getEntityManager(), "Cliente");
+            return new Semilla(tienda.getId(), operador.getId(), cliente.getId());
+        });
+    }
+
+    private EventoMovimiento evento(Semilla semilla, TipoEvento tipo, String tabla, Long referenciaId,
+                                    TipoVenta tipoVenta, String monto) {
+        return new EventoMovimiento(semilla.tiendaId(), semilla.operadorId(), semilla.clienteId(), tipo,
+                tipo + " #" + referenciaId, new BigDecimal(monto), referenciaId, tabla, tipoVenta,
+                LocalDateTime.now());
+    }
+
+    private List<Map<String, Object>> resumenDe(Long tiendaId) {
+        return jdbcTemplate.queryForList(
+                "SELECT fecha, total_ventas, total_ventas_credito, total_abonos, cantidad_ventas, " +
+                "cantidad_abonos, clientes_distintos FROM resumen_diario_tienda WHERE tienda_id = ? ORDER BY fecha",
+                tiendaId);
+    }
+}
@@ -0,0 +1,97 @@
+package com.devsteve.prestashopv2_backend.services.movimientos;
+
+import com.devsteve.prestashopv2_backend.models.enums.TipoEvento;
+import com.devsteve.prestashopv2_backend.models.enums.TipoVenta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reproducción del respaldo en disco: una fila rechazada por la base de datos no bloquea su
+ * archivo ni los siguientes, y un error transitorio conserva los archivos para el próximo intento.
+ */
+class RespaldoMovimientosTest {
+
+    @TempDir
+    Path directorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MovimientoTiendaEscritor escritor = mock(MovimientoTiendaEscritor.class);
+    private CuarentenaMovimientos cuarentena;
+    private RespaldoMovimientos respaldo;
+
+    @BeforeEach
+    void preparar() {
+        cuarentena = new CuarentenaMovimientos(escritor, objectMapper, directorio.toString());
+        respaldo = new RespaldoMovimientos(cuarentena, objectMapper, directorio.toString(), 2);
+    }
+
+    @Test
+    void filaRechazadaVaACuarentenaYElRespaldoSeVacia() throws IOException {
+        List<Long> escritos = new ArrayList<>();
+        when(escritor.escribir(anyCollection())).thenAnswer(invocacion -> {
+            Collection<EventoMovimiento> lote = invocacion.getArgument(0);
+            if (lote.stream().anyMatch(evento -> evento.referenciaId() == 2L)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            lote.forEach(evento -> escritos.add(evento.referenciaId()));
+            return lote.size();
+        });
+
+        // Dos archivos: el primero con la fila rechazada en medio, el segundo sano
+        respaldo.guardar(List.of(evento(1L), evento(2L), evento(3L)));
+        respaldo.reproducir();
+        respaldo.guardar(List.of(evento(4L)));
+        respaldo.reproducir();
+
+        assertThat(escritos).containsExactly(1L, 3L, 4L);
+        assertThat(cuarentena.apartados()).isEqualTo(1);
+        assertThat(archivos()).containsExactly(CuarentenaMovimientos.ARCHIVO);
+        assertThat(objectMapper.readValue(Files.readString(directorio.resolve(CuarentenaMovimientos.ARCHIVO)),
+                EventoMovimiento.class).referenciaId()).isEqualTo(2L);
+    }
+
+    @Test
+    void errorTransitorioConservaElRespaldo() throws IOException {
+        when(escritor.escribir(anyCollection())).thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        respaldo.guardar(List.of(evento(1L), evento(2L)));
+        respaldo.reproducir();
+
+        assertThat(cuarentena.apartados()).isZero();
+        assertThat(archivos()).singleElement().asString().startsWith("reproduciendo-");
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private Set<String> archivos() throws IOException {
+        try (Stream<Path> contenido = Files.list(directorio)) {
+            return contenido.map(archivo -> archivo.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private EventoMovimiento evento(Long ventaId) {
+        return new EventoMovimiento(1L, 2L, null, TipoEvento.VENTA_REGISTRADA, "Venta #" + ventaId,
+                BigDecimal.TEN, ventaId, "ventas", TipoVenta.CONTADO, LocalDateTime.now());
+    }
+}
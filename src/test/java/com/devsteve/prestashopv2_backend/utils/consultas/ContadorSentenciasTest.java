@@ -0,0 +1,55 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContadorSentenciasTest {
+
+    private static final String SELECT_PRODUCTO = "select p.nombre from productos p where p.id=?";
+
+    @Test
+    void cuentaSentenciasPorSqlEnMedicionesAnidadas() throws Exception {
+        DataSource destino = mock(DataSource.class);
+        Connection conexion = mock(Connection.class);
+        when(destino.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString())).thenAnswer(invocacion -> mock(PreparedStatement.class));
+        when(conexion.createStatement()).thenAnswer(invocacion -> mock(Statement.class));
+
+        Connection contada = new DataSourceContador(destino).getConnection();
+        // Fuera de una medición no se acumula nada
+        contada.createStatement().execute("select 1");
+
+        try (ContadorSentencias.Medicion externa = ContadorSentencias.iniciar()) {
+            for (int i = 0; i < 3; i++) {
+                contada.prepareStatement(SELECT_PRODUCTO).executeQuery();
+            }
+
+            try (ContadorSentencias.Medicion interna = ContadorSentencias.iniciar()) {
+                PreparedStatement insercion = contada.prepareStatement("insert into abonos (id) values (?)");
+                insercion.addBatch();
+                insercion.addBatch();
+                insercion.executeBatch();
+                contada.createStatement().executeUpdate("delete from abonos");
+
+                assertThat(interna.getTotal()).isEqualTo(2);
+                assertThat(interna.maximoRepeticiones()).isEqualTo(1);
+            }
+
+            assertThat(externa.getTotal()).isEqualTo(5);
+            assertThat(externa.maximoRepeticiones()).isEqualTo(3);
+            assertThat(externa.repetidas(2)).singleElement()
+                    .satisfies(repetida -> assertThat(repetida.getKey()).isEqualTo(SELECT_PRODUCTO));
+        }
+
+        assertThat(contada).isEqualTo(contada).isNotEqualTo(conexion);
+    }
+}
@@ -0,0 +1,35 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import com.devsteve.prestashopv2_backend.config.ContadorSentenciasConfig;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Presupuesto de sentencias JDBC de un método de prueba. En la clase instala DataSourceContador
+ * en el contexto de Spring y fija el presupuesto por defecto; en un método lo reemplaza.
+ * Solo cuenta el cuerpo del método (no @BeforeEach) y solo el hilo de la prueba: con MockMvc
+ * entra la petición completa, con un servidor real (RANDOM_PORT) no.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(PresupuestoConsultasExtension.class)
+@Import(ContadorSentenciasConfig.class)
+@TestPropertySource(properties = "app.consultas.contador.habilitado=true")
+public @interface PresupuestoConsultas {
+
+    /**
+     * Máximo de sentencias que puede ejecutar el método.
+     */
+    int value() default Integer.MAX_VALUE;
+
+    /**
+     * Máximo de ejecuciones de una misma sentencia; 1 prohíbe cualquier N+1.
+     */
+    int repeticionesMaximas() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,56 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Mide las sentencias del método de prueba y falla si exceden su @PresupuestoConsultas,
+ * listando las sentencias ejecutadas de la más a la menos repetida.
+ */
+public class PresupuestoConsultasExtension implements InvocationInterceptor {
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+                                    ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        PresupuestoConsultas presupuesto = AnnotationSupport
+                .findAnnotation(extensionContext.getRequiredTestMethod(), PresupuestoConsultas.class)
+                .or(() -> AnnotationSupport.findAnnotation(extensionContext.getRequiredTestClass(), PresupuestoConsultas.class))
+                .orElseThrow();
+
+        DataSource dataSource = SpringExtension.getApplicationContext(extensionContext).getBean(DataSource.class);
+        if (!(dataSource instanceof DataSourceContador)) {
+            throw new IllegalStateException("El DataSource no cuenta sentencias: anote la clase de prueba con @PresupuestoConsultas");
+        }
+
+        ContadorSentencias.Medicion medicion = ContadorSentencias.iniciar();
+        try {
+            invocation.proceed();
+        } finally {
+            medicion.close();
+        }
+
+        if (medicion.getTotal() > presupuesto.value() || medicion.maximoRepeticiones() > presupuesto.repeticionesMaximas()) {
+            throw new AssertionError(detalle(medicion, presupuesto));
+        }
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static String detalle(ContadorSentencias.Medicion medicion, PresupuestoConsultas presupuesto) {
+        StringBuilder mensaje = new StringBuilder(String.format(
+                "Presupuesto de consultas excedido: %d sentencias (máximo %d), hasta %d repeticiones (máximo %d)%n",
+                medicion.getTotal(), presupuesto.value(), medicion.maximoRepeticiones(), presupuesto.repeticionesMaximas()));
+        for (Map.Entry<String, Integer> sentencia : medicion.repetidas(1)) {
+            mensaje.append(String.format("  %dx %s%n", sentencia.getValue(), sentencia.getKey()));
+        }
+        return mensaje.toString();
+    }
+}
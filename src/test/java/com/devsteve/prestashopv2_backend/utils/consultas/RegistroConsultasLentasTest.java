@@ -0,0 +1,33 @@
+package com.devsteve.prestashopv2_backend.utils.consultas;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistroConsultasLentasTest {
+
+    @Test
+    void redactaLiteralesSinTocarIdentificadoresNiParametros() {
+        String sql = """
+                select c1_0.id, c1_0.saldo_actual from cuentas_cliente c1_0
+                where c1_0.nombre = 'O''Brien' and c1_0.limite_credito > 150.50 and c1_0.tienda_id = ?
+                limit 20""";
+
+        assertThat(RegistroConsultasLentas.redactar(sql)).isEqualTo(
+                "select c1_0.id, c1_0.saldo_actual from cuentas_cliente c1_0 " +
+                "where c1_0.nombre = ? and c1_0.limite_credito > ? and c1_0.tienda_id = ? limit ?");
+    }
+
+    @Test
+    void cuentaTodasLasConsultasLentasAunqueNoSeMuestreen() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RegistroConsultasLentas registro = new RegistroConsultasLentas(registry, 100, 0.0);
+
+        registro.registrar("select 1", 50_000_000L);
+        registro.registrar("select 1", 150_000_000L);
+        registro.registrar(null, 300_000_000L);
+
+        assertThat(registry.get("prestashop.consultas.lentas").counter().count()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.devsteve.prestashopv2_backend.utils.esquema;
+
+import com.devsteve.prestashopv2_backend.models.entities.ProductoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.repositories.ProductoRepository;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import com.devsteve.prestashopv2_backend.utils.pruebas.SemillasPrueba;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una base con ids por delante de la secuencia (migrada desde IDENTITY o cargada con ids
+ * explícitos) queda alineada al arrancar, y una secuencia ya alineada no se vuelve a mover.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(AlineacionSecuencias.class)
+class AlineacionSecuenciasTest extends PruebaPostgres {
+
+    private static final long ID_EXISTENTE = 10_000;
+
+    @Autowired private TestEntityManager em;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private AlineacionSecuencias alineacion;
+
+    @Test
+    void secuenciaAtrasadaSeAdelantaUnaSolaVez() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        TiendaEntity tienda = tx.execute(estado -> SemillasPrueba.tienda(em.getEntityManager()));
+        // Fila con id explícito, como las que dejó IDENTITY antes de pasar a secuencias
+        jdbcTemplate.update("INSERT INTO productos (id, tienda_id, nombre, precio_venta, precio_unitario, activo) " +
+                "VALUES (?, ?, 'Heredado', 1, 1, true)", ID_EXISTENTE, tienda.getId());
+
+        alineacion.alinear();
+        long alineada = ultimoValor();
+        alineacion.alinear();
+
+        assertThat(alineada).isEqualTo(ID_EXISTENTE + AlineacionSecuencias.INCREMENTO);
+        assertThat(ultimoValor()).isEqualTo(alineada);
+
+        ProductoEntity nuevo = tx.execute(estado -> productoRepository.save(ProductoEntity.builder()
+                .tienda(tienda).nombre("Nuevo").precioVenta(BigDecimal.ONE).precioUnitario(BigDecimal.ONE).build()));
+        assertThat(nuevo.getId()).isGreaterThan(ID_EXISTENTE);
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private long ultimoValor() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM productos_seq", Long.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.devsteve.prestashopv2_backend.utils.etag;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El 304 se decide solo con el ETag: el proveedor del cuerpo no se invoca.
+ */
+class RespuestaCondicionalTest {
+
+    private static final String ETAG = "\"cat-abc-7-3\"";
+
+    @Test
+    void respondeNotModifiedSinCargarElCuerpo() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        ResponseEntity<List<String>> respuesta = RespuestaCondicional.conEtag(ETAG, ETAG, () -> {
+            cargas.incrementAndGet();
+            return List.of("producto");
+        });
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(respuesta.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(respuesta.getBody()).isNull();
+        assertThat(cargas.get()).isZero();
+    }
+
+    @Test
+    void respondeCuerpoCuandoElEtagCambio() {
+        ResponseEntity<List<String>> respuesta = RespuestaCondicional.conEtag(
+                "\"cat-abc-7-2\"", ETAG, () -> List.of("producto"));
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(respuesta.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(respuesta.getBody()).containsExactly("producto");
+    }
+
+    @Test
+    void aceptaListasEtagsDebilesYComodin() {
+        assertThat(RespuestaCondicional.coincide("\"otro\", W/" + ETAG, ETAG)).isTrue();
+        assertThat(RespuestaCondicional.coincide("*", ETAG)).isTrue();
+        assertThat(RespuestaCondicional.coincide(null, ETAG)).isFalse();
+        assertThat(RespuestaCondicional.coincide("\"otro\"", ETAG)).isFalse();
+    }
+}
@@ -0,0 +1,29 @@
+package com.devsteve.prestashopv2_backend.utils.pruebas;
+
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base de las pruebas contra PostgreSQL real. Cada clase de prueba arranca su propio contenedor
+ * (el campo estático se reinicia por clase), así que ninguna ve los datos, índices o secuencias
+ * que dejó otra. El contexto de Spring se cierra al terminar la clase: apunta al puerto de ese
+ * contenedor y no debe reutilizarse con el siguiente. Sin Docker, la clase se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DirtiesContext
+public abstract class PruebaPostgres {
+
+    @Container
+    protected static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void configurarPostgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+}
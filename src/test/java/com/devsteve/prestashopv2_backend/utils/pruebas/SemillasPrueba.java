@@ -0,0 +1,54 @@
+package com.devsteve.prestashopv2_backend.utils.pruebas;
+
+import com.devsteve.prestashopv2_backend.models.entities.DepartamentoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.MunicipioEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.models.entities.UsuarioEntity;
+import jakarta.persistence.EntityManager;
+
+import java.util.UUID;
+
+/**
+ * Semillas comunes de las pruebas de persistencia: departamento → municipio → tienda y usuarios.
+ * Los nombres y correos llevan un sufijo aleatorio para que varias semillas convivan en la misma
+ * base sin chocar con las restricciones UNIQUE. Deben llamarse dentro de una transacción.
+ */
+public final class SemillasPrueba {
+
+    private SemillasPrueba() {
+    }
+
+    /**
+     * Tienda activa en un departamento y municipio propios.
+     */
+    public static TiendaEntity tienda(EntityManager em) {
+        String sufijo = sufijo();
+        DepartamentoEntity departamento = DepartamentoEntity.builder().nombre("Depto " + sufijo).build();
+        em.persist(departamento);
+        MunicipioEntity municipio = MunicipioEntity.builder()
+                .departamento(departamento).nombre("Municipio " + sufijo).build();
+        em.persist(municipio);
+        TiendaEntity tienda = TiendaEntity.builder().nombre("Tienda " + sufijo).municipio(municipio).build();
+        em.persist(tienda);
+        return tienda;
+    }
+
+    /**
+     * Usuario sin roles con correo único; {@code nombre} también da el prefijo del correo.
+     */
+    public static UsuarioEntity usuario(EntityManager em, String nombre) {
+        UsuarioEntity usuario = UsuarioEntity.builder()
+                .nombreCompleto(nombre)
+                .email(nombre.toLowerCase().replace(' ', '-') + "-" + sufijo() + "@correo.com")
+                .password("x")
+                .build();
+        em.persist(usuario);
+        return usuario;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static String sufijo() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
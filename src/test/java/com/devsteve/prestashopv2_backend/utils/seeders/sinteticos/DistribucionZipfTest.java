@@ -0,0 +1,42 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DistribucionZipfTest {
+
+    @Test
+    void concentraLasMuestrasEnLosPrimerosRangos() {
+        DistribucionZipf distribucion = new DistribucionZipf(100, 1.1);
+        Random aleatorio = new Random(20240611L);
+        int[] conteos = new int[distribucion.tamano()];
+
+        int muestras = 200_000;
+        for (int i = 0; i < muestras; i++) {
+            conteos[distribucion.muestra(aleatorio)]++;
+        }
+
+        assertThat(conteos[0]).isGreaterThan(conteos[1]).isGreaterThan(conteos[50]);
+        assertThat((double) conteos[0] / muestras).isCloseTo(distribucion.proporcion(0), within(0.01));
+        // Los 10 primeros rangos reciben más de la mitad de las muestras
+        int primeros = 0;
+        for (int k = 0; k < 10; k++) {
+            primeros += conteos[k];
+        }
+        assertThat(primeros).isGreaterThan(muestras / 2);
+    }
+
+    @Test
+    void sinSesgoEsUniformeYMontoFormateaCentavos() {
+        DistribucionZipf uniforme = new DistribucionZipf(4, 0);
+
+        assertThat(uniforme.proporcion(0)).isEqualTo(0.25);
+        assertThat(uniforme.proporcion(3)).isEqualTo(0.25);
+        assertThat(GeneradorDatosSinteticos.monto(5)).isEqualTo("0.05");
+        assertThat(GeneradorDatosSinteticos.monto(12_340)).isEqualTo("123.40");
+    }
+}
@@ -0,0 +1,90 @@
+package com.devsteve.prestashopv2_backend.utils.seeders.sinteticos;
+
+import com.devsteve.prestashopv2_backend.models.entities.DepartamentoEntity;
+import com.devsteve.prestashopv2_backend.models.entities.MunicipioEntity;
+import com.devsteve.prestashopv2_backend.models.entities.RolEntity;
+import com.devsteve.prestashopv2_backend.models.entities.TiendaEntity;
+import com.devsteve.prestashopv2_backend.repositories.DepartamentoRepository;
+import com.devsteve.prestashopv2_backend.repositories.MunicipioRepository;
+import com.devsteve.prestashopv2_backend.repositories.RolRepository;
+import com.devsteve.prestashopv2_backend.repositories.TiendaRepository;
+import com.devsteve.prestashopv2_backend.utils.pruebas.PruebaPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga un volumen pequeño con COPY sobre el esquema real y verifica conteos, sesgo,
+ * saldos consistentes y que la aplicación puede seguir insertando con sus secuencias.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GeneradorDatosSinteticosTest extends PruebaPostgres {
+
+    @Autowired private DataSource dataSource;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private RolRepository rolRepository;
+    @Autowired private DepartamentoRepository departamentoRepository;
+    @Autowired private MunicipioRepository municipioRepository;
+    @Autowired private TiendaRepository tiendaRepository;
+
+    @Test
+    void cargaVolumenSesgadoConSaldosConsistentes() {
+        for (String rol : List.of("ENCARGADO", "EMPLEADO", "CLIENTE")) {
+            rolRepository.save(RolEntity.builder().nombre(rol).build());
+        }
+        DepartamentoEntity departamento = departamentoRepository.save(DepartamentoEntity.builder().nombre("Cuscatlán").build());
+        MunicipioEntity municipio = municipioRepository.save(MunicipioEntity.builder()
+                .departamento(departamento).nombre("Cojutepeque").build());
+
+        GeneradorDatosSinteticos generador = new GeneradorDatosSinteticos(dataSource);
+        assertThat(generador.existenDatos()).isFalse();
+
+        DatosGenerados datos = generador.generar(
+                new VolumenDatos(10, 2, 4, 50, 200, 5_000, 8, 0.4, 1.1, 90, 1_000, 7L), "$2a$10$hash");
+
+        assertThat(generador.existenDatos()).isTrue();
+        assertThat(datos.filasPorTabla()).containsEntry("tiendas", 10L).containsEntry("ventas", 5_000L)
+                .containsEntry("cuentas_cliente", 200L);
+        assertThat(contar("SELECT COUNT(*) FROM detalle_ventas")).isEqualTo(datos.filasPorTabla().get("detalle_ventas"));
+        assertThat(contar("SELECT COUNT(*) FROM movimientos_tienda"))
+                .isEqualTo(datos.filasPorTabla().get("ventas") + datos.filasPorTabla().get("abonos"));
+
+        // La tienda más activa concentra más ventas que la menos activa
+        Long masActiva = datos.tiendaIds().get(0);
+        Long menosActiva = datos.tiendaIds().get(datos.tiendaIds().size() - 1);
+        assertThat(contar("SELECT COUNT(*) FROM ventas WHERE tienda_id = " + masActiva))
+                .isGreaterThan(3 * contar("SELECT COUNT(*) FROM ventas WHERE tienda_id = " + menosActiva));
+
+        // Total de cada venta = suma de sus detalles
+        assertThat(contar("SELECT COUNT(*) FROM ventas v WHERE v.total <> " +
+                "(SELECT SUM(d.subtotal) FROM detalle_ventas d WHERE d.venta_id = v.id)")).isZero();
+
+        // Saldo = ventas a crédito - abonos aplicados, dentro del límite
+        assertThat(contar("SELECT COUNT(*) FROM cuentas_cliente c WHERE c.saldo_actual <> " +
+                "COALESCE((SELECT SUM(v.total) FROM ventas v WHERE v.cuenta_cliente_id = c.id), 0) - " +
+                "COALESCE((SELECT SUM(a.monto) FROM abonos a WHERE a.cuenta_cliente_id = c.id), 0)")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM cuentas_cliente WHERE saldo_actual > limite_credito")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM cuentas_cliente WHERE saldo_actual > 0")).isPositive();
+
+        // Las secuencias quedan por encima de los ids cargados
+        TiendaEntity nueva = tiendaRepository.save(TiendaEntity.builder().nombre("Tienda nueva").municipio(municipio).build());
+        assertThat(nueva.getId()).isGreaterThan(datos.tiendaIds().stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}